@@ -0,0 +1,135 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.Filter;
+import javax.servlet.http.HttpServletRequest;
+
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.DispatcherServlet;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.controller.StripesRequestWrapper;
+import net.sourceforge.stripes.exception.StripesServletException;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+/**
+ * Sets up a {@link MockServletContext} running {@link StripesFilter} and
+ * {@link DispatcherServlet} for benchmarks that need a configured Stripes environment. Only the
+ * ActionBeans in this package are loaded.
+ */
+public class BenchmarkFixture {
+    /** Sets the locale that {@link StripesFilter} would normally set from the LocalePicker. */
+    private static class LocalizedRequestWrapper extends StripesRequestWrapper {
+        public LocalizedRequestWrapper(HttpServletRequest request, Locale locale)
+                throws StripesServletException {
+            super(request);
+            setLocale(locale);
+        }
+    }
+
+    private BenchmarkFixture() {
+    }
+
+    /** Create a new servlet context with Stripes installed and initialized. */
+    public static MockServletContext createServletContext() {
+        return createServletContext(new HashMap<String, String>());
+    }
+
+    /**
+     * Create a new servlet context with Stripes installed and initialized, using the given
+     * parameters in addition to the defaults to initialize {@link StripesFilter}.
+     */
+    public static MockServletContext createServletContext(Map<String, String> filterParams) {
+        Map<String, String> params = getDefaultFilterParams();
+        params.putAll(filterParams);
+        return new MockServletContext("benchmark")
+                .addFilter(StripesFilter.class, "StripesFilter", params)
+                .setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    /**
+     * Get the configuration of the {@link StripesFilter} installed in a servlet context created by
+     * this class. Unlike {@link StripesFilter#getConfiguration()}, this works outside of a request
+     * even when more than one context is active.
+     */
+    public static Configuration getConfiguration(MockServletContext servletContext) {
+        for (Filter filter : servletContext.getFilters()) {
+            if (filter instanceof StripesFilter)
+                return ((StripesFilter) filter).getInstanceConfiguration();
+        }
+        throw new IllegalStateException("StripesFilter is not installed in servlet context "
+                + servletContext.getServletContextName());
+    }
+
+    /**
+     * Wrap a request as {@link StripesFilter} would, for benchmarks that work below the level of
+     * the filter.
+     */
+    public static StripesRequestWrapper wrapRequest(HttpServletRequest request, Locale locale)
+            throws StripesServletException {
+        return new LocalizedRequestWrapper(request, locale);
+    }
+
+    /** Gets a map containing the default initialization parameters for StripesFilter */
+    public static Map<String, String> getDefaultFilterParams() {
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("ActionResolver.Packages", BenchmarkFixture.class.getPackage().getName());
+        return map;
+    }
+
+    /**
+     * Put the parameters of a completely filled in {@link FormActionBean} form into a parameter
+     * map.
+     */
+    public static void fillInForm(Map<String, String[]> params) {
+        put(params, "firstName", "Ada");
+        put(params, "lastName", "Lovelace");
+        put(params, "email", "ada@example.com");
+        put(params, "phone", "+44 (20) 7946 0018");
+        put(params, "street", "12 St James's Square");
+        put(params, "city", "London");
+        put(params, "region", "Westminster");
+        put(params, "postalCode", "SW1Y 4JH");
+        put(params, "country", "UK");
+        put(params, "company", "Analytical Engines Ltd");
+        put(params, "age", "36");
+        put(params, "visits", "1842");
+        put(params, "accountNumber", "18151210");
+        put(params, "referrer", "1833");
+        put(params, "rating", "4.75");
+        put(params, "creditLimit", "25000.00");
+        put(params, "balance", "1234.56");
+        put(params, "birthDate", "12/10/1815");
+        put(params, "memberSince", "06/05/1833");
+        put(params, "subscribed", "true");
+
+        for (int i = 0; i < 6; i++) {
+            String row = "rows[" + i + "].";
+            put(params, row + "name", "Part " + i);
+            put(params, row + "quantity", String.valueOf(i + 1));
+            put(params, row + "price", i + ".99");
+            put(params, row + "shipped", "03/0" + (i + 1) + "/2010");
+            put(params, row + "taxable", i % 2 == 0 ? "true" : "false");
+        }
+    }
+
+    private static void put(Map<String, String[]> params, String name, String value) {
+        params.put(name, new String[] { value });
+    }
+}
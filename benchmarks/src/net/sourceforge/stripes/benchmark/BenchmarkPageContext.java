@@ -0,0 +1,405 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.el.ELContext;
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.servlet.jsp.JspWriter;
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.el.ExpressionEvaluator;
+import javax.servlet.jsp.el.VariableResolver;
+import javax.servlet.jsp.tagext.BodyContent;
+
+import net.sourceforge.stripes.controller.StripesConstants;
+
+/**
+ * <p>
+ * A minimal {@link PageContext} that lets the benchmarks drive JSP tags the way a JSP container
+ * does, without a container. Output is collected in memory and can be retrieved with
+ * {@link #getOutput()}. Body content is supported, but expression evaluation and forwarding are
+ * not. Only the {@link Page}s registered with {@link #addPage(String, Page)} can be included.
+ * </p>
+ */
+public class BenchmarkPageContext extends PageContext {
+    /** Stands in for a JSP that can be included. */
+    public interface Page {
+        /** Execute the page, writing to the page context's output. */
+        void service(BenchmarkPageContext pageContext) throws Exception;
+    }
+
+    /** Body content that passes everything written to it straight through to another writer. */
+    public static class ForwardingBodyContent extends BodyContent {
+        private final Writer target;
+
+        public ForwardingBodyContent(JspWriter enclosingWriter, Writer target) {
+            super(enclosingWriter);
+            this.target = target;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            target.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str) throws IOException {
+            target.write(str);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            target.write(c);
+        }
+
+        @Override public void newLine() throws IOException { write('\n'); }
+        @Override public void print(boolean b) throws IOException { write(String.valueOf(b)); }
+        @Override public void print(char c) throws IOException { write(c); }
+        @Override public void print(int i) throws IOException { write(String.valueOf(i)); }
+        @Override public void print(long l) throws IOException { write(String.valueOf(l)); }
+        @Override public void print(float f) throws IOException { write(String.valueOf(f)); }
+        @Override public void print(double d) throws IOException { write(String.valueOf(d)); }
+        @Override public void print(char[] s) throws IOException { write(s); }
+        @Override public void print(String s) throws IOException { write(String.valueOf(s)); }
+        @Override public void print(Object obj) throws IOException { write(String.valueOf(obj)); }
+        @Override public void println() throws IOException { newLine(); }
+        @Override public void println(boolean x) throws IOException { print(x); newLine(); }
+        @Override public void println(char x) throws IOException { print(x); newLine(); }
+        @Override public void println(int x) throws IOException { print(x); newLine(); }
+        @Override public void println(long x) throws IOException { print(x); newLine(); }
+        @Override public void println(float x) throws IOException { print(x); newLine(); }
+        @Override public void println(double x) throws IOException { print(x); newLine(); }
+        @Override public void println(char[] x) throws IOException { print(x); newLine(); }
+        @Override public void println(String x) throws IOException { print(x); newLine(); }
+        @Override public void println(Object x) throws IOException { print(x); newLine(); }
+        @Override public void flush() throws IOException { target.flush(); }
+        @Override public void close() { }
+        @Override public int getRemaining() { return 0; }
+
+        /** Nothing is buffered, so there is nothing to clear. */
+        @Override
+        public void clear() throws IOException {
+            throw new IOException("Output is not buffered");
+        }
+
+        @Override public void clearBuffer() { }
+        @Override public Reader getReader() { return new StringReader(""); }
+        @Override public String getString() { return ""; }
+        @Override public void writeOut(Writer out) { }
+    }
+
+    /** Body content that writes to a buffer in memory. */
+    public static class BufferedBodyContent extends BodyContent {
+        private final StringBuilder buffer = new StringBuilder(1024);
+
+        public BufferedBodyContent(JspWriter enclosingWriter) {
+            super(enclosingWriter);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str) {
+            buffer.append(str);
+        }
+
+        @Override
+        public void write(int c) {
+            buffer.append((char) c);
+        }
+
+        @Override public void newLine() { buffer.append('\n'); }
+        @Override public void print(boolean b) { buffer.append(b); }
+        @Override public void print(char c) { buffer.append(c); }
+        @Override public void print(int i) { buffer.append(i); }
+        @Override public void print(long l) { buffer.append(l); }
+        @Override public void print(float f) { buffer.append(f); }
+        @Override public void print(double d) { buffer.append(d); }
+        @Override public void print(char[] s) { buffer.append(s); }
+        @Override public void print(String s) { buffer.append(s); }
+        @Override public void print(Object obj) { buffer.append(obj); }
+        @Override public void println() { newLine(); }
+        @Override public void println(boolean x) { print(x); newLine(); }
+        @Override public void println(char x) { print(x); newLine(); }
+        @Override public void println(int x) { print(x); newLine(); }
+        @Override public void println(long x) { print(x); newLine(); }
+        @Override public void println(float x) { print(x); newLine(); }
+        @Override public void println(double x) { print(x); newLine(); }
+        @Override public void println(char[] x) { print(x); newLine(); }
+        @Override public void println(String x) { print(x); newLine(); }
+        @Override public void println(Object x) { print(x); newLine(); }
+        @Override public void clear() { buffer.setLength(0); }
+        @Override public void clearBuffer() { buffer.setLength(0); }
+        @Override public void close() { }
+        @Override public int getRemaining() { return 0; }
+
+        /** Flushing does nothing, so this can also serve as the page's top-level writer. */
+        @Override public void flush() { }
+
+        @Override
+        public Reader getReader() {
+            return new StringReader(getString());
+        }
+
+        @Override
+        public String getString() {
+            return buffer.toString();
+        }
+
+        @Override
+        public void writeOut(Writer out) throws IOException {
+            out.append(buffer);
+        }
+    }
+
+    private final ServletContext servletContext;
+    private final HttpServletRequest request;
+    private final ServletResponse response;
+    private final Map<String, Object> attributes = new HashMap<String, Object>();
+    private final Map<String, Page> pages;
+    private final BufferedBodyContent page = new BufferedBodyContent(null);
+    private JspWriter out = page;
+
+    /** Create a page context for the given request. */
+    public BenchmarkPageContext(ServletContext servletContext, HttpServletRequest request,
+            ServletResponse response) {
+        this(servletContext, request, response, new HashMap<String, Page>(), null);
+    }
+
+    /**
+     * Create a page context for a page included in another page. The included page shares the
+     * pages that can be included and writes straight through to the given writer.
+     */
+    protected BenchmarkPageContext(ServletContext servletContext, HttpServletRequest request,
+            ServletResponse response, Map<String, Page> pages, JspWriter enclosingWriter) {
+        this.servletContext = servletContext;
+        this.request = request;
+        this.response = response;
+        this.pages = pages;
+        if (enclosingWriter != null)
+            this.out = new ForwardingBodyContent(null, enclosingWriter);
+    }
+
+    /** Register a page that can be included by its context-relative path. */
+    public BenchmarkPageContext addPage(String path, Page page) {
+        pages.put(path, page);
+        return this;
+    }
+
+    /** Get everything that has been written to the page so far. */
+    public String getOutput() {
+        return page.getString();
+    }
+
+    @Override
+    public JspWriter getOut() {
+        return out;
+    }
+
+    @Override
+    public BodyContent pushBody() {
+        BufferedBodyContent body = new BufferedBodyContent(out);
+        out = body;
+        return body;
+    }
+
+    @Override
+    public JspWriter pushBody(Writer writer) {
+        out = new ForwardingBodyContent(out, writer);
+        return out;
+    }
+
+    @Override
+    public JspWriter popBody() {
+        out = ((BodyContent) out).getEnclosingWriter();
+        return out;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        setAttribute(name, value, PAGE_SCOPE);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        if (value == null) {
+            removeAttribute(name, scope);
+            return;
+        }
+
+        switch (scope) {
+        case PAGE_SCOPE: attributes.put(name, value); break;
+        case REQUEST_SCOPE: request.setAttribute(name, value); break;
+        case SESSION_SCOPE: request.getSession().setAttribute(name, value); break;
+        case APPLICATION_SCOPE: servletContext.setAttribute(name, value); break;
+        default: throw new IllegalArgumentException("Invalid scope " + scope);
+        }
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return getAttribute(name, PAGE_SCOPE);
+    }
+
+    @Override
+    public Object getAttribute(String name, int scope) {
+        switch (scope) {
+        case PAGE_SCOPE: return attributes.get(name);
+        case REQUEST_SCOPE: return request.getAttribute(name);
+        case SESSION_SCOPE: return getSession() == null ? null : getSession().getAttribute(name);
+        case APPLICATION_SCOPE: return servletContext.getAttribute(name);
+        default: throw new IllegalArgumentException("Invalid scope " + scope);
+        }
+    }
+
+    @Override
+    public Object findAttribute(String name) {
+        int scope = getAttributesScope(name);
+        return scope == 0 ? null : getAttribute(name, scope);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        for (int scope = PAGE_SCOPE; scope <= APPLICATION_SCOPE; scope++)
+            removeAttribute(name, scope);
+    }
+
+    @Override
+    public void removeAttribute(String name, int scope) {
+        switch (scope) {
+        case PAGE_SCOPE: attributes.remove(name); break;
+        case REQUEST_SCOPE: request.removeAttribute(name); break;
+        case SESSION_SCOPE: if (getSession() != null) getSession().removeAttribute(name); break;
+        case APPLICATION_SCOPE: servletContext.removeAttribute(name); break;
+        default: throw new IllegalArgumentException("Invalid scope " + scope);
+        }
+    }
+
+    @Override
+    public int getAttributesScope(String name) {
+        for (int scope = PAGE_SCOPE; scope <= APPLICATION_SCOPE; scope++) {
+            if (getAttribute(name, scope) != null)
+                return scope;
+        }
+        return 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Enumeration<String> getAttributeNamesInScope(int scope) {
+        switch (scope) {
+        case PAGE_SCOPE: return Collections.enumeration(attributes.keySet());
+        case REQUEST_SCOPE: return request.getAttributeNames();
+        case SESSION_SCOPE: return getSession() == null ? Collections.enumeration(Collections
+                .<String> emptySet()) : getSession().getAttributeNames();
+        case APPLICATION_SCOPE: return servletContext.getAttributeNames();
+        default: throw new IllegalArgumentException("Invalid scope " + scope);
+        }
+    }
+
+    @Override public HttpSession getSession() { return request.getSession(false); }
+    @Override public ServletRequest getRequest() { return request; }
+    @Override public ServletResponse getResponse() { return response; }
+    @Override public ServletContext getServletContext() { return servletContext; }
+    @Override public Object getPage() { return null; }
+    @Override public Exception getException() { return null; }
+    @Override public ServletConfig getServletConfig() { return null; }
+    @Override public ExpressionEvaluator getExpressionEvaluator() { return null; }
+    @Override public VariableResolver getVariableResolver() { return null; }
+    @Override public ELContext getELContext() { return null; }
+
+    @Override
+    public void initialize(Servlet servlet, ServletRequest request, ServletResponse response,
+            String errorPageURL, boolean needsSession, int bufferSize, boolean autoFlush) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void release() {
+        attributes.clear();
+    }
+
+    @Override
+    public void forward(String relativeUrlPath) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void include(String relativeUrlPath) throws ServletException, IOException {
+        include(relativeUrlPath, true);
+    }
+
+    /**
+     * Execute the {@link Page} registered with the given path in a new page context that writes
+     * to the current output, setting the include request attributes as a container would.
+     */
+    @Override
+    public void include(String relativeUrlPath, boolean flush) throws ServletException,
+            IOException {
+        Page included = pages.get(relativeUrlPath);
+        if (included == null)
+            throw new UnsupportedOperationException("No page registered for " + relativeUrlPath);
+
+        Object path = request.getAttribute(StripesConstants.REQ_ATTR_INCLUDE_PATH);
+        request.setAttribute(StripesConstants.REQ_ATTR_INCLUDE_PATH, relativeUrlPath);
+        try {
+            included.service(new BenchmarkPageContext(servletContext, request, response, pages,
+                    out));
+        }
+        catch (IOException e) {
+            throw e;
+        }
+        catch (ServletException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new ServletException(e);
+        }
+        finally {
+            if (path == null)
+                request.removeAttribute(StripesConstants.REQ_ATTR_INCLUDE_PATH);
+            else
+                request.setAttribute(StripesConstants.REQ_ATTR_INCLUDE_PATH, path);
+        }
+    }
+
+    @Override
+    public void handlePageException(Exception e) {
+        throw new UnsupportedOperationException(e);
+    }
+
+    @Override
+    public void handlePageException(Throwable t) {
+        throw new UnsupportedOperationException(t);
+    }
+}
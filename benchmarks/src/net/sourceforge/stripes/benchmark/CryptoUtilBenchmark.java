@@ -0,0 +1,124 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.util.AesGcmCryptoEngine;
+import net.sourceforge.stripes.util.CipherCryptoEngine;
+import net.sourceforge.stripes.util.CryptoEngine;
+import net.sourceforge.stripes.util.CryptoUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link CryptoUtil} when encrypting and decrypting the kind of values
+ * Stripes encrypts into every form and link, such as the {@code _sourcePage} parameter. The
+ * {@code engine} parameter selects the {@link CryptoEngine}:
+ * <ul>
+ * <li>{@code aes-gcm}: the default engine when AES-GCM is available</li>
+ * <li>{@code desede}: the DESede engine, reusing one cipher per thread</li>
+ * <li>{@code desede-uncached}: the DESede engine creating a new cipher for every value, which is
+ * how CryptoUtil used to work</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoUtilBenchmark {
+    /** A DESede engine that creates and initializes a new cipher every time it needs one. */
+    public static class UncachedCipherCryptoEngine extends CipherCryptoEngine {
+        public UncachedCipherCryptoEngine(SecretKey secretKey) {
+            super(secretKey);
+        }
+
+        @Override
+        protected Cipher getCipher(int mode) throws GeneralSecurityException {
+            Cipher cipher = Cipher.getInstance(getSecretKey().getAlgorithm());
+            cipher.init(mode, getSecretKey());
+            return cipher;
+        }
+    }
+
+    @Param({ "aes-gcm", "desede", "desede-uncached" })
+    public String engine;
+
+    private MockServletContext servletContext;
+    private String value, encrypted;
+
+    @Setup
+    public void setup() throws Exception {
+        // CryptoUtil checks the configuration for debug mode every time it is called
+        servletContext = BenchmarkFixture.createServletContext();
+
+        SecretKey desede = KeyGenerator.getInstance(CryptoUtil.ALGORITHM).generateKey();
+        if ("aes-gcm".equals(engine)) {
+            SecretKey aes = KeyGenerator.getInstance(CryptoUtil.AES_ALGORITHM).generateKey();
+            CryptoUtil.setCryptoEngine(new AesGcmCryptoEngine(aes, new CipherCryptoEngine(desede)));
+        }
+        else if ("desede".equals(engine)) {
+            CryptoUtil.setCryptoEngine(new CipherCryptoEngine(desede));
+        }
+        else {
+            CryptoUtil.setCryptoEngine(new UncachedCipherCryptoEngine(desede));
+        }
+
+        value = "/WEB-INF/jsp/customer/account/editBillingAddress.jsp";
+        encrypted = CryptoUtil.encrypt(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        CryptoUtil.setCryptoEngine(null);
+        servletContext.close();
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return CryptoUtil.encrypt(value);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return CryptoUtil.decrypt(encrypted);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String roundTripContended() {
+        return CryptoUtil.decrypt(CryptoUtil.encrypt(value));
+    }
+}
@@ -0,0 +1,121 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.controller.DynamicMappingFilter;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.mock.MockHttpSession;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures requests through {@link StripesFilter} and {@link DynamicMappingFilter} in each of its
+ * routing modes, which is selected by the {@code mode} parameter:
+ * <ul>
+ * <li>{@code action}: a GET to the clean URL of {@link ProductActionBean}</li>
+ * <li>{@code resource}: a GET of a static resource</li>
+ * </ul>
+ * A servlet that serves {@code *.css} and sends a {@code 404} error for everything else stands in
+ * for the container's default servlet. A real container does more work to fail a request than
+ * this servlet does, so the difference between the modes for {@code action} is understated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicMappingFilterBenchmark {
+    /** Serves {@code *.css} and sends a {@code 404} error for everything else. */
+    public static class StaticServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response)
+                throws ServletException, IOException {
+            if (request.getServletPath().endsWith(".css")) {
+                response.setContentType("text/css");
+                response.getWriter().write("body { margin: 0; }");
+            }
+            else {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+    }
+
+    @Param({ "trap", "upfront" })
+    public String mode;
+
+    private MockServletContext servletContext;
+    private MockHttpSession session;
+
+    @Setup
+    public void setup() {
+        servletContext = new MockServletContext("benchmark")
+                .addFilter(StripesFilter.class, "StripesFilter",
+                        BenchmarkFixture.getDefaultFilterParams())
+                .addFilter(DynamicMappingFilter.class, "DynamicMappingFilter",
+                        Collections.singletonMap(DynamicMappingFilter.ROUTING_MODE_PARAM, mode))
+                .setServlet(StaticServlet.class, "StaticServlet", null);
+        session = new MockHttpSession(servletContext);
+    }
+
+    @TearDown
+    public void tearDown() {
+        servletContext.close();
+    }
+
+    @Benchmark
+    public String action() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(servletContext,
+                "/benchmark/product/1234/reviews?page=2", session);
+        trip.getRequest().setMethod("GET");
+        trip.getRequest().addLocale(Locale.US);
+        trip.execute();
+        return trip.getDestination();
+    }
+
+    @Benchmark
+    public String resource() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(servletContext, "/styles/site.css", session);
+        trip.getRequest().setMethod("GET");
+        trip.getRequest().addLocale(Locale.US);
+        trip.execute();
+        return trip.getOutputString();
+    }
+}
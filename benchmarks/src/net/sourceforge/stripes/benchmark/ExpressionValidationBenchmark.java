@@ -0,0 +1,117 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.controller.ParameterName;
+import net.sourceforge.stripes.validation.ValidationErrors;
+import net.sourceforge.stripes.validation.ValidationMetadata;
+import net.sourceforge.stripes.validation.expression.CommonsElExpressionExecutor;
+import net.sourceforge.stripes.validation.expression.ExpressionExecutor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures expression validation of eight properties of {@link FormActionBean}, as done once per
+ * submit of a form whose fields are annotated with {@code @Validate(expression=...)}. The
+ * {@code executor} parameter selects whether the parsed expressions are reused:
+ * <ul>
+ * <li>{@code cached}: one executor for all submits, so each expression is parsed once</li>
+ * <li>{@code uncached}: a new executor for every submit, so every expression is parsed on every
+ * submit, which is how expression validation used to work</li>
+ * </ul>
+ * The expressions are evaluated with Commons EL because the JSP 2.1 executor needs the
+ * {@code JspApplicationContext} of a running JSP container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionValidationBenchmark {
+    private static final String[][] EXPRESSIONS = {
+            { "firstName", "${self != lastName}" },
+            { "lastName", "${self != firstName && self != 'unknown'}" },
+            { "email", "${empty self or self != company}" },
+            { "city", "${self != region}" },
+            { "age", "${self >= 18 and self <= 120}" },
+            { "visits", "${self >= 0}" },
+            { "creditLimit", "${self >= balance}" },
+            { "balance", "${self <= creditLimit}" } };
+
+    @Param({ "cached", "uncached" })
+    public String executor;
+
+    private FormActionBean bean;
+    private ParameterName[] names;
+    private ValidationMetadata[] metadata;
+    private List<?>[] values;
+    private ExpressionExecutor cachedExecutor;
+
+    @Setup
+    public void setup() {
+        bean = new FormActionBean();
+        bean.firstName = "Ada";
+        bean.lastName = "Lovelace";
+        bean.email = "ada@example.com";
+        bean.company = "Analytical Engines";
+        bean.city = "London";
+        bean.region = "Greater London";
+        bean.age = 36;
+        bean.visits = 12;
+        bean.creditLimit = new BigDecimal("5000.00");
+        bean.balance = new BigDecimal("1234.56");
+
+        names = new ParameterName[EXPRESSIONS.length];
+        metadata = new ValidationMetadata[EXPRESSIONS.length];
+        values = new List<?>[EXPRESSIONS.length];
+        Object[] current = { bean.firstName, bean.lastName, bean.email, bean.city, bean.age,
+                bean.visits, bean.creditLimit, bean.balance };
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            names[i] = new ParameterName(EXPRESSIONS[i][0]);
+            metadata[i] = new ValidationMetadata(EXPRESSIONS[i][0]).expression(EXPRESSIONS[i][1]);
+            values[i] = Arrays.asList(current[i]);
+        }
+
+        cachedExecutor = new CommonsElExpressionExecutor();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public ValidationErrors validate() {
+        ExpressionExecutor executor = "cached".equals(this.executor) ? cachedExecutor
+                : new CommonsElExpressionExecutor();
+        ValidationErrors errors = new ValidationErrors();
+        for (int i = 0; i < names.length; i++) {
+            executor.evaluate(bean, names[i], (List<Object>) values[i], metadata[i], errors);
+        }
+        return errors;
+    }
+}
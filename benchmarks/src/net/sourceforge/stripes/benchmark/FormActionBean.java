@@ -0,0 +1,84 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.validation.Validate;
+import net.sourceforge.stripes.validation.ValidateNestedProperties;
+
+/**
+ * A form-heavy {@link ActionBean} used by the binding benchmarks. A request that fills in every
+ * field of the form carries 50 parameters: 20 simple properties plus six rows of five
+ * properties each.
+ */
+@UrlBinding("/benchmark/Form.action")
+public class FormActionBean implements ActionBean {
+    /** A row of the repeating part of the form. */
+    public static class Row {
+        @Validate(required = true, maxlength = 40)
+        public String name;
+        @Validate(minvalue = 0)
+        public Integer quantity;
+        public BigDecimal price;
+        public Date shipped;
+        public boolean taxable;
+    }
+
+    private ActionBeanContext context;
+
+    @Validate(required = true, maxlength = 50) public String firstName;
+    @Validate(required = true, maxlength = 50) public String lastName;
+    @Validate(maxlength = 100) public String email;
+    @Validate(mask = "[0-9 ()+-]+") public String phone;
+    public String street;
+    public String city;
+    public String region;
+    @Validate(mask = "[0-9A-Z -]+") public String postalCode;
+    public String country;
+    public String company;
+    @Validate(minvalue = 0, maxvalue = 150) public Integer age;
+    public int visits;
+    public Long accountNumber;
+    public long referrer;
+    public Double rating;
+    public BigDecimal creditLimit;
+    public BigDecimal balance;
+    public Date birthDate;
+    public Date memberSince;
+    public boolean subscribed;
+
+    @ValidateNestedProperties( {
+        @Validate(field = "name", required = true, maxlength = 40),
+        @Validate(field = "quantity", minvalue = 0)
+    })
+    public List<Row> rows;
+
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    @DefaultHandler
+    public Resolution save() {
+        return new ForwardResolution("/benchmark/form.jsp");
+    }
+}
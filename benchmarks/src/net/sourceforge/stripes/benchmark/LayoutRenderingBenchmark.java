@@ -0,0 +1,264 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.jsp.tagext.BodyTag;
+import javax.servlet.jsp.tagext.IterationTag;
+import javax.servlet.jsp.tagext.Tag;
+import javax.servlet.jsp.tagext.TryCatchFinally;
+
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.tag.layout.LayoutComponentTag;
+import net.sourceforge.stripes.tag.layout.LayoutContext;
+import net.sourceforge.stripes.tag.layout.LayoutDefinitionTag;
+import net.sourceforge.stripes.tag.layout.LayoutRenderTag;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering of a page through a deeply nested layout, driving the layout tags through
+ * their life cycle the way a JSP container would. The page overrides {@value #COMPONENTS}
+ * components of a layout that extends another layout, and so on, {@code depth} layouts deep. Each
+ * layout wraps every component of the page that renders it before passing it on. The
+ * {@code pass} parameter selects how the layout is rendered:
+ * <ul>
+ * <li>{@code multi}: each component executes the page that overrides it again</li>
+ * <li>{@code single}: the components are captured while the page executes once (see
+ * {@link LayoutContext#SINGLE_PASS})</li>
+ * </ul>
+ * The pages are trees of tags and text instead of compiled JSPs, and including a page does not
+ * go through a request dispatcher, so the cost of each execution of a page is understated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutRenderingBenchmark {
+    /** The number of components the page overrides. */
+    public static final int COMPONENTS = 12;
+
+    /** The path of the page, which the layouts include again to render its components. */
+    private static final String PAGE = "/page.jsp";
+
+    /** A node in the tree that stands in for a JSP. Returns false to skip the rest of the page. */
+    private static abstract class Node {
+        abstract boolean run(BenchmarkPageContext pageContext, Tag parent) throws Exception;
+    }
+
+    /** Template text. */
+    private static class Text extends Node {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        boolean run(BenchmarkPageContext pageContext, Tag parent) throws Exception {
+            pageContext.getOut().write(text);
+            return true;
+        }
+    }
+
+    /** A tag with a body, which is run as a JSP container would run it. */
+    private static abstract class TagNode extends Node {
+        private final Node[] body;
+
+        TagNode(Node... body) {
+            this.body = body;
+        }
+
+        /** Create the tag and set its attributes after its page context and parent are set. */
+        abstract Tag create(BenchmarkPageContext pageContext, Tag parent);
+
+        @Override
+        boolean run(BenchmarkPageContext pageContext, Tag parent) throws Exception {
+            Tag tag = create(pageContext, parent);
+            try {
+                int start = tag.doStartTag();
+                if (start != Tag.SKIP_BODY) {
+                    boolean buffered = start == BodyTag.EVAL_BODY_BUFFERED;
+                    if (buffered) {
+                        ((BodyTag) tag).setBodyContent(pageContext.pushBody());
+                        ((BodyTag) tag).doInitBody();
+                    }
+                    do {
+                        for (Node node : body) {
+                            if (!node.run(pageContext, tag))
+                                return false;
+                        }
+                    } while (tag instanceof IterationTag
+                            && ((IterationTag) tag).doAfterBody() == IterationTag.EVAL_BODY_AGAIN);
+                    if (buffered)
+                        pageContext.popBody();
+                }
+                return tag.doEndTag() != Tag.SKIP_PAGE;
+            }
+            finally {
+                if (tag instanceof TryCatchFinally)
+                    ((TryCatchFinally) tag).doFinally();
+            }
+        }
+    }
+
+    /** A page made of nodes that can be included by the layout tags. */
+    private static class NodePage implements BenchmarkPageContext.Page {
+        private final Node[] nodes;
+
+        NodePage(Node... nodes) {
+            this.nodes = nodes;
+        }
+
+        public void service(BenchmarkPageContext pageContext) throws Exception {
+            for (Node node : nodes) {
+                if (!node.run(pageContext, null))
+                    break;
+            }
+        }
+    }
+
+    private static Node text(String text) {
+        return new Text(text);
+    }
+
+    private static Node render(final String name, Node... body) {
+        return new TagNode(body) {
+            @Override
+            Tag create(BenchmarkPageContext pageContext, Tag parent) {
+                LayoutRenderTag tag = new LayoutRenderTag();
+                tag.setPageContext(pageContext);
+                tag.setParent(parent);
+                tag.setName(name);
+                return tag;
+            }
+        };
+    }
+
+    private static Node component(final String name, Node... body) {
+        return new TagNode(body) {
+            @Override
+            Tag create(BenchmarkPageContext pageContext, Tag parent) {
+                LayoutComponentTag tag = new LayoutComponentTag();
+                tag.setParent(parent);
+                tag.setPageContext(pageContext);
+                tag.setName(name);
+                return tag;
+            }
+        };
+    }
+
+    private static Node definition(Node... body) {
+        return new TagNode(body) {
+            @Override
+            Tag create(BenchmarkPageContext pageContext, Tag parent) {
+                LayoutDefinitionTag tag = new LayoutDefinitionTag();
+                tag.setParent(parent);
+                tag.setPageContext(pageContext);
+                return tag;
+            }
+        };
+    }
+
+    private static String layoutName(int level) {
+        return "/layout/level" + level + ".jsp";
+    }
+
+    @Param({ "multi", "single" })
+    public String pass;
+
+    @Param({ "1", "4" })
+    public int depth;
+
+    private MockServletContext servletContext;
+    private NodePage page;
+    private List<NodePage> layouts;
+
+    @Setup
+    public void setup() {
+        servletContext = BenchmarkFixture.createServletContext(Collections.singletonMap(
+                LayoutContext.SINGLE_PASS, String.valueOf("single".equals(pass))));
+
+        // The page overrides every component
+        List<Node> components = new ArrayList<Node>();
+        for (int i = 0; i < COMPONENTS; i++) {
+            components.add(text("\n  "));
+            components.add(component("c" + i, text("<p>Component " + i + " of the page</p>")));
+        }
+        page = new NodePage(text("<!DOCTYPE html>\n"), render(layoutName(0), components
+                .toArray(new Node[components.size()])), text("\n"));
+
+        // Each layout but the last wraps every component and passes it to the next layout
+        layouts = new ArrayList<NodePage>();
+        for (int level = 0; level < depth - 1; level++) {
+            components.clear();
+            for (int i = 0; i < COMPONENTS; i++) {
+                components.add(component("c" + i, text("<div class=\"level" + level + "\">"),
+                        component("c" + i), text("</div>")));
+            }
+            layouts.add(new NodePage(definition(render(layoutName(level + 1), components
+                    .toArray(new Node[components.size()])))));
+        }
+
+        // The last layout lays out the components
+        components.clear();
+        components.add(text("<html><body>"));
+        for (int i = 0; i < COMPONENTS; i++) {
+            components.add(text("\n<section id=\"c" + i + "\">"));
+            components.add(component("c" + i, text("Default " + i)));
+            components.add(text("</section>"));
+        }
+        components.add(text("\n</body></html>"));
+        layouts.add(new NodePage(definition(components.toArray(new Node[components.size()]))));
+    }
+
+    @TearDown
+    public void tearDown() {
+        servletContext.close();
+    }
+
+    @Benchmark
+    public String render() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("/benchmark", PAGE);
+        request.addLocale(Locale.US);
+        BenchmarkPageContext pageContext = new BenchmarkPageContext(servletContext, request,
+                new MockHttpServletResponse());
+        pageContext.addPage(PAGE, page);
+        for (int level = 0; level < layouts.size(); level++)
+            pageContext.addPage(layoutName(level), layouts.get(level));
+        page.service(pageContext);
+        return pageContext.getOutput();
+    }
+}
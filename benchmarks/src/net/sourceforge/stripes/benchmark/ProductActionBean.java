@@ -0,0 +1,50 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.HandlesEvent;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.validation.Validate;
+
+/**
+ * A read-only {@link ActionBean} with a clean URL, used by the benchmarks to model a typical GET
+ * request such as {@code /benchmark/product/1234/reviews?page=2}.
+ */
+@UrlBinding("/benchmark/product/{id}/{$event}")
+public class ProductActionBean implements ActionBean {
+    private ActionBeanContext context;
+
+    @Validate(required = true, minvalue = 1) public Integer id;
+    @Validate(minvalue = 1) public Integer page;
+    public String sort;
+
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    @DefaultHandler
+    public Resolution view() {
+        return new ForwardResolution("/benchmark/product.jsp");
+    }
+
+    @HandlesEvent("reviews")
+    public Resolution reviews() {
+        return new ForwardResolution("/benchmark/reviews.jsp");
+    }
+}
@@ -0,0 +1,97 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.DefaultActionBeanPropertyBinder;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.util.bean.PropertyExpression;
+import net.sourceforge.stripes.validation.ValidationErrors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long {@link DefaultActionBeanPropertyBinder} takes to bind a 50-field form
+ * submission to a new instance of {@link FormActionBean}. The {@code plans} parameter switches
+ * the cache of binding plans on and off so the cost of deriving type information for every
+ * parameter on every request can be compared with the cost of reusing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyBinderBenchmark {
+    /** A binder that never reuses a binding plan, i.e., the behavior before plans were cached. */
+    public static class UncachedPropertyBinder extends DefaultActionBeanPropertyBinder {
+        @Override
+        protected BindingPlan getBindingPlan(Class<?> beanType, PropertyExpression expression) {
+            return null;
+        }
+    }
+
+    @Param({ "true", "false" })
+    public boolean plans;
+
+    private MockServletContext servletContext;
+    private DefaultActionBeanPropertyBinder binder;
+    private ActionBeanContext context;
+
+    @Setup
+    public void setup() throws Exception {
+        servletContext = BenchmarkFixture.createServletContext();
+        Configuration configuration = BenchmarkFixture.getConfiguration(servletContext);
+        binder = plans ? new DefaultActionBeanPropertyBinder() : new UncachedPropertyBinder();
+        binder.init(configuration);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("/benchmark",
+                "/benchmark/Form.action");
+        request.addLocale(Locale.US);
+        BenchmarkFixture.fillInForm(request.getParameterMap());
+
+        context = configuration.getActionBeanContextFactory().getContextInstance(
+                BenchmarkFixture.wrapRequest(request, Locale.US), new MockHttpServletResponse());
+    }
+
+    @TearDown
+    public void tearDown() {
+        servletContext.close();
+    }
+
+    @Benchmark
+    public ValidationErrors bindForm() {
+        FormActionBean bean = new FormActionBean();
+        bean.setContext(context);
+        return binder.bind(bean, context, true);
+    }
+}
@@ -0,0 +1,83 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.util.bean.PropertyExpression;
+import net.sourceforge.stripes.util.bean.PropertyExpressionEvaluation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures getting and setting a property of {@link FormActionBean} through
+ * {@link PropertyExpressionEvaluation}, the way the property binder and the form tags do. Each
+ * operation looks up the {@link PropertyExpression} by name, as the callers do, so the cost of the
+ * expression cache is included. The {@code property} parameter selects a simple property or one
+ * nested in a list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyExpressionBenchmark {
+    @Param({ "firstName", "rows[3].quantity" })
+    public String property;
+
+    private FormActionBean bean;
+    private Object value;
+
+    @Setup
+    public void setup() {
+        bean = new FormActionBean();
+        bean.firstName = "Ada";
+        bean.rows = new ArrayList<FormActionBean.Row>();
+        for (int i = 0; i < 6; i++) {
+            FormActionBean.Row row = new FormActionBean.Row();
+            row.name = "Part " + i;
+            row.quantity = i + 1;
+            bean.rows.add(row);
+        }
+
+        value = new PropertyExpressionEvaluation(PropertyExpression.getExpression(property), bean)
+                .getValue();
+    }
+
+    @Benchmark
+    public Object get() {
+        return new PropertyExpressionEvaluation(PropertyExpression.getExpression(property), bean)
+                .getValue();
+    }
+
+    @Benchmark
+    public FormActionBean set() {
+        new PropertyExpressionEvaluation(PropertyExpression.getExpression(property), bean)
+                .setValue(value);
+        return bean;
+    }
+}
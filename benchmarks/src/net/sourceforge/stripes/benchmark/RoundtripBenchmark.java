@@ -0,0 +1,103 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.controller.DispatcherServlet;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.mock.MockHttpSession;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures complete requests through {@link StripesFilter} and {@link DispatcherServlet} using
+ * {@link MockRoundtrip}, from URL binding and ActionBean resolution through binding, validation
+ * and execution of the event handler. The resolutions forward to JSPs that do not exist, so the
+ * cost of rendering a view is not included; see {@link TagRenderingBenchmark} for that.
+ * <ul>
+ * <li>{@code get}: a GET to a clean URL that binds two parameters from the URL and one from the
+ * query string</li>
+ * <li>{@code post}: a POST of a 50-field form that binds and validates successfully</li>
+ * <li>{@code postInvalid}: a POST of the same form with validation errors, which returns to the
+ * source page</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundtripBenchmark {
+    private MockServletContext servletContext;
+    private MockHttpSession session;
+
+    @Setup
+    public void setup() {
+        servletContext = BenchmarkFixture.createServletContext();
+        session = new MockHttpSession(servletContext);
+    }
+
+    @TearDown
+    public void tearDown() {
+        servletContext.close();
+    }
+
+    @Benchmark
+    public String get() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(servletContext,
+                "/benchmark/product/1234/reviews?page=2", session);
+        trip.getRequest().setMethod("GET");
+        trip.getRequest().addLocale(Locale.US);
+        trip.execute();
+        return trip.getDestination();
+    }
+
+    @Benchmark
+    public String post() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(servletContext, FormActionBean.class, session);
+        trip.getRequest().addLocale(Locale.US);
+        BenchmarkFixture.fillInForm(trip.getRequest().getParameterMap());
+        trip.execute();
+        return trip.getDestination();
+    }
+
+    @Benchmark
+    public String postInvalid() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(servletContext, FormActionBean.class, session);
+        trip.getRequest().addLocale(Locale.US);
+        BenchmarkFixture.fillInForm(trip.getRequest().getParameterMap());
+        trip.setParameter("lastName", "");
+        trip.setParameter("age", "two hundred");
+        trip.setParameter("postalCode", "sw1y 4jh");
+        trip.setParameter("rows[2].quantity", "-1");
+        trip.execute();
+        return trip.getDestination();
+    }
+}
@@ -0,0 +1,93 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.lang.reflect.Proxy;
+
+import net.sourceforge.stripes.action.ActionBean;
+
+/**
+ * Manufactures distinct {@link ActionBean} classes so that benchmarks can register thousands of
+ * URL bindings without declaring thousands of classes. Each class is a dynamic proxy class defined
+ * in its own class loader, which guarantees that every class has a unique name.
+ */
+public class SyntheticActionBeans {
+    private SyntheticActionBeans() {
+    }
+
+    /** Create a new class that implements {@link ActionBean} and has a unique name. */
+    @SuppressWarnings("unchecked")
+    public static Class<? extends ActionBean> newActionBeanClass() {
+        ClassLoader loader = new ClassLoader(ActionBean.class.getClassLoader()) {
+        };
+        return (Class<? extends ActionBean>) Proxy.getProxyClass(loader, ActionBean.class);
+    }
+
+    /**
+     * Create the URL binding patterns for a synthetic application. The patterns are spread across
+     * modules and entities and use a mix of static bindings, clean URLs with parameters and
+     * bindings with literal suffixes, much like a real application would.
+     *
+     * @param count the number of patterns to generate
+     * @return an array of URL binding patterns
+     */
+    public static String[] newUrlBindingPatterns(int count) {
+        String[] patterns = new String[count];
+        for (int i = 0; i < count; i++) {
+            String base = "/module" + (i % 25) + "/entity" + i;
+            switch (i % 4) {
+            case 0:
+                patterns[i] = base + ".action";
+                break;
+            case 1:
+                patterns[i] = base + "/{id}/{$event}";
+                break;
+            case 2:
+                patterns[i] = base + "/{id}/edit/{section}";
+                break;
+            default:
+                patterns[i] = base + "/{year}/{month}.html";
+                break;
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Create a request URI that matches the given pattern by substituting a value for each
+     * parameter.
+     *
+     * @param pattern a URL binding pattern as returned by {@link #newUrlBindingPatterns(int)}
+     * @param seed used to vary the parameter values
+     * @return a request URI
+     */
+    public static String newRequestUri(String pattern, int seed) {
+        StringBuilder uri = new StringBuilder(pattern.length() + 16);
+        boolean brace = false;
+        for (char c : pattern.toCharArray()) {
+            if (c == '{') {
+                brace = true;
+                uri.append(seed);
+            }
+            else if (c == '}') {
+                brace = false;
+            }
+            else if (!brace) {
+                uri.append(c);
+            }
+        }
+        return uri.toString();
+    }
+}
@@ -0,0 +1,197 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.tagext.BodyTag;
+import javax.servlet.jsp.tagext.Tag;
+import javax.servlet.jsp.tagext.TryCatchFinally;
+
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.controller.StripesConstants;
+import net.sourceforge.stripes.exception.StripesServletException;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.tag.FormTag;
+import net.sourceforge.stripes.tag.InputSubmitTag;
+import net.sourceforge.stripes.tag.InputTextTag;
+import net.sourceforge.stripes.tag.LinkTag;
+import net.sourceforge.stripes.tag.ParamTag;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering of the Stripes form and link tags, driving them through their life cycle
+ * the way a JSP container would, with new tag instances for every page. A JSP container adds
+ * overhead of its own that is not measured here.
+ * <ul>
+ * <li>{@code form}: a form for {@link FormActionBean} with 32 text fields and a submit button,
+ * repopulated from the ActionBean in the request</li>
+ * <li>{@code link}: a link to an event of {@link ProductActionBean} with two parameters</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagRenderingBenchmark {
+    private static final String[] FIELDS = { "firstName", "lastName", "email", "phone",
+            "street", "city", "region", "postalCode", "country", "company", "age", "visits",
+            "accountNumber", "referrer", "rating", "creditLimit", "balance", "birthDate",
+            "memberSince", "subscribed" };
+
+    private MockServletContext servletContext;
+    private FormActionBean bean;
+
+    @Setup
+    public void setup() throws Exception {
+        servletContext = BenchmarkFixture.createServletContext();
+
+        // Bind a filled in form to the bean so the fields have values to render
+        MockHttpServletRequest request = new MockHttpServletRequest("/benchmark",
+                "/benchmark/Form.action");
+        BenchmarkFixture.fillInForm(request.getParameterMap());
+        bean = new FormActionBean();
+        bean.setContext(newContext(BenchmarkFixture.wrapRequest(request, Locale.US)));
+        BenchmarkFixture.getConfiguration(servletContext).getActionBeanPropertyBinder().bind(
+                bean, bean.getContext(), false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        servletContext.close();
+    }
+
+    @Benchmark
+    public String form() throws Exception {
+        HttpServletRequest request = newRequest();
+        bean.getContext().setRequest(request);
+        request.setAttribute(StripesConstants.REQ_ATTR_ACTION_BEAN, bean);
+        request.setAttribute("/benchmark/Form.action", bean);
+        BenchmarkPageContext pageContext = newPageContext(request);
+
+        FormTag form = new FormTag();
+        form.setBeanclass(FormActionBean.class);
+        boolean buffered = startTag(pageContext, form, null);
+        for (String field : FIELDS) {
+            pageContext.getOut().write("\n<label>" + field + "</label> ");
+            InputTextTag text = new InputTextTag();
+            text.setName(field);
+            endTag(pageContext, text, startTag(pageContext, text, form));
+        }
+        for (int i = 0; i < 6; i++) {
+            String row = "rows[" + i + "].";
+            for (String field : new String[] { "name", "quantity" }) {
+                InputTextTag text = new InputTextTag();
+                text.setName(row + field);
+                endTag(pageContext, text, startTag(pageContext, text, form));
+            }
+        }
+
+        InputSubmitTag submit = new InputSubmitTag();
+        submit.setName("save");
+        submit.setValue("Save");
+        endTag(pageContext, submit, startTag(pageContext, submit, form));
+        endTag(pageContext, form, buffered);
+        return pageContext.getOutput();
+    }
+
+    @Benchmark
+    public String link() throws Exception {
+        BenchmarkPageContext pageContext = newPageContext(newRequest());
+        LinkTag link = new LinkTag();
+        link.setBeanclass(ProductActionBean.class);
+        link.setEvent("reviews");
+        boolean buffered = startTag(pageContext, link, null);
+        for (String[] param : new String[][] { { "id", "1234" }, { "page", "2" } }) {
+            ParamTag tag = new ParamTag();
+            tag.setName(param[0]);
+            tag.setValue(param[1]);
+            endTag(pageContext, tag, startTag(pageContext, tag, link));
+        }
+        pageContext.getOut().write("Reviews");
+        endTag(pageContext, link, buffered);
+        return pageContext.getOutput();
+    }
+
+    private HttpServletRequest newRequest() throws StripesServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("/benchmark",
+                "/benchmark/form.jsp");
+        request.addLocale(Locale.US);
+        return BenchmarkFixture.wrapRequest(request, Locale.US);
+    }
+
+    private ActionBeanContext newContext(HttpServletRequest request) {
+        ActionBeanContext context = new ActionBeanContext();
+        context.setRequest(request);
+        context.setResponse(new MockHttpServletResponse());
+        context.setServletContext(servletContext);
+        return context;
+    }
+
+    private BenchmarkPageContext newPageContext(HttpServletRequest request) {
+        return new BenchmarkPageContext(servletContext, request, new MockHttpServletResponse());
+    }
+
+    /**
+     * Start a tag as a JSP container would, including setting up its body content if it asks
+     * for it. Returns true if the tag's body is being buffered.
+     */
+    private static boolean startTag(BenchmarkPageContext pageContext, Tag tag, Tag parent)
+            throws JspException {
+        tag.setPageContext(pageContext);
+        tag.setParent(parent);
+        if (tag.doStartTag() == BodyTag.EVAL_BODY_BUFFERED && tag instanceof BodyTag) {
+            BodyTag bodyTag = (BodyTag) tag;
+            bodyTag.setBodyContent(pageContext.pushBody());
+            bodyTag.doInitBody();
+            return true;
+        }
+        return false;
+    }
+
+    /** End a tag that was started by {@link #startTag(BenchmarkPageContext, Tag, Tag)}. */
+    private static void endTag(BenchmarkPageContext pageContext, Tag tag, boolean buffered)
+            throws JspException {
+        try {
+            if (buffered) {
+                ((BodyTag) tag).doAfterBody();
+                pageContext.popBody();
+            }
+            tag.doEndTag();
+        }
+        finally {
+            if (tag instanceof TryCatchFinally)
+                ((TryCatchFinally) tag).doFinally();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.controller.UrlBinding;
+import net.sourceforge.stripes.controller.UrlBindingFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes {@link UrlBindingFactory} to match request URIs against a large
+ * number of registered URL bindings. Exact matches are answered from the path cache; clean URLs
+ * that carry parameter values go through the prefix tree and candidate scoring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBindingFactoryBenchmark {
+    @Param({ "100", "1000", "4000" })
+    public int bindings;
+
+    private UrlBindingFactory factory;
+    private String[] exactUris, cleanUris, missUris;
+    private int next;
+
+    @Setup
+    public void setup() {
+        factory = new UrlBindingFactory();
+        String[] patterns = SyntheticActionBeans.newUrlBindingPatterns(bindings);
+        exactUris = new String[patterns.length];
+        cleanUris = new String[patterns.length];
+        missUris = new String[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            Class<? extends ActionBean> beanType = SyntheticActionBeans.newActionBeanClass();
+            UrlBinding binding = UrlBindingFactory.parseUrlBinding(beanType, patterns[i]);
+            factory.addBinding(beanType, binding);
+
+            exactUris[i] = binding.getPath();
+            cleanUris[i] = SyntheticActionBeans.newRequestUri(patterns[i], i);
+            missUris[i] = "/static/module" + i + "/image.png";
+        }
+    }
+
+    private int nextIndex() {
+        int i = next++;
+        if (next >= bindings)
+            next = 0;
+        return i;
+    }
+
+    @Benchmark
+    public UrlBinding exactPath() {
+        return factory.getBindingPrototype(exactUris[nextIndex()]);
+    }
+
+    @Benchmark
+    public UrlBinding cleanUrlPrototype() {
+        return factory.getBindingPrototype(cleanUris[nextIndex()]);
+    }
+
+    @Benchmark
+    public UrlBinding cleanUrlWithParameters() {
+        return factory.getBinding(cleanUris[nextIndex()]);
+    }
+
+    @Benchmark
+    public UrlBinding noMatch() {
+        return factory.getBindingPrototype(missUris[nextIndex()]);
+    }
+}
@@ -39,8 +39,16 @@ import java.lang.annotation.Target;
  * <li>{@code @HttpCache(allow=false)} - Set headers to disable caching and immediately expire the
  * document.</li>
  * <li>{@code @HttpCache(expires=600)} - Caching is allowed. The document expires in 10 minutes.</li>
+ * <li>{@code @HttpCache(maxAge=60, sharedMaxAge=600)} - Browsers may reuse the response for one
+ * minute and shared caches for 10 minutes.</li>
  * </ul>
  * </p>
+ * <p>
+ * The {@link #maxAge()}, {@link #sharedMaxAge()} and {@link #staleWhileRevalidate()} elements are
+ * sent as the corresponding directives of the Cache-Control header. An {@link ActionBean} that
+ * implements {@link HttpCacheValidator} also gets ETag and Last-Modified headers, and conditional
+ * requests that match them are answered with 304 Not Modified.
+ * </p>
  * 
  * @author Ben Gunter
  * @since Stripes 1.5
@@ -62,4 +70,26 @@ public @interface HttpCache {
      * value is less than zero, then no Expires header is sent.
      */
     int expires() default DEFAULT_EXPIRES;
+
+    /**
+     * The number of seconds that any cache may reuse the response without revalidating it, sent
+     * as the {@code max-age} directive of the Cache-Control header. Ignored if less than zero or if
+     * {@link #allow()} is false.
+     */
+    int maxAge() default -1;
+
+    /**
+     * The number of seconds that a shared cache, such as a proxy or CDN, may reuse the response
+     * without revalidating it, sent as the {@code s-maxage} directive of the Cache-Control header.
+     * Ignored if less than zero or if {@link #allow()} is false.
+     */
+    int sharedMaxAge() default -1;
+
+    /**
+     * The number of seconds after the response has become stale that a cache may continue to
+     * serve it while it revalidates it in the background, sent as the
+     * {@code stale-while-revalidate} directive of the Cache-Control header. Ignored if less than
+     * zero or if {@link #allow()} is false.
+     */
+    int staleWhileRevalidate() default -1;
 }
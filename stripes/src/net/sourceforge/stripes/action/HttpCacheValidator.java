@@ -0,0 +1,56 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.action;
+
+import net.sourceforge.stripes.controller.HttpCacheInterceptor;
+
+/**
+ * <p>
+ * Interface that can be implemented by an {@link ActionBean} that can tell cheaply whether the
+ * response to an event has changed. When a GET or HEAD request carries an {@code If-None-Match}
+ * or {@code If-Modified-Since} header that matches the values returned here,
+ * {@link HttpCacheInterceptor} answers it with {@code 304 Not Modified}. Binding, validation, the
+ * event handler and the view are all skipped. Otherwise, the values are sent in the
+ * {@code ETag} and {@code Last-Modified} headers of the response.
+ * </p>
+ * <p>
+ * Both methods are called after the event handler has been resolved but <em>before</em> the
+ * request parameters are bound to the ActionBean. Any parameters they need, such as the ID of
+ * the entity being displayed, must be read from the request through the
+ * {@link ActionBeanContext}. These methods are not called if caching has been disabled with
+ * {@code @HttpCache(allow=false)}.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public interface HttpCacheValidator {
+    /**
+     * Get the entity tag of the response to an event. The value is quoted if it is not quoted
+     * already, so it may be a plain string such as a version number or a hash. A weak entity
+     * tag must be returned in its complete form, e.g. {@code W/"123"}.
+     *
+     * @param event the name of the event that is being handled
+     * @return the entity tag or null if the response does not have one
+     */
+    String getETag(String event);
+
+    /**
+     * Get the time that the response to an event was last modified.
+     *
+     * @param event the name of the event that is being handled
+     * @return the time in milliseconds since the epoch, or -1 if it is unknown
+     */
+    long getLastModified(String event);
+}
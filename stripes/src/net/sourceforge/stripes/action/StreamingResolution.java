@@ -14,11 +14,16 @@
  */
 package net.sourceforge.stripes.action;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -59,6 +64,13 @@ import net.sourceforge.stripes.util.Range;
  *}.setFilename("your-filename.xml");
  *</pre>
  *
+ * <p>Files should be served by passing a {@link File} to the constructor rather than an
+ * InputStream. The file is then read through a {@link FileChannel}, so its length and
+ * last-modified date are known up front and byte ranges are read directly from the requested
+ * positions in the file instead of by skipping the bytes that precede them. The data is still
+ * copied to the response through a buffer of the configured size, because the servlet API offers
+ * no channel to transfer it to.</p>
+ *
  * @author Tim Fennell
  */
 public class StreamingResolution implements Resolution {
@@ -66,9 +78,13 @@ public class StreamingResolution implements Resolution {
     private static final String RFC_822_DATE_FORMAT = "EEE, d MMM yyyy HH:mm:ss Z";
     /** Boundary for use in multipart responses. */
     private static final String MULTIPART_BOUNDARY = "BOUNDARY_F7C98B76AEF711DF86D1B4FCDFD72085";
+    /** The default size of the buffer used to copy data from an InputStream, Reader or File. */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
     private static final Log log = Log.getInstance(StreamingResolution.class);
     private InputStream inputStream;
     private Reader reader;
+    private File file;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
     private String filename;
     private String contentType;
     private String characterEncoding;
@@ -113,6 +129,22 @@ public class StreamingResolution implements Resolution {
         this.reader = reader;
     }
 
+    /**
+     * Constructor that builds a StreamingResolution that will stream the contents of a file back
+     * to the client and identify the data as being of the specified content type. The length and
+     * last modified date are taken from the file, and byte range serving is enabled.
+     *
+     * @param contentType the content type of the file (e.g. application/pdf)
+     * @param file the file to return to the client
+     */
+    public StreamingResolution(String contentType, File file) {
+        this.contentType = contentType;
+        this.file = file;
+        this.length = file.length();
+        this.lastModified = file.lastModified();
+        this.rangeSupport = true;
+    }
+
     /**
      * Constructor that builds a StreamingResolution that will stream character data from a String
      * back to the client and identify the data as being of the specified content type.
@@ -192,9 +224,25 @@ public class StreamingResolution implements Resolution {
     }
 
     /**
-     * Indicates whether byte range serving is supported by stream method. (Defaults to false).
-     * Besides setting this flag, the ActionBean also needs to set the length of the response and
-     * provide an {@link InputStream}-based input. Reasons for disabling byte range serving:
+     * Sets the size of the buffer used to copy data from an InputStream, Reader or File to the
+     * response.
+     * (Defaults to {@link #DEFAULT_BUFFER_SIZE}).
+     * 
+     * @param bufferSize the size of the buffer, in bytes or characters
+     * @return StreamingResolution so that this method call can be chained to the constructor and
+     *         returned.
+     */
+    public StreamingResolution setBufferSize(int bufferSize) {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Indicates whether byte range serving is supported by stream method. (Defaults to false,
+     * except for files). Besides setting this flag, the ActionBean also needs to set the length of
+     * the response and provide an {@link InputStream} or {@link File} as input. Reasons for disabling byte range serving:
      * <ul>
      * <li>The stream method is overridden and does not support byte range serving</li>
      * <li>The input to this {@link StreamingResolution} was created on-demand, and retrieving in
@@ -233,7 +281,7 @@ public class StreamingResolution implements Resolution {
          *     - rangeSupport has not been set to false
          *     - Output is binary and not character based
         -*/
-        if (rangeSupport && (length >= 0) && (inputStream != null))
+        if (rangeSupport && (length >= 0) && (inputStream != null || file != null))
             byteRanges = parseRangeHeader(request.getHeader("Range"));
 
         applyHeaders(response);
@@ -405,12 +453,18 @@ public class StreamingResolution implements Resolution {
      * 
      * <p>
      * If an InputStream or Reader was supplied to a constructor, this implementation uses a
-     * moderately sized buffer to stream data from it to the response to make the operation
+     * buffer of the configured size to stream data from it to the response to make the operation
      * reasonably efficient, and closes the InputStream or the Reader. If an IOException occurs when
      * closing it, that exception will be logged as a warning, and <em>not</em> thrown to avoid
      * masking a possibly previously thrown exception.
      * </p>
      * 
+     * <p>
+     * If a File was supplied, it is read through a {@link FileChannel} and copied to the response
+     * through a buffer of the configured size. Each byte range is read from its position in the
+     * file without reading the bytes that precede it.
+     * </p>
+     * 
      * @param response the HttpServletResponse from which either the output stream or writer can be
      *            obtained
      * @throws Exception if any problems arise when streaming data
@@ -418,7 +472,7 @@ public class StreamingResolution implements Resolution {
     protected void stream(HttpServletResponse response) throws Exception {
         int length = 0;
         if (this.reader != null) {
-            char[] buffer = new char[512];
+            char[] buffer = new char[bufferSize];
             try {
                 PrintWriter out = response.getWriter();
 
@@ -436,7 +490,7 @@ public class StreamingResolution implements Resolution {
             }
         }
         else if (this.inputStream != null) {
-            byte[] buffer = new byte[512];
+            byte[] buffer = new byte[bufferSize];
             long count = 0;
 
             try {
@@ -449,20 +503,9 @@ public class StreamingResolution implements Resolution {
                 }
                 else {
                     for (Range<Long> byteRange : byteRanges) {
-                        // See RFC 2616 section 14.16
-                        if (byteRanges.size() > 1) {
-                            out.print("--" + MULTIPART_BOUNDARY + "\r\n");
-                            out.print("Content-Type: " + contentType + "\r\n");
-                            out.print("Content-Range: bytes " + byteRange.getStart() + "-"
-                                    + byteRange.getEnd() + "/" + this.length + "\r\n");
-                            out.print("\r\n");
-                        }
+                        writeRangeHeader(out, byteRange);
                         if (count < byteRange.getStart()) {
-                            long skip;
-
-                            skip = byteRange.getStart() - count;
-                            this.inputStream.skip(skip);
-                            count += skip;
+                            count += skip(this.inputStream, byteRange.getStart() - count);
                         }
                         while ((length = this.inputStream.read(buffer, 0, (int) Math.min(
                                 buffer.length, byteRange.getEnd() + 1 - count))) != -1) {
@@ -471,12 +514,9 @@ public class StreamingResolution implements Resolution {
                             if (byteRange.getEnd() + 1 == count)
                                 break;
                         }
-                        if (byteRanges.size() > 1) {
-                            out.print("\r\n");
-                        }
+                        writeRangeTrailer(out);
                     }
-                    if (byteRanges.size() > 1)
-                        out.print("--" + MULTIPART_BOUNDARY + "--\r\n");
+                    writeRangesEnd(out);
                 }
             }
             finally {
@@ -488,6 +528,35 @@ public class StreamingResolution implements Resolution {
                 }
             }
         }
+        else if (this.file != null) {
+            FileInputStream in = new FileInputStream(this.file);
+            try {
+                FileChannel channel = in.getChannel();
+                ServletOutputStream out = response.getOutputStream();
+                ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+
+                if (byteRanges == null) {
+                    transfer(channel, 0, channel.size(), out, buffer);
+                }
+                else {
+                    for (Range<Long> byteRange : byteRanges) {
+                        writeRangeHeader(out, byteRange);
+                        transfer(channel, byteRange.getStart(), byteRange.getEnd()
+                                - byteRange.getStart() + 1, out, buffer);
+                        writeRangeTrailer(out);
+                    }
+                    writeRangesEnd(out);
+                }
+            }
+            finally {
+                try {
+                    in.close();
+                }
+                catch (Exception e) {
+                    log.warn(e, "Error closing file ", this.file);
+                }
+            }
+        }
         else {
             throw new StripesRuntimeException("A StreamingResolution was constructed without " +
                     "supplying a Reader or InputStream, but stream() was not overridden. Please " +
@@ -495,4 +564,70 @@ public class StreamingResolution implements Resolution {
         }
     }
 
+    /** Writes the part headers that precede a byte range in a multipart response. */
+    private void writeRangeHeader(ServletOutputStream out, Range<Long> byteRange)
+            throws IOException {
+        // See RFC 2616 section 14.16
+        if (byteRanges.size() > 1) {
+            out.print("--" + MULTIPART_BOUNDARY + "\r\n");
+            out.print("Content-Type: " + contentType + "\r\n");
+            out.print("Content-Range: bytes " + byteRange.getStart() + "-"
+                    + byteRange.getEnd() + "/" + this.length + "\r\n");
+            out.print("\r\n");
+        }
+    }
+
+    /** Writes the line break that follows a byte range in a multipart response. */
+    private void writeRangeTrailer(ServletOutputStream out) throws IOException {
+        if (byteRanges.size() > 1)
+            out.print("\r\n");
+    }
+
+    /** Writes the closing boundary of a multipart response. */
+    private void writeRangesEnd(ServletOutputStream out) throws IOException {
+        if (byteRanges.size() > 1)
+            out.print("--" + MULTIPART_BOUNDARY + "--\r\n");
+    }
+
+    /**
+     * Skips exactly {@code count} bytes of an InputStream, unless the end of the stream is reached
+     * first. {@link InputStream#skip(long)} may skip fewer bytes than requested.
+     * 
+     * @return the number of bytes actually skipped
+     */
+    private static long skip(InputStream in, long count) throws IOException {
+        long skipped = 0;
+        while (skipped < count) {
+            long n = in.skip(count - skipped);
+            if (n <= 0) {
+                // skip() may return 0 before the end of the stream, so make sure with read()
+                if (in.read() < 0)
+                    break;
+                n = 1;
+            }
+            skipped += n;
+        }
+        return skipped;
+    }
+
+    /**
+     * Copies {@code count} bytes starting at {@code position} from a file to the response through
+     * the given buffer.
+     * 
+     * @throws IOException if the file ends before all of the bytes have been transferred
+     */
+    private static void transfer(FileChannel channel, long position, long count,
+            OutputStream out, ByteBuffer buffer) throws IOException {
+        while (count > 0) {
+            buffer.clear();
+            if (count < buffer.capacity())
+                buffer.limit((int) count);
+            int n = channel.read(buffer, position);
+            if (n < 0)
+                throw new IOException("File ended " + count + " bytes short of the expected length");
+            out.write(buffer.array(), 0, n);
+            position += n;
+            count -= n;
+        }
+    }
 }
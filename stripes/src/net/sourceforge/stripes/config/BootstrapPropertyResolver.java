@@ -14,6 +14,7 @@
  */
 package net.sourceforge.stripes.config;
 
+import java.io.File;
 import java.lang.reflect.Modifier;
 import java.security.AccessControlException;
 import java.util.ArrayList;
@@ -57,10 +58,14 @@ public class BootstrapPropertyResolver {
     /** The Configuration Key for looking up the comma separated list of extension packages. */
     public static final String PACKAGES = "Extension.Packages";
 
+    /** The Configuration Key for looking up the directory in which to store the class index. */
+    public static final String CLASS_INDEX_DIRECTORY = "ResolverUtil.IndexDirectory";
+
     /** Constructs a new BootstrapPropertyResolver with the given ServletConfig. */
     public BootstrapPropertyResolver(FilterConfig filterConfig) {
         setFilterConfig(filterConfig);
         initVFS();
+        initClassFileIndex();
     }
 
     /** Stores a reference to the filter's FilterConfig object. */
@@ -85,6 +90,18 @@ public class BootstrapPropertyResolver {
         }
     }
 
+    /**
+     * Enable the {@link net.sourceforge.stripes.util.ClassFileIndex} used by {@link ResolverUtil}
+     * if an index directory is specified in the filter configuration.
+     */
+    protected void initClassFileIndex() {
+        String directory = getProperty(CLASS_INDEX_DIRECTORY);
+        if (directory != null && directory.trim().length() > 0) {
+            log.info("Storing class index in ", directory);
+            ResolverUtil.setIndexDirectory(new File(directory.trim()));
+        }
+    }
+
     /**
      * Fetches a configuration property in the manner described in the class level javadoc for
      * this class.
@@ -17,6 +17,7 @@ package net.sourceforge.stripes.config;
 import net.sourceforge.stripes.controller.ActionBeanPropertyBinder;
 import net.sourceforge.stripes.controller.ActionResolver;
 import net.sourceforge.stripes.controller.ActionBeanContextFactory;
+import net.sourceforge.stripes.controller.FlashScopeStore;
 import net.sourceforge.stripes.controller.ObjectFactory;
 import net.sourceforge.stripes.localization.LocalizationBundleFactory;
 import net.sourceforge.stripes.localization.LocalePicker;
@@ -210,4 +211,13 @@ public interface Configuration {
      * @return an instance of {@link ValidationMetadataProvider}
      */
     ValidationMetadataProvider getValidationMetadataProvider();
+
+    /**
+     * Returns an instance of {@link FlashScopeStore} that holds the flash scopes of each user
+     * between requests.
+     * 
+     * @return an instance of {@link FlashScopeStore}
+     * @since Stripes 1.6
+     */
+    FlashScopeStore getFlashScopeStore();
 }
@@ -17,6 +17,7 @@ package net.sourceforge.stripes.config;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -33,6 +34,7 @@ import net.sourceforge.stripes.controller.BeforeAfterMethodInterceptor;
 import net.sourceforge.stripes.controller.DefaultActionBeanContextFactory;
 import net.sourceforge.stripes.controller.DefaultActionBeanPropertyBinder;
 import net.sourceforge.stripes.controller.DefaultObjectFactory;
+import net.sourceforge.stripes.controller.FlashScopeStore;
 import net.sourceforge.stripes.controller.HttpCacheInterceptor;
 import net.sourceforge.stripes.controller.Interceptor;
 import net.sourceforge.stripes.controller.Intercepts;
@@ -40,6 +42,7 @@ import net.sourceforge.stripes.controller.LifecycleStage;
 import net.sourceforge.stripes.controller.NameBasedActionResolver;
 import net.sourceforge.stripes.controller.ObjectFactory;
 import net.sourceforge.stripes.controller.ObjectPostProcessor;
+import net.sourceforge.stripes.controller.SessionFlashScopeStore;
 import net.sourceforge.stripes.controller.multipart.DefaultMultipartWrapperFactory;
 import net.sourceforge.stripes.controller.multipart.MultipartWrapperFactory;
 import net.sourceforge.stripes.exception.DefaultExceptionHandler;
@@ -101,6 +104,7 @@ public class DefaultConfiguration implements Configuration {
     private ExceptionHandler exceptionHandler;
     private MultipartWrapperFactory multipartWrapperFactory;
     private ValidationMetadataProvider validationMetadataProvider;
+    private FlashScopeStore flashScopeStore;
 
     /** Gratefully accepts the BootstrapPropertyResolver handed to the Configuration. */
     public void setBootstrapPropertyResolver(BootstrapPropertyResolver resolver) {
@@ -212,6 +216,12 @@ public class DefaultConfiguration implements Configuration {
                 this.validationMetadataProvider.init(this);
             }
 
+            this.flashScopeStore = initFlashScopeStore();
+            if (this.flashScopeStore == null) {
+                this.flashScopeStore = new SessionFlashScopeStore();
+                this.flashScopeStore.init(this);
+            }
+
             this.interceptors = new HashMap<LifecycleStage, Collection<Interceptor>>();
             Map<LifecycleStage, Collection<Interceptor>> map = initCoreInterceptors();
             if (map != null) {
@@ -240,6 +250,8 @@ public class DefaultConfiguration implements Configuration {
                     }
                 }
             }
+
+            this.interceptors = compileInterceptorChains(this.interceptors);
         }
         catch (Exception e) {
             throw new StripesRuntimeException
@@ -429,6 +441,20 @@ public class DefaultConfiguration implements Configuration {
     /** Allows subclasses to initialize a non-default {@link ValidationMetadataProvider}. */
     protected ValidationMetadataProvider initValidationMetadataProvider() { return null; }
 
+    /**
+     * Returns an instance of {@link FlashScopeStore} that holds the flash scopes of each user
+     * between requests. Unless a subclass has picked another implementation, will return an
+     * instance of {@link SessionFlashScopeStore}.
+     * 
+     * @return an instance of {@link FlashScopeStore}
+     */
+    public FlashScopeStore getFlashScopeStore() {
+        return this.flashScopeStore;
+    }
+
+    /** Allows subclasses to initialize a non-default {@link FlashScopeStore}. */
+    protected FlashScopeStore initFlashScopeStore() { return null; }
+
     /**
      * Returns a list of interceptors that should be executed around the lifecycle stage
      * indicated.  By default returns a single element list containing the 
@@ -442,6 +468,25 @@ public class DefaultConfiguration implements Configuration {
         return interceptors;
     }
     
+    /**
+     * Freezes the interceptors configured for each {@link LifecycleStage} into an unmodifiable,
+     * array-backed list. The lists are shared by all requests, and the
+     * {@link net.sourceforge.stripes.controller.ExecutionContext} walks them by index instead of
+     * allocating an iterator for every stage of every request.
+     */
+    protected Map<LifecycleStage, Collection<Interceptor>> compileInterceptorChains(
+            Map<LifecycleStage, Collection<Interceptor>> map) {
+        Map<LifecycleStage, Collection<Interceptor>> chains = new EnumMap<LifecycleStage, Collection<Interceptor>>(
+                LifecycleStage.class);
+        for (Map.Entry<LifecycleStage, Collection<Interceptor>> entry : map.entrySet()) {
+            if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                List<Interceptor> chain = new ArrayList<Interceptor>(entry.getValue());
+                chains.put(entry.getKey(), Collections.unmodifiableList(chain));
+            }
+        }
+        return chains;
+    }
+
     /**
      * Merges the two {@link Map}s of {@link LifecycleStage} to {@link Collection} of
      * {@link Interceptor}. A simple {@link Map#putAll(Map)} does not work because it overwrites
@@ -0,0 +1,48 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import net.sourceforge.stripes.format.Formatter;
+import net.sourceforge.stripes.format.FormatterFactory;
+import net.sourceforge.stripes.validation.TypeConverter;
+import net.sourceforge.stripes.validation.TypeConverterFactory;
+
+/**
+ * <p>
+ * When applied to a Stripes extension class (e.g., one that implements {@link TypeConverter} or
+ * {@link Formatter}), this annotation declares that a single, fully initialized instance of the
+ * class may be used by many threads at once. The default {@link TypeConverterFactory} and
+ * {@link FormatterFactory} share one instance of such a class between all threads for each
+ * distinct configuration (locale, format type, etc.) instead of creating a new instance every
+ * time one is needed.
+ * </p>
+ * <p>
+ * This annotation is deliberately <em>not</em> inherited. A subclass of a thread-safe class may
+ * add state of its own, so it must be annotated itself if it is thread-safe too.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target( { ElementType.TYPE })
+@Documented
+public @interface ThreadSafe {
+}
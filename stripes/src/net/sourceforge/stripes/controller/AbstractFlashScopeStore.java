@@ -0,0 +1,343 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.http.HttpServletRequest;
+
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>
+ * Base class for {@link FlashScopeStore}s that keep one {@link Container} of flash scopes per
+ * user. Subclasses decide where the containers live by implementing
+ * {@link #getContainer(HttpServletRequest, boolean)} and {@link #getContainers()}.
+ * </p>
+ * <p>
+ * The number of flash scopes a single user may hold is capped by the configuration property
+ * {@value #MAX_SCOPES} (default {@value #DEFAULT_MAX_SCOPES}). When a new flash scope would
+ * exceed the cap, the oldest flash scope is discarded. Expired flash scopes are removed by a
+ * background task that runs every {@value #EXPIRY_INTERVAL} seconds (default
+ * {@value #DEFAULT_EXPIRY_INTERVAL}). The task is scheduled the first time a container is created
+ * and runs on a daemon thread that belongs to the store. The thread is stopped when the store is
+ * destroyed, or when the store is garbage collected without being destroyed.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public abstract class AbstractFlashScopeStore implements FlashScopeStore {
+    /** Configuration key for the maximum number of flash scopes a user may hold. */
+    public static final String MAX_SCOPES = "FlashScope.MaxScopes";
+
+    /** Configuration key for the number of seconds between checks for expired flash scopes. */
+    public static final String EXPIRY_INTERVAL = "FlashScope.ExpiryInterval";
+
+    /** The default maximum number of flash scopes a user may hold. */
+    public static final int DEFAULT_MAX_SCOPES = 50;
+
+    /** The default number of seconds between checks for expired flash scopes. */
+    public static final int DEFAULT_EXPIRY_INTERVAL = 30;
+
+    private static final Log log = Log.getInstance(AbstractFlashScopeStore.class);
+
+    private Configuration configuration;
+    private int maxScopes = DEFAULT_MAX_SCOPES;
+    private int expiryInterval = DEFAULT_EXPIRY_INTERVAL;
+    private final AtomicBoolean expiryScheduled = new AtomicBoolean();
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean destroyed;
+
+    /**
+     * The flash scopes that belong to a single user, in the order in which they were added. All
+     * methods are synchronized on the container so concurrent requests from one user only ever
+     * contend with each other.
+     */
+    protected static class Container implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Map<Integer, FlashScope> scopes = new LinkedHashMap<Integer, FlashScope>();
+        private boolean retired;
+
+        /** Get the flash scope with the given key, or null if there is none. */
+        public synchronized FlashScope get(Integer key) {
+            return scopes.get(key);
+        }
+
+        /** Remove the flash scope with the given key and return it, or null if there is none. */
+        public synchronized FlashScope remove(Integer key) {
+            return scopes.remove(key);
+        }
+
+        /** Get a copy of the collection of flash scopes held by this container. */
+        public synchronized Collection<FlashScope> getAll() {
+            if (scopes.isEmpty())
+                return Collections.emptySet();
+            else
+                return new ArrayList<FlashScope>(scopes.values());
+        }
+
+        /** Get the number of flash scopes held by this container. */
+        public synchronized int size() {
+            return scopes.size();
+        }
+
+        /**
+         * Add a flash scope to this container, then discard the oldest flash scopes until no more
+         * than {@code max} remain.
+         *
+         * @return true if the flash scope was added, false if the key is already in use
+         */
+        public synchronized boolean add(FlashScope scope, int max) {
+            if (scopes.containsKey(scope.key()))
+                return false;
+
+            scopes.put(scope.key(), scope);
+            Iterator<FlashScope> iterator = scopes.values().iterator();
+            for (int excess = scopes.size() - max; excess > 0; --excess) {
+                FlashScope oldest = iterator.next();
+                iterator.remove();
+                log.debug("Discarding flash scope ", oldest.key(), " because the user holds more ",
+                        "than ", max, " flash scopes");
+            }
+
+            return true;
+        }
+
+        /**
+         * Remove all the expired flash scopes from this container.
+         *
+         * @return the number of flash scopes that were removed
+         */
+        public synchronized int removeExpired() {
+            int count = 0;
+            for (Iterator<FlashScope> iterator = scopes.values().iterator(); iterator.hasNext();) {
+                if (iterator.next().isExpired()) {
+                    iterator.remove();
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Mark this container as retired if it is empty. Flash scopes can no longer be added to
+         * a retired container, so the store may safely forget about it.
+         *
+         * @return true if the container is retired
+         */
+        public synchronized boolean retireIfEmpty() {
+            if (scopes.isEmpty())
+                retired = true;
+            return retired;
+        }
+
+        /** Returns true if the container has been retired. */
+        public synchronized boolean isRetired() {
+            return retired;
+        }
+    }
+
+    /**
+     * Periodically removes expired flash scopes without keeping the store from being collected.
+     * If the store is collected, the task shuts down the executor that runs it.
+     */
+    private static class ExpiryTask implements Runnable {
+        private final WeakReference<AbstractFlashScopeStore> store;
+        private final ScheduledExecutorService executor;
+
+        ExpiryTask(AbstractFlashScopeStore store, ScheduledExecutorService executor) {
+            this.store = new WeakReference<AbstractFlashScopeStore>(store);
+            this.executor = executor;
+        }
+
+        public void run() {
+            AbstractFlashScopeStore store = this.store.get();
+            if (store == null) {
+                executor.shutdownNow();
+                return;
+            }
+
+            try {
+                store.removeExpired();
+            }
+            catch (Throwable t) {
+                // Exceptions would suppress all subsequent executions so just log them
+                log.warn(t, "Failed to remove expired flash scopes");
+            }
+        }
+    }
+
+    /** Creates the daemon thread that runs the expiry task of a store. */
+    private static class ExpiryThreadFactory implements ThreadFactory {
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Stripes flash scope expiry");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /** Get the configuration object that was passed into {@link #init(Configuration)}. */
+    protected Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /** Reads the maximum number of flash scopes per user and the expiry interval. */
+    public void init(Configuration configuration) throws Exception {
+        this.configuration = configuration;
+        this.maxScopes = getIntProperty(MAX_SCOPES, maxScopes);
+        this.expiryInterval = getIntProperty(EXPIRY_INTERVAL, expiryInterval);
+    }
+
+    /** Get the maximum number of flash scopes a user may hold. */
+    public int getMaxScopes() {
+        return maxScopes;
+    }
+
+    /** Set the maximum number of flash scopes a user may hold. */
+    public void setMaxScopes(int maxScopes) {
+        if (maxScopes < 1)
+            throw new IllegalArgumentException("Maximum number of flash scopes must be positive");
+        this.maxScopes = maxScopes;
+    }
+
+    /** Get the number of seconds between checks for expired flash scopes. */
+    public int getExpiryInterval() {
+        return expiryInterval;
+    }
+
+    /**
+     * Set the number of seconds between checks for expired flash scopes. Takes effect only if it
+     * is called before the store is first used.
+     */
+    public void setExpiryInterval(int expiryInterval) {
+        if (expiryInterval < 1)
+            throw new IllegalArgumentException("Expiry interval must be positive");
+        this.expiryInterval = expiryInterval;
+    }
+
+    /**
+     * Get the container that holds the flash scopes for the user that issued the request.
+     *
+     * @param request the current request
+     * @param create if true, create the container (and a session, if needed) when it does not
+     *            exist
+     * @return the container or null if it does not exist and {@code create} is false
+     * @throws IllegalStateException if the user's session has been invalidated
+     */
+    protected abstract Container getContainer(HttpServletRequest request, boolean create)
+            throws IllegalStateException;
+
+    /** Get all the containers held by this store, for the purpose of removing expired scopes. */
+    protected abstract Collection<? extends Container> getContainers();
+
+    /**
+     * Called by subclasses after they create a new container. Starts the expiry task if it has
+     * not been started already.
+     */
+    protected void containerCreated(Container container) {
+        if (!destroyed && expiryScheduled.compareAndSet(false, true)) {
+            ScheduledExecutorService executor = Executors
+                    .newSingleThreadScheduledExecutor(new ExpiryThreadFactory());
+            executor.scheduleWithFixedDelay(new ExpiryTask(this, executor), expiryInterval,
+                    expiryInterval, TimeUnit.SECONDS);
+            this.executor = executor;
+            log.debug("Checking for expired flash scopes every ", expiryInterval, " seconds");
+
+            // destroy() may have run before the executor was published
+            if (destroyed)
+                executor.shutdownNow();
+        }
+    }
+
+    public FlashScope get(HttpServletRequest request, Integer key) {
+        Container container = getContainer(request, false);
+        return container == null ? null : container.get(key);
+    }
+
+    public boolean add(HttpServletRequest request, FlashScope scope) {
+        while (true) {
+            Container container = getContainer(request, true);
+            synchronized (container) {
+                if (!container.isRetired())
+                    return container.add(scope, maxScopes);
+            }
+        }
+    }
+
+    public FlashScope remove(HttpServletRequest request, Integer key) {
+        Container container = getContainer(request, false);
+        return container == null ? null : container.remove(key);
+    }
+
+    public Collection<FlashScope> getAll(HttpServletRequest request) {
+        Container container = getContainer(request, false);
+        if (container == null)
+            return Collections.emptySet();
+        else
+            return container.getAll();
+    }
+
+    public void removeExpired() {
+        int count = 0;
+        for (Container container : getContainers()) {
+            count += container.removeExpired();
+        }
+        if (count > 0)
+            log.debug("Removed ", count, " expired flash scopes");
+    }
+
+    /** Stops the expiry task and the thread that runs it. */
+    public void destroy() {
+        destroyed = true;
+        ScheduledExecutorService executor = this.executor;
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    /** Read a positive integer from the bootstrap properties. */
+    private int getIntProperty(String key, int defaultValue) {
+        String value = configuration.getBootstrapPropertyResolver().getProperty(key);
+        if (value == null)
+            return defaultValue;
+
+        try {
+            int i = Integer.parseInt(value.trim());
+            if (i > 0)
+                return i;
+        }
+        catch (NumberFormatException e) {
+            // Fall through
+        }
+
+        log.error("Did not understand value of configuration parameter ", key, ". You supplied: ",
+                value, ". Valid values are positive integers. Default value of ", defaultValue,
+                " will be used instead.");
+        return defaultValue;
+    }
+}
@@ -0,0 +1,540 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.util.ClassFileIndex;
+import net.sourceforge.stripes.util.Log;
+import net.sourceforge.stripes.vfs.VFS;
+
+/**
+ * <p>
+ * A pre-generated list of the {@link ActionBean}s that an {@link AnnotatedClassActionResolver}
+ * would find by scanning, along with their URL bindings and the methods that handle their events.
+ * When the configuration property {@value AnnotatedClassActionResolver#INDEX} names an index on
+ * the classpath, the resolver loads the index at startup instead of scanning for ActionBeans and
+ * examining their methods.
+ * </p>
+ * <p>
+ * The index records checksums of everything that went into it: the class files of the
+ * ActionBeans and their superclasses, the class files of the resolver and the names of the class
+ * files in the scanned packages. If any of these has changed, the index is considered stale and
+ * the resolver scans for ActionBeans as usual. Calculating the checksums means reading all those
+ * class files, so the index also records the sizes and modification times of the class files,
+ * JAR files and package directories involved. As long as those are the same, the checksums are
+ * not calculated again. An index should be generated as part of the build by running
+ * {@link ActionBeanIndexGenerator}. The output file must then be packaged so that it is on the
+ * classpath of the application.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class ActionBeanIndex {
+    private static final Log log = Log.getInstance(ActionBeanIndex.class);
+
+    /** Identifies the format of the index. */
+    private static final int VERSION = 0x53414932; // "SAI2"
+
+    /** A stamp that never matches because the inputs are not all files on the local file system. */
+    private static final long UNKNOWN = -1L;
+
+    /** The classes of the primitive types, which cannot be loaded by name. */
+    private static final Map<String, Class<?>> primitives = new HashMap<String, Class<?>>();
+    static {
+        for (Class<?> type : new Class<?>[] { boolean.class, byte.class, char.class, short.class,
+                int.class, long.class, float.class, double.class }) {
+            primitives.put(type.getName(), type);
+        }
+    }
+
+    /** An ActionBean from the index, with its URL binding and event handlers. */
+    public static class Entry {
+        private final Class<? extends ActionBean> beanType;
+        private final String urlBinding;
+        private final Map<String, Method> eventHandlers;
+
+        protected Entry(Class<? extends ActionBean> beanType, String urlBinding,
+                Map<String, Method> eventHandlers) {
+            this.beanType = beanType;
+            this.urlBinding = urlBinding;
+            this.eventHandlers = eventHandlers;
+        }
+
+        /** Get the ActionBean class. */
+        public Class<? extends ActionBean> getBeanType() {
+            return beanType;
+        }
+
+        /** Get the URL binding of the ActionBean. */
+        public String getUrlBinding() {
+            return urlBinding;
+        }
+
+        /** Get the map of event names to the methods that handle them. */
+        public Map<String, Method> getEventHandlers() {
+            return eventHandlers;
+        }
+    }
+
+    /** The information about an ActionBean as it is stored in the index. */
+    private static class Record {
+        String className;
+        String urlBinding;
+        long checksum;
+
+        /** Each handler is an event name, declaring class, method name and parameter types. */
+        List<String[]> handlers = new ArrayList<String[]>();
+    }
+
+    private final String resolverClassName;
+    private final long resolverChecksum;
+    private final String packages;
+    private final List<Record> records = new ArrayList<Record>();
+
+    /** The checksum of the package listing when the index was written. Set only when read. */
+    private long listingChecksum;
+
+    /** The stamp of the inputs when the index was written. Set only when read. */
+    private long stamp = UNKNOWN;
+
+    /** The resolver and ActionBean classes from which the stamp is calculated when writing. */
+    private final List<Class<?>> types = new ArrayList<Class<?>>();
+
+    /**
+     * Create an empty index for ActionBeans found by the given type of resolver in the given
+     * packages. Add the ActionBeans by calling {@link #add(Class, String, Map)}.
+     *
+     * @param resolverType the type of the action resolver that will use the index
+     * @param packages the packages that are scanned for ActionBeans
+     * @throws IOException if the class files of the resolver cannot be read
+     */
+    public ActionBeanIndex(Class<?> resolverType, String... packages) throws IOException {
+        this(resolverType.getName(), getChecksum(resolverType), join(packages));
+        types.add(resolverType);
+    }
+
+    /** Create an index from data that were read from a stream. */
+    private ActionBeanIndex(String resolverClassName, long resolverChecksum, String packages) {
+        this.resolverClassName = resolverClassName;
+        this.resolverChecksum = resolverChecksum;
+        this.packages = packages;
+    }
+
+    /** Get the number of ActionBeans in the index. */
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Add an ActionBean to the index.
+     *
+     * @param beanType the ActionBean class
+     * @param urlBinding the URL binding of the ActionBean
+     * @param eventHandlers a map of event names to the methods that handle them
+     * @throws IOException if the class files of the ActionBean cannot be read
+     */
+    public void add(Class<? extends ActionBean> beanType, String urlBinding,
+            Map<String, Method> eventHandlers) throws IOException {
+        Record record = new Record();
+        record.className = beanType.getName();
+        record.urlBinding = urlBinding;
+        record.checksum = getChecksum(beanType);
+        types.add(beanType);
+        for (Map.Entry<String, Method> entry : eventHandlers.entrySet()) {
+            Method method = entry.getValue();
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            String[] handler = new String[parameterTypes.length + 3];
+            handler[0] = entry.getKey();
+            handler[1] = method.getDeclaringClass().getName();
+            handler[2] = method.getName();
+            for (int i = 0; i < parameterTypes.length; i++)
+                handler[i + 3] = parameterTypes[i].getName();
+            record.handlers.add(handler);
+        }
+        records.add(record);
+    }
+
+    /**
+     * Load the ActionBeans in the index, provided it is still current for the given resolver
+     * and packages. Returns null if anything that went into the index has changed, in which case
+     * the caller should scan for ActionBeans instead.
+     *
+     * @param resolverType the type of the action resolver that will use the index
+     * @param packages the packages that are scanned for ActionBeans
+     * @return the ActionBeans in the index or null if the index is stale
+     */
+    public List<Entry> resolve(Class<?> resolverType, String... packages) {
+        try {
+            if (!resolverClassName.equals(resolverType.getName())) {
+                log.info("ActionBean index is stale because the action resolver has changed");
+                return null;
+            }
+            if (!this.packages.equals(join(packages))) {
+                log.info("ActionBean index is stale because the packages have changed");
+                return null;
+            }
+
+            List<Class<? extends ActionBean>> beanTypes = new ArrayList<Class<? extends ActionBean>>(
+                    records.size());
+            for (Record record : records) {
+                Class<? extends ActionBean> beanType = getBeanType(record.className);
+                if (beanType == null) {
+                    log.info("ActionBean index is stale because ", record.className, " has changed");
+                    return null;
+                }
+                beanTypes.add(beanType);
+            }
+
+            // The checksums need to be calculated only if the files might have changed
+            List<Class<?>> stamped = new ArrayList<Class<?>>(beanTypes.size() + 1);
+            stamped.add(resolverType);
+            stamped.addAll(beanTypes);
+            if (stamp == UNKNOWN || stamp != getStamp(stamped, packages)) {
+                log.debug("ActionBean index inputs have been touched; comparing checksums");
+                if (!isCurrent(resolverType, beanTypes, packages))
+                    return null;
+            }
+
+            List<Entry> entries = new ArrayList<Entry>(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                Record record = records.get(i);
+                Class<? extends ActionBean> beanType = beanTypes.get(i);
+                Map<String, Method> eventHandlers = new HashMap<String, Method>();
+                for (String[] handler : record.handlers) {
+                    eventHandlers.put(handler[0], getMethod(beanType, handler));
+                }
+                entries.add(new Entry(beanType, record.urlBinding, eventHandlers));
+            }
+            return entries;
+        }
+        catch (Exception e) {
+            log.info("ActionBean index is stale: ", e);
+            return null;
+        }
+    }
+
+    /** Compare the checksums in the index to those of the given classes and packages. */
+    private boolean isCurrent(Class<?> resolverType, List<Class<? extends ActionBean>> beanTypes,
+            String... packages) throws IOException {
+        if (resolverChecksum != getChecksum(resolverType)) {
+            log.info("ActionBean index is stale because the action resolver has changed");
+            return false;
+        }
+
+        for (int i = 0; i < records.size(); i++) {
+            if (records.get(i).checksum != getChecksum(beanTypes.get(i))) {
+                log.info("ActionBean index is stale because ", records.get(i).className,
+                        " has changed");
+                return false;
+            }
+        }
+
+        // Checked last because it requires listing the packages
+        if (getListingChecksum(packages) != listingChecksum) {
+            log.info("ActionBean index is stale because classes have been added or removed");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Write the index to a stream. The stream is not closed.
+     *
+     * @param out the stream to which the index will be written
+     * @throws IOException if the packages cannot be listed or the stream cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(VERSION);
+        data.writeUTF(resolverClassName);
+        data.writeLong(resolverChecksum);
+        data.writeUTF(packages);
+        data.writeLong(getListingChecksum(split(packages)));
+        data.writeLong(types.isEmpty() ? stamp : getStamp(types, split(packages)));
+        data.writeInt(records.size());
+        for (Record record : records) {
+            data.writeUTF(record.className);
+            data.writeUTF(record.urlBinding);
+            data.writeLong(record.checksum);
+            data.writeShort(record.handlers.size());
+            for (String[] handler : record.handlers) {
+                data.writeShort(handler.length);
+                for (String s : handler)
+                    data.writeUTF(s);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Read an index that was written by {@link #write(OutputStream)}. The stream is not closed.
+     *
+     * @param in the stream from which to read the index
+     * @return the index
+     * @throws IOException if the stream cannot be read or does not contain an index
+     */
+    public static ActionBeanIndex read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != VERSION)
+            throw new IOException("Not an ActionBean index or an unsupported version");
+
+        ActionBeanIndex index = new ActionBeanIndex(data.readUTF(), data.readLong(),
+                data.readUTF());
+        index.listingChecksum = data.readLong();
+        index.stamp = data.readLong();
+        for (int count = data.readInt(); count > 0; --count) {
+            Record record = new Record();
+            record.className = data.readUTF();
+            record.urlBinding = data.readUTF();
+            record.checksum = data.readLong();
+            for (int handlers = data.readUnsignedShort(); handlers > 0; --handlers) {
+                String[] handler = new String[data.readUnsignedShort()];
+                for (int i = 0; i < handler.length; i++)
+                    handler[i] = data.readUTF();
+                record.handlers.add(handler);
+            }
+            index.records.add(record);
+        }
+        return index;
+    }
+
+    /**
+     * Read an index from the classpath of the context class loader.
+     *
+     * @param resource the name of the resource that holds the index
+     * @return the index or null if it does not exist or cannot be read
+     */
+    public static ActionBeanIndex load(String resource) {
+        InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(
+                resource);
+        if (in == null) {
+            log.info("ActionBean index ", resource, " was not found");
+            return null;
+        }
+
+        try {
+            return read(in);
+        }
+        catch (IOException e) {
+            log.warn("Could not read ActionBean index ", resource, ": ", e);
+            return null;
+        }
+        finally {
+            try {
+                in.close();
+            }
+            catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /** Load an ActionBean class, returning null if it cannot be loaded or is not an ActionBean. */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends ActionBean> getBeanType(String className) {
+        try {
+            Class<?> type = Class.forName(className, false, Thread.currentThread()
+                    .getContextClassLoader());
+            return ActionBean.class.isAssignableFrom(type) ? (Class<? extends ActionBean>) type
+                    : null;
+        }
+        catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /** Find the method described by a handler, which is declared by the bean or a superclass. */
+    private static Method getMethod(Class<?> beanType, String[] handler)
+            throws ClassNotFoundException, NoSuchMethodException {
+        Class<?> declaringClass = beanType;
+        while (declaringClass != null && !declaringClass.getName().equals(handler[1]))
+            declaringClass = declaringClass.getSuperclass();
+        if (declaringClass == null)
+            throw new NoSuchMethodException(handler[1] + "." + handler[2]);
+
+        Class<?>[] parameterTypes = new Class<?>[handler.length - 3];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = primitives.get(handler[i + 3]);
+            parameterTypes[i] = type != null ? type : Class.forName(handler[i + 3], false,
+                    declaringClass.getClassLoader());
+        }
+        return declaringClass.getDeclaredMethod(handler[2], parameterTypes);
+    }
+
+    /**
+     * Calculate a checksum of the class files of a class and all its superclasses, up to the
+     * first class that was loaded by the bootstrap class loader.
+     */
+    protected static long getChecksum(Class<?> type) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[4096];
+        for (; type != null && type.getClassLoader() != null; type = type.getSuperclass()) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            InputStream in = type.getClassLoader().getResourceAsStream(resource);
+            if (in == null)
+                throw new IOException("Could not find " + resource);
+
+            try {
+                crc.update(resource.getBytes("UTF-8"));
+                for (int n; (n = in.read(buffer)) >= 0;)
+                    crc.update(buffer, 0, n);
+            }
+            finally {
+                in.close();
+            }
+        }
+        return crc.getValue();
+    }
+
+    /** Calculate a checksum of the names of all the class files in the given packages. */
+    protected static long getListingChecksum(String... packages) throws IOException {
+        TreeSet<String> classFiles = new TreeSet<String>();
+        for (String pkg : packages) {
+            for (String child : VFS.getInstance().list(pkg.replace('.', '/'))) {
+                if (child.endsWith(".class"))
+                    classFiles.add(child);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        for (String classFile : classFiles) {
+            crc.update(classFile.getBytes("UTF-8"));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Calculate a stamp of the sizes and modification times of the files that went into the
+     * index: the JAR files or class files of the given classes and their superclasses, and the
+     * JAR files or directories that make up the given packages. Nothing is read but the
+     * directories of the packages. Returns {@link #UNKNOWN} if any of these is not on the local
+     * file system.
+     */
+    protected static long getStamp(List<Class<?>> types, String... packages) throws IOException {
+        TreeSet<String> stamps = new TreeSet<String>();
+        for (Class<?> type : types) {
+            for (; type != null && type.getClassLoader() != null; type = type.getSuperclass()) {
+                String resource = type.getName().replace('.', '/') + ".class";
+                if (!addStamps(stamps, resource, type.getClassLoader().getResource(resource)))
+                    return UNKNOWN;
+            }
+        }
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        for (String pkg : packages) {
+            String path = pkg.replace('.', '/');
+            for (Enumeration<URL> urls = loader.getResources(path); urls.hasMoreElements();) {
+                if (!addStamps(stamps, path, urls.nextElement()))
+                    return UNKNOWN;
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        for (String s : stamps) {
+            crc.update(s.getBytes("UTF-8"));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Add stamps for the resource at a URL: the JAR file that contains it or, for a file, the
+     * file itself or, for a directory, the directory and all its subdirectories. Returns false if
+     * the URL does not refer to the local file system. Only the name of a JAR file and the path
+     * of the resource are used so that the stamps do not depend on where the application is
+     * installed.
+     */
+    private static boolean addStamps(TreeSet<String> stamps, String path, URL url) {
+        if (url == null)
+            return false;
+
+        File jar = ClassFileIndex.getJarFile(url);
+        if (jar != null) {
+            stamps.add(jar.getName() + ' ' + jar.length() + ' ' + jar.lastModified());
+            return true;
+        }
+        if (!"file".equals(url.getProtocol()))
+            return false;
+
+        File file;
+        try {
+            file = new File(url.toURI());
+        }
+        catch (URISyntaxException e) {
+            return false;
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        if (file.isDirectory())
+            addDirectoryStamps(stamps, path, file);
+        else
+            stamps.add(path + ' ' + file.length() + ' ' + file.lastModified());
+        return true;
+    }
+
+    /**
+     * Add stamps for a directory and its subdirectories. The modification time of a directory
+     * changes whenever a file is added to it or removed from it.
+     */
+    private static void addDirectoryStamps(TreeSet<String> stamps, String path, File directory) {
+        stamps.add(path + "/ " + directory.lastModified());
+        File[] children = directory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory())
+                    addDirectoryStamps(stamps, path + '/' + child.getName(), child);
+            }
+        }
+    }
+
+    /** Join package names into the form in which they are stored. */
+    private static String join(String... packages) {
+        StringBuilder buf = new StringBuilder();
+        for (String pkg : packages) {
+            if (buf.length() > 0)
+                buf.append(',');
+            buf.append(pkg);
+        }
+        return buf.toString();
+    }
+
+    /** Split package names that were joined by {@link #join(String...)}. */
+    private static String[] split(String packages) {
+        return packages.length() == 0 ? new String[0] : packages.split(",");
+    }
+}
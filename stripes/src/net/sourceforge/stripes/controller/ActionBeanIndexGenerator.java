@@ -0,0 +1,91 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import net.sourceforge.stripes.config.BootstrapPropertyResolver;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.RuntimeConfiguration;
+import net.sourceforge.stripes.mock.MockFilterConfig;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+/**
+ * <p>
+ * A command line tool that generates an {@link ActionBeanIndex} as part of a build. Stripes is
+ * configured outside of a servlet container, using mock servlet objects, and the ActionBeans are
+ * found by the {@link AnnotatedClassActionResolver} just as they would be at startup. The index is
+ * then written to a file:
+ * </p>
+ *
+ * <pre>
+ * java -cp ... net.sourceforge.stripes.controller.ActionBeanIndexGenerator &lt;output file&gt; \
+ *         ActionResolver.Packages=com.example.action [name=value ...]
+ * </pre>
+ *
+ * <p>
+ * The name/value pairs are the same initialization parameters that are given to
+ * {@link StripesFilter}.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class ActionBeanIndexGenerator {
+    private ActionBeanIndexGenerator() {
+    }
+
+    /**
+     * Generate an index and write it to a file. The first argument is the name of the file. The
+     * remaining arguments are initialization parameters for Stripes in the form
+     * {@code name=value}, which must include at least {@value AnnotatedClassActionResolver#PACKAGES}.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java " + ActionBeanIndexGenerator.class.getName()
+                    + " <output file> [name=value ...]");
+            System.exit(1);
+        }
+
+        MockFilterConfig filterConfig = new MockFilterConfig();
+        filterConfig.setServletContext(new MockServletContext("index"));
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq < 0)
+                throw new IllegalArgumentException("Expected name=value but got " + args[i]);
+            filterConfig.addInitParameter(args[i].substring(0, eq), args[i].substring(eq + 1));
+        }
+
+        Configuration configuration = new RuntimeConfiguration();
+        configuration.setBootstrapPropertyResolver(new BootstrapPropertyResolver(filterConfig));
+        configuration.init();
+
+        ActionResolver resolver = configuration.getActionResolver();
+        if (!(resolver instanceof AnnotatedClassActionResolver)) {
+            throw new IllegalArgumentException("Cannot index ActionBeans for action resolver "
+                    + resolver.getClass().getName());
+        }
+
+        ActionBeanIndex index = ((AnnotatedClassActionResolver) resolver).createIndex();
+        OutputStream out = new FileOutputStream(args[0]);
+        try {
+            index.write(out);
+        }
+        finally {
+            out.close();
+        }
+        System.out.println("Wrote " + index.size() + " ActionBeans to " + args[0]);
+    }
+}
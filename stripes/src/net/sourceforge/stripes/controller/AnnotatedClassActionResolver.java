@@ -31,13 +31,14 @@ import net.sourceforge.stripes.util.ResolverUtil;
 import net.sourceforge.stripes.util.StringUtil;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,6 +52,9 @@ import java.util.Set;
  * annotations, and potentially a @DefaultHandler annotation.  Using these annotations the
  * Resolver will determine which method should be executed for the current request.</p>
  *
+ * <p>Instead of scanning for ActionBeans at startup, the Resolver can load them from an
+ * {@link ActionBeanIndex} that was generated at build time. See {@link #INDEX}.</p>
+ *
  * @see net.sourceforge.stripes.action.UrlBinding
  * @author Tim Fennell
  */
@@ -63,6 +67,12 @@ public class AnnotatedClassActionResolver implements ActionResolver {
      */
     public static final String PACKAGES = "ActionResolver.Packages";
 
+    /**
+     * Configuration key used to name a classpath resource that holds an {@link ActionBeanIndex}.
+     * If the index exists and is current, it is used instead of scanning for ActionBeans.
+     */
+    public static final String INDEX = "ActionResolver.Index";
+
     /** Key used to store the default handler in the Map of handler methods. */
     private static final String DEFAULT_HANDLER_KEY = "__default_handler";
 
@@ -93,18 +103,38 @@ public class AnnotatedClassActionResolver implements ActionResolver {
             }
     };
 
+    /**
+     * Maps each subclass of ActionBean to a Map of the request parameter names that fire its
+     * events to the names of those events. Each event is fired by a parameter with the event's
+     * name and, for image buttons, by one with the event's name followed by {@code .x}.
+     */
+    private Map<Class<? extends ActionBean>,Map<String,String>> eventParameters =
+        new HashMap<Class<? extends ActionBean>,Map<String,String>>();
+
     /**
      * Scans the classpath of the current classloader (not including parents) to find implementations
      * of the ActionBean interface.  Examines annotations on the classes found to determine what
      * forms and events they map to, and stores this information in a pair of maps for fast
-     * access during request processing.
+     * access during request processing. If an {@link ActionBeanIndex} is configured and is
+     * current, the ActionBeans are loaded from the index instead.
      */
     public void init(Configuration configuration) throws Exception {
         this.configuration = configuration;
 
-        // Process each ActionBean
-        for (Class<? extends ActionBean> clazz : findClasses()) {
-            addActionBean(clazz);
+        // Process each ActionBean, publishing all the URL bindings at once when done
+        UrlBindingFactory factory = getUrlBindingFactory();
+        synchronized (factory) {
+            factory.beginWrite();
+            try {
+                if (!addIndexedActionBeans()) {
+                    for (Class<? extends ActionBean> clazz : findClasses()) {
+                        addActionBean(clazz);
+                    }
+                }
+            }
+            finally {
+                factory.endWrite();
+            }
         }
     }
 
@@ -129,19 +159,40 @@ public class AnnotatedClassActionResolver implements ActionResolver {
         if (binding == null)
             return;
 
+        // Construct the mapping of event->method for the class
+        Map<String, Method> classMappings = new HashMap<String, Method>();
+        processMethods(clazz, classMappings);
+
+        addActionBean(clazz, binding, classMappings);
+    }
+
+    /**
+     * Adds an ActionBean class whose URL binding and event handlers are already known to the set
+     * that this resolver can resolve.
+     *
+     * @param clazz a class that implements ActionBean
+     * @param binding the URL binding of the class
+     * @param classMappings the mapping of event names to the methods that handle them
+     */
+    protected void addActionBean(Class<? extends ActionBean> clazz, String binding,
+            Map<String, Method> classMappings) {
         // make sure mapping exists in cache
         UrlBinding proto = getUrlBindingFactory().getBindingPrototype(clazz);
         if (proto == null) {
             getUrlBindingFactory().addBinding(clazz, new UrlBinding(clazz, binding));
         }
 
-        // Construct the mapping of event->method for the class
-        Map<String, Method> classMappings = new HashMap<String, Method>();
-        processMethods(clazz, classMappings);
-
         // Put the event->method mapping for the class into the set of mappings
         this.eventMappings.put(clazz, classMappings);
 
+        // Index the request parameters that fire the events
+        Map<String, String> parameters = new HashMap<String, String>(classMappings.size() * 4);
+        for (String event : classMappings.keySet()) {
+            parameters.put(event, event);
+            parameters.put(event + ".x", event);
+        }
+        this.eventParameters.put(clazz, parameters);
+
         if (log.getRealLog().isDebugEnabled()) {
             // Print out the event mappings nicely
             for (Map.Entry<String, Method> entry : classMappings.entrySet()) {
@@ -155,6 +206,66 @@ public class AnnotatedClassActionResolver implements ActionResolver {
         }
     }
 
+    /**
+     * Adds the ActionBeans from the {@link ActionBeanIndex} named by the configuration property
+     * {@value #INDEX}. Nothing is added if no index is configured or if the index cannot be
+     * found or is stale.
+     *
+     * @return true if the ActionBeans were added from the index; otherwise false
+     */
+    protected boolean addIndexedActionBeans() {
+        String resource = getConfiguration().getBootstrapPropertyResolver().getProperty(INDEX);
+        if (resource == null)
+            return false;
+
+        ActionBeanIndex index = ActionBeanIndex.load(resource);
+        List<ActionBeanIndex.Entry> entries = index == null ? null : index.resolve(getClass(),
+                getPackages());
+        if (entries == null)
+            return false;
+
+        // The binding can depend on the configuration, so make sure it has not changed
+        for (ActionBeanIndex.Entry entry : entries) {
+            if (!entry.getUrlBinding().equals(getUrlBinding(entry.getBeanType()))) {
+                log.info("ActionBean index is stale because the URL binding of ",
+                        entry.getBeanType().getName(), " has changed");
+                return false;
+            }
+        }
+
+        for (ActionBeanIndex.Entry entry : entries) {
+            addActionBean(entry.getBeanType(), entry.getUrlBinding(), entry.getEventHandlers());
+        }
+        log.info("Loaded ", entries.size(), " ActionBeans from index ", resource);
+        return true;
+    }
+
+    /**
+     * Creates an {@link ActionBeanIndex} of the ActionBeans that this resolver finds by scanning
+     * the configured packages. The index can be loaded by a later call to
+     * {@link #init(Configuration)} instead of scanning again.
+     *
+     * @return a new index
+     * @throws IOException if the class files of the ActionBeans cannot be read
+     */
+    public ActionBeanIndex createIndex() throws IOException {
+        ActionBeanIndex index = new ActionBeanIndex(getClass(), getPackages());
+        for (Class<? extends ActionBean> clazz : findClasses()) {
+            if (Modifier.isAbstract(clazz.getModifiers())
+                    || clazz.isAnnotationPresent(DontAutoLoad.class))
+                continue;
+
+            String binding = getUrlBinding(clazz);
+            if (binding == null)
+                continue;
+
+            Map<String, Method> classMappings = new HashMap<String, Method>();
+            processMethods(clazz, classMappings);
+            index.add(clazz, binding, classMappings);
+        }
+        return index;
+    }
+
     /**
      * Removes an ActionBean class from the set that this resolver can resolve. The URL binding
      * and the events managed by the class are removed from the cache.
@@ -167,6 +278,7 @@ public class AnnotatedClassActionResolver implements ActionResolver {
             getUrlBindingFactory().removeBinding(clazz);
         }
         eventMappings.remove(clazz);
+        eventParameters.remove(clazz);
     }
 
     /**
@@ -458,34 +570,55 @@ public class AnnotatedClassActionResolver implements ActionResolver {
     }
 
     /**
-     * Loops through the set of known events for the ActionBean to see if the event
-     * names are present as parameter names in the request.  Returns the first event
-     * name found in the request, or null if none is found.
+     * Checks the request parameter names against the parameters that fire the known events
+     * for the ActionBean, including the {@code .x} parameters of image buttons, to see if an
+     * event was submitted. Whichever of the two sets of names is smaller is looked up in the
+     * other. Returns the event name found in the request, or null if none is found.
      *
      * @param bean the ActionBean type bound to the request
      * @param context the ActionBeanContext for the current request
      * @return String the name of the event submitted, or null if none can be found
+     * @throws StripesRuntimeException if more than one event is present in the request
      */
     @SuppressWarnings("unchecked")
     protected String getEventNameFromRequestParams(Class<? extends ActionBean> bean,
                                                    ActionBeanContext context) {
 
-        List<String> eventParams = new ArrayList<String>();
+        Map<String,String> eventParams = this.eventParameters.get(bean);
+        if (eventParams == null || eventParams.isEmpty()) {
+            return null;
+        }
+
         Map<String,String[]> parameterMap = context.getRequest().getParameterMap();
-        for (String event : this.eventMappings.get(bean).keySet()) {
-            if (parameterMap.containsKey(event) || parameterMap.containsKey(event + ".x")) {
-                eventParams.add(event);
+        Set<String> parameterNames = parameterMap.keySet();
+        boolean byParameter = parameterNames.size() < eventParams.size();
+
+        String event = null;
+        Set<String> events = null;
+        for (String name : byParameter ? parameterNames : eventParams.keySet()) {
+            String found = eventParams.get(name);
+            if (found == null || found.equals(event)
+                    || (!byParameter && !parameterMap.containsKey(name))) {
+                continue;
             }
-        }
 
-        if (eventParams.size() == 0) {
-            return null;
+            if (event == null) {
+                event = found;
+            }
+            else {
+                if (events == null) {
+                    events = new LinkedHashSet<String>();
+                    events.add(event);
+                }
+                events.add(found);
+            }
         }
-        else if (eventParams.size() == 1) {
-            return eventParams.get(0);
+
+        if (events == null) {
+            return event;
         }
         else {
-            throw new StripesRuntimeException("Multiple event parameters " + eventParams
+            throw new StripesRuntimeException("Multiple event parameters " + events
                     + " are present in this request. Only one event parameter may be specified "
                     + "per request. Otherwise, Stripes would be unable to determine which event "
                     + "to execute.");
@@ -504,20 +637,9 @@ public class AnnotatedClassActionResolver implements ActionResolver {
     protected String getEventNameFromPath(Class<? extends ActionBean> bean,
                                           ActionBeanContext context) {
         Map<String,Method> mappings = this.eventMappings.get(bean);
-        String path = HttpUtil.getRequestedPath(context.getRequest());
-        UrlBinding prototype = getUrlBindingFactory().getBindingPrototype(path);
-        String binding = prototype == null ? null : prototype.getPath();
-
-        if (binding != null && path.length() != binding.length()) {
-            String extra = path.substring(binding.length() + 1);
-            int index = extra.indexOf("/");
-            String event = extra.substring(0, (index != -1) ? index : extra.length());
-            if (mappings.containsKey(event)) {
-                return event;
-            }
-        }
-
-        return null;
+        String event = getUrlBindingFactory().getRoutingResult(context.getRequest())
+                .getPathEvent();
+        return event != null && mappings.containsKey(event) ? event : null;
     }
 
     /**
@@ -616,6 +738,17 @@ public class AnnotatedClassActionResolver implements ActionResolver {
      * @return a set of Class objects that represent subclasses of ActionBean
      */
     protected Set<Class<? extends ActionBean>> findClasses() {
+        ResolverUtil<ActionBean> resolver = new ResolverUtil<ActionBean>();
+        resolver.findImplementations(ActionBean.class, getPackages());
+        return resolver.getClasses();
+    }
+
+    /**
+     * Get the package roots that are scanned for ActionBeans, as specified in Configuration.
+     *
+     * @return the names of the packages
+     */
+    protected String[] getPackages() {
         BootstrapPropertyResolver bootstrap = getConfiguration().getBootstrapPropertyResolver();
 
         String packages = bootstrap.getProperty(PACKAGES);
@@ -628,10 +761,7 @@ public class AnnotatedClassActionResolver implements ActionResolver {
             );
         }
 
-        String[] pkgs = StringUtil.standardSplit(packages);
-        ResolverUtil<ActionBean> resolver = new ResolverUtil<ActionBean>();
-        resolver.findImplementations(ActionBean.class, pkgs);
-        return resolver.getClasses();
+        return StringUtil.standardSplit(packages);
     }
 
     /**
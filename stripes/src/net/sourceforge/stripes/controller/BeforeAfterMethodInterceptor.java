@@ -67,7 +67,7 @@ import java.util.concurrent.ConcurrentHashMap;
              LifecycleStage.EventHandling,
              LifecycleStage.ResolutionExecution,
              LifecycleStage.RequestComplete})
-public class BeforeAfterMethodInterceptor implements Interceptor {
+public class BeforeAfterMethodInterceptor implements ConditionalInterceptor {
 	/** Log used throughout the intercetor */
 	private static final Log log = Log.getInstance(BeforeAfterMethodInterceptor.class);
 
@@ -137,6 +137,22 @@ public class BeforeAfterMethodInterceptor implements Interceptor {
         return resolution;
 	}
 
+    /**
+     * Determines whether the ActionBean class has any {@code @Before} or {@code @After} methods
+     * for the lifecycle stage. If it has none then {@link #intercept(ExecutionContext)} would do
+     * nothing but proceed, so the interceptor is skipped. Subclasses that override
+     * {@link #intercept(ExecutionContext)} to do more than that should override this method too.
+     *
+     * @param stage the lifecycle stage being executed
+     * @param beanClass the class of the current ActionBean
+     * @return true if there are Before or After methods to run for the stage
+     */
+    public boolean isApplicable(LifecycleStage stage, Class<? extends ActionBean> beanClass) {
+        FilterMethods filterMethods = getFilterMethods(beanClass);
+        return !filterMethods.getBeforeMethods(stage).isEmpty()
+                || !filterMethods.getAfterMethods(stage).isEmpty();
+    }
+
     /**
      * Helper method that will invoke the supplied method and manage any exceptions and
      * returns from the object.  Specifically it will log any exceptions except for
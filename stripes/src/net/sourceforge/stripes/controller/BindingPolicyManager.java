@@ -21,6 +21,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,14 +37,31 @@ import net.sourceforge.stripes.validation.ValidationMetadata;
 import net.sourceforge.stripes.validation.ValidationMetadataProvider;
 
 /**
+ * <p>
  * Manages the policies observed by {@link DefaultActionBeanPropertyBinder} when binding properties
  * to an {@link ActionBean}.
+ * </p>
+ * <p>
+ * The allow and deny globs of the {@link StrictBinding} annotation and the names of the validated
+ * properties are compiled into a single trie of property names, which is walked once to find all
+ * the lists a property appears on. The decision for each property name, with indexes stripped, is
+ * then remembered so that binding the same property again costs one map lookup.
+ * </p>
  * 
  * @author Ben Gunter
  * @see StrictBinding
  */
 @StrictBinding(defaultPolicy = Policy.ALLOW)
 public class BindingPolicyManager {
+    /** Flag set on a {@link GlobMatcher} node that matches an allowed property */
+    private static final int ALLOW = 1;
+
+    /** Flag set on a {@link GlobMatcher} node that matches a denied property */
+    private static final int DENY = 2;
+
+    /** The maximum number of decisions remembered before they are all forgotten */
+    private static final int MAX_DECISIONS = 1024;
+
     /** The regular expression that a property name must match */
     private static final String PROPERTY_REGEX = "\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*";
 
@@ -53,7 +72,7 @@ public class BindingPolicyManager {
     private static final Log log = Log.getInstance(BindingPolicyManager.class);
 
     /** Cached instances */
-    private static final Map<Class<?>, BindingPolicyManager> instances = new HashMap<Class<?>, BindingPolicyManager>();
+    private static final ConcurrentMap<Class<?>, BindingPolicyManager> instances = new ConcurrentHashMap<Class<?>, BindingPolicyManager>();
 
     /**
      * Get the policy manager for the given class. Instances are cached and returned on subsequent
@@ -63,28 +82,169 @@ public class BindingPolicyManager {
      * @return a policy manager
      */
     public static BindingPolicyManager getInstance(Class<?> beanType) {
-        if (instances.containsKey(beanType))
-            return instances.get(beanType);
-
-        BindingPolicyManager instance = new BindingPolicyManager(beanType);
-        instances.put(beanType, instance);
+        BindingPolicyManager instance = instances.get(beanType);
+        if (instance == null) {
+            instance = new BindingPolicyManager(beanType);
+            BindingPolicyManager existing = instances.putIfAbsent(beanType, instance);
+            if (existing != null)
+                instance = existing;
+        }
         return instance;
     }
 
+    /**
+     * A trie of property name globs. Each node matches one property in a dotted property name and
+     * carries the flags of the globs that end there. A glob property of {@code *} matches any
+     * single property and {@code **} matches one or more properties.
+     */
+    private static class GlobMatcher {
+        private static class Node {
+            Map<String, Node> children;
+            Node any, anyDeep;
+            boolean deep;
+            int flags;
+        }
+
+        private final Node root = new Node();
+
+        /**
+         * Add globs to the trie, marking their last nodes with a flag. If any of the globs is
+         * invalid then none of them is added.
+         * 
+         * @param flag the flag to set on the nodes that match the globs
+         * @param globArray an array of property name globs, each of which may be a comma separated
+         *            list of globs
+         * @return true if any glob was added
+         */
+        public boolean add(int flag, String... globArray) {
+            if (globArray == null || globArray.length == 0)
+                return false;
+
+            // things are much easier if we convert to a single list
+            List<String[]> globs = new ArrayList<String[]>();
+            for (String glob : globArray) {
+                for (String sub : glob.split("(\\s*,\\s*)+")) {
+                    String[] properties = sub.split("\\.");
+                    for (String property : properties) {
+                        if (property.length() > 0 && !"*".equals(property)
+                                && !"**".equals(property) && !isPropertyName(property)) {
+                            log.warn("Invalid property name: " + property);
+                            return false;
+                        }
+                    }
+                    if (sub.length() > 0)
+                        globs.add(properties);
+                }
+            }
+
+            for (String[] properties : globs) {
+                Node node = root;
+                for (String property : properties) {
+                    if ("*".equals(property)) {
+                        if (node.any == null)
+                            node.any = new Node();
+                        node = node.any;
+                    }
+                    else if ("**".equals(property)) {
+                        if (node.anyDeep == null) {
+                            node.anyDeep = new Node();
+                            node.anyDeep.deep = true;
+                        }
+                        node = node.anyDeep;
+                    }
+                    else {
+                        if (node.children == null)
+                            node.children = new HashMap<String, Node>();
+                        Node child = node.children.get(property);
+                        if (child == null)
+                            node.children.put(property, child = new Node());
+                        node = child;
+                    }
+                }
+                node.flags |= flag;
+            }
+
+            log.debug("Compiled globs ", Arrays.toString(globArray), " with flag ", flag);
+            return !globs.isEmpty();
+        }
+
+        /**
+         * Get the flags of all the globs that match a dotted property name.
+         * 
+         * @param name a property name with indexes stripped
+         * @return the flags
+         */
+        public int match(String name) {
+            List<Node> nodes = new ArrayList<Node>(4);
+            List<Node> next = new ArrayList<Node>(4);
+            nodes.add(root);
+
+            int start = 0;
+            do {
+                int end = name.indexOf('.', start);
+                if (end < 0)
+                    end = name.length();
+                String property = name.substring(start, end);
+                boolean valid = isPropertyName(property);
+
+                next.clear();
+                for (Node node : nodes) {
+                    if (node.children != null) {
+                        Node child = node.children.get(property);
+                        if (child != null)
+                            next.add(child);
+                    }
+                    if (valid) {
+                        if (node.any != null)
+                            next.add(node.any);
+                        if (node.anyDeep != null)
+                            next.add(node.anyDeep);
+                        if (node.deep)
+                            next.add(node);
+                    }
+                }
+
+                if (next.isEmpty())
+                    return 0;
+
+                List<Node> swap = nodes;
+                nodes = next;
+                next = swap;
+                start = end + 1;
+            } while (start <= name.length());
+
+            int flags = 0;
+            for (Node node : nodes)
+                flags |= node.flags;
+            return flags;
+        }
+
+        /** Check if a string is a valid Java identifier, as a property name must be. */
+        private static boolean isPropertyName(String property) {
+            if (property.length() == 0
+                    || !Character.isJavaIdentifierStart(property.codePointAt(0)))
+                return false;
+            for (int i = Character.charCount(property.codePointAt(0)); i < property.length();) {
+                int c = property.codePointAt(i);
+                if (!Character.isJavaIdentifierPart(c))
+                    return false;
+                i += Character.charCount(c);
+            }
+            return true;
+        }
+    }
+
     /** The class to which the binding policy applies */
     private Class<?> beanClass;
 
     /** The default policy to honor, in case of conflicts */
     private Policy defaultPolicy;
 
-    /** The regular expression that allowed properties must match */
-    private Pattern allowPattern;
+    /** The allowed, denied and validated properties */
+    private GlobMatcher matcher;
 
-    /** The regular expression that denied properties must match */
-    private Pattern denyPattern;
-
-    /** The regular expression that matches properties with {@literal @Validate} */
-    private Pattern validatePattern;
+    /** Decisions already made, keyed by property name with indexes stripped */
+    private final Map<String, Boolean> decisions = new ConcurrentHashMap<String, Boolean>();
 
     /**
      * Create a new instance to handle binding security for the given type.
@@ -103,14 +263,13 @@ public class BindingPolicyManager {
                 // set default policy
                 this.defaultPolicy = annotation.defaultPolicy();
 
-                // construct the allow pattern
-                this.allowPattern = globToPattern(annotation.allow());
-
-                // construct the deny pattern
-                this.denyPattern = globToPattern(annotation.deny());
-
-                // construct the validated properties pattern
-                this.validatePattern = globToPattern(getValidatedProperties(beanClass));
+                // properties with @Validate are allowed just like those in the allow list
+                GlobMatcher matcher = new GlobMatcher();
+                boolean compiled = matcher.add(ALLOW, annotation.allow());
+                compiled |= matcher.add(DENY, annotation.deny());
+                compiled |= matcher.add(ALLOW, getValidatedProperties(beanClass));
+                if (compiled)
+                    this.matcher = matcher;
             }
         }
         catch (Exception e) {
@@ -136,10 +295,53 @@ public class BindingPolicyManager {
         }
 
         // check parameter name against access lists
-        String paramName = new ParameterName(eval.getExpression().getSource()).getStrippedName();
-        boolean deny = denyPattern != null && denyPattern.matcher(paramName).matches();
-        boolean allow = (allowPattern != null && allowPattern.matcher(paramName).matches())
-                || (validatePattern != null && validatePattern.matcher(paramName).matches());
+        String paramName = stripIndexes(eval.getExpression().getSource());
+        Boolean allowed = decisions.get(paramName);
+        if (allowed == null) {
+            allowed = isPropertyAllowed(paramName);
+            if (decisions.size() >= MAX_DECISIONS)
+                decisions.clear();
+            decisions.put(paramName, allowed);
+        }
+        return allowed;
+    }
+
+    /**
+     * Removes all the indexing and mapping components from a parameter name, as
+     * {@link ParameterName#getStrippedName()} does, but without a regular expression. A name
+     * with no indexes is returned as is.
+     * 
+     * @param name a parameter name, which may contain indexing or mapping
+     * @return the name with all [] segments removed
+     */
+    protected static String stripIndexes(String name) {
+        int open = name.indexOf('[');
+        if (open < 0)
+            return name;
+
+        StringBuilder buf = new StringBuilder(name.length());
+        int start = 0;
+        for (; open >= 0; open = name.indexOf('[', start)) {
+            int close = name.indexOf(']', open + 1);
+            if (close < 0)
+                break;
+            buf.append(name, start, open);
+            start = close + 1;
+        }
+        return buf.append(name, start, name.length()).toString();
+    }
+
+    /**
+     * Indicates if binding is allowed for the given property name, according to the
+     * {@link StrictBinding} policy of the bean class.
+     * 
+     * @param paramName a property name with indexes stripped
+     * @return true if binding is allowed; false if not
+     */
+    protected boolean isPropertyAllowed(String paramName) {
+        int flags = matcher == null ? 0 : matcher.match(paramName);
+        boolean deny = (flags & DENY) != 0;
+        boolean allow = (flags & ALLOW) != 0;
 
         /*
          * if path appears on neither or both lists ( i.e. !(allow ^ deny) ) and default policy is
@@ -219,7 +421,11 @@ public class BindingPolicyManager {
      * @param globArray an array of property name globs, each of which may be a comma separated list
      *            of globs
      * @return the pattern
+     * @deprecated The globs are no longer matched with regular expressions. They are compiled into
+     *             a trie of property names, which is consulted by
+     *             {@link #isPropertyAllowed(String)}. This method is no longer called.
      */
+    @Deprecated
     protected Pattern globToPattern(String... globArray) {
         if (globArray == null || globArray.length == 0)
             return null;
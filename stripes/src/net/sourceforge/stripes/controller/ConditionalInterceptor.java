@@ -0,0 +1,43 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import net.sourceforge.stripes.action.ActionBean;
+
+/**
+ * <p>An {@link Interceptor} that can tell in advance that it has nothing to do for some
+ * ActionBean classes. Before invoking a conditional interceptor, the {@link ExecutionContext}
+ * asks it whether it applies to the class of the current ActionBean. If not, the interceptor is
+ * skipped and the next one in the chain is invoked instead, just as if the interceptor had done
+ * nothing but call {@link ExecutionContext#proceed()}.</p>
+ *
+ * <p>The check is only made once the ActionBean is known. Until then, which is for all of
+ * {@link LifecycleStage#RequestInit} and {@link LifecycleStage#ActionBeanResolution}, the
+ * interceptor is always invoked. The check is made on every request, so it must be cheap,
+ * typically a lookup of information cached per ActionBean class.</p>
+ *
+ * @since Stripes 1.6
+ */
+public interface ConditionalInterceptor extends Interceptor {
+    /**
+     * Determine whether this interceptor has anything to do for an ActionBean class at a
+     * lifecycle stage.
+     *
+     * @param stage the lifecycle stage being executed
+     * @param beanClass the class of the current ActionBean
+     * @return false if this interceptor can be skipped, otherwise true
+     */
+    boolean isApplicable(LifecycleStage stage, Class<? extends ActionBean> beanClass);
+}
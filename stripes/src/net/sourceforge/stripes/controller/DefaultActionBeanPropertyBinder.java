@@ -25,10 +25,13 @@ import net.sourceforge.stripes.util.CryptoUtil;
 import net.sourceforge.stripes.util.HtmlUtil;
 import net.sourceforge.stripes.util.Log;
 import net.sourceforge.stripes.util.bean.BeanUtil;
+import net.sourceforge.stripes.util.bean.EvaluationTemplate;
 import net.sourceforge.stripes.util.bean.ExpressionException;
+import net.sourceforge.stripes.util.bean.Node;
 import net.sourceforge.stripes.util.bean.NoSuchPropertyException;
 import net.sourceforge.stripes.util.bean.PropertyExpression;
 import net.sourceforge.stripes.util.bean.PropertyExpressionEvaluation;
+import net.sourceforge.stripes.validation.DefaultTypeConverterFactory;
 import net.sourceforge.stripes.validation.ScopedLocalizableError;
 import net.sourceforge.stripes.validation.TypeConverter;
 import net.sourceforge.stripes.validation.TypeConverterFactory;
@@ -52,6 +55,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -75,6 +79,24 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
     /** Configuration instance passed in at initialization time. */
     private Configuration configuration;
 
+    /** The default value for {@link #getBindingPlanCapacity()}. */
+    public static final int DEFAULT_BINDING_PLAN_CAPACITY = 512;
+
+    /**
+     * The binding plans cached for one ActionBean class. New plans go into the current generation.
+     * When it is half full, it becomes the previous generation and the plans in the old previous
+     * generation are discarded, unless they have been used since and moved back to the current
+     * generation. This bounds the cache even when a client sends parameter names of unlimited
+     * variety, such as ever deeper chains through a self-referencing property.
+     */
+    private static final class BindingPlans {
+        volatile Map<String, BindingPlan> current = new ConcurrentHashMap<String, BindingPlan>();
+        volatile Map<String, BindingPlan> previous = Collections.emptyMap();
+    }
+
+    /** Caches binding plans by ActionBean class and then by the structure of the parameter name. */
+    private final Map<Class<?>, BindingPlans> bindingPlans = new ConcurrentHashMap<Class<?>, BindingPlans>();
+
     /**
      * Looks up and caches in a useful form the metadata necessary to perform validations as
      * properties are bound to the bean.
@@ -132,12 +154,22 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
                         && !fieldErrors.containsKey(pname)) {
                     log.trace("Running binding for property with name: ", name);
 
-                    // Determine the target type
-                    ValidationMetadata validationInfo = validationInfos.get(name.getStrippedName());
+                    // Determine the target type, reusing a cached plan if there is one
                     PropertyExpressionEvaluation eval;
+                    BindingPlan plan;
                     try {
-                        eval = new PropertyExpressionEvaluation(PropertyExpression
-                                .getExpression(pname), bean);
+                        PropertyExpression expression = PropertyExpression.getExpression(pname);
+                        plan = getBindingPlan(bean.getClass(), expression);
+                        if (plan != null) {
+                            eval = plan.evaluate(expression, bean);
+                        }
+                        else {
+                            eval = new PropertyExpressionEvaluation(expression, bean);
+                            plan = createBindingPlan(eval, validationInfos.get(name
+                                    .getStrippedName()));
+                            if (plan.isReusable())
+                                putBindingPlan(bean.getClass(), expression, plan);
+                        }
                     }
                     catch (Exception e) {
                         if (pname.equals(context.getEventName()))
@@ -145,8 +177,9 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
                         else
                             throw e;
                     }
-                    Class<?> type = eval.getType();
-                    Class<?> scalarType = eval.getScalarType();
+                    ValidationMetadata validationInfo = plan.getValidationMetadata();
+                    Class<?> type = plan.getType();
+                    Class<?> scalarType = plan.getScalarType();
 
                     // Check to see if binding into this expression is permitted
                     if (!isBindingAllowed(eval))
@@ -236,6 +269,105 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
         return fieldErrors;
     }
 
+    /**
+     * Get the cached {@link BindingPlan} for binding parameters with the same structure as the
+     * given expression to an ActionBean of the given type.
+     * 
+     * @param beanType the ActionBean class
+     * @param expression the parsed parameter name
+     * @return a binding plan, or null if none has been cached
+     */
+    protected BindingPlan getBindingPlan(Class<?> beanType, PropertyExpression expression) {
+        BindingPlans plans = bindingPlans.get(beanType);
+        if (plans == null)
+            return null;
+
+        String key = getBindingPlanKey(expression);
+        BindingPlan plan = plans.current.get(key);
+        if (plan == null) {
+            plan = plans.previous.get(key);
+            if (plan != null)
+                putBindingPlan(plans, key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Create a {@link BindingPlan} from an expression that has been evaluated against an
+     * ActionBean.
+     * 
+     * @param eval the expression evaluation
+     * @param validationInfo the validation metadata for the property, if any
+     * @return a binding plan
+     */
+    protected BindingPlan createBindingPlan(PropertyExpressionEvaluation eval,
+            ValidationMetadata validationInfo) {
+        return new BindingPlan(eval, validationInfo);
+    }
+
+    /**
+     * Cache a {@link BindingPlan} for binding parameters with the same structure as the given
+     * expression to an ActionBean of the given type.
+     * 
+     * @param beanType the ActionBean class
+     * @param expression the parsed parameter name
+     * @param plan the binding plan
+     */
+    protected void putBindingPlan(Class<?> beanType, PropertyExpression expression,
+            BindingPlan plan) {
+        BindingPlans plans = bindingPlans.get(beanType);
+        if (plans == null) {
+            plans = new BindingPlans();
+            bindingPlans.put(beanType, plans);
+        }
+        putBindingPlan(plans, getBindingPlanKey(expression), plan);
+    }
+
+    /** Put a plan into the current generation, starting a new one if it is full. */
+    private void putBindingPlan(BindingPlans plans, String key, BindingPlan plan) {
+        Map<String, BindingPlan> current = plans.current;
+        current.put(key, plan);
+        if (current.size() > getBindingPlanCapacity() / 2) {
+            synchronized (plans) {
+                if (plans.current == current) {
+                    plans.previous = current;
+                    plans.current = new ConcurrentHashMap<String, BindingPlan>();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the approximate maximum number of binding plans that are cached for each ActionBean
+     * class. The default is {@value #DEFAULT_BINDING_PLAN_CAPACITY}.
+     */
+    protected int getBindingPlanCapacity() {
+        return DEFAULT_BINDING_PLAN_CAPACITY;
+    }
+
+    /**
+     * Get the key under which binding plans for the given expression are cached. Parameter names
+     * that differ only in the values of their indexes or map keys (e.g. {@code rows[0].name} and
+     * {@code rows[1].name}) have the same key and share a plan.
+     * 
+     * @param expression the parsed parameter name
+     * @return the cache key
+     */
+    protected String getBindingPlanKey(PropertyExpression expression) {
+        StringBuilder key = new StringBuilder(expression.getSource().length());
+        for (Node node = expression.getRootNode(); node != null; node = node.getNext()) {
+            if (node.isBracketed()) {
+                key.append("[]");
+            }
+            else {
+                if (key.length() > 0)
+                    key.append('.');
+                key.append(node.getStringValue());
+            }
+        }
+        return key.toString();
+    }
+
     /**
      * <p>
      * Checks to see if binding is permitted for the provided expression evaluation. Note that the
@@ -772,6 +904,7 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
             else {
                 returnType = scalarType;
             }
+            release(factory, converter, locale);
             converter = factory.getInstance(validationInfo.converter(), locale);
         }
         // Else, if we got a converter for the declared type (e.g. Foo implements List<Bar>)
@@ -789,6 +922,21 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
             "converter " + converter.getClass().getName()
           : "Constructor(String) if available"));
 
+        try {
+            convertValues(propertyName, values, returnType, converter, validationInfo, returns, errors);
+        }
+        finally {
+            release(factory, converter, locale);
+        }
+
+        return returns;
+    }
+
+    /** Converts each of the values with the given converter and adds the results to returns. */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void convertValues(ParameterName propertyName, String[] values, Class returnType,
+            TypeConverter<?> converter, ValidationMetadata validationInfo, List<Object> returns,
+            List<ValidationError> errors) throws Exception {
         for (String value : values) {
             if (validationInfo != null && validationInfo.encrypted()) {
                 value = CryptoUtil.decrypt(value);
@@ -829,8 +977,15 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
                 }
             }
         }
+    }
 
-        return returns;
+    /**
+     * Hands a converter back to the factory it came from once it is no longer needed, if the
+     * factory is a {@link DefaultTypeConverterFactory}, so that it can be reused.
+     */
+    private void release(TypeConverterFactory factory, TypeConverter<?> converter, Locale locale) {
+        if (factory instanceof DefaultTypeConverterFactory)
+            ((DefaultTypeConverterFactory) factory).release(converter, locale);
     }
 
     /**
@@ -853,6 +1008,77 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
         }
     }
 
+    /**
+     * <p>
+     * Holds everything about binding a request parameter to an ActionBean that depends only on the
+     * class of the ActionBean and the structure of the parameter name: the type information for
+     * each node of the property expression (from which the chain of getters and setters follows),
+     * the declared and scalar types of the target property and its validation metadata.
+     * </p>
+     * <p>
+     * Plans are cached so that binding a parameter whose plan is known skips straight to
+     * conversion. Whether binding is allowed is not part of the plan; that decision is always
+     * made by {@link DefaultActionBeanPropertyBinder#isBindingAllowed(PropertyExpressionEvaluation)}
+     * so that subclasses can base it on the state of the request.
+     * </p>
+     */
+    protected static class BindingPlan {
+        private EvaluationTemplate template;
+        private Class<?> type, scalarType;
+        private ValidationMetadata validationMetadata;
+
+        /**
+         * Create a plan from an expression that has been evaluated against an ActionBean.
+         * 
+         * @param eval the expression evaluation
+         * @param validationMetadata the validation metadata for the property, if any
+         */
+        public BindingPlan(PropertyExpressionEvaluation eval, ValidationMetadata validationMetadata) {
+            this.template = eval.getTemplate();
+            this.type = eval.getType();
+            this.scalarType = eval.getScalarType();
+            this.validationMetadata = validationMetadata;
+        }
+
+        /**
+         * True if the plan can be reused for other requests. A plan is not reusable if the type
+         * information for the expression depended on the values held by the ActionBean.
+         */
+        public boolean isReusable() {
+            return template != null;
+        }
+
+        /**
+         * Evaluate an expression that has the same structure as the one from which this plan was
+         * created against an ActionBean of the same type.
+         * 
+         * @param expression the parsed parameter name
+         * @param bean the ActionBean
+         * @return an expression evaluation
+         */
+        public PropertyExpressionEvaluation evaluate(PropertyExpression expression, ActionBean bean) {
+            if (template == null)
+                return new PropertyExpressionEvaluation(expression, bean);
+            else
+                return new PropertyExpressionEvaluation(expression, bean, template);
+        }
+
+        /** The declared type of the target property, or null if it could not be determined. */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /** The type of the elements of the target property if it is an array, collection or map. */
+        public Class<?> getScalarType() {
+            return scalarType;
+        }
+
+        /** The validation metadata for the target property, or null if there is none. */
+        public ValidationMetadata getValidationMetadata() {
+            return validationMetadata;
+        }
+    }
+
     /**
      * An inner class that represents a "row" of form properties that all have the same index
      * so that we can validate all those properties together. 
@@ -88,6 +88,46 @@ public class DispatcherHelper {
         return pageContextStash.get();
     }
 
+    /** Looks up the ActionBean for the request. Holds no state, so it is shared by all requests. */
+    private static final Interceptor RESOLVE_ACTION_BEAN = new Interceptor() {
+        public Resolution intercept(ExecutionContext ctx) throws Exception {
+            // Look up the ActionBean and set it on the context
+            ActionBeanContext context = ctx.getActionBeanContext();
+            ActionBean bean = StripesFilter.getConfiguration().getActionResolver().getActionBean(context);
+            ctx.setActionBean(bean);
+
+            // Prefer the context from the resolved bean if it differs from the ExecutionContext
+            if (context != bean.getContext()) {
+                ActionBeanContext other = bean.getContext();
+                other.setEventName(context.getEventName());
+                other.setRequest(context.getRequest());
+                other.setResponse(context.getResponse());
+
+                context = other;
+                ctx.setActionBeanContext(context);
+            }
+
+            // Then register it in the Request as THE ActionBean for this request
+            HttpServletRequest request = context.getRequest();
+            request.setAttribute(StripesConstants.REQ_ATTR_ACTION_BEAN, bean);
+            return null;
+        }
+    };
+
+    /** Executes the current Resolution. Holds no state, so it is shared by all requests. */
+    private static final Interceptor EXECUTE_RESOLUTION = new Interceptor() {
+        public Resolution intercept(ExecutionContext context) throws Exception {
+            ActionBeanContext abc = context.getActionBeanContext();
+            Resolution resolution = context.getResolution();
+
+            if (resolution != null) {
+                resolution.execute(abc.getRequest(), abc.getResponse());
+            }
+
+            return null;
+        }
+    };
+
     /**
      * Responsible for resolving the ActionBean for this request and setting it on the
      * ExecutionContext. If no ActionBean can be found the ActionResolver will throw an
@@ -101,30 +141,7 @@ public class DispatcherHelper {
         final Configuration config = StripesFilter.getConfiguration();
         ctx.setLifecycleStage(LifecycleStage.ActionBeanResolution);
         ctx.setInterceptors(config.getInterceptors(LifecycleStage.ActionBeanResolution));
-        return  ctx.wrap( new Interceptor() {
-            public Resolution intercept(ExecutionContext ctx) throws Exception {
-                // Look up the ActionBean and set it on the context
-                ActionBeanContext context = ctx.getActionBeanContext();
-                ActionBean bean = StripesFilter.getConfiguration().getActionResolver().getActionBean(context);
-                ctx.setActionBean(bean);
-
-                // Prefer the context from the resolved bean if it differs from the ExecutionContext
-                if (context != bean.getContext()) {
-                    ActionBeanContext other = bean.getContext();
-                    other.setEventName(context.getEventName());
-                    other.setRequest(context.getRequest());
-                    other.setResponse(context.getResponse());
-
-                    context = other;
-                    ctx.setActionBeanContext(context);
-                }
-
-                // Then register it in the Request as THE ActionBean for this request
-                HttpServletRequest request = context.getRequest();
-                request.setAttribute(StripesConstants.REQ_ATTR_ACTION_BEAN, bean);
-                return null;
-            }
-        });
+        return ctx.wrap(RESOLVE_ACTION_BEAN);
     }
 
     /**
@@ -488,18 +505,7 @@ public class DispatcherHelper {
         ctx.setInterceptors(config.getInterceptors(LifecycleStage.ResolutionExecution));
         ctx.setResolution(resolution);
 
-        Resolution retval = ctx.wrap( new Interceptor() {
-            public Resolution intercept(ExecutionContext context) throws Exception {
-                ActionBeanContext abc = context.getActionBeanContext();
-                Resolution resolution = context.getResolution();
-
-                if (resolution != null) {
-                    resolution.execute(abc.getRequest(), abc.getResponse());
-                }
-
-                return null;
-            }
-        });
+        Resolution retval = ctx.wrap(EXECUTE_RESOLUTION);
 
         if (retval != null) {
             log.warn("An interceptor wrapping LifecycleStage.ResolutionExecution returned ",
@@ -60,6 +60,13 @@ public class DispatcherServlet extends HttpServlet {
     /** Log used throughout the class. */
     private static final Log log = Log.getInstance(DispatcherServlet.class);
 
+    /** Lifecycle code for the stages at which Stripes itself does nothing. */
+    private static final Interceptor NO_OP = new Interceptor() {
+        public Resolution intercept(ExecutionContext context) throws Exception {
+            return null;
+        }
+    };
+
     /**
      * <p>Invokes the following instance level methods in order to coordinate the processing
      * of requests:</p>
@@ -207,7 +214,7 @@ public class DispatcherServlet extends HttpServlet {
     private Resolution requestInit(ExecutionContext ctx) throws Exception {
         ctx.setLifecycleStage(LifecycleStage.RequestInit);
         ctx.setInterceptors(StripesFilter.getConfiguration().getInterceptors(LifecycleStage.RequestInit));
-        return ctx.wrap(new Interceptor() {public Resolution intercept(ExecutionContext context) throws Exception {return null;}});
+        return ctx.wrap(NO_OP);
     }
 
     /**
@@ -220,7 +227,7 @@ public class DispatcherServlet extends HttpServlet {
         ctx.setLifecycleStage(LifecycleStage.RequestComplete);
         ctx.setInterceptors(StripesFilter.getConfiguration().getInterceptors(LifecycleStage.RequestComplete));
         try {
-            Resolution resolution = ctx.wrap(new Interceptor() {public Resolution intercept(ExecutionContext context) throws Exception {return null;}});
+            Resolution resolution = ctx.wrap(NO_OP);
             if (resolution != null)
                 log.warn("Resolutions returned from interceptors for ", ctx.getLifecycleStage(),
                         " are ignored because it is too late to execute them.");
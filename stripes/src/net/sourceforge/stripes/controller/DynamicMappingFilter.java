@@ -20,6 +20,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -27,8 +28,10 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -102,6 +105,24 @@ import org.xml.sax.SAXException;
  * {@code 404} error.
  * </p>
  * <p>
+ * The price of that approach is that every request for an {@link ActionBean} is first tried by the
+ * container and fails, and its response is wrapped to trap the error. Setting the
+ * {@code RoutingMode} initialization parameter to {@code upfront} makes the filter decide before
+ * the container sees the request instead:
+ * <ol>
+ * <li>If the requested path is known not to be mapped to an {@link ActionBean}, pass the request
+ * down the filter chain without wrapping the response.</li>
+ * <li>Otherwise, check the {@link ActionResolver} to see if an {@link ActionBean} is mapped to the
+ * URL. If not, or if the web application contains a resource at that path, then remember the path
+ * and pass the request down the filter chain. Otherwise ...</li>
+ * <li>Invoke {@link StripesFilter} and {@link DispatcherServlet}</li>
+ * </ol>
+ * Static resources at a path to which an {@link ActionBean} is bound are still delivered in this
+ * mode, provided {@link ServletContext#getResource(String)} can find them. Resources that are
+ * generated by other servlets at such a path are not, so use the default mode ({@code trap}) if
+ * your application depends on that.
+ * </p>
+ * <p>
  * The {@code IncludeBufferSize} initialization parameter (optional, default 1024) sets the number
  * of characters to be buffered by {@link TempBufferWriter} for include requests. See
  * {@link TempBufferWriter} for more information.
@@ -304,6 +325,23 @@ public class DynamicMappingFilter implements Filter {
      */
     public static final String INCLUDE_BUFFER_SIZE_PARAM = "IncludeBufferSize";
 
+    /**
+     * The name of the init-param that can be used to set the {@link RoutingMode} in which the
+     * filter decides whether to dispatch a request to an {@link ActionBean}.
+     */
+    public static final String ROUTING_MODE_PARAM = "RoutingMode";
+
+    /** The ways in which the filter can decide whether to dispatch a request to an ActionBean. */
+    public static enum RoutingMode {
+        /** Let the container try the request first and dispatch to an ActionBean after a 404. */
+        TRAP,
+        /** Dispatch to an ActionBean without letting the container try the request first. */
+        UPFRONT
+    }
+
+    /** The maximum number of static paths remembered before they are all forgotten. */
+    private static final int MAX_STATIC_PATHS = 4096;
+
     /**
      * The attribute name used to store a reference to {@link StripesFilter} in the servlet context.
      */
@@ -327,6 +365,11 @@ public class DynamicMappingFilter implements Filter {
     private StripesFilter stripesFilter;
     private DispatcherServlet stripesDispatcher;
     private boolean stripesFilterIsInternal, initializing;
+    private RoutingMode routingMode = RoutingMode.TRAP;
+
+    /** Paths known not to be mapped to an ActionBean, used in {@link RoutingMode#UPFRONT} mode. */
+    private final Map<String, Boolean> staticPaths = new ConcurrentHashMap<String, Boolean>();
+    private volatile long staticPathsVersion;
 
     public void init(final FilterConfig config) throws ServletException {
         try {
@@ -343,6 +386,18 @@ public class DynamicMappingFilter implements Filter {
                     "'. Using default value ", includeBufferSize, ".");
         }
 
+        String mode = config.getInitParameter(ROUTING_MODE_PARAM);
+        if (mode != null) {
+            try {
+                routingMode = RoutingMode.valueOf(mode.trim().toUpperCase(Locale.ENGLISH));
+                log.info(getClass().getSimpleName(), " routing mode is ", routingMode);
+            }
+            catch (IllegalArgumentException e) {
+                log.warn("Unknown value '", mode, "' for init-param '", ROUTING_MODE_PARAM,
+                        "'. Using default value ", routingMode, ".");
+            }
+        }
+
         this.filterConfig = config;
         this.servletContext = config.getServletContext();
         this.stripesDispatcher = new DispatcherServlet();
@@ -385,6 +440,110 @@ public class DynamicMappingFilter implements Filter {
 
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
+        if (routingMode == RoutingMode.UPFRONT)
+            doFilterUpFront(request, response, chain);
+        else
+            doFilterTrappingErrors(request, response, chain);
+    }
+
+    /**
+     * Decide whether to dispatch to an {@link ActionBean} before the container processes the
+     * request. Requests that are not dispatched pass down the filter chain untouched.
+     */
+    protected void doFilterUpFront(ServletRequest request, ServletResponse response,
+            FilterChain chain) throws IOException, ServletException {
+        // Initialization requests are handled the same way in both modes
+        if (this.initializing
+                || ((HttpServletRequest) request).getHeader(REQ_HEADER_INIT_FLAG) != null) {
+            doFilterTrappingErrors(request, response, chain);
+            return;
+        }
+
+        String uri = HttpUtil.getRequestedPath((HttpServletRequest) request);
+        if (isStaticPathsCurrent() && staticPaths.containsKey(uri)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Get a reference to a StripesFilter instance
+        StripesFilter sf = getStripesFilter();
+        if (sf == null) {
+            initStripesFilter((HttpServletRequest) request, (HttpServletResponse) response);
+            sf = getStripesFilter();
+        }
+
+        // Pass the request through if no ActionBean is mapped to it or if it is a resource
+        Class<? extends ActionBean> beanType = sf.getInstanceConfiguration().getActionResolver()
+                .getActionBeanType(uri);
+        if (beanType == null || isResource(uri)) {
+            addStaticPath(uri);
+            chain.doFilter(request, response);
+            return;
+        }
+
+        sf.doFilter(request, response, new FilterChain() {
+            public void doFilter(ServletRequest request, ServletResponse response)
+                    throws IOException, ServletException {
+                stripesDispatcher.service(request, response);
+            }
+        });
+    }
+
+    /**
+     * Check whether the static paths remembered by {@link #doFilterUpFront(ServletRequest,
+     * ServletResponse, FilterChain)} were found with the current URL bindings. If the bindings
+     * have changed since then, the paths are forgotten.
+     */
+    protected boolean isStaticPathsCurrent() {
+        long version = getUrlBindingVersion();
+        if (version == staticPathsVersion)
+            return true;
+
+        staticPaths.clear();
+        staticPathsVersion = version;
+        return false;
+    }
+
+    /** Check if the web application contains a resource at a path. */
+    protected boolean isResource(String uri) {
+        try {
+            return uri.startsWith("/") && servletContext.getResource(uri) != null;
+        }
+        catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    /** Remember a path that is not mapped to an ActionBean. */
+    protected void addStaticPath(String uri) {
+        if (staticPaths.size() >= MAX_STATIC_PATHS)
+            staticPaths.clear();
+        staticPaths.put(uri, Boolean.TRUE);
+    }
+
+    /**
+     * Get the version of the URL bindings known to the {@link ActionResolver}, or zero if the
+     * {@link ActionResolver} does not keep its bindings in a {@link UrlBindingFactory}.
+     */
+    protected long getUrlBindingVersion() {
+        StripesFilter sf = getStripesFilter();
+        if (sf != null) {
+            ActionResolver resolver = sf.getInstanceConfiguration().getActionResolver();
+            if (resolver instanceof AnnotatedClassActionResolver) {
+                return ((AnnotatedClassActionResolver) resolver).getUrlBindingFactory()
+                        .getVersion();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Let the container process the request first, trapping any {@code 404} error it returns, and
+     * dispatch to an {@link ActionBean} if the error was trapped and an {@link ActionBean} is
+     * mapped to the requested path.
+     */
+    protected void doFilterTrappingErrors(ServletRequest request, ServletResponse response,
+            FilterChain chain) throws IOException, ServletException {
         // Wrap the response in a wrapper that catches errors (but not exceptions)
         final ErrorTrappingResponseWrapper wrapper = new ErrorTrappingResponseWrapper(
                 (HttpServletResponse) response);
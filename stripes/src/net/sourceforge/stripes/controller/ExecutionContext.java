@@ -21,6 +21,8 @@ import net.sourceforge.stripes.util.Log;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import java.lang.reflect.Method;
 
 /**
@@ -45,7 +47,9 @@ public class ExecutionContext {
     }
 
     private Collection<Interceptor> interceptors;
+    private List<Interceptor> indexed;
     private Iterator<Interceptor> iterator;
+    private int index = -1;
     private Interceptor target;
     private ActionBeanContext actionBeanContext;
     private ActionBean actionBean;
@@ -56,12 +60,17 @@ public class ExecutionContext {
 
     /**
      * Used by the {@link DispatcherServlet} to initialize and/or swap out the list of
-     * {@link Interceptor} instances which should wrap the current {@link LifecycleStage}.
+     * {@link Interceptor} instances which should wrap the current {@link LifecycleStage}. If
+     * the collection is a random access list, such as those returned by
+     * {@link net.sourceforge.stripes.config.DefaultConfiguration#getInterceptors(LifecycleStage)},
+     * it is walked by index instead of with an iterator.
      *
      * @param stack a non-null (though possibly empty) ordered collection of interceptors
      */
+    @SuppressWarnings("unchecked")
     public void setInterceptors(Collection<Interceptor> stack) {
         this.interceptors = stack;
+        this.indexed = stack instanceof RandomAccess ? (List<Interceptor>) stack : null;
     }
 
     /**
@@ -77,6 +86,7 @@ public class ExecutionContext {
     public Resolution wrap(Interceptor target) throws Exception {
         this.target = target;
         this.iterator = null;
+        this.index = -1;
 
         // Before executing RequestInit, set this as the current execution context
         if (lifecycleStage == LifecycleStage.RequestInit)
@@ -158,23 +168,40 @@ public class ExecutionContext {
     /**
      * Continues the flow of execution. If there are more interceptors in the stack intercepting
      * the current lifecycle stage then the flow continues by calling the next interceptor. If
-     * there are no more interceptors then the lifecycle code is invoked.
+     * there are no more interceptors then the lifecycle code is invoked. Any
+     * {@link ConditionalInterceptor} that does not apply to the current ActionBean is skipped.
      *
      * @return a Resolution if the lifecycle code or one of the interceptors returns one
      * @throws Exception if the lifecycle code or one of the interceptors throws one
      */
     public Resolution proceed() throws Exception {
-        if (this.iterator == null) {
+        if (this.index < 0) {
             log.debug("Transitioning to lifecycle stage ", lifecycleStage);
-            this.iterator = this.interceptors.iterator();
+            this.index = 0;
+            if (this.indexed == null)
+                this.iterator = this.interceptors.iterator();
         }
 
-        if (this.iterator.hasNext()) {
-            return this.iterator.next().intercept(this);
-        }
-        else {
-            return this.target.intercept(this);
+        Interceptor interceptor;
+        while ((interceptor = nextInterceptor()) != null) {
+            if (interceptor instanceof ConditionalInterceptor && actionBean != null
+                    && !((ConditionalInterceptor) interceptor).isApplicable(lifecycleStage,
+                            actionBean.getClass())) {
+                continue;
+            }
+
+            return interceptor.intercept(this);
         }
+
+        return this.target.intercept(this);
+    }
+
+    /** Get the next interceptor in the chain for the current stage, or null if there is none. */
+    private Interceptor nextInterceptor() {
+        if (this.indexed != null)
+            return this.index < this.indexed.size() ? this.indexed.get(this.index++) : null;
+        else
+            return this.iterator.hasNext() ? this.iterator.next() : null;
     }
 
     public boolean isResolutionFromHandler() {
@@ -21,17 +21,15 @@ import net.sourceforge.stripes.util.Log;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 import java.lang.reflect.Proxy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>A FlashScope is an object that can be used to store objects and make them available as
@@ -69,8 +67,10 @@ import java.util.concurrent.TimeUnit;
  * scope is referenced by a URL parameter, then it is removed from session and it's contents
  * are pushed into request attributes for the current request.</p>
  *
- * <p>To ensure that orphaned FlashScopes do not consume increasing amounts of HttpSession memory,
- * the StripesFilter, after each request, checks to see if any FlashScopes have recently expired.
+ * <p>FlashScopes are held by the {@link FlashScopeStore} returned by
+ * {@link net.sourceforge.stripes.config.Configuration#getFlashScopeStore()}. To ensure that
+ * orphaned FlashScopes do not consume increasing amounts of memory, the store periodically
+ * discards FlashScopes that have expired and limits the number of FlashScopes each user may hold.
  * A FlashScope is expired when the length of time from the end of the request that created the
  * FlashScope is greater than the timeout set on the FlashScope.  The default timeout is 120 seconds
  * (or two minutes), and can be varied by calling {@link #setTimeout(int)} Since the timer
@@ -87,8 +87,8 @@ public class FlashScope extends HashMap<String,Object> {
     public static final int DEFAULT_TIMEOUT_IN_SECONDS = 120;
 
     private static final Log log = Log.getInstance(FlashScope.class);
-    private static final Random random = new Random();
-    private long startTime;
+    private static final AtomicInteger keySequence = new AtomicInteger(new Random().nextInt());
+    private volatile long startTime;
     private int timeout = DEFAULT_TIMEOUT_IN_SECONDS;
     private HttpServletRequest request;
     private Integer key;
@@ -140,17 +140,6 @@ public class FlashScope extends HashMap<String,Object> {
      * request was not made) after a period of time, so that it can be removed from session.</p>
      */
     public void completeRequest() {
-        // Clean up any old-age flash scopes
-        Map<Integer, FlashScope> scopes = getContainer(request, false);
-        if (scopes != null && !scopes.isEmpty()) {
-            Iterator<FlashScope> iterator = scopes.values().iterator();
-            while (iterator.hasNext()) {
-                if (iterator.next().isExpired()) {
-                    iterator.remove();
-                }
-            }
-        }
-
         // Replace the request and response objects for the request cycle that is ending
         // with objects that are safe to use on the ensuing request.
         HttpServletRequest flashRequest = FlashRequest.replaceRequest(request);
@@ -292,13 +281,11 @@ public class FlashScope extends HashMap<String,Object> {
      *         no flash scopes present.
      */
     public static Collection<FlashScope> getAllFlashScopes(HttpServletRequest req) {
-        Map<Integer,FlashScope> scopes = getContainer(req, false);
-
-        if (scopes == null) {
-            return Collections.emptySet();
+        try {
+            return getStore().getAll(req);
         }
-        else {
-            return scopes.values();
+        catch (IllegalStateException ise) {
+            return Collections.emptySet();
         }
     }
 
@@ -323,12 +310,15 @@ public class FlashScope extends HashMap<String,Object> {
         else {
             try {
                 Integer id = new Integer(keyString);
-                Map<Integer, FlashScope> scopes = getContainer(req, false);
-                return scopes == null ? null : scopes.remove(id);
+                return getStore().remove(req, id);
             }
             catch (NumberFormatException e) {
                 return null;
             }
+            catch (IllegalStateException ise) {
+                // The session has been invalidated so there's nothing to retrieve
+                return null;
+            }
         }
     }
 
@@ -339,8 +329,9 @@ public class FlashScope extends HashMap<String,Object> {
      * </p>
      * <p>
      * It is assumed that the request object will be used by only one thread so access to the
-     * request is not synchronized. Access to the scopes map that is stored in the session and the
-     * static {@link Random} that is used to generate the keys for the map is synchronized.
+     * request is not synchronized. The flash scopes themselves are held by the
+     * {@link FlashScopeStore}, which is responsible for its own thread safety, and keys are
+     * generated without locking.
      * </p>
      * 
      * @param req the current request
@@ -348,64 +339,23 @@ public class FlashScope extends HashMap<String,Object> {
      * @return the current FlashScope, or null if it does not exist and create is false
      */
     public static FlashScope getCurrent(HttpServletRequest req, boolean create) {
-        Map<Integer,FlashScope> scopes = getContainer(req, create);
-
-        if (scopes == null) {
-            return null;
-        }
-        else {
-            FlashScope scope = null;
+        try {
+            FlashScopeStore store = getStore();
             Integer key = (Integer) req.getAttribute(StripesConstants.REQ_ATTR_CURRENT_FLASH_SCOPE);
             if (key != null) {
-                scope = scopes.get(key);
+                return store.get(req, key);
             }
             else if (create) {
-                synchronized (random) {
-                    do {
-                        key = random.nextInt();
-                    } while (scopes.containsKey(key));
-                    scope = new FlashScope(req, key);
-                    scopes.put(scope.key(), scope);
-                }
-                req.setAttribute(StripesConstants.REQ_ATTR_CURRENT_FLASH_SCOPE, key);
+                FlashScope scope;
+                do {
+                    scope = new FlashScope(req, nextKey());
+                } while (!store.add(req, scope));
+                req.setAttribute(StripesConstants.REQ_ATTR_CURRENT_FLASH_SCOPE, scope.key());
+                return scope;
             }
-
-            return scope;
-        }
-    }
-
-    /**
-     * Internal helper method to retrieve (and selectively create) the container for all
-     * the flash scopes.  Will return null if the container does not exist and <i>create</i> is
-     * false.  Will also return null if the current session has been invalidated, regardless
-     * of the value of <i>create</i>.
-     *
-     * @param req the current request
-     * @param create if true, create the container when it doesn't exist.
-     * @return a Map of integer keys to FlashScope objects
-     */
-    private static Map<Integer,FlashScope> getContainer(HttpServletRequest req, boolean create) {
-        try {
-            HttpSession session =  req.getSession(create);
-            Map<Integer,FlashScope> scopes = null;
-            if (session != null) {
-                scopes = getContainer(session);
-
-                if (scopes == null && create) {
-                    synchronized (FlashScope.class) {
-                        // after obtaining a lock, try looking it up again
-                        scopes = getContainer(session);
-
-                        // if still not there, then create and save it
-                        if (scopes == null) {
-                            scopes = new ConcurrentHashMap<Integer, FlashScope>();
-                            session.setAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION, scopes);
-                        }
-                    }
-                }
+            else {
+                return null;
             }
-
-            return scopes;
         }
         catch (IllegalStateException ise) {
             // If the session has been invalidated we'll get this exception, but there's no
@@ -417,19 +367,19 @@ public class FlashScope extends HashMap<String,Object> {
             return null;
         }
     }
-    
+
     /**
-     * Internal helper method to retrieve the container for all the flash scopes. Will return null
-     * if the container does not exist.
-     * 
-     * @param session
-     * @return a Map of integer keys to FlashScope objects
-     * @throws IllegalStateException if the session has been invalidated
+     * Generates a key for a new flash scope. Keys are drawn from a sequence that starts at a
+     * random value and are scrambled so that consecutive keys are not predictable at a glance.
+     * No key repeats until 2<sup>32</sup> keys have been generated.
      */
-    @SuppressWarnings("unchecked")
-    private static Map<Integer, FlashScope> getContainer(HttpSession session)
-            throws IllegalStateException {
-        return (Map<Integer, FlashScope>) session
-                .getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION);
+    protected static Integer nextKey() {
+        int h = keySequence.getAndIncrement() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Get the {@link FlashScopeStore} from the current configuration. */
+    private static FlashScopeStore getStore() {
+        return StripesFilter.getConfiguration().getFlashScopeStore();
     }
 }
@@ -0,0 +1,87 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.Collection;
+
+import javax.servlet.http.HttpServletRequest;
+
+import net.sourceforge.stripes.config.ConfigurableComponent;
+
+/**
+ * <p>
+ * Holds the {@link FlashScope}s that belong to each user between the request that creates them
+ * and the request that consumes them. {@link FlashScope} delegates all storage to the store
+ * returned by {@link net.sourceforge.stripes.config.Configuration#getFlashScopeStore()}.
+ * </p>
+ * <p>
+ * Implementations must be thread safe. They are also responsible for discarding flash scopes
+ * that have {@linkplain FlashScope#isExpired() expired} because the subsequent request was
+ * never made, which is usually done by a background task that calls {@link #removeExpired()}.
+ * </p>
+ *
+ * @since Stripes 1.6
+ * @see SessionFlashScopeStore
+ * @see InMemoryFlashScopeStore
+ */
+public interface FlashScopeStore extends ConfigurableComponent {
+    /**
+     * Get a flash scope that belongs to the user that issued the request.
+     *
+     * @param request the current request
+     * @param key the key of the flash scope
+     * @return the flash scope or null if there is no such flash scope
+     * @throws IllegalStateException if the user's session has been invalidated
+     */
+    FlashScope get(HttpServletRequest request, Integer key) throws IllegalStateException;
+
+    /**
+     * Add a new flash scope for the user that issued the request, creating a session if
+     * necessary. If the user already has the maximum number of flash scopes the store allows,
+     * the oldest ones are discarded.
+     *
+     * @param request the current request
+     * @param scope the flash scope to add
+     * @return true if the flash scope was added or false if the user already has a flash scope
+     *         with the same key
+     * @throws IllegalStateException if the session could not be created
+     */
+    boolean add(HttpServletRequest request, FlashScope scope) throws IllegalStateException;
+
+    /**
+     * Remove a flash scope that belongs to the user that issued the request.
+     *
+     * @param request the current request
+     * @param key the key of the flash scope
+     * @return the flash scope that was removed or null if there was no such flash scope
+     * @throws IllegalStateException if the user's session has been invalidated
+     */
+    FlashScope remove(HttpServletRequest request, Integer key) throws IllegalStateException;
+
+    /**
+     * Get all the flash scopes that belong to the user that issued the request.
+     *
+     * @param request the current request
+     * @return a collection of flash scopes, which is empty if the user has none
+     * @throws IllegalStateException if the user's session has been invalidated
+     */
+    Collection<FlashScope> getAll(HttpServletRequest request) throws IllegalStateException;
+
+    /** Discard all the expired flash scopes held by this store, regardless of who owns them. */
+    void removeExpired();
+
+    /** Release any resources held by this store. Called when {@link StripesFilter} is destroyed. */
+    void destroy();
+}
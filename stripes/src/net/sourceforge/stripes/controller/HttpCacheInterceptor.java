@@ -16,26 +16,40 @@ package net.sourceforge.stripes.controller;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Enumeration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
 import net.sourceforge.stripes.action.HttpCache;
+import net.sourceforge.stripes.action.HttpCacheValidator;
 import net.sourceforge.stripes.action.Resolution;
 import net.sourceforge.stripes.util.Log;
 
 /**
+ * <p>
  * Looks for an {@link HttpCache} annotation on the event handler method, the {@link ActionBean}
  * class or the {@link ActionBean}'s superclasses. If an {@link HttpCache} is found, then the
  * appropriate response headers are set to control client-side caching.
+ * </p>
+ * <p>
+ * If the {@link ActionBean} implements {@link HttpCacheValidator}, then GET and HEAD requests are
+ * also checked right after the event handler is resolved. If the {@code If-None-Match} or
+ * {@code If-Modified-Since} header of the request matches the validators, the request is answered
+ * with {@code 304 Not Modified} without binding, validating or invoking the event handler.
+ * Otherwise the validators are sent in the {@code ETag} and {@code Last-Modified} headers of the
+ * response, unless the request failed validation.
+ * </p>
  * 
  * @author Ben Gunter
  * @since Stripes 1.5
  */
-@Intercepts(LifecycleStage.ResolutionExecution)
-public class HttpCacheInterceptor implements Interceptor {
+@Intercepts( { LifecycleStage.HandlerResolution, LifecycleStage.ResolutionExecution })
+public class HttpCacheInterceptor implements ConditionalInterceptor {
     private static final class CacheKey {
         private Method method;
         private Class<?> beanClass;
@@ -65,6 +79,28 @@ public class HttpCacheInterceptor implements Interceptor {
         }
     }
 
+    /** The validators of the response, held in a request attribute until the response is sent. */
+    private static final class Validators {
+        private String etag;
+        private long lastModified;
+
+        public Validators(String etag, long lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /** Answers a conditional request whose validators match with {@code 304 Not Modified}. */
+    private static final Resolution NOT_MODIFIED = new Resolution() {
+        public void execute(HttpServletRequest request, HttpServletResponse response) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+    };
+
+    /** The name of the request attribute that holds the {@link Validators}. */
+    private static final String REQ_ATTR_VALIDATORS = HttpCacheInterceptor.class.getName()
+            + ".Validators";
+
     private static final Log logger = Log.getInstance(HttpCacheInterceptor.class);
 
     private static final HttpCache NULL_CACHE = new HttpCache() {
@@ -76,6 +112,18 @@ public class HttpCacheInterceptor implements Interceptor {
             return 0;
         }
 
+        public int maxAge() {
+            return -1;
+        }
+
+        public int sharedMaxAge() {
+            return -1;
+        }
+
+        public int staleWhileRevalidate() {
+            return -1;
+        }
+
         public Class<? extends Annotation> annotationType() {
             return null;
         }
@@ -83,7 +131,22 @@ public class HttpCacheInterceptor implements Interceptor {
 
     private Map<CacheKey, HttpCache> cache = new ConcurrentHashMap<CacheKey, HttpCache>(128);
 
+    /**
+     * Conditional requests are only checked for ActionBeans that implement
+     * {@link HttpCacheValidator}, so this interceptor is skipped for other ActionBeans during
+     * {@link LifecycleStage#HandlerResolution}.
+     */
+    public boolean isApplicable(LifecycleStage stage, Class<? extends ActionBean> beanClass) {
+        return stage != LifecycleStage.HandlerResolution
+                || HttpCacheValidator.class.isAssignableFrom(beanClass);
+    }
+
     public Resolution intercept(ExecutionContext ctx) throws Exception {
+        if (ctx.getLifecycleStage() == LifecycleStage.HandlerResolution) {
+            Resolution resolution = ctx.proceed();
+            return resolution == null ? checkNotModified(ctx) : resolution;
+        }
+
         final ActionBean actionBean = ctx.getActionBean();
         final Method handler = ctx.getHandler();
         if (actionBean != null && handler != null) {
@@ -101,6 +164,12 @@ public class HttpCacheInterceptor implements Interceptor {
                         expires = expires * 1000 + System.currentTimeMillis();
                         response.setDateHeader("Expires", expires);
                     }
+
+                    String cacheControl = getCacheControl(annotation);
+                    if (cacheControl != null) {
+                        logger.debug("Setting Cache-Control to ", cacheControl);
+                        response.setHeader("Cache-Control", cacheControl);
+                    }
                 }
                 else {
                     logger.debug("Disabling client-side caching for response");
@@ -109,11 +178,128 @@ public class HttpCacheInterceptor implements Interceptor {
                     response.setHeader("Pragma", "no-cache");
                 }
             }
+
+            ActionBeanContext context = ctx.getActionBeanContext();
+            Validators validators = (Validators) context.getRequest().getAttribute(
+                    REQ_ATTR_VALIDATORS);
+            if (validators != null && context.getValidationErrors().isEmpty()) {
+                HttpServletResponse response = context.getResponse();
+                if (validators.etag != null)
+                    response.setHeader("ETag", validators.etag);
+                if (validators.lastModified >= 0)
+                    response.setDateHeader("Last-Modified", validators.lastModified);
+            }
         }
 
         return ctx.proceed();
     }
 
+    /**
+     * Called after the event handler has been resolved. If the {@link ActionBean} implements
+     * {@link HttpCacheValidator}, then get its validators for the event and compare them to the
+     * conditional headers of the request. Only GET and HEAD requests are checked, and not if the
+     * event disables caching.
+     * 
+     * @param ctx the execution context
+     * @return a resolution that sends {@code 304 Not Modified} if the validators match, otherwise
+     *         null
+     */
+    protected Resolution checkNotModified(ExecutionContext ctx) {
+        final ActionBean actionBean = ctx.getActionBean();
+        final Method handler = ctx.getHandler();
+        if (!(actionBean instanceof HttpCacheValidator) || handler == null)
+            return null;
+
+        ActionBeanContext context = ctx.getActionBeanContext();
+        HttpServletRequest request = context.getRequest();
+        String method = request.getMethod();
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method))
+            return null;
+
+        HttpCache annotation = getAnnotation(handler, actionBean.getClass());
+        if (annotation != null && !annotation.allow())
+            return null;
+
+        HttpCacheValidator validator = (HttpCacheValidator) actionBean;
+        String event = context.getEventName();
+        String etag = validator.getETag(event);
+        if (etag != null && !etag.startsWith("\"") && !etag.startsWith("W/"))
+            etag = '"' + etag + '"';
+        long lastModified = validator.getLastModified(event);
+        request.setAttribute(REQ_ATTR_VALIDATORS, new Validators(etag, lastModified));
+
+        if (isNotModified(request, etag, lastModified)) {
+            logger.debug("Response to ", actionBean.getClass().getName(), ".", handler.getName(),
+                    "() has not been modified");
+            return NOT_MODIFIED;
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Evaluate the conditional headers of a request against the validators of the response. If
+     * {@code If-None-Match} is present then {@code If-Modified-Since} is ignored, as required by
+     * RFC 2616. Entity tags are compared with the weak comparison function. Modification times
+     * are compared to the second, since that is the precision of HTTP dates.
+     * 
+     * @param request the request
+     * @param etag the quoted entity tag of the response or null if it does not have one
+     * @param lastModified the modification time of the response or -1 if it is unknown
+     * @return true if the client's copy of the response is still current
+     */
+    protected boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        @SuppressWarnings("unchecked")
+        Enumeration<String> ifNoneMatch = request.getHeaders("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.hasMoreElements()) {
+            if (etag == null)
+                return false;
+
+            String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+            while (ifNoneMatch.hasMoreElements()) {
+                for (String tag : ifNoneMatch.nextElement().split(",")) {
+                    tag = tag.trim();
+                    if (tag.startsWith("W/"))
+                        tag = tag.substring(2);
+                    if ("*".equals(tag) || opaque.equals(tag))
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        if (lastModified >= 0 && request.getHeader("If-Modified-Since") != null) {
+            try {
+                long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+                return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+            }
+            catch (IllegalArgumentException e) {
+                logger.debug("Ignoring malformed If-Modified-Since header: ",
+                        request.getHeader("If-Modified-Since"));
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the value of the Cache-Control header for an {@link HttpCache} that allows caching.
+     * 
+     * @param annotation the annotation
+     * @return the directives, separated by commas, or null if the annotation does not set any
+     */
+    protected String getCacheControl(HttpCache annotation) {
+        StringBuilder buf = new StringBuilder();
+        if (annotation.maxAge() >= 0)
+            buf.append(", max-age=").append(annotation.maxAge());
+        if (annotation.sharedMaxAge() >= 0)
+            buf.append(", s-maxage=").append(annotation.sharedMaxAge());
+        if (annotation.staleWhileRevalidate() >= 0)
+            buf.append(", stale-while-revalidate=").append(annotation.staleWhileRevalidate());
+        return buf.length() == 0 ? null : buf.substring(2);
+    }
+
     /**
      * Look for a {@link HttpCache} annotation on the method first and then on the class and its
      * superclasses.
@@ -0,0 +1,98 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * <p>
+ * A {@link FlashScopeStore} that keeps flash scopes out of the session, in a map keyed by
+ * session id. The session is still used to identify the user, but flash scopes never become
+ * session attributes, so they are not written out by containers that persist or replicate
+ * sessions. Containers that no longer hold any flash scopes are discarded by the background
+ * expiry task.
+ * </p>
+ * <p>
+ * This store only keeps flash scopes in local memory, so a request that consumes a flash scope
+ * must be handled by the same server that created it. It can be extended to use a shared
+ * backend by overriding {@link #getContainer(String, boolean)} and {@link #getContainers()}.
+ * To use this store, set the configuration property {@code FlashScopeStore.Class} to the name of
+ * this class.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class InMemoryFlashScopeStore extends AbstractFlashScopeStore {
+    private final ConcurrentMap<String, Container> containers = new ConcurrentHashMap<String, Container>();
+
+    @Override
+    protected Container getContainer(HttpServletRequest request, boolean create) {
+        HttpSession session = request.getSession(create);
+        return session == null ? null : getContainer(session.getId(), create);
+    }
+
+    /**
+     * Get the container for a session id.
+     *
+     * @param sessionId the id of the user's session
+     * @param create if true, create the container when it does not exist
+     * @return the container or null if it does not exist and {@code create} is false
+     */
+    protected Container getContainer(String sessionId, boolean create) {
+        Container container = containers.get(sessionId);
+        if (container == null && create) {
+            Container created = new Container();
+            container = containers.putIfAbsent(sessionId, created);
+            if (container == null) {
+                container = created;
+                containerCreated(container);
+            }
+        }
+        return container;
+    }
+
+    @Override
+    protected Collection<? extends Container> getContainers() {
+        return containers.values();
+    }
+
+    /** Get the number of users for whom this store holds a container. */
+    protected int getContainerCount() {
+        return containers.size();
+    }
+
+    /** Removes expired flash scopes, then discards containers that are empty. */
+    @Override
+    public void removeExpired() {
+        super.removeExpired();
+        for (Map.Entry<String, Container> entry : containers.entrySet()) {
+            if (entry.getValue().retireIfEmpty())
+                containers.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /** Stops the expiry task and discards all flash scopes. */
+    @Override
+    public void destroy() {
+        super.destroy();
+        containers.clear();
+    }
+}
@@ -0,0 +1,147 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import javax.servlet.http.HttpServletRequest;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.exception.UrlBindingConflictException;
+
+/**
+ * <p>
+ * The result of matching a request URI to the {@link UrlBinding}s in a {@link UrlBindingFactory}.
+ * Matching a request is done once, by {@link UrlBindingFactory#getRoutingResult(HttpServletRequest)},
+ * and the result is saved in a request attribute so that the filters, the
+ * {@link ActionResolver} and the request wrapper can all use it. The result applies only to the
+ * path and the version of the bindings for which it was created. A forward or include to another
+ * path, or a change to the bindings, causes the request to be matched again.
+ * </p>
+ * <p>
+ * The live binding, with parameter values extracted from the URI, and the event name embedded in
+ * the path are parsed only if they are needed.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class RoutingResult {
+    private final UrlBindingFactory factory;
+    private final String path;
+    private final long version;
+    private final UrlBinding prototype;
+    private final UrlBindingConflictException conflict;
+    private UrlBinding binding;
+    private String pathEvent;
+    private boolean bindingParsed, pathEventParsed;
+
+    /**
+     * Match a path to the bindings in a {@link UrlBindingFactory}.
+     *
+     * @param factory the factory that holds the bindings
+     * @param path a request URI, as returned by
+     *            {@link net.sourceforge.stripes.util.HttpUtil#getRequestedPath(HttpServletRequest)}
+     */
+    public RoutingResult(UrlBindingFactory factory, String path) {
+        this.factory = factory;
+        this.path = path;
+        this.version = factory.getVersion();
+
+        UrlBinding prototype = null;
+        UrlBindingConflictException conflict = null;
+        try {
+            prototype = factory.getBindingPrototype(path);
+        }
+        catch (UrlBindingConflictException e) {
+            conflict = e;
+        }
+        this.prototype = prototype;
+        this.conflict = conflict;
+    }
+
+    /**
+     * Returns true if this result was created for the given path by the given factory and the
+     * factory's bindings have not changed since.
+     */
+    public boolean isCurrent(UrlBindingFactory factory, String path) {
+        return this.factory == factory && this.version == factory.getVersion()
+                && this.path.equals(path);
+    }
+
+    /** Get the path that was matched. */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the binding prototype that matched the path, or null if none did.
+     *
+     * @throws UrlBindingConflictException if more than one binding matched the path equally well
+     */
+    public UrlBinding getPrototype() throws UrlBindingConflictException {
+        if (conflict != null)
+            throw conflict;
+        return prototype;
+    }
+
+    /**
+     * Get the type of {@link ActionBean} bound to the path, or null if none is.
+     *
+     * @throws UrlBindingConflictException if more than one binding matched the path equally well
+     */
+    public Class<? extends ActionBean> getBeanType() throws UrlBindingConflictException {
+        UrlBinding prototype = getPrototype();
+        return prototype == null ? null : prototype.getBeanType();
+    }
+
+    /**
+     * Get the binding that matched the path with the parameter values that were extracted from
+     * the path, or null if no binding matched.
+     *
+     * @throws UrlBindingConflictException if more than one binding matched the path equally well
+     */
+    public UrlBinding getBinding() throws UrlBindingConflictException {
+        if (!bindingParsed) {
+            UrlBinding prototype = getPrototype();
+            binding = prototype == null ? null : factory.getBinding(path, prototype);
+            bindingParsed = true;
+        }
+        return binding;
+    }
+
+    /**
+     * Get the segment of the path that immediately follows the path of the matched binding, which
+     * names the event if the {@link ActionBean} handles an event by that name. Returns null if no
+     * binding matched or the path does not extend beyond the binding's path.
+     *
+     * @throws UrlBindingConflictException if more than one binding matched the path equally well
+     */
+    public String getPathEvent() throws UrlBindingConflictException {
+        if (!pathEventParsed) {
+            UrlBinding prototype = getPrototype();
+            String binding = prototype == null ? null : prototype.getPath();
+            if (binding != null && path.length() != binding.length()) {
+                String extra = path.substring(binding.length() + 1);
+                int index = extra.indexOf("/");
+                pathEvent = extra.substring(0, (index != -1) ? index : extra.length());
+            }
+            pathEventParsed = true;
+        }
+        return pathEvent;
+    }
+
+    @Override
+    public String toString() {
+        return path + " -> " + (conflict == null ? prototype : conflict.getMessage());
+    }
+}
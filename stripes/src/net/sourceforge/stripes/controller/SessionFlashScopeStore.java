@@ -0,0 +1,139 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+
+/**
+ * <p>
+ * The default {@link FlashScopeStore}, which keeps each user's flash scopes in a session
+ * attribute named {@value StripesConstants#REQ_ATTR_FLASH_SCOPE_LOCATION}. Creating the container
+ * is guarded by one of a fixed number of locks chosen by session id, so that users never contend
+ * with each other for a single lock.
+ * </p>
+ * <p>
+ * The store also keeps track of every container it has placed in a session so that expired flash
+ * scopes can be removed in the background. A container stops being tracked when it is unbound
+ * from its session, which happens when the session is invalidated or times out. Containers are
+ * only weakly referenced, so a container whose session is passivated or migrated to another node,
+ * which does not unbind it, stops being tracked once it is garbage collected.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class SessionFlashScopeStore extends AbstractFlashScopeStore {
+    /** The number of locks used to guard the creation of containers. Must be a power of two. */
+    private static final int LOCK_COUNT = 64;
+
+    /** A container that stops being tracked by its store when it is removed from the session. */
+    protected static class SessionContainer extends Container implements
+            HttpSessionBindingListener {
+        private static final long serialVersionUID = 1L;
+
+        private transient SessionFlashScopeStore store;
+
+        public void valueBound(HttpSessionBindingEvent event) {
+        }
+
+        public void valueUnbound(HttpSessionBindingEvent event) {
+            SessionFlashScopeStore store = this.store;
+            if (store != null)
+                store.containers.remove(this);
+        }
+    }
+
+    private final Map<SessionContainer, Boolean> containers = Collections
+            .synchronizedMap(new WeakHashMap<SessionContainer, Boolean>());
+    private final Object[] locks = new Object[LOCK_COUNT];
+
+    /** Creates a new store. */
+    public SessionFlashScopeStore() {
+        for (int i = 0; i < locks.length; i++)
+            locks[i] = new Object();
+    }
+
+    @Override
+    protected Container getContainer(HttpServletRequest request, boolean create) {
+        HttpSession session = request.getSession(create);
+        if (session == null)
+            return null;
+
+        SessionContainer container = getContainer(session);
+        if (container == null && create) {
+            synchronized (getLock(session)) {
+                // after obtaining a lock, try looking it up again
+                container = getContainer(session);
+
+                // if still not there, then create and save it
+                if (container == null) {
+                    container = new SessionContainer();
+                    track(container);
+                    session.setAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION, container);
+                    containerCreated(container);
+                }
+            }
+        }
+        else if (container != null && container.store != this) {
+            // The session was restored from some other store, so start tracking the container
+            track(container);
+            containerCreated(container);
+        }
+
+        return container;
+    }
+
+    @Override
+    protected Collection<? extends Container> getContainers() {
+        synchronized (containers) {
+            return new ArrayList<SessionContainer>(containers.keySet());
+        }
+    }
+
+    /** Get the number of containers that are being tracked by this store. */
+    protected int getContainerCount() {
+        return containers.size();
+    }
+
+    /** Start tracking a container so that its expired flash scopes can be removed. */
+    private void track(SessionContainer container) {
+        container.store = this;
+        containers.put(container, Boolean.TRUE);
+    }
+
+    /** Pick the lock that guards the creation of the container for a session. */
+    private Object getLock(HttpSession session) {
+        int h = session.getId().hashCode();
+        h ^= (h >>> 16);
+        return locks[h & (LOCK_COUNT - 1)];
+    }
+
+    /**
+     * Get the container from the session. Returns null if the session does not have one or if
+     * the session attribute holds something other than a container.
+     */
+    private static SessionContainer getContainer(HttpSession session) {
+        Object value = session.getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION);
+        return value instanceof SessionContainer ? (SessionContainer) value : null;
+    }
+}
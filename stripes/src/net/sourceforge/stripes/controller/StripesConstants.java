@@ -99,6 +99,12 @@ public interface StripesConstants {
      */
     String REQ_ATTR_EVENT_NAME = "__stripes_event_name";
 
+    /**
+     * The name of a request attribute that holds the {@link RoutingResult} for the path that was
+     * most recently matched to a URL binding.
+     */
+    String REQ_ATTR_ROUTING_RESULT = "__stripes_routing_result";
+
     /**
      * Request attribute key defined by the servlet spec for storing the included servlet
      * path when processing a server side include.
@@ -17,6 +17,7 @@ package net.sourceforge.stripes.controller;
 import net.sourceforge.stripes.config.BootstrapPropertyResolver;
 import net.sourceforge.stripes.config.Configuration;
 import net.sourceforge.stripes.config.RuntimeConfiguration;
+import net.sourceforge.stripes.controller.metrics.MetricsInterceptor;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 import net.sourceforge.stripes.exception.StripesServletException;
 import net.sourceforge.stripes.util.HttpUtil;
@@ -265,11 +266,15 @@ public class StripesFilter implements Filter {
         finally {
             // reset the flag that indicates if this is the initial invocation
             if (initial) {
-                // Once the request is processed, clean up thread locals
-                StripesFilter.initialInvocation.remove();
-                StripesFilter.configurationStash.remove();
-
-                flashOutbound(httpRequest);
+                // The flash scope store comes from the configuration, so do this first
+                try {
+                    flashOutbound(httpRequest);
+                }
+                finally {
+                    // Once the request is processed, clean up thread locals
+                    StripesFilter.initialInvocation.remove();
+                    StripesFilter.configurationStash.remove();
+                }
             }
             else {
                 // restore URI parameters to their previous state
@@ -310,10 +315,9 @@ public class StripesFilter implements Filter {
     }
 
     /**
-     * Manages the work that ensures that flash scopes get cleaned up properly when
-     * requests go missing.  Firstly timestamps the current flash scope (if one exists)
-     * to record the time that the request exited the container.  Then checks all
-     * flash scopes to make sure none have been hanging out for more than a minute.
+     * Timestamps the current flash scope (if one exists) to record the time that the request
+     * exited the container. Flash scopes that are never retrieved by a subsequent request are
+     * later discarded by the {@link FlashScopeStore}.
      */
     protected void flashOutbound(HttpServletRequest req) {
         // Start the timer on the current flash scope
@@ -323,8 +327,20 @@ public class StripesFilter implements Filter {
         }
     }
 
-    /** Calls the cleanup() method on the log to release resources held by commons logging. */
+    /**
+     * Destroys the flash scope store and any {@link MetricsInterceptor} and calls the cleanup()
+     * method on the log to release resources held by commons logging.
+     */
     public void destroy() {
+        if (this.configuration != null && this.configuration.getFlashScopeStore() != null) {
+            this.configuration.getFlashScopeStore().destroy();
+        }
+        if (this.configuration != null) {
+            for (Interceptor interceptor : this.configuration.getInterceptors(LifecycleStage.RequestInit)) {
+                if (interceptor instanceof MetricsInterceptor)
+                    ((MetricsInterceptor) interceptor).destroy();
+            }
+        }
         this.servletContext.removeAttribute(StripesFilter.class.getName());
         Log.cleanup();
         Introspector.flushCaches(); // Not 100% sure this is necessary, but it doesn't  hurt
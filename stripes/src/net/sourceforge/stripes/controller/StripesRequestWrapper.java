@@ -387,6 +387,10 @@ class MergedParameterMap implements Map<String, String[]> {
     }
 
     public Set<String> keySet() {
+        // Nothing to merge if there are no URI parameters
+        if (uriParams.isEmpty())
+            return Collections.unmodifiableSet(getParameterMap().keySet());
+
         Set<String> merged = new LinkedHashSet<String>();
         merged.addAll(uriParams.keySet());
         merged.addAll(getParameterMap().keySet());
@@ -406,7 +410,7 @@ class MergedParameterMap implements Map<String, String[]> {
     }
 
     public int size() {
-        return keySet().size();
+        return uriParams.isEmpty() ? getParameterMap().size() : keySet().size();
     }
 
     public Collection<String[]> values() {
@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -27,6 +28,9 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -49,6 +53,13 @@ import net.sourceforge.stripes.util.bean.ParseException;
  * them contain the values (if any) that were extracted from the URI.</li>
  * </ul>
  * </p>
+ * <p>
+ * Lookups never block. All the information needed to match a request is held in an immutable
+ * snapshot that is published through a single volatile reference. Methods that modify the
+ * bindings are synchronized, apply their changes to a private working copy and then publish a
+ * new snapshot when they are done. Use {@link #addBindings(Collection)} to register many bindings
+ * at once so that only a single snapshot is published.
+ * </p>
  * 
  * @author Ben Gunter
  * @since Stripes 1.5
@@ -58,9 +69,67 @@ import net.sourceforge.stripes.util.bean.ParseException;
 public class UrlBindingFactory {
     private static final Log log = Log.getInstance(UrlBindingFactory.class);
 
+    /**
+     * An immutable view of the bindings that is used to service lookups. A new snapshot is
+     * published each time the bindings are modified.
+     */
+    private static class Snapshot {
+        final Map<Class<? extends ActionBean>, UrlBinding> classCache;
+        final Map<String, UrlBinding> pathCache;
+        final Map<String, List<UrlBinding>> pathConflicts;
+        final UrlBindingPrefixTree prefixTree;
+        final Set<Class<? extends ActionBean>> unbound;
+
+        /**
+         * Remembers the results of matching URIs by prefix against these bindings. Values are
+         * either a {@link UrlBinding} or {@link UrlBindingFactory#NO_MATCH}.
+         */
+        final ConcurrentMap<String, Object> prefixMatches;
+
+        Snapshot(Map<Class<? extends ActionBean>, UrlBinding> classCache,
+                Map<String, UrlBinding> pathCache, Map<String, List<UrlBinding>> pathConflicts,
+                UrlBindingPrefixTree prefixTree, Set<Class<? extends ActionBean>> unbound,
+                ConcurrentMap<String, Object> prefixMatches) {
+            this.classCache = classCache;
+            this.pathCache = pathCache;
+            this.pathConflicts = pathConflicts;
+            this.prefixTree = prefixTree;
+            this.unbound = unbound;
+            this.prefixMatches = prefixMatches;
+        }
+    }
+
+    /** The most prefix matches remembered for a snapshot before they are discarded. */
+    private static final int MAX_PREFIX_MATCHES = 1024;
+
+    /** Remembered for URIs that do not match any binding. */
+    private static final Object NO_MATCH = new Object();
+
+    /** The snapshot that is currently used to service lookups. */
+    private volatile Snapshot snapshot = new Snapshot(
+            Collections.<Class<? extends ActionBean>, UrlBinding> emptyMap(),
+            Collections.<String, UrlBinding> emptyMap(),
+            Collections.<String, List<UrlBinding>> emptyMap(), UrlBindingPrefixTree.EMPTY,
+            Collections.<Class<? extends ActionBean>> emptySet(),
+            new ConcurrentHashMap<String, Object>());
+
+    /*
+     * The maps below are the working copy of the bindings. They are only accessed while holding
+     * the lock on this object and are never seen by readers.
+     */
+
+    /** Counts nested calls to methods that modify the bindings. Guarded by this. */
+    private int writeDepth;
+
+    /** Maps {@link ActionBean} class names to classes, used to detect reloaded classes */
+    private final Map<String, Class<? extends ActionBean>> classNames = new HashMap<String, Class<? extends ActionBean>>();
+
     /** Maps {@link ActionBean} classes to {@link UrlBinding}s */
     private final Map<Class<? extends ActionBean>, UrlBinding> classCache = new HashMap<Class<? extends ActionBean>, UrlBinding>();
 
+    /** Holds the {@link ActionBean} classes that were found to have no URL binding */
+    private final Set<Class<? extends ActionBean>> unboundClasses = new HashSet<Class<? extends ActionBean>>();
+
     /** Maps simple paths to {@link UrlBinding}s */
     private final Map<String, UrlBinding> pathCache = new HashMap<String, UrlBinding>();
 
@@ -76,11 +145,26 @@ public class UrlBindingFactory {
                 }
             });
 
+    /** Incremented each time a new snapshot is published. */
+    private volatile long version;
+
+    /** True if lookups are counted. Set by {@link #setStatisticsEnabled(boolean)}. */
+    private volatile boolean statisticsEnabled;
+
+    /** Counts lookups of request URIs that matched a binding exactly. */
+    private final AtomicLong exactMatches = new AtomicLong();
+
+    /** Counts lookups of request URIs that matched a binding by prefix. */
+    private final AtomicLong prefixMatches = new AtomicLong();
+
+    /** Counts lookups of request URIs that did not match any binding. */
+    private final AtomicLong misses = new AtomicLong();
+
     /**
      * Get all the classes implementing {@link ActionBean}
      */
     public Collection<Class<? extends ActionBean>> getActionBeanClasses() {
-        return Collections.unmodifiableSet(classCache.keySet());
+        return Collections.unmodifiableSet(snapshot.classCache.keySet());
     }
 
     /**
@@ -91,13 +175,27 @@ public class UrlBindingFactory {
      * @return a binding object if one is defined or null if not
      */
     public UrlBinding getBindingPrototype(Class<? extends ActionBean> type) {
-        UrlBinding binding = classCache.get(type);
-        if (binding != null)
+        Snapshot snapshot = this.snapshot;
+        UrlBinding binding = snapshot.classCache.get(type);
+        if (binding != null || snapshot.unbound.contains(type))
             return binding;
 
-        binding = parseUrlBinding(type);
-        if (binding != null)
-            addBinding(type, binding);
+        // Check the working copy too, in case the binding was added by a batch still in progress
+        synchronized (this) {
+            binding = classCache.get(type);
+            if (binding == null && !unboundClasses.contains(type)) {
+                binding = parseUrlBinding(type);
+                if (binding != null) {
+                    addBinding(type, binding);
+                }
+                else {
+                    // Remember the miss so the next lookup for this class does not lock
+                    unboundClasses.add(type);
+                    if (writeDepth == 0)
+                        publishSnapshot();
+                }
+            }
+        }
         return binding;
     }
 
@@ -111,28 +209,57 @@ public class UrlBindingFactory {
      * @return a binding prototype, or null if the URI does not match
      */
     public UrlBinding getBindingPrototype(String uri) {
+        // Work with a consistent view of the bindings for the duration of the lookup
+        Snapshot snapshot = this.snapshot;
+
         // Look for an exact match to the URI first
-        UrlBinding prototype = pathCache.get(uri);
+        UrlBinding prototype = snapshot.pathCache.get(uri);
         if (prototype != null) {
             log.debug("Matched ", uri, " to ", prototype);
+            if (statisticsEnabled)
+                exactMatches.incrementAndGet();
             return prototype;
         }
-        else if (pathConflicts.containsKey(uri)) {
+        else if (snapshot.pathConflicts.containsKey(uri)) {
             List<String> strings = new ArrayList<String>();
-            for (UrlBinding conflict : pathConflicts.get(uri))
+            for (UrlBinding conflict : snapshot.pathConflicts.get(uri))
                 strings.add(conflict.toString());
             throw new UrlBindingConflictException(uri, strings);
         }
 
-        // Get all the bindings whose prefix matches the URI
-        Set<UrlBinding> candidates = null;
-        for (Entry<String, Set<UrlBinding>> entry : prefixCache.entrySet()) {
-            if (uri.startsWith(entry.getKey())) {
-                candidates = entry.getValue();
-                break;
-            }
+        // Match by prefix unless the URI has been matched against these bindings before
+        Object match = snapshot.prefixMatches.get(uri);
+        if (match == null) {
+            prototype = matchPrefix(snapshot, uri);
+            match = prototype == null ? NO_MATCH : prototype;
+            if (snapshot.prefixMatches.size() >= MAX_PREFIX_MATCHES)
+                snapshot.prefixMatches.clear();
+            snapshot.prefixMatches.put(uri, match);
         }
 
+        if (match == NO_MATCH) {
+            if (statisticsEnabled)
+                misses.incrementAndGet();
+            return null;
+        }
+
+        if (statisticsEnabled)
+            prefixMatches.incrementAndGet();
+        return (UrlBinding) match;
+    }
+
+    /**
+     * Find the binding in a snapshot whose prefix matches the URI most closely.
+     * 
+     * @param snapshot the bindings to match against
+     * @param uri a request URI
+     * @return a binding prototype, or null if the URI does not match
+     * @throws UrlBindingConflictException if more than one binding matches equally well
+     */
+    private UrlBinding matchPrefix(Snapshot snapshot, String uri) {
+        // Get all the bindings whose prefix matches the URI
+        Set<UrlBinding> candidates = snapshot.prefixTree.getCandidates(uri);
+
         // If none matched or exactly one matched then return now
         if (candidates == null) {
             log.debug("No URL binding matches ", uri);
@@ -144,6 +271,7 @@ public class UrlBindingFactory {
         }
 
         // Now find the one that matches deepest into the URI with the fewest components
+        UrlBinding prototype = null;
         int maxIndex = 0, minComponentCount = Integer.MAX_VALUE, maxComponentMatch = 0;
         List<String> conflicts = null;
         for (UrlBinding binding : candidates) {
@@ -205,6 +333,55 @@ public class UrlBindingFactory {
         return prototype;
     }
 
+    /**
+     * Get a number that changes each time the bindings are modified. Information derived from
+     * the bindings can be cached as long as this number does not change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Returns true if lookups are counted. By default they are not. */
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * Enable or disable counting lookups. The counts are kept only while this is enabled so that
+     * lookups do not contend on the counters when nothing reads them.
+     */
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    /**
+     * Get the number of times {@link #getBindingPrototype(String)} matched a URI to a binding
+     * whose path is exactly the URI. This is always zero unless {@link #isStatisticsEnabled()}.
+     */
+    public long getExactMatchCount() {
+        return exactMatches.get();
+    }
+
+    /**
+     * Get the number of times {@link #getBindingPrototype(String)} matched a URI to a binding by
+     * its prefix.
+     */
+    public long getPrefixMatchCount() {
+        return prefixMatches.get();
+    }
+
+    /** Get the number of times {@link #getBindingPrototype(String)} did not match a URI. */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Reset the counts returned by {@link #getExactMatchCount()} and its siblings to zero. */
+    public void resetStatistics() {
+        exactMatches.set(0);
+        prefixMatches.set(0);
+        misses.set(0);
+    }
+
     /**
      * Examines a servlet request and returns the associated binding prototype, if any. No attempt
      * is made to extract parameter values from the URI. This is intended as a fast means to get
@@ -214,7 +391,27 @@ public class UrlBindingFactory {
      * @return a binding prototype, or null if the request URI does not match
      */
     public UrlBinding getBindingPrototype(HttpServletRequest request) {
-        return getBindingPrototype(HttpUtil.getRequestedPath(request));
+        return getRoutingResult(request).getPrototype();
+    }
+
+    /**
+     * Get the result of matching a servlet request to the bindings. The request is matched once
+     * and the {@link RoutingResult} is saved in the request attribute
+     * {@link StripesConstants#REQ_ATTR_ROUTING_RESULT}, where it is reused until the requested path
+     * or the bindings change.
+     * 
+     * @param request a servlet request
+     * @return the routing result for the request's current path, never null
+     */
+    public RoutingResult getRoutingResult(HttpServletRequest request) {
+        String uri = HttpUtil.getRequestedPath(request);
+        Object attribute = request.getAttribute(StripesConstants.REQ_ATTR_ROUTING_RESULT);
+        if (attribute instanceof RoutingResult && ((RoutingResult) attribute).isCurrent(this, uri))
+            return (RoutingResult) attribute;
+
+        RoutingResult result = new RoutingResult(this, uri);
+        request.setAttribute(StripesConstants.REQ_ATTR_ROUTING_RESULT, result);
+        return result;
     }
 
     /**
@@ -228,9 +425,18 @@ public class UrlBindingFactory {
      */
     public UrlBinding getBinding(String uri) {
         UrlBinding prototype = getBindingPrototype(uri);
-        if (prototype == null)
-            return null;
+        return prototype == null ? null : getBinding(uri, prototype);
+    }
 
+    /**
+     * Extract the parameter values from a URI that is known to match a binding prototype and
+     * return a new binding that holds them.
+     * 
+     * @param uri a request URI
+     * @param prototype the binding prototype that matches the URI
+     * @return a binding whose parameters contain the values that are present in the URI
+     */
+    protected UrlBinding getBinding(String uri, UrlBinding prototype) {
         // check for literal suffix in prototype and ignore it if found
         int length = uri.length();
         String suffix = prototype.getSuffix();
@@ -310,7 +516,7 @@ public class UrlBindingFactory {
      *         binding. Otherwise, this method should return null.
      */
     public UrlBinding getBinding(HttpServletRequest request) {
-        return getBinding(HttpUtil.getRequestedPath(request));
+        return getRoutingResult(request).getBinding();
     }
 
     /**
@@ -320,7 +526,7 @@ public class UrlBindingFactory {
      */
     public HashMap<String, Class<? extends ActionBean>> getPathMap() {
         HashMap<String, Class<? extends ActionBean>> map = new HashMap<String, Class<? extends ActionBean>>();
-        for (Entry<String, UrlBinding> entry : pathCache.entrySet()) {
+        for (Entry<String, UrlBinding> entry : snapshot.pathCache.entrySet()) {
             if (entry.getValue() != null) {
                 map.put(entry.getKey(), entry.getValue().getBeanType());
             }
@@ -334,32 +540,54 @@ public class UrlBindingFactory {
      * @param beanType the {@link ActionBean} class
      * @param binding the URL binding
      */
-    public void addBinding(Class<? extends ActionBean> beanType, UrlBinding binding) {
-        /*
-         * Search for a class that has already been added with the same name as the class being
-         * added now. If one is found then remove its information first and then proceed with adding
-         * it. I know this is not technically correct because two classes from two different class
-         * loaders can have the same name, but this feature is valuable for extensions that reload
-         * classes and I consider it highly unlikely to be a problem in practice.
-         */
-        Class<? extends ActionBean> existing = null;
-        for (Class<? extends ActionBean> c : classCache.keySet()) {
-            if (c.getName().equals(beanType.getName())) {
-                existing = c;
-                break;
+    public synchronized void addBinding(Class<? extends ActionBean> beanType, UrlBinding binding) {
+        beginWrite();
+        try {
+            /*
+             * Search for a class that has already been added with the same name as the class
+             * being added now. If one is found then remove its information first and then proceed
+             * with adding it. I know this is not technically correct because two classes from two
+             * different class loaders can have the same name, but this feature is valuable for
+             * extensions that reload classes and I consider it highly unlikely to be a problem in
+             * practice.
+             */
+            Class<? extends ActionBean> existing = classNames.get(beanType.getName());
+            if (existing != null)
+                removeBinding(existing);
+
+            // And now we can safely add the class
+            for (String path : getCachedPaths(binding)) {
+                cachePath(path, binding);
             }
+            for (String prefix : getCachedPrefixes(binding)) {
+                cachePrefix(prefix, binding);
+            }
+            classCache.put(beanType, binding);
+            classNames.put(beanType.getName(), beanType);
+            unboundClasses.remove(beanType);
+        }
+        finally {
+            endWrite();
         }
-        if (existing != null)
-            removeBinding(existing);
+    }
 
-        // And now we can safely add the class
-        for (String path : getCachedPaths(binding)) {
-            cachePath(path, binding);
+    /**
+     * Map several {@link ActionBean}s to URLs at once. This is equivalent to calling
+     * {@link #addBinding(Class, UrlBinding)} for each binding, except that the changes become
+     * visible to lookups all at once, when the last binding has been added.
+     * 
+     * @param bindings the URL bindings to add
+     */
+    public synchronized void addBindings(Collection<UrlBinding> bindings) {
+        beginWrite();
+        try {
+            for (UrlBinding binding : bindings) {
+                addBinding(binding.getBeanType(), binding);
+            }
         }
-        for (String prefix : getCachedPrefixes(binding)) {
-            cachePrefix(prefix, binding);
+        finally {
+            endWrite();
         }
-        classCache.put(beanType, binding);
     }
 
     /**
@@ -372,50 +600,57 @@ public class UrlBindingFactory {
         if (binding == null)
             return;
 
-        Set<UrlBinding> resolvedConflicts = null;
-        for (String path : getCachedPaths(binding)) {
-            log.debug("Clearing cached path ", path, " for ", binding);
-            pathCache.remove(path);
-
-            List<UrlBinding> conflicts = pathConflicts.get(path);
-            if (conflicts != null) {
-                log.debug("Removing ", binding, " from conflicts list ", conflicts);
-                conflicts.remove(binding);
+        beginWrite();
+        try {
+            Set<UrlBinding> resolvedConflicts = null;
+            for (String path : getCachedPaths(binding)) {
+                log.debug("Clearing cached path ", path, " for ", binding);
+                pathCache.remove(path);
+
+                List<UrlBinding> conflicts = pathConflicts.get(path);
+                if (conflicts != null) {
+                    log.debug("Removing ", binding, " from conflicts list ", conflicts);
+                    conflicts.remove(binding);
+
+                    if (conflicts.size() == 1) {
+                        if (resolvedConflicts == null) {
+                            resolvedConflicts = new LinkedHashSet<UrlBinding>();
+                        }
 
-                if (conflicts.size() == 1) {
-                    if (resolvedConflicts == null) {
-                        resolvedConflicts = new LinkedHashSet<UrlBinding>();
+                        resolvedConflicts.add(conflicts.get(0));
+                        conflicts.clear();
                     }
 
-                    resolvedConflicts.add(pathCache.get(conflicts.get(0)));
-                    conflicts.clear();
+                    if (conflicts.isEmpty())
+                        pathConflicts.remove(path);
                 }
-
-                if (conflicts.isEmpty())
-                    pathConflicts.remove(path);
             }
-        }
 
-        for (String prefix : getCachedPrefixes(binding)) {
-            Set<UrlBinding> bindings = prefixCache.get(prefix);
-            if (bindings != null) {
-                log.debug("Clearing cached prefix ", prefix, " for ", binding);
-                bindings.remove(binding);
-                if (bindings.isEmpty())
-                    prefixCache.remove(prefix);
+            for (String prefix : getCachedPrefixes(binding)) {
+                Set<UrlBinding> bindings = prefixCache.get(prefix);
+                if (bindings != null) {
+                    log.debug("Clearing cached prefix ", prefix, " for ", binding);
+                    bindings.remove(binding);
+                    if (bindings.isEmpty())
+                        prefixCache.remove(prefix);
+                }
             }
-        }
 
-        classCache.remove(beanType);
+            classCache.remove(beanType);
+            classNames.remove(beanType.getName());
 
-        if (resolvedConflicts != null) {
-            log.debug("Resolved conflicts with ", resolvedConflicts);
+            if (resolvedConflicts != null) {
+                log.debug("Resolved conflicts with ", resolvedConflicts);
 
-            for (UrlBinding conflict : resolvedConflicts) {
-                removeBinding(conflict.getBeanType());
-                addBinding(conflict.getBeanType(), conflict);
+                for (UrlBinding conflict : resolvedConflicts) {
+                    removeBinding(conflict.getBeanType());
+                    addBinding(conflict.getBeanType(), conflict);
+                }
             }
         }
+        finally {
+            endWrite();
+        }
     }
 
     /**
@@ -545,6 +780,71 @@ public class UrlBindingFactory {
         bindings.add(binding);
     }
 
+    /**
+     * Get the {@link UrlBindingPrefixTree} that is used to find the bindings whose prefix matches
+     * a request URI. The tree is compiled from the prefix cache each time the bindings change.
+     */
+    protected UrlBindingPrefixTree getPrefixTree() {
+        return snapshot.prefixTree;
+    }
+
+    /**
+     * Called on entry to any method that modifies the bindings. Must be called while holding the
+     * lock on this object and must be paired with a call to {@link #endWrite()} in a
+     * {@code finally} block.
+     */
+    protected void beginWrite() {
+        ++writeDepth;
+    }
+
+    /**
+     * Called on exit from any method that modifies the bindings. When the outermost modifying
+     * method exits, a new immutable snapshot of the bindings is published for lookups to use.
+     */
+    protected void endWrite() {
+        if (--writeDepth == 0) {
+            Map<String, List<UrlBinding>> conflicts = new HashMap<String, List<UrlBinding>>(
+                    pathConflicts.size());
+            for (Entry<String, List<UrlBinding>> entry : pathConflicts.entrySet()) {
+                conflicts.put(entry.getKey(), Collections.unmodifiableList(
+                        new ArrayList<UrlBinding>(entry.getValue())));
+            }
+
+            snapshot = new Snapshot(
+                    new HashMap<Class<? extends ActionBean>, UrlBinding>(classCache),
+                    new HashMap<String, UrlBinding>(pathCache), conflicts,
+                    compilePrefixTree(prefixCache),
+                    new HashSet<Class<? extends ActionBean>>(unboundClasses),
+                    new ConcurrentHashMap<String, Object>());
+            ++version;
+        }
+    }
+
+    /**
+     * Publish a snapshot that differs from the current one only in the set of classes known to
+     * have no binding. The bindings themselves are unchanged, so the version is not incremented.
+     * Must be called while holding the lock on this object.
+     */
+    private void publishSnapshot() {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.classCache, current.pathCache, current.pathConflicts,
+                current.prefixTree, new HashSet<Class<? extends ActionBean>>(unboundClasses),
+                current.prefixMatches);
+    }
+
+    /**
+     * Compile a {@link UrlBindingPrefixTree} from a map of prefixes to the bindings that are
+     * candidates for that prefix. Subclasses may override this method to supply a different
+     * matching strategy.
+     * 
+     * @param prefixes maps URI prefixes to candidate bindings
+     * @return a prefix tree
+     */
+    protected UrlBindingPrefixTree compilePrefixTree(Map<String, Set<UrlBinding>> prefixes) {
+        log.debug("Compiling URL binding prefix tree from ", prefixes.size(), " prefixes");
+        return new UrlBindingPrefixTree(prefixes);
+    }
+
     /**
      * Look for a binding pattern for the given {@link ActionBean} class, specified by the
      * {@link net.sourceforge.stripes.action.UrlBinding} annotation. If the annotation is found,
@@ -721,6 +1021,6 @@ public class UrlBindingFactory {
 
     @Override
     public String toString() {
-        return String.valueOf(classCache);
+        return String.valueOf(snapshot.classCache);
     }
 }
@@ -0,0 +1,164 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.Map.Entry;
+
+/**
+ * <p>
+ * An immutable radix tree that maps URI prefixes to the set of {@link UrlBinding}s that are
+ * candidates for URIs starting with that prefix. The tree is compiled once from the prefix map
+ * maintained by {@link UrlBindingFactory} and then answers longest-prefix queries in time
+ * proportional to the length of the URI, regardless of how many bindings are registered.
+ * </p>
+ * <p>
+ * Each edge of the tree is labeled with a string of one or more characters, and the children of
+ * a node are kept sorted by the first character of their edge so that the next edge can be found
+ * with a binary search. A lookup simply walks down the tree as long as the URI matches the edge
+ * labels and remembers the deepest node that carries a set of bindings.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class UrlBindingPrefixTree {
+    /** A node in the tree. Instances are never modified once the tree has been compiled. */
+    private static class Node {
+        private String edge;
+        private char[] keys;
+        private Node[] children;
+        private Set<UrlBinding> bindings;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        /** Find the child whose edge begins with the given character, or null if there is none. */
+        Node getChild(char c) {
+            if (keys == null)
+                return null;
+            int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
+        }
+    }
+
+    /** A mutable node used only while the tree is being built. */
+    private static class BuildNode {
+        private Map<Character, BuildNode> children = new TreeMap<Character, BuildNode>();
+        private Set<UrlBinding> bindings;
+    }
+
+    /** An empty tree that never matches anything. */
+    public static final UrlBindingPrefixTree EMPTY = new UrlBindingPrefixTree(
+            Collections.<String, Set<UrlBinding>> emptyMap());
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Compile a new tree from a map of prefixes to candidate bindings. The sets in the map are
+     * copied into unmodifiable sets so later changes to the map are not reflected in the tree.
+     *
+     * @param prefixes maps URI prefixes to the bindings that are candidates for that prefix
+     */
+    public UrlBindingPrefixTree(Map<String, Set<UrlBinding>> prefixes) {
+        BuildNode builder = new BuildNode();
+        int count = 0;
+        for (Entry<String, Set<UrlBinding>> entry : prefixes.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty())
+                continue;
+
+            BuildNode node = builder;
+            String prefix = entry.getKey();
+            for (int i = 0; i < prefix.length(); i++) {
+                Character c = prefix.charAt(i);
+                BuildNode child = node.children.get(c);
+                if (child == null) {
+                    child = new BuildNode();
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+
+            node.bindings = Collections.unmodifiableSet(new LinkedHashSet<UrlBinding>(
+                    entry.getValue()));
+            ++count;
+        }
+
+        this.root = compile("", builder);
+        this.size = count;
+    }
+
+    /**
+     * Get the set of bindings associated with the longest registered prefix of {@code uri}.
+     *
+     * @param uri a request URI
+     * @return the candidate bindings, or null if no registered prefix matches the URI
+     */
+    public Set<UrlBinding> getCandidates(String uri) {
+        Set<UrlBinding> candidates = root.bindings;
+        Node node = root;
+        int index = 0, length = uri.length();
+        while (index < length) {
+            node = node.getChild(uri.charAt(index));
+            if (node == null || !uri.regionMatches(index, node.edge, 0, node.edge.length()))
+                break;
+
+            index += node.edge.length();
+            if (node.bindings != null)
+                candidates = node.bindings;
+        }
+
+        return candidates;
+    }
+
+    /** Get the number of distinct prefixes contained in this tree. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Convert a node of the build tree into a node of the compiled tree, collapsing chains of
+     * nodes that have exactly one child and no bindings into a single edge.
+     */
+    private static Node compile(String edge, BuildNode builder) {
+        StringBuilder label = new StringBuilder(edge);
+        while (builder.bindings == null && builder.children.size() == 1 && label.length() > 0) {
+            Entry<Character, BuildNode> only = builder.children.entrySet().iterator().next();
+            label.append(only.getKey().charValue());
+            builder = only.getValue();
+        }
+
+        Node node = new Node(label.toString());
+        node.bindings = builder.bindings;
+        if (!builder.children.isEmpty()) {
+            node.keys = new char[builder.children.size()];
+            node.children = new Node[builder.children.size()];
+            int i = 0;
+            for (Entry<Character, BuildNode> entry : builder.children.entrySet()) {
+                node.keys[i] = entry.getKey();
+                node.children[i] = compile(String.valueOf(entry.getKey()), entry.getValue());
+                ++i;
+            }
+        }
+
+        return node;
+    }
+}
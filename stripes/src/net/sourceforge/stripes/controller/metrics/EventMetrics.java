@@ -0,0 +1,97 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sourceforge.stripes.controller.LifecycleStage;
+
+/**
+ * Holds the metrics for one event handler of one ActionBean class: how long each lifecycle stage
+ * took once the handler was known, and how many requests failed binding and validation.
+ * 
+ * @since Stripes 1.6
+ */
+public class EventMetrics {
+    private final String name;
+    private final Map<LifecycleStage, LatencyHistogram> stages;
+    private final AtomicLong bindings = new AtomicLong();
+    private final AtomicLong bindingErrors = new AtomicLong();
+
+    /**
+     * Create a new instance.
+     * 
+     * @param name the name under which the metrics are reported
+     */
+    public EventMetrics(String name) {
+        this.name = name;
+        this.stages = new EnumMap<LifecycleStage, LatencyHistogram>(LifecycleStage.class);
+        for (LifecycleStage stage : LifecycleStage.values())
+            this.stages.put(stage, new LatencyHistogram());
+    }
+
+    /** Get the name under which the metrics are reported. */
+    public String getName() {
+        return name;
+    }
+
+    /** Get the histogram of the durations of a lifecycle stage. */
+    public LatencyHistogram getStageHistogram(LifecycleStage stage) {
+        return stages.get(stage);
+    }
+
+    /** Record the outcome of binding and validation. */
+    public void recordBinding(boolean errors) {
+        bindings.incrementAndGet();
+        if (errors)
+            bindingErrors.incrementAndGet();
+    }
+
+    /** Get the number of requests that have been bound and validated. */
+    public long getBindingCount() {
+        return bindings.get();
+    }
+
+    /** Get the number of requests that had errors after binding and validation. */
+    public long getBindingErrorCount() {
+        return bindingErrors.get();
+    }
+
+    /** Discard all recorded metrics. */
+    public void reset() {
+        for (LatencyHistogram histogram : stages.values())
+            histogram.reset();
+        bindings.set(0);
+        bindingErrors.set(0);
+    }
+
+    /**
+     * Summarizes the metrics, one line for binding and one for each lifecycle stage that has
+     * been recorded.
+     */
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder(name).append(": bindings=").append(
+                getBindingCount()).append(", binding errors=").append(getBindingErrorCount());
+        for (Map.Entry<LifecycleStage, LatencyHistogram> entry : stages.entrySet()) {
+            if (entry.getValue().getCount() > 0) {
+                buf.append("\n    ").append(entry.getKey()).append(": ").append(entry.getValue());
+            }
+        }
+        return buf.toString();
+    }
+}
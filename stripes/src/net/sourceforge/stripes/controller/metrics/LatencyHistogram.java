@@ -0,0 +1,136 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A histogram of durations that can be recorded from many threads at once without locking.
+ * Durations are counted in buckets whose bounds are powers of two microseconds: the first bucket
+ * holds durations under one microsecond, the second those under two, the third those under four
+ * and so on up to about six days. Recording a duration costs a few atomic operations and never
+ * allocates, so it is cheap enough to do on every request.
+ * </p>
+ * <p>
+ * Percentiles are estimated from the buckets and are reported as the upper bound of the bucket
+ * in which they fall, so they may be up to twice the real value. The count, total and maximum
+ * are exact.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public class LatencyHistogram {
+    /** The number of buckets. The last bucket also holds all longer durations. */
+    public static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Record a duration.
+     * 
+     * @param nanos the duration in nanoseconds, as measured with {@link System#nanoTime()}
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+
+        buckets.incrementAndGet(getBucket(nanos));
+        totalNanos.addAndGet(nanos);
+
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos))
+            ;
+    }
+
+    /** Get the number of durations that have been recorded. */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += buckets.get(i);
+        return count;
+    }
+
+    /** Get the sum of all the durations that have been recorded, in nanoseconds. */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /** Get the longest duration that has been recorded, in nanoseconds. */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /** Get the mean of the durations that have been recorded, in nanoseconds. */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * Estimate the duration below which a given fraction of the recorded durations fall.
+     * 
+     * @param fraction a number between 0 and 1, such as 0.99 for the 99th percentile
+     * @return the estimated duration in nanoseconds, never more than {@link #getMaxNanos()}
+     */
+    public long getPercentileNanos(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += counts[i] = buckets.get(i);
+        if (count == 0)
+            return 0;
+
+        long rank = (long) Math.ceil(fraction * count), seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min((1L << i) * 1000, getMaxNanos());
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Discard all recorded durations. Durations recorded by other threads while the histogram is
+     * being reset may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.set(i, 0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    /** Get the index of the bucket that holds a duration. */
+    protected int getBucket(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return bucket < BUCKETS ? bucket : BUCKETS - 1;
+    }
+
+    /** Summarizes the histogram with durations in milliseconds. */
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH,
+                "count=%d, mean=%.3fms, p50=%.3fms, p90=%.3fms, p99=%.3fms, max=%.3fms",
+                getCount(), getMeanNanos() / 1e6, getPercentileNanos(0.5) / 1e6,
+                getPercentileNanos(0.9) / 1e6, getPercentileNanos(0.99) / 1e6,
+                getMaxNanos() / 1e6);
+    }
+}
@@ -0,0 +1,213 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Hashtable;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.ServletContext;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.config.ConfigurableComponent;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.AnnotatedClassActionResolver;
+import net.sourceforge.stripes.controller.ExecutionContext;
+import net.sourceforge.stripes.controller.Interceptor;
+import net.sourceforge.stripes.controller.Intercepts;
+import net.sourceforge.stripes.controller.LifecycleStage;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>
+ * Measures how long each {@link LifecycleStage} of each request takes and records the durations
+ * in a {@link RequestMetrics}. Once the event handler of a request is known, the durations are
+ * also recorded for the ActionBean class and handler, along with whether binding and validation
+ * produced errors. Recording is lock-free and does not allocate, so the interceptor is cheap
+ * enough to leave on in production.
+ * </p>
+ * <p>
+ * The duration of a stage includes the interceptors that run after this one, so this interceptor
+ * should be configured first. To enable it, add it to the {@code Interceptor.Classes}
+ * initialization parameter of the Stripes filter:
+ * </p>
+ * 
+ * <pre>
+ * &lt;init-param&gt;
+ *     &lt;param-name&gt;Interceptor.Classes&lt;/param-name&gt;
+ *     &lt;param-value&gt;net.sourceforge.stripes.controller.metrics.MetricsInterceptor&lt;/param-value&gt;
+ * &lt;/init-param&gt;
+ * </pre>
+ * <p>
+ * The metrics are published in two ways:
+ * </p>
+ * <ul>
+ * <li>As an MBean in the platform MBean server named
+ * {@code net.sourceforge.stripes:type=RequestMetrics,context="<context path>"}. Set the
+ * configuration property {@value #JMX_ENABLED} to false to disable this.</li>
+ * <li>As a servlet context attribute named {@value #SERVLET_CONTEXT_ATTRIBUTE}, from which
+ * {@link MetricsServlet} reads them.</li>
+ * </ul>
+ * 
+ * @since Stripes 1.6
+ */
+@Intercepts( { LifecycleStage.RequestInit, LifecycleStage.ActionBeanResolution,
+        LifecycleStage.HandlerResolution, LifecycleStage.BindingAndValidation,
+        LifecycleStage.CustomValidation, LifecycleStage.EventHandling,
+        LifecycleStage.ResolutionExecution, LifecycleStage.RequestComplete })
+public class MetricsInterceptor implements Interceptor, ConfigurableComponent {
+    private static final Log log = Log.getInstance(MetricsInterceptor.class);
+
+    /** Configuration key that disables publishing the metrics over JMX when set to false. */
+    public static final String JMX_ENABLED = "Metrics.Jmx";
+
+    /** The name of the servlet context attribute under which the metrics are published. */
+    public static final String SERVLET_CONTEXT_ATTRIBUTE = "net.sourceforge.stripes.controller.metrics.RequestMetrics";
+
+    /** The JMX domain under which the metrics are published. */
+    public static final String JMX_DOMAIN = "net.sourceforge.stripes";
+
+    private final RequestMetrics metrics = new RequestMetrics();
+    private ServletContext servletContext;
+    private ObjectName objectName;
+
+    /** Publish the metrics in the servlet context and over JMX. */
+    public void init(Configuration configuration) throws Exception {
+        if (configuration.getActionResolver() instanceof AnnotatedClassActionResolver) {
+            metrics.setUrlBindingFactory(((AnnotatedClassActionResolver) configuration
+                    .getActionResolver()).getUrlBindingFactory());
+        }
+
+        this.servletContext = configuration.getServletContext();
+        if (servletContext != null) {
+            servletContext.setAttribute(SERVLET_CONTEXT_ATTRIBUTE, metrics);
+        }
+
+        String jmx = configuration.getBootstrapPropertyResolver().getProperty(JMX_ENABLED);
+        if (jmx == null || Boolean.valueOf(jmx.trim())) {
+            registerMBean();
+        }
+    }
+
+    /** Get the metrics recorded by this interceptor. */
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Get the name under which the metrics are registered with JMX, or null if they are not. */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /** Times the lifecycle stage and records the duration. */
+    public Resolution intercept(ExecutionContext context) throws Exception {
+        LifecycleStage stage = context.getLifecycleStage();
+        long start = System.nanoTime();
+        try {
+            Resolution resolution = context.proceed();
+            if (stage == LifecycleStage.BindingAndValidation) {
+                metrics.recordBinding(getEventMetrics(context), !context.getActionBeanContext()
+                        .getValidationErrors().isEmpty());
+            }
+            return resolution;
+        }
+        finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.getStageHistogram(stage).record(elapsed);
+
+            EventMetrics event = getEventMetrics(context);
+            if (event != null)
+                event.getStageHistogram(stage).record(elapsed);
+        }
+    }
+
+    /**
+     * Remove the metrics from the servlet context and unregister them from JMX. Called by
+     * {@link net.sourceforge.stripes.controller.StripesFilter#destroy()}.
+     */
+    public void destroy() {
+        if (servletContext != null
+                && servletContext.getAttribute(SERVLET_CONTEXT_ATTRIBUTE) == metrics) {
+            servletContext.removeAttribute(SERVLET_CONTEXT_ATTRIBUTE);
+        }
+
+        if (objectName != null) {
+            try {
+                getMBeanServer().unregisterMBean(objectName);
+            }
+            catch (Exception e) {
+                log.debug("Failed to unregister ", objectName, ": ", e);
+            }
+            objectName = null;
+        }
+    }
+
+    /** Get the metrics for the event handler of the current request, or null if not known yet. */
+    protected EventMetrics getEventMetrics(ExecutionContext context) {
+        ActionBean bean = context.getActionBean();
+        Method handler = context.getHandler();
+        return bean == null || handler == null ? null : metrics.getEventMetrics(bean.getClass(),
+                handler);
+    }
+
+    /** Get the MBean server with which the metrics are registered. */
+    protected MBeanServer getMBeanServer() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+
+    /**
+     * Get the name under which the metrics are registered with JMX. The name includes the context
+     * path so that several applications in one JVM do not collide.
+     */
+    protected ObjectName createObjectName() throws Exception {
+        String context = null;
+        if (servletContext != null)
+            context = servletContext.getContextPath();
+        if (context == null || context.length() == 0)
+            context = "/";
+
+        Hashtable<String, String> properties = new Hashtable<String, String>();
+        properties.put("type", RequestMetrics.class.getSimpleName());
+        properties.put("context", ObjectName.quote(context));
+        return new ObjectName(JMX_DOMAIN, properties);
+    }
+
+    /**
+     * Register the metrics with JMX, replacing the metrics of an earlier instance of the same
+     * application. Failure is logged but does not stop Stripes from starting.
+     */
+    protected void registerMBean() {
+        try {
+            ObjectName name = createObjectName();
+            MBeanServer server = getMBeanServer();
+            try {
+                server.registerMBean(metrics, name);
+            }
+            catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(metrics, name);
+            }
+            this.objectName = name;
+            log.info("Registered request metrics with JMX as ", name);
+        }
+        catch (Exception e) {
+            log.warn(e, "Failed to register request metrics with JMX");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * <p>
+ * Writes a plain text report of the metrics recorded by {@link MetricsInterceptor}. This servlet
+ * is optional. To use it, map it in {@code web.xml} and make sure that only administrators can
+ * reach it, because the report reveals the names of the ActionBeans and their event handlers.
+ * </p>
+ * <p>
+ * A POST request with a parameter named {@code reset} discards the recorded metrics after the
+ * report is written.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public class MetricsServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+
+    /** Get the metrics published by {@link MetricsInterceptor}, or null if there are none. */
+    protected RequestMetrics getMetrics() {
+        return (RequestMetrics) getServletContext().getAttribute(
+                MetricsInterceptor.SERVLET_CONTEXT_ATTRIBUTE);
+    }
+
+    /** Writes the report. */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        RequestMetrics metrics = getMetrics();
+        if (metrics == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND,
+                    "No request metrics. Is MetricsInterceptor configured?");
+            return;
+        }
+
+        response.setContentType("text/plain");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        PrintWriter writer = response.getWriter();
+        writer.write(metrics.getReport());
+        writer.flush();
+    }
+
+    /** Writes the report and then resets the metrics if requested. */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        doGet(request, response);
+
+        RequestMetrics metrics = getMetrics();
+        if (metrics != null && request.getParameter("reset") != null)
+            metrics.reset();
+    }
+}
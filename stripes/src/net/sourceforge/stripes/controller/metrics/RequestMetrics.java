@@ -0,0 +1,202 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.controller.LifecycleStage;
+import net.sourceforge.stripes.controller.UrlBindingFactory;
+
+/**
+ * <p>
+ * Collects the metrics recorded by {@link MetricsInterceptor}: a {@link LatencyHistogram} for each
+ * {@link LifecycleStage}, an {@link EventMetrics} for each event handler that has been invoked,
+ * the rate of binding errors and the lookup statistics of the {@link UrlBindingFactory}.
+ * </p>
+ * <p>
+ * All recording is lock-free. The only time a lock may be taken is when an event handler is seen
+ * for the first time and its {@link EventMetrics} are created.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public class RequestMetrics implements RequestMetricsMBean {
+    private final Map<LifecycleStage, LatencyHistogram> stages;
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, EventMetrics>> events = new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, EventMetrics>>();
+    private final AtomicLong bindings = new AtomicLong();
+    private final AtomicLong bindingErrors = new AtomicLong();
+    private volatile UrlBindingFactory urlBindingFactory;
+
+    /** Create a new instance. */
+    public RequestMetrics() {
+        this.stages = new EnumMap<LifecycleStage, LatencyHistogram>(LifecycleStage.class);
+        for (LifecycleStage stage : LifecycleStage.values())
+            this.stages.put(stage, new LatencyHistogram());
+    }
+
+    /** Get the histogram of the durations of a lifecycle stage. */
+    public LatencyHistogram getStageHistogram(LifecycleStage stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * Get the metrics for an event handler, creating them if necessary.
+     * 
+     * @param beanClass the ActionBean class
+     * @param handler the event handler method
+     * @return the metrics for the event handler, never null
+     */
+    public EventMetrics getEventMetrics(Class<? extends ActionBean> beanClass, Method handler) {
+        ConcurrentMap<Method, EventMetrics> handlers = events.get(beanClass);
+        if (handlers == null) {
+            handlers = new ConcurrentHashMap<Method, EventMetrics>();
+            ConcurrentMap<Method, EventMetrics> existing = events.putIfAbsent(beanClass, handlers);
+            if (existing != null)
+                handlers = existing;
+        }
+
+        EventMetrics metrics = handlers.get(handler);
+        if (metrics == null) {
+            metrics = new EventMetrics(beanClass.getName() + "." + handler.getName() + "()");
+            EventMetrics existing = handlers.putIfAbsent(handler, metrics);
+            if (existing != null)
+                metrics = existing;
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Record the outcome of binding and validation.
+     * 
+     * @param event the metrics for the event handler of the request
+     * @param errors true if there were validation errors
+     */
+    public void recordBinding(EventMetrics event, boolean errors) {
+        bindings.incrementAndGet();
+        if (errors)
+            bindingErrors.incrementAndGet();
+        if (event != null)
+            event.recordBinding(errors);
+    }
+
+    /** Get the {@link UrlBindingFactory} whose lookup statistics are reported, if any. */
+    public UrlBindingFactory getUrlBindingFactory() {
+        return urlBindingFactory;
+    }
+
+    /**
+     * Set the {@link UrlBindingFactory} whose lookup statistics are reported. This enables the
+     * statistics of the factory, which are not kept otherwise.
+     */
+    public void setUrlBindingFactory(UrlBindingFactory urlBindingFactory) {
+        if (urlBindingFactory != null)
+            urlBindingFactory.setStatisticsEnabled(true);
+        this.urlBindingFactory = urlBindingFactory;
+    }
+
+    public long getRequestCount() {
+        return getStageHistogram(LifecycleStage.RequestInit).getCount();
+    }
+
+    public long getBindingCount() {
+        return bindings.get();
+    }
+
+    public long getBindingErrorCount() {
+        return bindingErrors.get();
+    }
+
+    public double getBindingErrorRate() {
+        long count = getBindingCount();
+        return count == 0 ? 0 : (double) getBindingErrorCount() / count;
+    }
+
+    public long getUrlBindingExactMatches() {
+        UrlBindingFactory factory = getUrlBindingFactory();
+        return factory == null ? 0 : factory.getExactMatchCount();
+    }
+
+    public long getUrlBindingPrefixMatches() {
+        UrlBindingFactory factory = getUrlBindingFactory();
+        return factory == null ? 0 : factory.getPrefixMatchCount();
+    }
+
+    public long getUrlBindingMisses() {
+        UrlBindingFactory factory = getUrlBindingFactory();
+        return factory == null ? 0 : factory.getMissCount();
+    }
+
+    public String[] getStageStatistics() {
+        List<String> list = new ArrayList<String>(stages.size());
+        for (Map.Entry<LifecycleStage, LatencyHistogram> entry : stages.entrySet())
+            list.add(entry.getKey() + ": " + entry.getValue());
+        return list.toArray(new String[list.size()]);
+    }
+
+    public String[] getEventStatistics() {
+        List<String> list = new ArrayList<String>();
+        for (Map<Method, EventMetrics> handlers : events.values()) {
+            for (EventMetrics event : handlers.values())
+                list.add(event.toString());
+        }
+        Collections.sort(list);
+        return list.toArray(new String[list.size()]);
+    }
+
+    public String getReport() {
+        StringBuilder buf = new StringBuilder();
+        buf.append("Requests: ").append(getRequestCount()).append('\n');
+        buf.append("Bindings: ").append(getBindingCount()).append(", with errors: ").append(
+                getBindingErrorCount()).append('\n');
+        buf.append("URL binding lookups: exact matches=").append(getUrlBindingExactMatches())
+                .append(", prefix matches=").append(getUrlBindingPrefixMatches()).append(
+                        ", misses=").append(getUrlBindingMisses()).append('\n');
+
+        buf.append("\nLifecycle stages:\n");
+        for (String stage : getStageStatistics())
+            buf.append("  ").append(stage).append('\n');
+
+        buf.append("\nEvents:\n");
+        for (String event : getEventStatistics())
+            buf.append("  ").append(event).append('\n');
+
+        return buf.toString();
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : stages.values())
+            histogram.reset();
+        for (Map<Method, EventMetrics> handlers : events.values()) {
+            for (EventMetrics event : handlers.values())
+                event.reset();
+        }
+        bindings.set(0);
+        bindingErrors.set(0);
+
+        UrlBindingFactory factory = getUrlBindingFactory();
+        if (factory != null)
+            factory.resetStatistics();
+    }
+}
@@ -0,0 +1,56 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+/**
+ * The JMX management interface of {@link RequestMetrics}. Durations are reported in
+ * milliseconds.
+ * 
+ * @since Stripes 1.6
+ */
+public interface RequestMetricsMBean {
+    /** Get the number of requests that have been dispatched to ActionBeans. */
+    long getRequestCount();
+
+    /** Get the number of requests that have been bound and validated. */
+    long getBindingCount();
+
+    /** Get the number of requests that had errors after binding and validation. */
+    long getBindingErrorCount();
+
+    /** Get the fraction of bound requests that had errors, between 0 and 1. */
+    double getBindingErrorRate();
+
+    /** Get the number of request URIs that matched a URL binding exactly. */
+    long getUrlBindingExactMatches();
+
+    /** Get the number of request URIs that matched a URL binding by prefix. */
+    long getUrlBindingPrefixMatches();
+
+    /** Get the number of request URIs that did not match any URL binding. */
+    long getUrlBindingMisses();
+
+    /** Summarize the durations of each lifecycle stage, one stage per element. */
+    String[] getStageStatistics();
+
+    /** Summarize the metrics of each event handler, one handler per element. */
+    String[] getEventStatistics();
+
+    /** Get a plain text report of all the metrics. */
+    String getReport();
+
+    /** Discard all recorded metrics. */
+    void reset();
+}
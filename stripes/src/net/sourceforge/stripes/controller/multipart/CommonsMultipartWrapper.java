@@ -161,14 +161,7 @@ public class CommonsMultipartWrapper implements MultipartWrapper {
         }
         else {
             // Attempt to ensure the file name is just the basename with no path included
-            String filename = item.getName();
-            int index;
-            if (WINDOWS_PATH_PREFIX_PATTERN.matcher(filename).find())
-                index = filename.lastIndexOf('\\');
-            else
-                index = filename.lastIndexOf('/');
-            if (index >= 0 && index + 1 < filename.length() - 1)
-                filename = filename.substring(index + 1);
+            String filename = getBaseName(item.getName());
 
             // Use an anonymous inner subclass of FileBean that overrides all the
             // methods that rely on having a File present, to use the FileItem
@@ -201,8 +194,26 @@ public class CommonsMultipartWrapper implements MultipartWrapper {
         }
     }
 
+    /**
+     * Strips any path that the browser included in the name of an uploaded file, leaving just the
+     * base name.
+     *
+     * @param filename the file name sent by the browser
+     * @return the file name without any leading path
+     */
+    static String getBaseName(String filename) {
+        int index;
+        if (WINDOWS_PATH_PREFIX_PATTERN.matcher(filename).find())
+            index = filename.lastIndexOf('\\');
+        else
+            index = filename.lastIndexOf('/');
+        if (index >= 0 && index + 1 < filename.length() - 1)
+            filename = filename.substring(index + 1);
+        return filename;
+    }
+
     /** Little helper class to create an enumeration as per the interface. */
-    private static class IteratorEnumeration implements Enumeration<String> {
+    static class IteratorEnumeration implements Enumeration<String> {
         Iterator<String> iterator;
 
         /** Constructs an enumeration that consumes from the underlying iterator. */
@@ -0,0 +1,287 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.multipart;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import net.sourceforge.stripes.action.FileBean;
+import net.sourceforge.stripes.controller.FileUploadLimitExceededException;
+import net.sourceforge.stripes.util.Log;
+
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+
+/**
+ * <p>
+ * An implementation of {@link MultipartWrapper} that uses the streaming API of Commons FileUpload
+ * so that an uploaded file is never written to a temporary file or held in memory. The file is
+ * read directly from the request by whoever reads the {@link FileBean}, so an event handler can
+ * pipe a large upload straight to its final destination. To use it, set the
+ * {@code MultipartWrapper.Class} initialization parameter of the Stripes filter to the name of
+ * this class.
+ * </p>
+ * <p>
+ * Because the request can only be read once, and only in order, this wrapper is intended for
+ * forms that contain one file input, placed after all the other inputs, including the submit
+ * buttons. The hidden fields that {@link net.sourceforge.stripes.tag.FormTag} writes are placed
+ * at the start of multipart forms, so they are always read before the file.
+ * </p>
+ * <ul>
+ * <li>The form fields before the file are read into memory when the request is wrapped, so they
+ * are available for binding as usual.</li>
+ * <li>The request is not read past the start of the file, so form fields and files that come
+ * after it cannot be bound. Such requests are rejected: reading to the end of the file, or
+ * closing it, throws an {@link IOException} that names the part after the file.</li>
+ * <li>The {@link FileBean} can be read only once. {@link FileBean#getSize()} returns -1 because
+ * the size is not known until the file has been read.</li>
+ * <li>The file must be read during the request. {@link FileBean#delete()} does nothing because
+ * nothing is stored.</li>
+ * </ul>
+ * <p>
+ * File inputs that were left empty are skipped, so they do not stop the form fields after them
+ * from being read.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public class StreamingMultipartWrapper implements MultipartWrapper {
+    private static final Log log = Log.getInstance(StreamingMultipartWrapper.class);
+
+    /** The charset used to decode form fields if the request does not specify one. */
+    public static final String DEFAULT_CHARSET = "ISO-8859-1";
+
+    /** Ensure this class will not load unless Commons FileUpload is on the classpath. */
+    static {
+        FileUploadException.class.getName();
+    }
+
+    private Map<String, String[]> parameters = new HashMap<String, String[]>();
+    private FileItemIterator iterator;
+    private FileItemStream fileItem;
+    private String charset;
+    private boolean lastPartChecked;
+
+    /**
+     * Reads the form fields up to the first file from the request.
+     * 
+     * @param request an HttpServletRequest that has a content-type of multipart.
+     * @param tempDir ignored because nothing is written to disk
+     * @param maxPostSize the size in bytes beyond which the request should not be read, and a
+     *            FileUploadLimitExceeded exception should be thrown
+     * @throws IOException if a problem occurs reading the request
+     * @throws FileUploadLimitExceededException if the POST content is longer than the
+     *             maxPostSize supplied.
+     */
+    public void build(HttpServletRequest request, File tempDir, long maxPostSize)
+            throws IOException, FileUploadLimitExceededException {
+        try {
+            this.charset = request.getCharacterEncoding();
+            ServletFileUpload upload = new ServletFileUpload();
+            upload.setSizeMax(maxPostSize);
+            FileItemIterator iterator = upload.getItemIterator(request);
+            Map<String, List<String>> params = new HashMap<String, List<String>>();
+
+            while (iterator.hasNext()) {
+                FileItemStream item = iterator.next();
+
+                // If it's a form field, add the string value to the list
+                if (item.isFormField()) {
+                    List<String> values = params.get(item.getFieldName());
+                    if (values == null) {
+                        values = new ArrayList<String>();
+                        params.put(item.getFieldName(), values);
+                    }
+                    values.add(Streams.asString(item.openStream(),
+                            charset == null ? DEFAULT_CHARSET : charset));
+                }
+                // Else stop reading at the first file that was actually uploaded
+                else if (item.getName() != null && item.getName().length() > 0) {
+                    this.iterator = iterator;
+                    this.fileItem = item;
+                    break;
+                }
+            }
+
+            // Now convert them down into the usual map of String->String[]
+            for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+                List<String> values = entry.getValue();
+                this.parameters.put(entry.getKey(), values.toArray(new String[values.size()]));
+            }
+        }
+        catch (FileUploadBase.SizeLimitExceededException slee) {
+            throw new FileUploadLimitExceededException(maxPostSize, slee.getActualSize());
+        }
+        catch (FileUploadBase.FileUploadIOException fuioe) {
+            if (fuioe.getCause() instanceof FileUploadBase.SizeLimitExceededException) {
+                throw new FileUploadLimitExceededException(maxPostSize,
+                        ((FileUploadBase.SizeLimitExceededException) fuioe.getCause())
+                                .getActualSize());
+            }
+            throw fuioe;
+        }
+        catch (FileUploadException fue) {
+            IOException ioe = new IOException("Could not parse file upload data.");
+            ioe.initCause(fue);
+            throw ioe;
+        }
+    }
+
+    /**
+     * Fetches the names of the non-file parameters that precede the file in the request.
+     * 
+     * @return an Enumeration of all non-file parameter names in the request
+     */
+    public Enumeration<String> getParameterNames() {
+        return new CommonsMultipartWrapper.IteratorEnumeration(this.parameters.keySet().iterator());
+    }
+
+    /**
+     * Fetches all values of a specific parameter in the request. To simulate the HTTP request
+     * style, the array should be null for non-present parameters, and values in the array should
+     * never be null - the empty String should be used when there is value.
+     * 
+     * @param name the name of the request parameter
+     * @return an array of non-null parameters or null
+     */
+    public String[] getParameterValues(String name) {
+        return this.parameters.get(name);
+    }
+
+    /**
+     * Fetches the name of the file parameter, if a file was uploaded.
+     * 
+     * @return the name of the file parameter, or nothing
+     */
+    public Enumeration<String> getFileParameterNames() {
+        List<String> names = fileItem == null ? Collections.<String> emptyList() : Collections
+                .singletonList(fileItem.getFieldName());
+        return new CommonsMultipartWrapper.IteratorEnumeration(names.iterator());
+    }
+
+    /**
+     * Constructs a FileBean that reads the file straight from the request.
+     * 
+     * @param name the name of the file parameter
+     * @return a FileBean object wrapping the uploaded file, or null if there is no such file
+     */
+    public FileBean getFileParameterValue(String name) {
+        if (fileItem == null || !fileItem.getFieldName().equals(name))
+            return null;
+
+        final FileItemStream item = this.fileItem;
+        String filename = CommonsMultipartWrapper.getBaseName(item.getName());
+        return new FileBean(null, item.getContentType(), filename, this.charset) {
+            private boolean opened;
+
+            @Override
+            public long getSize() {
+                return -1;
+            }
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                synchronized (this) {
+                    if (opened) {
+                        throw new IOException("The uploaded file " + getFileName()
+                                + " has already been read. It is streamed from the request, "
+                                + "so it can only be read once.");
+                    }
+                    opened = true;
+                }
+
+                return new FilterInputStream(item.openStream()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b < 0)
+                            checkLastPart();
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int n = super.read(b, off, len);
+                        if (n < 0)
+                            checkLastPart();
+                        return n;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        checkLastPart();
+                    }
+                };
+            }
+
+            @Override
+            public void save(File toFile) throws IOException {
+                Streams.copy(getInputStream(), new FileOutputStream(toFile), true);
+            }
+
+            @Override
+            public void delete() throws IOException {
+            }
+        };
+    }
+
+    /**
+     * Throw an exception if the request contains parts after the file. Those parts could not be
+     * bound because the request had not been read that far, so the request must not be processed
+     * as if they had not been sent. Only the first call checks.
+     * 
+     * @throws IOException if there are parts after the file or the request cannot be parsed
+     */
+    protected synchronized void checkLastPart() throws IOException {
+        if (lastPartChecked)
+            return;
+        lastPartChecked = true;
+
+        try {
+            if (iterator.hasNext()) {
+                FileItemStream next = iterator.next();
+                String message = "The multipart request contains the "
+                        + (next.isFormField() ? "field " : "file ") + next.getFieldName()
+                        + " after the uploaded file " + fileItem.getFieldName() + ". "
+                        + getClass().getSimpleName() + " cannot bind anything that follows the "
+                        + "file, so the file input must be the last input in the form, after "
+                        + "any submit buttons.";
+                log.error(message);
+                throw new IOException(message);
+            }
+        }
+        catch (FileUploadException fue) {
+            IOException ioe = new IOException("Could not parse file upload data.");
+            ioe.initCause(fue);
+            throw ioe;
+        }
+    }
+}
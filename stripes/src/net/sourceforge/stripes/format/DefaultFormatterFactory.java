@@ -14,11 +14,18 @@
  */
 package net.sourceforge.stripes.format;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.ThreadSafe;
+import net.sourceforge.stripes.util.InstanceCache;
+import net.sourceforge.stripes.util.InstancePool;
 import net.sourceforge.stripes.util.Log;
 import net.sourceforge.stripes.util.TypeHandlerCache;
 
@@ -40,11 +47,26 @@ public class DefaultFormatterFactory implements FormatterFactory {
     /** Stores a reference to the Configuration passed in at initialization time. */
     private Configuration configuration;
 
+    /**
+     * The built-in formatters that are not thread-safe but build costly formats when initialized.
+     * Idle instances of exactly these classes are pooled by formatter class, format and locale.
+     */
+    private static final Set<Class<?>> POOLED_FORMATTERS = new HashSet<Class<?>>(Arrays
+            .<Class<?>> asList(DateFormatter.class, NumberFormatter.class));
+
+    /** Caches initialized thread-safe Formatter instances by formatter class, format and locale. */
+    private InstanceCache<List<Object>, Formatter<?>> instances;
+
+    /** Pools idle instances of the built-in formatters that are not thread-safe. */
+    private InstancePool<List<Object>, Formatter<?>> pool;
+
     /** Stores a reference to the configuration and configures the default formatters. */
     public void init(Configuration configuration) throws Exception {
         this.configuration = configuration;
         this.cache = new TypeHandlerCache<Class<? extends Formatter<?>>>();
         this.cache.setDefaultHandler(ObjectFormatter.class);
+        this.instances = new InstanceCache<List<Object>, Formatter<?>>();
+        this.pool = new InstancePool<List<Object>, Formatter<?>>(256, 16);
 
         add(Date.class, DateFormatter.class);
         add(Number.class, NumberFormatter.class);
@@ -105,7 +127,13 @@ public class DefaultFormatterFactory implements FormatterFactory {
     }
 
     /**
-     * Gets an instance of the Formatter class specified.
+     * Gets an instance of the Formatter class specified. Instances of classes annotated with
+     * {@link ThreadSafe} are created by {@link #newInstance(Class, String, String, Locale)} the
+     * first time they are needed and are then shared for the same class, format type, format
+     * pattern and locale. Idle instances of the built-in formatters that are not thread-safe,
+     * such as {@link DateFormatter}, are taken from a pool if there are any; see
+     * {@link #release(Formatter, String, String, Locale)}. A new instance of any other class is
+     * created each time.
      *
      * @param clazz the Formatter type that is desired
      * @return an instance of the Formatter specified
@@ -115,6 +143,53 @@ public class DefaultFormatterFactory implements FormatterFactory {
             String formatType, String formatPattern, Locale locale)
             throws Exception {
 
+        List<Object> key = Arrays.<Object> asList(clazz, formatType, formatPattern, locale);
+        if (!InstanceCache.isThreadSafe(clazz)) {
+            Formatter<?> formatter = POOLED_FORMATTERS.contains(clazz) ? pool.borrow(key) : null;
+            return formatter == null ? newInstance(clazz, formatType, formatPattern, locale)
+                    : formatter;
+        }
+
+        Formatter<?> formatter = instances.get(key);
+        if (formatter == null) {
+            formatter = newInstance(clazz, formatType, formatPattern, locale);
+            instances.put(key, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * Hands back a formatter obtained from this factory once the caller is done with it, so that
+     * it can be reused by a later format. Only instances of the built-in formatters that are not
+     * thread-safe are kept; anything else is ignored. The caller must not use the formatter after
+     * releasing it.
+     *
+     * @param formatter a formatter obtained from this factory, or null
+     * @param formatType the format type for which the formatter was obtained
+     * @param formatPattern the format pattern for which the formatter was obtained
+     * @param locale the locale for which the formatter was obtained
+     */
+    public void release(Formatter<?> formatter, String formatType, String formatPattern,
+            Locale locale) {
+        if (formatter != null && POOLED_FORMATTERS.contains(formatter.getClass())) {
+            pool.release(Arrays.<Object> asList(formatter.getClass(), formatType, formatPattern,
+                    locale), formatter);
+        }
+    }
+
+    /**
+     * Creates and initializes a new instance of the Formatter class specified. Instances of
+     * classes annotated with {@link ThreadSafe} that are returned from this method are cached by
+     * {@link #getInstance(Class, String, String, Locale)} and shared by all threads.
+     *
+     * @param clazz the Formatter type that is desired
+     * @return a new instance of the Formatter specified
+     * @throws Exception if there is a problem instantiating the Formatter
+     */
+    protected Formatter<?> newInstance(Class<? extends Formatter<?>> clazz,
+            String formatType, String formatPattern, Locale locale)
+            throws Exception {
+
         Formatter<?> formatter = getConfiguration().getObjectFactory().newInstance(clazz);
         formatter.setFormatType(formatType);
         formatter.setFormatPattern(formatPattern);
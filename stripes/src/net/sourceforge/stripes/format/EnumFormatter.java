@@ -16,6 +16,8 @@ package net.sourceforge.stripes.format;
 
 import java.util.Locale;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * A simple formatter for Enum classes that always returns the value of Enum.name(). Intended
  * really only to enable the seamless usage of enums as values in hidden fields, radio
@@ -25,6 +27,7 @@ import java.util.Locale;
  * @author Tim Fennell
  * @since Stripes 1.4.1
  */
+@ThreadSafe
 public class EnumFormatter implements Formatter<Enum<?>> {
     /** Does nothing. Format types are not supported for Enums. */
     public void setFormatType(String formatType) { }
@@ -16,6 +16,8 @@ package net.sourceforge.stripes.format;
 
 import java.util.Locale;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * This is the default formatter. It simply calls String.valueOf() on the
  * object being formatted.
@@ -23,6 +25,7 @@ import java.util.Locale;
  * @author Aaron Porter
  * @since Stripes 1.5
  */
+@ThreadSafe
 public class ObjectFormatter implements Formatter<Object> {
 
     /**
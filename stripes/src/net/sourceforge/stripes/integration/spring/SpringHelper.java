@@ -26,8 +26,10 @@ import org.springframework.web.context.support.WebApplicationContextUtils;
 import javax.servlet.ServletContext;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -52,8 +54,15 @@ import java.util.concurrent.ConcurrentHashMap;
  * an exception will be raised.</p>
  *
  * <p>The first time that any of the injection methods in this class is called with a specific type
- * of object, the object's class is examined for annotated fields and methods. The discovered
- * fields and methods are then cached for future usage.</p>
+ * of object, the object's class is examined for annotated fields and methods and the Spring bean
+ * for each of them is looked up. The result is cached as an injection plan for future usage. The
+ * plan holds singleton beans directly, so injecting them again requires no lookup at all. Beans of
+ * any other scope are looked up each time, but by the name that was found the first time, so the
+ * fallback from lookup by name to lookup by type happens only once.</p>
+ *
+ * <p>A plan is discarded and rebuilt if it is used with a different application context, or if
+ * the application context has been refreshed since the plan was built. Plans can also be
+ * discarded explicitly by calling {@link #clearInjectionPlans()}.</p>
  *
  * @see SpringBean
  * @author Dan Hayes, Tim Fennell
@@ -69,6 +78,78 @@ public class SpringHelper {
     private static Map<Class<?>, Collection<Field>> fieldMap =
             new ConcurrentHashMap<Class<?>, Collection<Field>>();
 
+    /** Lazily filled in map of Class to the plan for injecting beans into its instances. */
+    private static Map<Class<?>, InjectionPlan> planMap =
+            new ConcurrentHashMap<Class<?>, InjectionPlan>();
+
+    /**
+     * A Spring bean that has been resolved for injection through a method or field annotated
+     * with {@code @SpringBean}.
+     */
+    private static class Injection {
+        private final Method method;
+        private final Field field;
+        private final String name;
+        private final Class<?> type;
+        private final Object singleton;
+
+        /**
+         * Resolve the name of the bean and keep the bean if it is a singleton. Beans of other
+         * scopes are not created until they are injected.
+         */
+        Injection(ApplicationContext ctx, Method method, Field field, String name,
+                Class<?> type, boolean allowFindByType) {
+            this.method = method;
+            this.field = field;
+            this.type = type;
+
+            if (!containsBean(ctx, name, type)) {
+                if (!allowFindByType) {
+                    throw new StripesRuntimeException("Unable to find SpringBean with name [" +
+                        name + "] and type [" + type.getName() + "] in the Spring application " +
+                        "context.");
+                }
+                name = findSpringBeanNameByType(ctx, name, type);
+            }
+
+            this.name = name;
+            this.singleton = isSingleton(ctx, name) ? ctx.getBean(name, type) : null;
+        }
+
+        /** Inject the bean into the target, looking it up again unless it is a singleton. */
+        void inject(Object target, ApplicationContext ctx) throws Exception {
+            Object bean = singleton != null ? singleton : ctx.getBean(name, type);
+            if (method != null)
+                method.invoke(target, bean);
+            else
+                field.set(target, bean);
+        }
+
+        /** Describe how the bean is injected, for exception messages. */
+        String describe() {
+            return method != null ? "using method " + method.toString()
+                    : "using field access on field " + field.toString();
+        }
+    }
+
+    /** The resolved injections for a class and the application context they came from. */
+    private static class InjectionPlan {
+        private final ApplicationContext ctx;
+        private final long startupDate;
+        private final List<Injection> injections;
+
+        InjectionPlan(ApplicationContext ctx, List<Injection> injections) {
+            this.ctx = ctx;
+            this.startupDate = ctx.getStartupDate();
+            this.injections = injections;
+        }
+
+        /** True if the plan was built from the context and it has not been refreshed since. */
+        boolean isValidFor(ApplicationContext ctx) {
+            return this.ctx == ctx && this.startupDate == ctx.getStartupDate();
+        }
+    }
+
     /**
      * Injects Spring managed beans into using a Web Application Context that is
      * derived from the ServletContext, which is in turn looked up using the
@@ -109,38 +190,77 @@ public class SpringHelper {
      * @param ctx the Spring application context
      */
     public static void injectBeans(Object bean, ApplicationContext ctx) {
-        // First inject any values using annotated methods
-        for (Method m : getMethods(bean.getClass())) {
+        for (Injection injection : getInjectionPlan(bean.getClass(), ctx).injections) {
+            try {
+                injection.inject(bean, ctx);
+            }
+            catch (Exception e) {
+                throw new StripesRuntimeException("Exception while trying to lookup and inject " +
+                    "a Spring bean into a bean of type " + bean.getClass().getSimpleName() +
+                    " " + injection.describe(), e);
+            }
+        }
+    }
+
+    /**
+     * Discards all injection plans so that the Spring beans to inject are looked up again. A
+     * refresh of the application context is detected automatically, so this need only be
+     * called if beans are replaced in some other way.
+     */
+    public static void clearInjectionPlans() {
+        planMap.clear();
+    }
+
+    /**
+     * Gets the plan for injecting Spring beans into instances of a class. The first time it is
+     * called for a particular class and application context, it looks up the Spring bean for
+     * each annotated method and field and caches the results.
+     *
+     * @param clazz the class of the objects into which beans will be injected
+     * @param ctx the Spring application context
+     * @return the injection plan
+     */
+    private static InjectionPlan getInjectionPlan(Class<?> clazz, ApplicationContext ctx) {
+        InjectionPlan plan = planMap.get(clazz);
+        if (plan != null && plan.isValidFor(ctx))
+            return plan;
+
+        List<Injection> injections = new ArrayList<Injection>();
+
+        // First look up the beans to inject using annotated methods
+        for (Method m : getMethods(clazz)) {
             try {
                 SpringBean springBean = m.getAnnotation(SpringBean.class);
                 boolean nameSupplied = !"".equals(springBean.value());
                 String name = nameSupplied ? springBean.value() : methodToPropertyName(m);
                 Class<?> beanType = m.getParameterTypes()[0];
-                Object managedBean = findSpringBean(ctx, name, beanType, !nameSupplied);
-                m.invoke(bean, managedBean);
+                injections.add(new Injection(ctx, m, null, name, beanType, !nameSupplied));
             }
             catch (Exception e) {
                 throw new StripesRuntimeException("Exception while trying to lookup and inject " +
-                    "a Spring bean into a bean of type " + bean.getClass().getSimpleName() +
+                    "a Spring bean into a bean of type " + clazz.getSimpleName() +
                     " using method " + m.toString(), e);
             }
         }
 
-        // And then inject any properties that are annotated
-        for (Field f : getFields(bean.getClass())) {
+        // And then the beans to inject into annotated properties
+        for (Field f : getFields(clazz)) {
             try {
                 SpringBean springBean = f.getAnnotation(SpringBean.class);
                 boolean nameSupplied = !"".equals(springBean.value());
                 String name = nameSupplied ? springBean.value() : f.getName();
-                Object managedBean = findSpringBean(ctx, name, f.getType(), !nameSupplied);
-                f.set(bean, managedBean);
+                injections.add(new Injection(ctx, null, f, name, f.getType(), !nameSupplied));
             }
             catch (Exception e) {
                 throw new StripesRuntimeException("Exception while trying to lookup and inject " +
-                    "a Spring bean into a bean of type " + bean.getClass().getSimpleName() +
+                    "a Spring bean into a bean of type " + clazz.getSimpleName() +
                     " using field access on field " + f.toString(), e);
             }
         }
+
+        plan = new InjectionPlan(ctx, injections);
+        planMap.put(clazz, plan);
+        return plan;
     }
 
     /**
@@ -274,6 +394,20 @@ public class SpringHelper {
         }
 
         // If we got here then we didn't find a bean yet, try by type
+        return ctx.getBean(findSpringBeanNameByType(ctx, name, type), type);
+    }
+
+    /**
+     * Looks up the name of the only bean of a type in an Application Context. If zero or more
+     * than one bean of the correct type exists, an exception is thrown.
+     *
+     * @param ctx the Spring Application Context
+     * @param name the name of the spring bean that was not found, for exception messages
+     * @param type the type of bean to look for
+     * @return the name of the bean
+     */
+    private static String findSpringBeanNameByType(ApplicationContext ctx, String name,
+                                                   Class<?> type) {
         String[] beanNames = ctx.getBeanNamesForType(type);
         if (beanNames.length == 0) {
             throw new StripesRuntimeException(
@@ -289,7 +423,30 @@ public class SpringHelper {
         else {
             log.debug("Found unique SpringBean with type [" + type.getName() + "]. Matching on ",
                      "type is a little risky so watch out!");
-            return ctx.getBean(beanNames[0], type);
+            return beanNames[0];
+        }
+    }
+
+    /**
+     * Determines whether the context has a bean with the given name whose type matches, without
+     * creating the bean. If the type of the bean cannot be determined in advance, it is assumed
+     * to match.
+     */
+    private static boolean containsBean(ApplicationContext ctx, String name, Class<?> type) {
+        if (!ctx.containsBean(name))
+            return false;
+
+        Class<?> beanType = ctx.getType(name);
+        return beanType == null || type.isAssignableFrom(beanType);
+    }
+
+    /** Determines whether the named bean is a singleton, in which case it can be cached. */
+    private static boolean isSingleton(ApplicationContext ctx, String name) {
+        try {
+            return ctx.isSingleton(name);
+        }
+        catch (NestedRuntimeException nre) {
+            return false;
         }
     }
 
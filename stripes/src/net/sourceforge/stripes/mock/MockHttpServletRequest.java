@@ -110,8 +110,14 @@ public class MockHttpServletRequest implements HttpServletRequest {
         this.headers.put(name.toLowerCase(), value);
     }
 
-    /** Gets the named header as a long. Must have been set as a long with addHeader(). */
-    public long getDateHeader(String name) { return (Long) this.headers.get(name); }
+    /**
+     * Gets the named header as a long. Must have been set as a long with addHeader(). Returns -1
+     * if the header is not present.
+     */
+    public long getDateHeader(String name) {
+        Long header = (Long) this.headers.get(name.toLowerCase());
+        return header == null ? -1 : header;
+    }
 
     /** Returns any header as a String if it exists. */
     public String getHeader(String name) {
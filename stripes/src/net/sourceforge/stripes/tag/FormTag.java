@@ -219,11 +219,16 @@ public class FormTag extends HtmlTagSupport implements BodyTag, TryCatchFinally,
      * Writes things out in the following order:
      * <ul>
      *   <li>The form open tag</li>
-     *   <li>Hidden fields for the form name and source page</li>
      *   <li>The buffered body content</li>
+     *   <li>Hidden fields for the source page and the fields present</li>
      *   <li>The form close tag</li>
      * </ul>
      *
+     * <p>In a form with an enctype of {@code multipart/form-data}, the hidden fields are written
+     * before the body content instead, so that they are sent ahead of any uploaded files. This
+     * allows a {@link net.sourceforge.stripes.controller.multipart.MultipartWrapper} that streams
+     * the files to read the hidden fields before the files.</p>
+     *
      * <p>All of this is done in doEndTag to allow form elements to modify the form tag itself if
      * necessary.  A prime example of this is the InputFileTag, which needs to ensure that the form
      * method is POST and the enctype is correct.</p>
@@ -241,15 +246,21 @@ public class FormTag extends HtmlTagSupport implements BodyTag, TryCatchFinally,
             set("action", buildAction());
 
             JspWriter out = getPageContext().getOut();
+            boolean hiddenTagsFirst = "multipart/form-data".equalsIgnoreCase(getEnctype());
             if (!isPartial()) {
                 writeOpenTag(out, "form");
+                if (hiddenTagsFirst) {
+                    writeHiddenTags(out);
+                }
             }
             if (getBodyContent() != null) {
                 getBodyContent().writeOut( getPageContext().getOut() );
             }
 
             if (!isPartial()) {
-                writeHiddenTags(out);
+                if (!hiddenTagsFirst) {
+                    writeHiddenTags(out);
+                }
                 writeCloseTag(getPageContext().getOut(), "form");
             }
 
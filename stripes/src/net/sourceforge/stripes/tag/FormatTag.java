@@ -15,10 +15,12 @@
 package net.sourceforge.stripes.tag;
 
 import java.io.IOException;
+import java.util.Locale;
 
 import javax.servlet.jsp.JspException;
 
 import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.format.DefaultFormatterFactory;
 import net.sourceforge.stripes.format.Formatter;
 import net.sourceforge.stripes.format.FormatterFactory;
 import net.sourceforge.stripes.util.Log;
@@ -84,14 +86,23 @@ public class FormatTag extends VarTagSupport {
             return "";
 
         FormatterFactory factory = StripesFilter.getConfiguration().getFormatterFactory();
+        Locale locale = getPageContext().getRequest().getLocale();
         Formatter formatter = factory.getFormatter(value.getClass(),
-                                                   getPageContext().getRequest().getLocale(),
+                                                   locale,
                                                    this.formatType,
                                                    this.formatPattern);
         if (formatter == null)
             return String.valueOf(value);
-        else
+
+        try {
             return formatter.format(value);
+        }
+        finally {
+            if (factory instanceof DefaultFormatterFactory) {
+                ((DefaultFormatterFactory) factory).release(formatter, this.formatType,
+                        this.formatPattern, locale);
+            }
+        }
     }
 
     /**
@@ -20,6 +20,7 @@ import net.sourceforge.stripes.controller.StripesConstants;
 import net.sourceforge.stripes.controller.StripesFilter;
 import net.sourceforge.stripes.exception.StripesJspException;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.format.DefaultFormatterFactory;
 import net.sourceforge.stripes.format.Formatter;
 import net.sourceforge.stripes.format.FormatterFactory;
 import net.sourceforge.stripes.localization.LocalizationUtility;
@@ -321,11 +322,26 @@ public abstract class InputTagSupport extends HtmlTagSupport implements TryCatch
 
         // format the value
         FormatterFactory factory = StripesFilter.getConfiguration().getFormatterFactory();
+        Locale locale = getPageContext().getRequest().getLocale();
         Formatter formatter = factory.getFormatter(input.getClass(),
-                                                   getPageContext().getRequest().getLocale(),
+                                                   locale,
                                                    this.formatType,
                                                    this.formatPattern);
-        String formatted = (formatter == null) ? String.valueOf(input) : formatter.format(input);
+        String formatted;
+        if (formatter == null) {
+            formatted = String.valueOf(input);
+        }
+        else {
+            try {
+                formatted = formatter.format(input);
+            }
+            finally {
+                if (factory instanceof DefaultFormatterFactory) {
+                    ((DefaultFormatterFactory) factory).release(formatter, this.formatType,
+                            this.formatPattern, locale);
+                }
+            }
+        }
 
         // encrypt the formatted value if required
         if (forOutput && formatted != null) {
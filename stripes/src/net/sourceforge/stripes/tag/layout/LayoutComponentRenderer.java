@@ -106,6 +106,14 @@ public class LayoutComponentRenderer {
         final LayoutContext currentContext = LayoutContext.lookup(pageContext);
         log.debug("Render component \"", this.component, "\" in ", getCurrentPage());
 
+        // If the components were captured in a single pass then just write the contents
+        if (currentContext.isSinglePass()) {
+            String contents = currentContext.findComponentContents(this.component);
+            if (contents != null)
+                pageContext.getOut().write(contents);
+            return contents != null;
+        }
+
         // Descend the stack from here, trying each context where the component is registered
         for (LayoutContext context = savedContext == null ? currentContext : savedContext
                 .getPrevious(); context != null; context = context.getPrevious()) {
@@ -174,6 +182,11 @@ public class LayoutComponentRenderer {
         }
 
         final LayoutContext context = LayoutContext.lookup(pageContext);
+        if (context.isSinglePass()) {
+            String contents = context.findComponentContents(this.component);
+            return contents == null ? "" : contents;
+        }
+
         String contents;
         context.getOut().openBuffer(pageContext);
         try {
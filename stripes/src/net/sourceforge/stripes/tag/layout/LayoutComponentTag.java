@@ -40,7 +40,7 @@ public class LayoutComponentTag extends LayoutTag {
 
     private String name;
     private LayoutContext context;
-    private boolean silent;
+    private boolean silent, capturing;
     private Boolean componentRenderPhase;
 
     /** Gets the name of the component. */
@@ -100,6 +100,11 @@ public class LayoutComponentTag extends LayoutTag {
      * returning {@code EVAL_BODY_INCLUDE}.
      * </p>
      * <p>
+     * If the layout is rendered in a single pass (see {@link LayoutContext#isSinglePass()}) and
+     * this tag is nested within a {@link LayoutRenderTag}, then evaluate this tag's body by
+     * returning {@code EVAL_BODY_INCLUDE} and capture its output for the layout definition.
+     * </p>
+     * <p>
      * In all other cases, skip this tag's body by returning SKIP_BODY.
      * </p>
      * 
@@ -130,11 +135,7 @@ public class LayoutComponentTag extends LayoutTag {
                 else if (isChildOfComponent()) {
                     // Use a layout component renderer to do the heavy lifting
                     log.debug("Invoke component renderer for nested render of \"", getName(), "\"");
-                    LayoutComponentRenderer renderer = (LayoutComponentRenderer) pageContext
-                            .getAttribute(getName());
-                    if (renderer == null)
-                        log.debug("No component renderer in page context for '" + getName() + "'");
-                    boolean rendered = renderer != null && renderer.write();
+                    boolean rendered = writeComponent();
 
                     // If the component did not render then we need to output the default contents
                     // from the layout definition.
@@ -170,15 +171,20 @@ public class LayoutComponentTag extends LayoutTag {
                         renderer = new LayoutComponentRenderer(getName());
 
                     context.getComponents().put(getName(), renderer);
+
+                    // In a single pass, capture the body now for the definition to use later
+                    if (context.isSinglePass()) {
+                        log.debug("Capture component ", getName(), " in ", context.getRenderPage());
+                        context.getOut().openBuffer(pageContext);
+                        capturing = true;
+                        context.getOut().setSilent(false, pageContext);
+                        return EVAL_BODY_INCLUDE;
+                    }
                 }
                 else if (isChildOfDefinition()) {
                     // Use a layout component renderer to do the heavy lifting
                     log.debug("Invoke component renderer for direct render of \"", getName(), "\"");
-                    LayoutComponentRenderer renderer = (LayoutComponentRenderer) pageContext
-                            .getAttribute(getName());
-                    if (renderer == null)
-                        log.debug("No component renderer in page context for '" + getName() + "'");
-                    boolean rendered = renderer != null && renderer.write();
+                    boolean rendered = writeComponent();
 
                     // If the component did not render then we need to output the default contents
                     // from the layout definition.
@@ -195,11 +201,19 @@ public class LayoutComponentTag extends LayoutTag {
                 }
                 else if (isChildOfComponent()) {
                     /*
-                     * This condition cannot be true since component tags do not execute except in
-                     * component render phase, thus any component tags embedded with them will not
-                     * execute either. I've left this block here just as a placeholder for this
-                     * explanation.
+                     * This condition can only be true when the parent component is being captured
+                     * in a single pass. In multiple passes, component tags do not execute except
+                     * in component render phase, thus any component tags embedded with them will
+                     * not execute either.
                      */
+                    log.debug("Write captured component for nested render of \"", getName(), "\"");
+                    if (!writeComponent()) {
+                        log.debug("Component was not present in ", context.getRenderPage(),
+                                " so using default content");
+
+                        context.getOut().setSilent(false, pageContext);
+                        return EVAL_BODY_INCLUDE;
+                    }
                 }
             }
 
@@ -218,10 +232,38 @@ public class LayoutComponentTag extends LayoutTag {
         }
     }
 
+    /**
+     * Write the component with this tag's name. If the layout is rendered in a single pass, then
+     * the contents captured from the render page are written. Otherwise, the
+     * {@link LayoutComponentRenderer} for the component is looked up in the page context and
+     * executes the render page again to render the component.
+     * 
+     * @return True if the component was found and written; otherwise, false.
+     */
+    protected boolean writeComponent() throws Exception {
+        if (context.isSinglePass()) {
+            String contents = context.findComponentContents(getName());
+            if (contents == null) {
+                log.debug("No captured contents for '", getName(), "'");
+                return false;
+            }
+
+            pageContext.getOut().write(contents);
+            return true;
+        }
+
+        LayoutComponentRenderer renderer = (LayoutComponentRenderer) pageContext
+                .getAttribute(getName());
+        if (renderer == null)
+            log.debug("No component renderer in page context for '" + getName() + "'");
+        return renderer != null && renderer.write();
+    }
+
     /**
      * If this tag is the component that needs to be rendered, as indicated by
      * {@link LayoutContext#getComponent()}, then set the current component name back to null to
-     * indicate that the component has rendered.
+     * indicate that the component has rendered. If this tag's body was captured in a single pass,
+     * then save the captured contents in the {@link LayoutContext}.
      * 
      * @return SKIP_PAGE if this component is the current component, otherwise EVAL_PAGE.
      */
@@ -241,6 +283,12 @@ public class LayoutComponentTag extends LayoutTag {
             // Restore output's silent flag
             context.getOut().setSilent(silent, pageContext);
 
+            // Save the captured contents
+            if (capturing) {
+                String contents = context.getOut().closeBuffer(pageContext);
+                context.getComponentContents().put(getName(), contents);
+            }
+
             return EVAL_PAGE;
         }
         catch (IOException e) {
@@ -249,6 +297,7 @@ public class LayoutComponentTag extends LayoutTag {
         finally {
             this.context = null;
             this.silent = false;
+            this.capturing = false;
             this.componentRenderPhase = null;
         }
     }
@@ -31,13 +31,27 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 import javax.servlet.jsp.PageContext;
 
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.StripesFilter;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 import net.sourceforge.stripes.util.Log;
 
 /**
+ * <p>
  * Used to move contextual information about a layout rendering between a LayoutRenderTag and
  * a LayoutDefinitionTag. Holds the set of overridden components and any parameters provided
  * to the render tag.
+ * </p>
+ * <p>
+ * By default, each component is rendered by executing the render page again, with output silenced
+ * except for the body of that component. A layout with N components therefore executes the render
+ * page N+1 times. If the configuration property {@value #SINGLE_PASS} is {@code true}, then the
+ * body of each component is instead evaluated and captured while the render page executes for the
+ * first time, and the definition page writes out the captured contents. The render page then
+ * executes once. Components are then evaluated even if the definition does not use them, and in
+ * the order in which they appear in the render page rather than in the definition. That matters
+ * only to components that depend on state set by the definition page.
+ * </p>
  *
  * @author Tim Fennell, Ben Gunter
  * @since Stripes 1.1
@@ -55,6 +69,15 @@ public class LayoutContext {
     public static final String BROKEN_INCLUDE_KEY = LayoutContext.class.getName()
             + "#BROKEN_INCLUDE";
 
+    /** The configuration property that enables single-pass rendering of layouts. */
+    public static final String SINGLE_PASS = "Layout.SinglePass";
+
+    /**
+     * The attribute name by which the indicator of single-pass rendering can be found in the
+     * application scope.
+     */
+    public static final String SINGLE_PASS_KEY = LayoutContext.class.getName() + "#SINGLE_PASS";
+
     /**
      * Create a new layout context for the given render tag and push it onto the stack of layout
      * contexts in a JSP page context.
@@ -68,6 +91,7 @@ public class LayoutContext {
         if (previous == null) {
             // Create a new layout writer and push a new body
             context.out = new LayoutWriter(pageContext.getOut());
+            context.singlePass = isSinglePass(pageContext);
             pageContext.pushBody(context.out);
         }
         else {
@@ -79,6 +103,7 @@ public class LayoutContext {
 
             // Link the two nodes
             context.out = previous.out;
+            context.singlePass = previous.singlePass;
             previous.next = context;
             context.previous = previous;
         }
@@ -87,6 +112,37 @@ public class LayoutContext {
         return context;
     }
 
+    /**
+     * Returns true if layouts are to be rendered in a single pass, as set by the configuration
+     * property {@value #SINGLE_PASS}. The value is looked up once and then cached in the
+     * application scope. If no Stripes configuration is available, layouts are rendered in
+     * multiple passes, but nothing is cached so that the configuration is consulted once it is
+     * available.
+     */
+    protected static boolean isSinglePass(PageContext pageContext) {
+        Boolean b = (Boolean) pageContext.getServletContext().getAttribute(SINGLE_PASS_KEY);
+        if (b == null) {
+            Configuration configuration = null;
+            try {
+                configuration = StripesFilter.getConfiguration();
+            }
+            catch (StripesRuntimeException e) {
+                log.debug("No configuration available, so layouts are rendered in multiple passes");
+            }
+            if (configuration == null)
+                return false;
+
+            b = Boolean.valueOf(configuration.getBootstrapPropertyResolver().getProperty(
+                    SINGLE_PASS));
+            pageContext.getServletContext().setAttribute(SINGLE_PASS_KEY, b);
+            if (b) {
+                log.info("Layouts are rendered in a single pass");
+            }
+        }
+
+        return b;
+    }
+
     /**
      * Look up the current layout context in a JSP page context.
      * 
@@ -139,9 +195,10 @@ public class LayoutContext {
     private LayoutWriter out;
     private Map<String,LayoutComponentRenderer> components = new HashMap<String,LayoutComponentRenderer>();
     private Map<String,Object> parameters = new HashMap<String,Object>();
+    private Map<String,String> componentContents = new HashMap<String,String>();
     private String renderPage, component;
     private LayoutRenderTagPath componentPath;
-    private boolean componentRenderPhase, rendered;
+    private boolean componentRenderPhase, rendered, singlePass;
 
     /**
      * A new context may be created only by a {@link LayoutRenderTag}. The tag provides all the
@@ -389,6 +446,31 @@ public class LayoutContext {
     /** Gets the Map of parameters.  Will return an empty Map if none were provided. */
     public Map<String,Object> getParameters() { return parameters; }
 
+    /** True if the components of this layout are captured in a single pass of the render page. */
+    public boolean isSinglePass() { return singlePass; }
+
+    /**
+     * Gets the Map of the contents of components captured in a single pass of the render page,
+     * keyed by component name. Will return an empty Map if none were captured.
+     */
+    public Map<String,String> getComponentContents() { return componentContents; }
+
+    /**
+     * Find the captured contents of a component in this context or, if it is not found here, in
+     * the previous contexts on the stack.
+     * 
+     * @param component The name of the component.
+     * @return The contents, or null if the component was not captured.
+     */
+    public String findComponentContents(String component) {
+        for (LayoutContext c = this; c != null; c = c.getPrevious()) {
+            String contents = c.getComponentContents().get(component);
+            if (contents != null)
+                return contents;
+        }
+        return null;
+    }
+
     /** Returns true if the layout has been rendered, false otherwise. */
     public boolean isRendered() { return rendered; }
 
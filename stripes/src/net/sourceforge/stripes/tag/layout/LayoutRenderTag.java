@@ -110,7 +110,8 @@ public class LayoutRenderTag extends LayoutTag implements BodyTag, DynamicAttrib
      * <li>Include the layout definition page named by the {@code name} attribute.</li>
      * </ul>
      * 
-     * @return EVAL_BODY_INCLUDE in all cases
+     * @return EVAL_BODY_BUFFERED on the first pass, unless the layout is rendered in a single pass
+     *         (see {@link LayoutContext#isSinglePass()}); otherwise, EVAL_BODY_INCLUDE
      */
     @Override
     public int doStartTag() throws JspException {
@@ -129,7 +130,9 @@ public class LayoutRenderTag extends LayoutTag implements BodyTag, DynamicAttrib
             // Render tags never output their contents directly
             context.getOut().setSilent(true, pageContext);
 
-            return contextIsNew ? EVAL_BODY_BUFFERED : EVAL_BODY_INCLUDE;
+            // Components capture their contents through the layout writer in a single pass
+            return contextIsNew && !context.isSinglePass() ? EVAL_BODY_BUFFERED
+                    : EVAL_BODY_INCLUDE;
         }
         catch (IOException e) {
             throw new JspException(e);
@@ -42,6 +42,7 @@ public class LayoutWriter extends Writer {
     private static final char TOGGLE = 0;
 
     private LinkedList<Writer> writers = new LinkedList<Writer>();
+    private LinkedList<StringWriter> buffers = new LinkedList<StringWriter>();
     private boolean silent, silentState;
 
     /**
@@ -82,12 +83,14 @@ public class LayoutWriter extends Writer {
 
     /**
      * Flush the page context's output buffer and redirect output into a buffer. The buffer can be
-     * closed and its contents retrieved by calling {@link #closeBuffer(PageContext)}.
+     * closed and its contents retrieved by calling {@link #closeBuffer(PageContext)}. Closed
+     * buffers are kept and reused.
      */
     public void openBuffer(PageContext pageContext) {
         log.trace("Open buffer");
         tryFlush(pageContext);
-        writers.addFirst(new StringWriter(1024));
+        StringWriter buffer = buffers.poll();
+        writers.addFirst(buffer == null ? new StringWriter(1024) : buffer);
     }
 
     /**
@@ -99,7 +102,10 @@ public class LayoutWriter extends Writer {
     public String closeBuffer(PageContext pageContext) {
         if (getOut() instanceof StringWriter) {
             tryFlush(pageContext);
-            String contents = ((StringWriter) writers.poll()).toString();
+            StringWriter buffer = (StringWriter) writers.poll();
+            String contents = buffer.toString();
+            buffer.getBuffer().setLength(0);
+            buffers.addFirst(buffer);
             log.trace("Closed buffer: \"", contents, "\"");
             return contents;
         }
@@ -0,0 +1,223 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.lang.reflect.Constructor;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * <p>
+ * A {@link CryptoEngine} that encrypts values with AES in Galois/Counter Mode (GCM). GCM is an
+ * authenticated mode, so a value that has been tampered with or that was encrypted with a
+ * different key is reliably rejected, and modern processors with AES instructions encrypt and
+ * decrypt in this mode much faster than with the triple DES cipher Stripes used to use.
+ * </p>
+ * <p>
+ * An encrypted value consists of a version byte, a random 96 bit initialization vector and the
+ * cipher text followed by a 128 bit authentication tag. If a value does not look like that or
+ * fails authentication, and a fallback engine was provided, then the value is handed to the
+ * fallback engine to decrypt. This allows values that were encrypted before the engine was
+ * changed to still be decrypted. The engine can also be created so that it encrypts with the
+ * fallback engine and only decrypts values in its own format. That allows the nodes of a cluster
+ * to accept values in this format before any of them begin to produce them.
+ * </p>
+ * <p>
+ * This engine requires Java 7 or later. Stripes itself still builds on Java 5, so the GCM
+ * parameters are created through reflection. {@link CryptoUtil} only uses this engine when it is
+ * available.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public class AesGcmCryptoEngine implements CryptoEngine {
+    private static final Log log = Log.getInstance(AesGcmCryptoEngine.class);
+
+    /** The transformation used to get a cipher for this engine. */
+    public static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    /** The first byte of every value encrypted by this engine. */
+    private static final byte VERSION = 1;
+
+    /** The length of the initialization vector, in bytes. */
+    private static final int IV_SIZE = 12;
+
+    /** The length of the authentication tag, in bits. */
+    private static final int TAG_BITS = 128;
+
+    /** The smallest possible encrypted value, that of an empty input. */
+    private static final int MIN_SIZE = 1 + IV_SIZE + TAG_BITS / 8;
+
+    /** The constructor {@code GCMParameterSpec(int, byte[], int, int)}, if the JVM has it. */
+    private static final Constructor<? extends AlgorithmParameterSpec> GCM_PARAMETER_SPEC;
+    static {
+        Constructor<? extends AlgorithmParameterSpec> constructor = null;
+        try {
+            constructor = Class.forName("javax.crypto.spec.GCMParameterSpec").asSubclass(
+                    AlgorithmParameterSpec.class).getConstructor(int.class, byte[].class,
+                    int.class, int.class);
+        }
+        catch (Exception e) {
+            log.debug("GCMParameterSpec is not available: ", e);
+        }
+        GCM_PARAMETER_SPEC = constructor;
+    }
+
+    private final SecretKey secretKey;
+    private final CryptoEngine fallback;
+    private final boolean encryptWithFallback;
+
+    /*
+     * Ciphers and random number generators are not shared between threads, so each thread gets
+     * its own. Only JDK classes are kept in these thread locals, so that a container thread that
+     * outlives the web application does not keep the application's class loader alive.
+     */
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<Cipher>();
+    private final ThreadLocal<SecureRandom> randoms = new ThreadLocal<SecureRandom>();
+
+    /**
+     * Create a new engine that uses the given key.
+     * 
+     * @param secretKey an AES key
+     * @param fallback the engine used to decrypt values this engine cannot decrypt; may be null
+     */
+    public AesGcmCryptoEngine(SecretKey secretKey, CryptoEngine fallback) {
+        this(secretKey, fallback, false);
+    }
+
+    /**
+     * Create a new engine that uses the given key.
+     * 
+     * @param secretKey an AES key
+     * @param fallback the engine used to decrypt values this engine cannot decrypt; may be null
+     *            unless {@code encryptWithFallback} is true
+     * @param encryptWithFallback true to encrypt values with the fallback engine, so that this
+     *            engine only decrypts values in its own format
+     */
+    public AesGcmCryptoEngine(SecretKey secretKey, CryptoEngine fallback,
+            boolean encryptWithFallback) {
+        if (encryptWithFallback && fallback == null)
+            throw new IllegalArgumentException("A fallback engine is required to encrypt with");
+
+        this.secretKey = secretKey;
+        this.fallback = fallback;
+        this.encryptWithFallback = encryptWithFallback;
+    }
+
+    /** Returns true if the JVM supports this engine. */
+    public static boolean isAvailable() {
+        if (GCM_PARAMETER_SPEC == null)
+            return false;
+
+        try {
+            Cipher.getInstance(TRANSFORMATION);
+            return true;
+        }
+        catch (GeneralSecurityException e) {
+            log.debug("Cipher ", TRANSFORMATION, " is not available: ", e);
+            return false;
+        }
+    }
+
+    /** Get the key used to encrypt and decrypt values. */
+    public SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    /** Get the engine used to decrypt values this engine cannot decrypt, if any. */
+    public CryptoEngine getFallback() {
+        return fallback;
+    }
+
+    /** True if values are encrypted with the fallback engine instead of with AES-GCM. */
+    public boolean isEncryptWithFallback() {
+        return encryptWithFallback;
+    }
+
+    public byte[] encrypt(byte[] input) throws GeneralSecurityException {
+        if (encryptWithFallback)
+            return fallback.encrypt(input);
+
+        Cipher cipher = getCipher();
+        byte[] iv = new byte[IV_SIZE];
+        getRandom().nextBytes(iv);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, newParameterSpec(iv, 0));
+
+        // GCM does not pad, so the output is exactly the input plus the tag
+        byte[] output = new byte[1 + IV_SIZE + cipher.getOutputSize(input.length)];
+        output[0] = VERSION;
+        System.arraycopy(iv, 0, output, 1, IV_SIZE);
+        cipher.doFinal(input, 0, input.length, output, 1 + IV_SIZE);
+        return output;
+    }
+
+    public byte[] decrypt(byte[] input) {
+        byte[] output = null;
+        if (input.length >= MIN_SIZE && input[0] == VERSION) {
+            try {
+                Cipher cipher = getCipher();
+                cipher.init(Cipher.DECRYPT_MODE, secretKey, newParameterSpec(input, 1));
+                output = cipher.doFinal(input, 1 + IV_SIZE, input.length - 1 - IV_SIZE);
+            }
+            catch (GeneralSecurityException e) {
+                log.trace("Failed to decrypt value: ", e);
+            }
+        }
+
+        if (output == null && fallback != null)
+            output = fallback.decrypt(input);
+
+        return output;
+    }
+
+    /** Create the GCM parameters for the initialization vector found at an offset in a buffer. */
+    private static AlgorithmParameterSpec newParameterSpec(byte[] buffer, int offset)
+            throws GeneralSecurityException {
+        if (GCM_PARAMETER_SPEC == null)
+            throw new NoSuchAlgorithmException("GCMParameterSpec requires Java 7 or later");
+
+        try {
+            return GCM_PARAMETER_SPEC.newInstance(TAG_BITS, buffer, offset, IV_SIZE);
+        }
+        catch (Exception e) {
+            throw new GeneralSecurityException("Could not create GCM parameters", e);
+        }
+    }
+
+    /** Get the cipher for the current thread. */
+    private Cipher getCipher() throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(TRANSFORMATION);
+            ciphers.set(cipher);
+        }
+        return cipher;
+    }
+
+    /** Get the source of initialization vectors for the current thread. */
+    private SecureRandom getRandom() {
+        SecureRandom random = randoms.get();
+        if (random == null) {
+            random = new SecureRandom();
+            randoms.set(random);
+        }
+        return random;
+    }
+}
@@ -0,0 +1,138 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * <p>
+ * A {@link CryptoEngine} that encrypts values using a {@link Cipher} for the algorithm of its
+ * secret key, in that algorithm's default mode and padding. This is the format that
+ * {@link CryptoUtil} has always used and, by default, it is still used to decrypt values that
+ * were encrypted by earlier versions of Stripes.
+ * </p>
+ * <p>
+ * A nonce and a hash code are prepended to each value before it is encrypted. The nonce ensures
+ * that the same value is not encrypted the same way each time, and the hash code is verified
+ * after decryption to make sure the value was encrypted with the same key.
+ * </p>
+ * <p>
+ * Creating and initializing a {@link Cipher} is expensive compared to encrypting a short value,
+ * so each thread initializes its own encryption and decryption ciphers once and then reuses them.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public class CipherCryptoEngine implements CryptoEngine {
+    private static final Log log = Log.getInstance(CipherCryptoEngine.class);
+
+    /** The number of bytes that should be used to generate the nonce value. */
+    private static final int NONCE_SIZE = 2;
+
+    /** The number of bytes required to hold the hash code (sizeof short) */
+    private static final int HASH_CODE_SIZE = 2;
+
+    /** Short hand for the combined size of the nonce + magic number. */
+    private static final int DISCARD_BYTES = NONCE_SIZE + HASH_CODE_SIZE;
+
+    private final SecretKey secretKey;
+    private final ThreadLocal<Cipher> encryptCipher = new ThreadLocal<Cipher>();
+    private final ThreadLocal<Cipher> decryptCipher = new ThreadLocal<Cipher>();
+
+    /**
+     * Create a new engine that uses the given key.
+     * 
+     * @param secretKey the key used to encrypt and decrypt values
+     */
+    public CipherCryptoEngine(SecretKey secretKey) {
+        this.secretKey = secretKey;
+    }
+
+    /** Get the key used to encrypt and decrypt values. */
+    public SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    public byte[] encrypt(byte[] input) throws GeneralSecurityException {
+        Cipher cipher = getCipher(Cipher.ENCRYPT_MODE);
+        try {
+            // First size the output
+            int size = cipher.getOutputSize(DISCARD_BYTES + input.length);
+            byte[] output = new byte[size];
+
+            // Then encrypt along with the nonce and the hash code
+            byte[] nonce = CryptoUtil.nextNonce();
+            byte[] hash = CryptoUtil.generateHashCode(nonce, input);
+            int index = cipher.update(hash, 0, HASH_CODE_SIZE, output, 0);
+            index = cipher.update(nonce, 0, NONCE_SIZE, output, index);
+            if (input.length == 0) {
+                cipher.doFinal(output, index);
+            }
+            else {
+                cipher.doFinal(input, 0, input.length, output, index);
+            }
+
+            return output;
+        }
+        catch (GeneralSecurityException e) {
+            // The cipher is in an unknown state, so don't reuse it
+            encryptCipher.remove();
+            throw e;
+        }
+    }
+
+    public byte[] decrypt(byte[] input) {
+        byte[] output;
+        try {
+            output = getCipher(Cipher.DECRYPT_MODE).doFinal(input);
+        }
+        catch (GeneralSecurityException e) {
+            log.trace("Failed to decrypt value: ", e);
+            decryptCipher.remove();
+            return null;
+        }
+
+        // Check the hash code so we don't eat garbage
+        if (!CryptoUtil.checkHashCode(output))
+            return null;
+
+        byte[] value = new byte[output.length - DISCARD_BYTES];
+        System.arraycopy(output, DISCARD_BYTES, value, 0, value.length);
+        return value;
+    }
+
+    /**
+     * Get this thread's cipher for the given mode, creating and initializing it if necessary. A
+     * cipher returned from this method is reset to its initial state each time an encryption or
+     * decryption is finished, so it can be used again without being initialized again.
+     * 
+     * @param mode {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}
+     * @return an initialized cipher
+     * @throws GeneralSecurityException if the cipher could not be created
+     */
+    protected Cipher getCipher(int mode) throws GeneralSecurityException {
+        ThreadLocal<Cipher> holder = mode == Cipher.ENCRYPT_MODE ? encryptCipher : decryptCipher;
+        Cipher cipher = holder.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(secretKey.getAlgorithm());
+            cipher.init(mode, secretKey);
+            holder.set(cipher);
+        }
+        return cipher;
+    }
+}
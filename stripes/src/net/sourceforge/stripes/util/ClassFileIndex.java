@@ -0,0 +1,226 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * A persistent index of the {@link ClassFileInfo}s found under a given path in JAR files. Each
+ * entry is keyed by the CRC-32 checksum of the JAR's contents, so an entry is used only if the
+ * JAR has not changed since the entry was written. {@link ResolverUtil} consults the index before
+ * listing and reading a JAR, which allows a restarted application to skip scanning JARs that
+ * have not changed.
+ * </p>
+ * <p>
+ * Each entry is written to its own file in the index directory. Failures to read or write the
+ * index are logged and otherwise ignored, since the index is only an optimization.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class ClassFileIndex {
+    private static final Log log = Log.getInstance(ClassFileIndex.class);
+
+    /** Identifies the format of the index files. */
+    private static final int VERSION = 0x53434931; // "SCI1"
+
+    /** Checksums of JAR files, which are only recalculated if the size or date changes. */
+    private static final ConcurrentMap<File, long[]> checksums = new ConcurrentHashMap<File, long[]>();
+
+    private final File directory;
+
+    /**
+     * Create an index that stores its entries in the given directory. The directory is created
+     * when the first entry is written if it does not already exist.
+     */
+    public ClassFileIndex(File directory) {
+        this.directory = directory;
+    }
+
+    /** Get the directory in which the index is stored. */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the class summaries found under a path in a JAR file.
+     *
+     * @param jar the JAR file
+     * @param path the resource path, as passed to {@link net.sourceforge.stripes.vfs.VFS#list(String)}
+     * @return the summaries or null if the index has no entry or the JAR has changed
+     */
+    public List<ClassFileInfo> get(File jar, String path) {
+        DataInputStream in = null;
+        try {
+            long checksum = getChecksum(jar);
+            File file = getFile(checksum, path);
+            if (!file.isFile())
+                return null;
+
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != VERSION || in.readLong() != checksum || !path.equals(in.readUTF()))
+                return null;
+
+            int count = in.readInt();
+            List<ClassFileInfo> infos = new ArrayList<ClassFileInfo>(count);
+            for (int i = 0; i < count; i++)
+                infos.add(ClassFileInfo.readSummary(in));
+
+            log.debug("Read ", count, " class summaries for ", jar, " from ", file);
+            return infos;
+        }
+        catch (IOException e) {
+            log.warn("Could not read class index for ", jar, ": ", e);
+            return null;
+        }
+        finally {
+            close(in);
+        }
+    }
+
+    /**
+     * Store the class summaries found under a path in a JAR file.
+     *
+     * @param jar the JAR file
+     * @param path the resource path, as passed to {@link net.sourceforge.stripes.vfs.VFS#list(String)}
+     * @param infos the summaries of all the classes found under the path
+     */
+    public void put(File jar, String path, List<ClassFileInfo> infos) {
+        DataOutputStream out = null;
+        File temp = null;
+        try {
+            long checksum = getChecksum(jar);
+            File file = getFile(checksum, path);
+            if (!directory.isDirectory() && !directory.mkdirs())
+                throw new IOException("Could not create directory " + directory);
+
+            temp = File.createTempFile("index", ".tmp", directory);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(VERSION);
+            out.writeLong(checksum);
+            out.writeUTF(path);
+            out.writeInt(infos.size());
+            for (ClassFileInfo info : infos)
+                info.writeSummary(out);
+            out.close();
+            out = null;
+
+            // Replace the file all at once so no one ever reads a partial entry
+            if (!temp.renameTo(file)) {
+                file.delete();
+                if (!temp.renameTo(file))
+                    throw new IOException("Could not rename " + temp + " to " + file);
+            }
+            temp = null;
+            log.debug("Wrote ", infos.size(), " class summaries for ", jar, " to ", file);
+        }
+        catch (IOException e) {
+            log.warn("Could not write class index for ", jar, ": ", e);
+        }
+        finally {
+            close(out);
+            if (temp != null)
+                temp.delete();
+        }
+    }
+
+    /** Get the file that holds the entry for a JAR checksum and path. */
+    protected File getFile(long checksum, String path) {
+        return new File(directory, Long.toHexString(checksum) + "-"
+                + Integer.toHexString(path.hashCode()) + ".idx");
+    }
+
+    /**
+     * Get the JAR file that contains the resource at a URL, or null if the URL does not refer to
+     * a resource in a JAR file on the local file system.
+     */
+    public static File getJarFile(URL url) {
+        try {
+            if ("jar".equals(url.getProtocol())) {
+                String spec = url.getFile();
+                int index = spec.indexOf("!/");
+                url = new URL(index < 0 ? spec : spec.substring(0, index));
+            }
+
+            if ("file".equals(url.getProtocol()) && url.getPath().endsWith(".jar")) {
+                File file = new File(url.toURI());
+                return file.isFile() ? file : null;
+            }
+        }
+        catch (IOException e) {
+            // Not a file
+        }
+        catch (URISyntaxException e) {
+            // Not a file
+        }
+        catch (IllegalArgumentException e) {
+            // Not a file
+        }
+
+        return null;
+    }
+
+    /** Calculate the CRC-32 checksum of a file's contents, caching the result. */
+    protected static long getChecksum(File file) throws IOException {
+        long length = file.length(), modified = file.lastModified();
+        long[] cached = checksums.get(file);
+        if (cached != null && cached[0] == length && cached[1] == modified)
+            return cached[2];
+
+        CRC32 crc = new CRC32();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) >= 0;)
+                crc.update(buffer, 0, n);
+        }
+        finally {
+            close(in);
+        }
+
+        // Mix in the length to make collisions even less likely
+        long checksum = (length << 32) ^ crc.getValue();
+        checksums.put(file, new long[] { length, modified, checksum });
+        return checksum;
+    }
+
+    /** Close a stream, ignoring exceptions. */
+    private static void close(Closeable closeable) {
+        try {
+            if (closeable != null)
+                closeable.close();
+        }
+        catch (IOException e) {
+            // Ignore
+        }
+    }
+}
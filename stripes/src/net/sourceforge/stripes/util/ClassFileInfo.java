@@ -0,0 +1,380 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ * A summary of a class that is read directly from its class file, without loading the class.
+ * It holds the name of the class, its superclass, the interfaces it implements directly and the
+ * runtime-visible annotations that are applied directly to it. {@link ResolverUtil} uses this
+ * information to rule out classes that cannot possibly match before paying the cost of loading
+ * and initializing them.
+ * </p>
+ * <p>
+ * All names are binary names as returned by {@link Class#getName()}, e.g.
+ * {@code net.sourceforge.stripes.action.ActionBean}.
+ * </p>
+ *
+ * @since Stripes 1.6
+ */
+public class ClassFileInfo {
+    /** The magic number that begins every class file. */
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /** The access flag that indicates an interface. */
+    private static final int ACC_INTERFACE = 0x0200;
+
+    /** The access flag that indicates an annotation type. */
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final String[] EMPTY = {};
+
+    private final String name;
+    private final String superclassName;
+    private final String[] interfaceNames;
+    private final String[] annotationNames;
+    private final int access;
+
+    /** Create a new instance. The arrays are not copied. */
+    protected ClassFileInfo(String name, String superclassName, String[] interfaceNames,
+            String[] annotationNames, int access) {
+        this.name = name;
+        this.superclassName = superclassName;
+        this.interfaceNames = interfaceNames;
+        this.annotationNames = annotationNames;
+        this.access = access;
+    }
+
+    /** Get the name of the class. */
+    public String getName() {
+        return name;
+    }
+
+    /** Get the name of the superclass, or null if the class is {@link Object}. */
+    public String getSuperclassName() {
+        return superclassName;
+    }
+
+    /** Get the names of the interfaces that the class implements directly. */
+    public String[] getInterfaceNames() {
+        return interfaceNames.clone();
+    }
+
+    /** Get the names of the runtime-visible annotations that are applied directly to the class. */
+    public String[] getAnnotationNames() {
+        return annotationNames.clone();
+    }
+
+    /** Returns true if the class is an interface (including an annotation type). */
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    /** Returns true if the class is an annotation type. */
+    public boolean isAnnotation() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    /** Returns true if the class directly extends or implements the named type. */
+    public boolean hasDirectSupertype(String typeName) {
+        if (typeName.equals(superclassName))
+            return true;
+        for (String s : interfaceNames) {
+            if (typeName.equals(s))
+                return true;
+        }
+        return false;
+    }
+
+    /** Returns true if the named annotation is applied directly to the class. */
+    public boolean hasAnnotation(String annotationName) {
+        for (String s : annotationNames) {
+            if (annotationName.equals(s))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + name + "]";
+    }
+
+    /**
+     * Parse a class file. The stream is read to the end but is not closed.
+     *
+     * @param in a stream positioned at the beginning of a class file
+     * @return the summary of the class
+     * @throws IOException if the stream cannot be read or does not contain a valid class file
+     */
+    public static ClassFileInfo read(InputStream in) throws IOException {
+        try {
+            return new Parser(readFully(in)).parse();
+        }
+        catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated or invalid class file");
+        }
+    }
+
+    /**
+     * Write this summary to a stream in a compact format that can be read back by
+     * {@link #readSummary(DataInput)}.
+     */
+    public void writeSummary(DataOutput out) throws IOException {
+        out.writeUTF(name);
+        out.writeUTF(superclassName == null ? "" : superclassName);
+        out.writeShort(access);
+        out.writeShort(interfaceNames.length);
+        for (String s : interfaceNames)
+            out.writeUTF(s);
+        out.writeShort(annotationNames.length);
+        for (String s : annotationNames)
+            out.writeUTF(s);
+    }
+
+    /** Read a summary that was written by {@link #writeSummary(DataOutput)}. */
+    public static ClassFileInfo readSummary(DataInput in) throws IOException {
+        String name = in.readUTF();
+        String superclassName = in.readUTF();
+        int access = in.readUnsignedShort();
+        String[] interfaceNames = new String[in.readUnsignedShort()];
+        for (int i = 0; i < interfaceNames.length; i++)
+            interfaceNames[i] = in.readUTF();
+        String[] annotationNames = new String[in.readUnsignedShort()];
+        for (int i = 0; i < annotationNames.length; i++)
+            annotationNames[i] = in.readUTF();
+        return new ClassFileInfo(name, superclassName.length() == 0 ? null : superclassName,
+                interfaceNames, annotationNames, access);
+    }
+
+    /** Read the rest of a stream into an array. */
+    private static byte[] readFully(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        int length = 0;
+        for (int n; (n = in.read(buffer, length, buffer.length - length)) >= 0;) {
+            length += n;
+            if (length == buffer.length) {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, length);
+                buffer = larger;
+            }
+        }
+
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, 0, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * Parses a class file held in memory. Strings in the constant pool are only decoded when
+     * they are needed, which is rarely.
+     */
+    private static class Parser {
+        private final byte[] bytes;
+        private int position;
+        private int[] offsets;
+        private int[] classes;
+        private String[] strings;
+
+        Parser(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        ClassFileInfo parse() throws IOException {
+            if (u4() != MAGIC)
+                throw new IOException("Not a class file");
+            skip(4); // minor and major version
+
+            // Note where the UTF-8 strings are and which strings the class references use
+            int count = u2();
+            offsets = new int[count];
+            classes = new int[count];
+            strings = new String[count];
+            for (int i = 1; i < count; i++) {
+                int tag = u1();
+                switch (tag) {
+                case 1: // Utf8
+                    int length = u2();
+                    offsets[i] = position;
+                    skip(length);
+                    break;
+                case 7: // Class
+                    classes[i] = u2();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skip(2);
+                    break;
+                case 15: // MethodHandle
+                    skip(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skip(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skip(8);
+                    ++i; // takes two slots
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+
+            int access = u2();
+            String name = getClassName(u2());
+            String superclassName = getClassName(u2());
+            String[] interfaceNames = new String[u2()];
+            for (int i = 0; i < interfaceNames.length; i++) {
+                interfaceNames[i] = getClassName(u2());
+            }
+
+            // Skip fields and methods, which have the same layout
+            for (int i = 0; i < 2; i++) {
+                for (int members = u2(); members > 0; --members) {
+                    skip(6); // access, name, descriptor
+                    for (int attributes = u2(); attributes > 0; --attributes) {
+                        skip(2);
+                        skip(u4());
+                    }
+                }
+            }
+
+            // Find the class annotations
+            String[] annotationNames = EMPTY;
+            for (int attributes = u2(); attributes > 0; --attributes) {
+                int attributeName = u2();
+                int length = u4();
+                if ("RuntimeVisibleAnnotations".equals(getString(attributeName))) {
+                    annotationNames = new String[u2()];
+                    for (int i = 0; i < annotationNames.length; i++) {
+                        annotationNames[i] = getTypeName(getString(u2()));
+                        skipElementValuePairs();
+                    }
+                }
+                else {
+                    skip(length);
+                }
+            }
+
+            return new ClassFileInfo(name, superclassName, interfaceNames, annotationNames,
+                    access);
+        }
+
+        /** Decode a UTF-8 string from the constant pool. */
+        String getString(int index) throws IOException {
+            String s = strings[index];
+            if (s == null) {
+                int offset = offsets[index];
+                if (offset == 0)
+                    throw new IOException("Invalid string reference " + index);
+
+                int length = ((bytes[offset - 2] & 0xff) << 8) | (bytes[offset - 1] & 0xff);
+                char[] chars = new char[length];
+                for (int i = 0; i < length; i++) {
+                    byte b = bytes[offset + i];
+                    if (b < 0) {
+                        // Not plain ASCII so let the JDK deal with it
+                        s = new DataInputStream(new ByteArrayInputStream(bytes, offset - 2,
+                                length + 2)).readUTF();
+                        break;
+                    }
+                    chars[i] = (char) b;
+                }
+                if (s == null)
+                    s = new String(chars);
+                strings[index] = s;
+            }
+            return s;
+        }
+
+        /** Resolve a class reference from the constant pool to a binary class name. */
+        String getClassName(int index) throws IOException {
+            if (index == 0)
+                return null;
+            return getString(classes[index]).replace('/', '.');
+        }
+
+        /** Convert a field descriptor such as {@code Ljava/lang/Deprecated;} to a binary name. */
+        String getTypeName(String descriptor) throws IOException {
+            if (!descriptor.startsWith("L") || !descriptor.endsWith(";"))
+                throw new IOException("Invalid annotation type " + descriptor);
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+
+        /** Skip the element-value pairs of an annotation. */
+        void skipElementValuePairs() {
+            for (int pairs = u2(); pairs > 0; --pairs) {
+                skip(2);
+                skipElementValue();
+            }
+        }
+
+        /** Skip a single element value of an annotation. */
+        void skipElementValue() {
+            int tag = u1();
+            switch (tag) {
+            case 'e': // enum constant
+                skip(4);
+                break;
+            case '@': // nested annotation
+                skip(2);
+                skipElementValuePairs();
+                break;
+            case '[': // array
+                for (int values = u2(); values > 0; --values)
+                    skipElementValue();
+                break;
+            default: // constant or class
+                skip(2);
+                break;
+            }
+        }
+
+        int u1() {
+            return bytes[position++] & 0xff;
+        }
+
+        int u2() {
+            return (u1() << 8) | u1();
+        }
+
+        int u4() {
+            return (u2() << 16) | u2();
+        }
+
+        void skip(int n) {
+            if (n < 0 || position + n > bytes.length)
+                throw new IndexOutOfBoundsException();
+            position += n;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * <p>
+ * Performs the actual encryption and decryption of values on behalf of {@link CryptoUtil}.
+ * CryptoUtil takes care of converting between Strings and bytes and of encoding the encrypted
+ * bytes so that they can be safely written into a web page; an engine only has to deal with the
+ * bytes themselves.
+ * </p>
+ * <p>
+ * Implementations must be safe for use by many threads at once. The engine in use can be changed
+ * by calling {@link CryptoUtil#setCryptoEngine(CryptoEngine)}.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public interface CryptoEngine {
+    /**
+     * Encrypt a value.
+     * 
+     * @param input the bytes to encrypt
+     * @return the encrypted bytes
+     * @throws GeneralSecurityException if the value could not be encrypted
+     */
+    byte[] encrypt(byte[] input) throws GeneralSecurityException;
+
+    /**
+     * Decrypt a value that was encrypted by {@link #encrypt(byte[])}. If the value was not
+     * encrypted by this engine with the same key, or if it has been tampered with, then this method
+     * must return null.
+     * 
+     * @param input the bytes to decrypt
+     * @return the decrypted bytes, or null if the input could not be decrypted
+     */
+    byte[] decrypt(byte[] input);
+}
@@ -17,12 +17,11 @@ package net.sourceforge.stripes.util;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.DESedeKeySpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import net.sourceforge.stripes.config.Configuration;
 import net.sourceforge.stripes.controller.StripesFilter;
@@ -30,8 +29,16 @@ import net.sourceforge.stripes.exception.StripesRuntimeException;
 
 /**
  * <p>Cryptographic utility that can encrypt and decrypt Strings using a key stored in
- * HttpSession.  Strings are encrypted by default using a 168bit DEDede (triple DES) key
- * and then Base 64 encoded in a way that is compatible with being inserte into web pages.</p>
+ * HttpSession.  Strings are encrypted by default using a 168bit DESede (triple DES) key (see
+ * {@link CipherCryptoEngine}) and then Base 64 encoded in a way that is compatible with being
+ * inserted into web pages.</p>
+ *
+ * <p>On JVMs that support it, values can instead be encrypted using a 128bit AES key in
+ * Galois/Counter Mode (see {@link AesGcmCryptoEngine}) by setting the configuration parameter
+ * <code>Stripes.EncryptionAesGcm</code> to <code>true</code>. Values in that format are always
+ * accepted when the JVM supports it, whether or not the parameter is set. To switch a cluster over
+ * without breaking values that are in flight, first upgrade every node and then set the
+ * parameter.</p>
  *
  * <p>A single encryption key is used to encrypt values for all sessions in the web application.
  * The key can come from multiple sources. Without any configuration the key will be generated
@@ -43,19 +50,18 @@ import net.sourceforge.stripes.exception.StripesRuntimeException;
  * configured this way the same key will be used across all nodes in a cluster and across
  * restarts.</p>
  *
- * <p>Finally a key can be specified by calling {@link #setSecretKey(javax.crypto.SecretKey)} and
+ * <p>A key can also be specified by calling {@link #setSecretKey(javax.crypto.SecretKey)} and
  * providing your own {@link SecretKey} instance. This method allows the specification of any
  * key from any source.  In addition the provided key can be for any algorithm supported by
  * the JVM in which it is constructed.  CryptoUtil will then use the algorithm returned by
  * {@link javax.crypto.SecretKey#getAlgorithm()}.  If using this method, the key should be set
  * before any requests are made, e.g. in a {@link javax.servlet.ServletContextListener}.</p>
  *
- * <p>Two additional measures are taken to improve security. Firstly a nonce value is prepended
- * to the input during encryption.  This is a value generated each time using a SecureRandom.
- * Doing this ensures that the same value is not encrypted the same way each time and leads to
- * increased unpredictability of the encrypted values.  Secondly a "magic number" is also
- * prepended to the input (after the nonce).  The magic number is verified at decryption time
- * to ensure that the value passed in was encrypted using the same key as was used for decryption.</p>
+ * <p>Finally, the way values are encrypted can be replaced entirely by calling
+ * {@link #setCryptoEngine(CryptoEngine)} with your own {@link CryptoEngine}.</p>
+ *
+ * <p>The key and engine are created once and then read without any locking, so encryption and
+ * decryption can proceed concurrently in any number of threads.</p>
  *
  * @author Tim Fennell
  * @since Stripes 1.2
@@ -64,15 +70,24 @@ public class CryptoUtil {
     private static final Log log = Log.getInstance(CryptoUtil.class);
     private static final SecureRandom random = new SecureRandom();
 
-    /** The algorithm that is used to encrypt values. */
+    /** The algorithm that is used to encrypt values unless AES-GCM is enabled. */
     public static final String ALGORITHM = "DESede";
 
+    /** The algorithm that is used to encrypt values when AES-GCM is enabled. */
+    public static final String AES_ALGORITHM = "AES";
+
     /** Key used to look up the location of a secret key. */
     public static final String CONFIG_ENCRYPTION_KEY = "Stripes.EncryptionKey";
 
+    /** Key used to look up whether values are encrypted with AES-GCM. */
+    public static final String CONFIG_ENCRYPTION_AES_GCM = "Stripes.EncryptionAesGcm";
+
     /** Minimum number of bytes to raise the key material to before generating a key. */
     private static final int MIN_KEY_BYTES = 128;
 
+    /** The number of bytes in a generated AES key. */
+    private static final int AES_KEY_BYTES = 16;
+
     /** The number of bytes that should be used to generate the nonce value. */
     private static final int NONCE_SIZE = 2;
 
@@ -82,14 +97,22 @@ public class CryptoUtil {
     /** The number of bytes required to hold the hash code (sizeof short) */
     private static final int HASH_CODE_SIZE = 2;
 
-    /** Short hand for the combined size of the nonce + magic number. */
-    private static final int DISCARD_BYTES = NONCE_SIZE + HASH_CODE_SIZE;
-
     /** The options used for Base64 Encoding. */
     private static final int BASE64_OPTIONS = Base64.URL_SAFE | Base64.DONT_BREAK_LINES;
 
-    /** Secret key to be used o encrypt and decrypt values. */
-    private static SecretKey secretKey;
+    /** Holds a secret key and the engine that uses it so both can be replaced at once. */
+    private static class Keys {
+        private final SecretKey secretKey;
+        private final CryptoEngine engine;
+
+        Keys(SecretKey secretKey, CryptoEngine engine) {
+            this.secretKey = secretKey;
+            this.engine = engine;
+        }
+    }
+
+    /** The key and engine used to encrypt and decrypt values. */
+    private static volatile Keys keys;
 
     /**
      * Takes in a String, encrypts it and then base64 encodes the resulting byte[] so that it can be
@@ -110,24 +133,7 @@ public class CryptoUtil {
             return input;
 
         try {
-            // First size the output
-            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE);
-            byte[] inbytes = input.getBytes();
-            final int inputLength = inbytes.length;
-            int size = cipher.getOutputSize(DISCARD_BYTES + inputLength);
-            byte[] output = new byte[size];
-
-            // Then encrypt along with the nonce and the hash code
-            byte[] nonce = nextNonce();
-            byte[] hash = generateHashCode(nonce, inbytes);
-            int index = cipher.update(hash, 0, HASH_CODE_SIZE, output, 0);
-            index = cipher.update(nonce, 0, NONCE_SIZE, output, index);
-            if (inbytes.length == 0) {
-                cipher.doFinal(output, index);
-            }
-            else {
-                cipher.doFinal(inbytes, 0, inbytes.length, output, index);
-            }
+            byte[] output = getCryptoEngine().encrypt(input.getBytes());
 
             // Then base64 encode the bytes
             return Base64.encodeBytes(output, BASE64_OPTIONS);
@@ -161,37 +167,25 @@ public class CryptoUtil {
             return null;
         }
 
-        // Then fetch a cipher and decrypt the bytes
-        Cipher cipher = getCipher(Cipher.DECRYPT_MODE);
-        byte[] output;
-        try {
-            output = cipher.doFinal(bytes);
-        }
-        catch (IllegalBlockSizeException e) {
-            log.warn("Input was not encrypted with the current encryption key: ", input);
-            return null;
-        }
-        catch (BadPaddingException e) {
-            log.warn("Input was not encrypted with the current encryption key: ", input);
-            return null;
-        }
-
-        // Check the hash code so we don't eat garbage
-        if (!checkHashCode(output)) {
+        // Then decrypt the bytes
+        byte[] output = getCryptoEngine().decrypt(bytes);
+        if (output == null) {
             log.warn("Input was not encrypted with the current encryption key: ", input);
             return null;
         }
 
-        return new String(output, DISCARD_BYTES, output.length - DISCARD_BYTES);
+        return new String(output);
     }
 
     /**
-     * Gets the secret key that should be used to encrypt and decrypt values for the
-     * current request.  If a key does not already exist in Session, one is created and
-     * then deposited there for use later.
+     * Gets a new cipher for the current secret key, initialized for the given mode.
      *
-     * @return a SecretKey that can be used to manufacture Ciphers
+     * @param mode {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}
+     * @return an initialized Cipher
+     * @deprecated Values are no longer encrypted directly by CryptoUtil. Ciphers are managed by
+     *             the {@link CryptoEngine} returned by {@link #getCryptoEngine()}.
      */
+    @Deprecated
     protected static Cipher getCipher(int mode) {
         try {
             SecretKey key = getSecretKey();
@@ -215,40 +209,128 @@ public class CryptoUtil {
      *
      * @return SecretKey the secret key used to encrypt and decrypt values
      */
-    protected static synchronized SecretKey getSecretKey() {
-        try {
-            if (CryptoUtil.secretKey == null) {
-                // Check to see if a key location was specified in config
-                byte[] material = getKeyMaterialFromConfig();
-
-                // If there wasn't a key string in config, make one
-                if (material == null) {
-                    material = new byte[MIN_KEY_BYTES];
-                    new SecureRandom().nextBytes(material);
+    protected static SecretKey getSecretKey() {
+        return getKeys().secretKey;
+    }
+
+    /**
+     * Returns the engine that is used to encrypt and decrypt values. Unless an engine was
+     * provided by calling {@link #setCryptoEngine(CryptoEngine)}, the engine is created along with
+     * the secret key the first time either is needed.
+     *
+     * @return the engine used to encrypt and decrypt values
+     */
+    public static CryptoEngine getCryptoEngine() {
+        return getKeys().engine;
+    }
+
+    /** Get the current key and engine, creating the default ones if necessary. */
+    private static Keys getKeys() {
+        Keys keys = CryptoUtil.keys;
+        if (keys == null) {
+            synchronized (CryptoUtil.class) {
+                keys = CryptoUtil.keys;
+                if (keys == null) {
+                    keys = createDefaultKeys();
+                    CryptoUtil.keys = keys;
                 }
-                // Hash the key string given in config
-                else {
-                    MessageDigest digest = MessageDigest.getInstance("SHA1");
-                    int length = digest.getDigestLength();
-                    byte[] hashed = new byte[MIN_KEY_BYTES];
-                    for (int i = 0; i < hashed.length; i += length) {
-                        material = digest.digest(material);
-                        System.arraycopy(material, 0, hashed, i,
-                                Math.min(length, MIN_KEY_BYTES - i));
-                    }
-                    material = hashed;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Generate the secret key from key material found in config or, if there is none, from
+     * random key material. If AES-GCM is available, then an AES key is derived from the same
+     * material and used to decrypt values in that format. It is also used to encrypt values if
+     * AES-GCM is enabled in config; otherwise, values are encrypted with the DESede key.
+     */
+    private static Keys createDefaultKeys() {
+        try {
+            // Check to see if a key location was specified in config
+            byte[] material = getKeyMaterialFromConfig();
+
+            // If there wasn't a key string in config, make one
+            if (material == null) {
+                material = new byte[MIN_KEY_BYTES];
+                new SecureRandom().nextBytes(material);
+            }
+            // Hash the key string given in config
+            else {
+                MessageDigest digest = MessageDigest.getInstance("SHA1");
+                int length = digest.getDigestLength();
+                byte[] hashed = new byte[MIN_KEY_BYTES];
+                for (int i = 0; i < hashed.length; i += length) {
+                    material = digest.digest(material);
+                    System.arraycopy(material, 0, hashed, i,
+                            Math.min(length, MIN_KEY_BYTES - i));
                 }
+                material = hashed;
+            }
 
-                // Now manufacture the actual Secret Key instance
-                SecretKeyFactory factory = SecretKeyFactory.getInstance(CryptoUtil.ALGORITHM);
-                CryptoUtil.secretKey = factory.generateSecret(new DESedeKeySpec(material));
+            // Now manufacture the actual Secret Key instance
+            SecretKeyFactory factory = SecretKeyFactory.getInstance(CryptoUtil.ALGORITHM);
+            SecretKey secretKey = factory.generateSecret(new DESedeKeySpec(material));
+            CryptoEngine engine = new CipherCryptoEngine(secretKey);
+
+            // Derive a separate AES key from the same material, if AES-GCM is available
+            if (isAesGcmAvailable()) {
+                byte[] hashed = MessageDigest.getInstance("SHA-256").digest(material);
+                SecretKey aesKey = new SecretKeySpec(hashed, 0, AES_KEY_BYTES, AES_ALGORITHM);
+                engine = new AesGcmCryptoEngine(aesKey, engine, !isAesGcmEnabled());
             }
+
+            return new Keys(secretKey, engine);
         }
         catch (Exception e) {
             throw new StripesRuntimeException("Could not generate a secret key.", e);
         }
+    }
+
+    /**
+     * Creates the engine used to encrypt and decrypt values with a key that was provided by
+     * calling {@link #setSecretKey(SecretKey)}. Values are encrypted the way they were before
+     * AES-GCM was supported unless AES-GCM is enabled in config. If the key is an AES key and the
+     * JVM supports AES-GCM, then values in that format are decrypted too.
+     *
+     * @param key the secret key
+     * @return an engine that uses the key
+     */
+    protected static CryptoEngine createCryptoEngine(SecretKey key) {
+        CryptoEngine engine = new CipherCryptoEngine(key);
+        if (AES_ALGORITHM.equals(key.getAlgorithm()) && isAesGcmAvailable())
+            engine = new AesGcmCryptoEngine(key, engine, !isAesGcmEnabled());
+        return engine;
+    }
 
-        return CryptoUtil.secretKey;
+    /** Returns true if the JVM supports encryption with AES in Galois/Counter Mode. */
+    protected static boolean isAesGcmAvailable() {
+        if (AesGcmCryptoEngine.isAvailable())
+            return true;
+
+        log.info("AES-GCM is not available. Using ", ALGORITHM, " encryption only.");
+        return false;
+    }
+
+    /**
+     * Returns true if values should be encrypted with AES in Galois/Counter Mode, as configured by
+     * {@link #CONFIG_ENCRYPTION_AES_GCM}. It is disabled by default so that values encrypted by
+     * one node can still be decrypted by nodes that run an earlier version of Stripes.
+     */
+    protected static boolean isAesGcmEnabled() {
+        try {
+            Configuration config = StripesFilter.getConfiguration();
+            if (config != null) {
+                String enabled = config.getBootstrapPropertyResolver().getProperty(
+                        CONFIG_ENCRYPTION_AES_GCM);
+                return enabled != null && Boolean.valueOf(enabled.trim());
+            }
+        }
+        catch (Exception e) {
+            log.warn("Could not load AES-GCM setting from configuration.", e);
+        }
+
+        return false;
     }
 
     /**
@@ -285,7 +367,19 @@ public class CryptoUtil {
      * @param key the secret key to be used to encrypt and decrypt values going forward
      */
     public static synchronized void setSecretKey(SecretKey key) {
-        CryptoUtil.secretKey = key;
+        CryptoUtil.keys = key == null ? null : new Keys(key, createCryptoEngine(key));
+    }
+
+    /**
+     * Sets the engine that will be used by the CryptoUtil to perform encryption and decryption.
+     * This allows complete control over how values are encrypted. Like
+     * {@link #setSecretKey(SecretKey)}, this method should be called before any requests are
+     * made. Passing null restores the default engine.
+     *
+     * @param engine the engine to be used to encrypt and decrypt values going forward
+     */
+    public static synchronized void setCryptoEngine(CryptoEngine engine) {
+        CryptoUtil.keys = engine == null ? null : new Keys(getSecretKey(), engine);
     }
 
     /** Generates a nonce value using a secure random. */
@@ -0,0 +1,66 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sourceforge.stripes.config.ThreadSafe;
+
+/**
+ * <p>
+ * Caches fully initialized instances of extension classes, such as type converters and
+ * formatters, so that they can be reused instead of being created again each time they are
+ * needed. Only instances of classes that are safe to use from many threads at once (see
+ * {@link ThreadSafe}) may be cached. They are kept in a single cache that is shared by all
+ * threads. Instances of any other class must not be shared, because they may hold per-use state
+ * or dependencies that are scoped to a single request. Known classes whose instances are only
+ * expensive to create may instead be kept in an {@link InstancePool}.
+ * </p>
+ * 
+ * @since Stripes 1.6
+ */
+public class InstanceCache<K, V> {
+    private final Map<K, V> instances = new ConcurrentHashMap<K, V>();
+
+    /**
+     * Get the instance cached under the given key.
+     * 
+     * @param key the key under which the instance was cached
+     * @return the cached instance or null if there is none
+     */
+    public V get(K key) {
+        return instances.get(key);
+    }
+
+    /**
+     * Cache an instance under the given key. The instance's class must be thread-safe, as
+     * determined by {@link #isThreadSafe(Class)}.
+     * 
+     * @param key the key under which to cache the instance
+     * @param value the instance to cache
+     */
+    public void put(K key, V value) {
+        instances.put(key, value);
+    }
+
+    /**
+     * Determine if instances of a class are safe to share between threads, which is the case if
+     * the class is annotated with {@link ThreadSafe}.
+     */
+    public static boolean isThreadSafe(Class<?> clazz) {
+        return clazz.isAnnotationPresent(ThreadSafe.class);
+    }
+}
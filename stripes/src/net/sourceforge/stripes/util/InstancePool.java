@@ -0,0 +1,85 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Holds idle, fully initialized instances of extension classes that are expensive to create but
+ * are not safe to use from many threads at once. An instance is taken out of the pool with
+ * {@link #borrow(Object)}, used by a single thread, and handed back with
+ * {@link #release(Object, Object)} when that thread is done with it. An instance is never in the
+ * pool while it is in use, so no two threads ever use the same instance at the same time.
+ * </p>
+ * <p>
+ * The pool is bounded in both directions. At most {@code maxIdle} instances are kept for each
+ * key, and instances are kept for at most {@code maxKeys} keys. Instances that are released when
+ * the pool is full are simply dropped. Instances that are borrowed and never released are lost to
+ * the pool, which is harmless.
+ * </p>
+ * 
+ * @see InstanceCache
+ * @since Stripes 1.6
+ */
+public class InstancePool<K, V> {
+    private final ConcurrentMap<K, Queue<V>> pools = new ConcurrentHashMap<K, Queue<V>>();
+    private final int maxKeys, maxIdle;
+
+    /**
+     * Create a pool.
+     * 
+     * @param maxKeys the most keys for which instances are kept
+     * @param maxIdle the most idle instances kept for each key
+     */
+    public InstancePool(int maxKeys, int maxIdle) {
+        this.maxKeys = maxKeys;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Take an idle instance out of the pool.
+     * 
+     * @param key the key under which the instance was released
+     * @return an idle instance or null if there is none
+     */
+    public V borrow(K key) {
+        Queue<V> pool = pools.get(key);
+        return pool == null ? null : pool.poll();
+    }
+
+    /**
+     * Hand an instance back to the pool. The caller must not use the instance after releasing it.
+     * 
+     * @param key the key under which the instance was borrowed or created
+     * @param value the instance to release
+     */
+    public void release(K key, V value) {
+        Queue<V> pool = pools.get(key);
+        if (pool == null) {
+            if (pools.size() >= maxKeys)
+                return;
+
+            pool = new ArrayBlockingQueue<V>(maxIdle);
+            Queue<V> existing = pools.putIfAbsent(key, pool);
+            if (existing != null)
+                pool = existing;
+        }
+        pool.offer(value);
+    }
+}
@@ -426,10 +426,11 @@ public class ReflectUtil {
             return pds.toArray(new PropertyDescriptor[pds.size()]);
         }
 
-        // A subclass that is aware of bridge methods
+        // A subclass that is aware of bridge methods. Its fields are volatile rather than its
+        // methods synchronized because descriptors are read far more often than they are changed.
         class BridgedPropertyDescriptor extends PropertyDescriptor {
-            private Method readMethod, writeMethod;
-            private Class<?> propertyType;
+            private volatile Method readMethod, writeMethod;
+            private volatile Class<?> propertyType;
 
             public BridgedPropertyDescriptor(PropertyDescriptor pd) throws IntrospectionException {
                 super(pd.getName(), pd.getReadMethod(), pd.getWriteMethod());
@@ -439,27 +440,27 @@ public class ReflectUtil {
             }
 
             @Override
-            public synchronized Class<?> getPropertyType() {
+            public Class<?> getPropertyType() {
                 return propertyType;
             }
 
             @Override
-            public synchronized Method getReadMethod() {
+            public Method getReadMethod() {
                 return readMethod;
             }
 
             @Override
-            public synchronized Method getWriteMethod() {
+            public Method getWriteMethod() {
                 return writeMethod;
             }
 
             @Override
-            public synchronized void setReadMethod(Method readMethod) {
+            public void setReadMethod(Method readMethod) {
                 this.readMethod = readMethod;
             }
 
             @Override
-            public synchronized void setWriteMethod(Method writeMethod) {
+            public void setWriteMethod(Method writeMethod) {
                 this.writeMethod = writeMethod;
             }
         }
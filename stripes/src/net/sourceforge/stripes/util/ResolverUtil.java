@@ -14,11 +14,24 @@
  */
 package net.sourceforge.stripes.util;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.sourceforge.stripes.vfs.VFS;
 
@@ -42,6 +55,14 @@ import net.sourceforge.stripes.vfs.VFS;
  * use cases of scanning multiple packages for extensions of particular classes, or classes
  * annotated with a specific annotation.</p>
  *
+ * <p>Tests that implement {@link ClassFileTest}, including the built-in {@link IsA} and
+ * {@link AnnotatedWith} tests, are first offered a {@link ClassFileInfo} that is read directly
+ * from each class file. Only the classes that pass this pre-filter are loaded, which avoids
+ * loading and initializing every class in the scanned packages. Large packages are read using
+ * several threads. If an index directory has been set by calling
+ * {@link #setIndexDirectory(File)}, the class file summaries for JAR files are also stored in a
+ * {@link ClassFileIndex} so that unchanged JARs need not be read again after a restart.</p>
+ *
  * <p>The standard usage pattern for the ResolverUtil class is as follows:</p>
  *
  *<pre>
@@ -70,11 +91,28 @@ public class ResolverUtil<T> {
         boolean matches(Class<?> type);
     }
 
+    /**
+     * A Test that can rule out classes by examining their class files before they are loaded.
+     * Classes for which {@link #mightMatch(ClassFileInfo, ResolverUtil)} returns false are never
+     * loaded or passed to {@link #matches(Class)}.
+     */
+    public static interface ClassFileTest extends Test {
+        /**
+         * Will be called with the summary of each candidate class file. Must return false only
+         * if the class cannot possibly match, in which case the class is not loaded. If true is
+         * returned, the class will be loaded and passed to {@link #matches(Class)}.
+         *
+         * @param info the summary of the class file
+         * @param resolver the resolver, which can provide the summaries of other classes
+         */
+        boolean mightMatch(ClassFileInfo info, ResolverUtil<?> resolver);
+    }
+
     /**
      * A Test that checks to see if each class is assignable to the provided class. Note
      * that this test will match the parent type itself if it is presented for matching.
      */
-    public static class IsA implements Test {
+    public static class IsA implements ClassFileTest {
         private Class<?> parent;
 
         /** Constructs an IsA test using the supplied Class as the parent class/interface. */
@@ -85,6 +123,41 @@ public class ResolverUtil<T> {
             return type != null && parent.isAssignableFrom(type);
         }
 
+        /** Returns true if the parent type is found among the type's supertypes. */
+        public boolean mightMatch(ClassFileInfo info, ResolverUtil<?> resolver) {
+            String target = parent.getName();
+            if (parent == Object.class || target.equals(info.getName()))
+                return true;
+
+            // Classes in the JDK never extend classes outside of it
+            boolean inJdk = target.startsWith("java.");
+
+            LinkedList<String> queue = new LinkedList<String>();
+            Set<String> seen = new HashSet<String>();
+            addSupertypes(queue, info);
+            while (!queue.isEmpty()) {
+                String name = queue.removeFirst();
+                if (target.equals(name))
+                    return true;
+                if (!seen.add(name) || (!inJdk && name.startsWith("java.")))
+                    continue;
+
+                ClassFileInfo supertype = resolver.getClassFileInfo(name);
+                if (supertype == null)
+                    return true; // can't tell without loading the class
+                addSupertypes(queue, supertype);
+            }
+
+            return false;
+        }
+
+        private static void addSupertypes(List<String> names, ClassFileInfo info) {
+            if (info.getSuperclassName() != null)
+                names.add(info.getSuperclassName());
+            for (String name : info.getInterfaceNames())
+                names.add(name);
+        }
+
         @Override public String toString() {
             return "is assignable to " + parent.getSimpleName();
         }
@@ -94,7 +167,7 @@ public class ResolverUtil<T> {
      * A Test that checks to see if each class is annotated with a specific annotation. If it
      * is, then the test returns true, otherwise false.
      */
-    public static class AnnotatedWith implements Test {
+    public static class AnnotatedWith implements ClassFileTest {
         private Class<? extends Annotation> annotation;
 
         /** Constructs an AnnotatedWith test for the specified annotation type. */
@@ -105,11 +178,52 @@ public class ResolverUtil<T> {
             return type != null && type.isAnnotationPresent(annotation);
         }
 
+        /**
+         * Returns true if the annotation is applied to the type or, if the annotation is
+         * {@link Inherited}, to any of its superclasses.
+         */
+        public boolean mightMatch(ClassFileInfo info, ResolverUtil<?> resolver) {
+            String target = annotation.getName();
+            if (info.hasAnnotation(target))
+                return true;
+            if (!annotation.isAnnotationPresent(Inherited.class))
+                return false;
+
+            for (String name = info.getSuperclassName(); name != null
+                    && !name.startsWith("java.");) {
+                ClassFileInfo superclass = resolver.getClassFileInfo(name);
+                if (superclass == null || superclass.hasAnnotation(target))
+                    return true;
+                name = superclass.getSuperclassName();
+            }
+
+            return false;
+        }
+
         @Override public String toString() {
             return "annotated with @" + annotation.getSimpleName();
         }
     }
 
+    /** Packages that contain at least this many classes are read using several threads. */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /** The maximum number of threads used to read class files. */
+    private static final int MAX_THREADS = 8;
+
+    /** Marks class files that could not be read in {@link #classFileInfos}. */
+    private static final ClassFileInfo UNREADABLE = new ClassFileInfo(null, null, new String[0],
+            new String[0], 0);
+
+    /** The index of JAR file contents, or null if no index is used. */
+    private static volatile ClassFileIndex index;
+
+    /** The class files that are found in a single location (directory or JAR). */
+    private static class ClassFiles {
+        private List<ClassFileInfo> infos = new ArrayList<ClassFileInfo>();
+        private List<String> unreadable = new ArrayList<String>();
+    }
+
     /** The set of matches being accumulated. */
     private Set<Class<? extends T>> matches = new HashSet<Class<?extends T>>();
 
@@ -119,6 +233,25 @@ public class ResolverUtil<T> {
      */
     private ClassLoader classloader;
 
+    /** Summaries of the class files that have been read so far, keyed by class name. */
+    private ConcurrentMap<String, ClassFileInfo> classFileInfos = new ConcurrentHashMap<String, ClassFileInfo>();
+
+    /**
+     * Set the directory in which the {@link ClassFileIndex} is stored. This affects all instances
+     * of ResolverUtil. The index is disabled if the directory is null, which is the default.
+     *
+     * @param directory the index directory, or null to disable the index
+     */
+    public static void setIndexDirectory(File directory) {
+        index = directory == null ? null : new ClassFileIndex(directory);
+    }
+
+    /** Get the directory in which the {@link ClassFileIndex} is stored, or null if it is disabled. */
+    public static File getIndexDirectory() {
+        ClassFileIndex index = ResolverUtil.index;
+        return index == null ? null : index.getDirectory();
+    }
+
     /**
      * Provides access to the classes discovered so far. If no calls have been made to
      * any of the {@code find()} methods, this set will be empty.
@@ -199,10 +332,26 @@ public class ResolverUtil<T> {
         String path = getPackagePath(packageName);
 
         try {
-            List<String> children = VFS.getInstance().list(path);
-            for (String child : children) {
-                if (child.endsWith(".class"))
-                    addIfMatching(test, child);
+            if (test instanceof ClassFileTest) {
+                ClassFileTest classFileTest = (ClassFileTest) test;
+                VFS vfs = VFS.getInstance();
+                for (URL url : vfs.getLocations(path)) {
+                    ClassFiles classFiles = getClassFiles(vfs, url, path);
+                    for (ClassFileInfo info : classFiles.infos) {
+                        if (classFileTest.mightMatch(info, this))
+                            addIfMatching(test, info.getName().replace('.', '/') + ".class");
+                    }
+                    for (String child : classFiles.unreadable) {
+                        addIfMatching(test, child);
+                    }
+                }
+            }
+            else {
+                List<String> children = VFS.getInstance().list(path);
+                for (String child : children) {
+                    if (child.endsWith(".class"))
+                        addIfMatching(test, child);
+                }
             }
         }
         catch (IOException ioe) {
@@ -222,6 +371,138 @@ public class ResolverUtil<T> {
         return packageName == null ? null : packageName.replace('.', '/');
     }
 
+    /**
+     * Get the summary of a class file, reading it from the class loader if it has not been read
+     * already.
+     *
+     * @param className the binary name of a class
+     * @return the summary or null if the class file cannot be found or read
+     */
+    public ClassFileInfo getClassFileInfo(String className) {
+        ClassFileInfo info = classFileInfos.get(className);
+        if (info == null) {
+            info = readClassFileInfo(className.replace('.', '/') + ".class");
+            classFileInfos.put(className, info == null ? UNREADABLE : info);
+        }
+        return info == UNREADABLE ? null : info;
+    }
+
+    /**
+     * Read the summary of a class file from the class loader.
+     *
+     * @param resource the resource path of the class file
+     * @return the summary, or null if the class file cannot be found or read
+     */
+    protected ClassFileInfo readClassFileInfo(String resource) {
+        InputStream in = getClassLoader().getResourceAsStream(resource);
+        if (in == null)
+            return null;
+
+        try {
+            return ClassFileInfo.read(in);
+        }
+        catch (Exception e) {
+            log.debug("Could not read class file ", resource, ": ", e);
+            return null;
+        }
+        finally {
+            try {
+                in.close();
+            }
+            catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * Get the summaries of all the class files found under a path at one location, reading them
+     * from the index if possible.
+     */
+    private ClassFiles getClassFiles(VFS vfs, URL url, String path) throws IOException {
+        ClassFileIndex index = ResolverUtil.index;
+        File jar = index == null ? null : ClassFileIndex.getJarFile(url);
+        ClassFiles classFiles = null;
+        if (jar != null) {
+            List<ClassFileInfo> infos = index.get(jar, path);
+            if (infos != null) {
+                classFiles = new ClassFiles();
+                classFiles.infos = infos;
+            }
+        }
+
+        if (classFiles == null) {
+            List<String> children = new ArrayList<String>();
+            for (String child : vfs.listLocation(url, path)) {
+                if (child.endsWith(".class"))
+                    children.add(child);
+            }
+
+            classFiles = readClassFiles(children);
+            if (jar != null && classFiles.unreadable.isEmpty())
+                index.put(jar, path, classFiles.infos);
+        }
+
+        for (ClassFileInfo info : classFiles.infos)
+            classFileInfos.put(info.getName(), info);
+
+        return classFiles;
+    }
+
+    /** Read the summaries of the class files, using several threads if there are many of them. */
+    private ClassFiles readClassFiles(final List<String> resources) {
+        int threads = Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+        if (threads < 2 || resources.size() < PARALLEL_THRESHOLD)
+            return readClassFiles(resources, 0, resources.size());
+
+        log.debug("Reading ", resources.size(), " class files using ", threads, " threads");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ClassFiles>> futures = new ArrayList<Future<ClassFiles>>(threads);
+            int chunk = (resources.size() + threads - 1) / threads;
+            for (int i = 0; i < resources.size(); i += chunk) {
+                final int start = i, end = Math.min(i + chunk, resources.size());
+                futures.add(executor.submit(new Callable<ClassFiles>() {
+                    public ClassFiles call() {
+                        return readClassFiles(resources, start, end);
+                    }
+                }));
+            }
+
+            ClassFiles classFiles = new ClassFiles();
+            for (Future<ClassFiles> future : futures) {
+                ClassFiles partial = future.get();
+                classFiles.infos.addAll(partial.infos);
+                classFiles.unreadable.addAll(partial.unreadable);
+            }
+            return classFiles;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return readClassFiles(resources, 0, resources.size());
+        }
+        catch (ExecutionException e) {
+            log.warn(e.getCause(), "Failed to read class files using several threads");
+            return readClassFiles(resources, 0, resources.size());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Read the summaries of a range of class files. */
+    private ClassFiles readClassFiles(List<String> resources, int start, int end) {
+        ClassFiles classFiles = new ClassFiles();
+        for (String resource : resources.subList(start, end)) {
+            ClassFileInfo info = readClassFileInfo(resource);
+            if (info == null)
+                classFiles.unreadable.add(resource);
+            else
+                classFiles.infos.add(info);
+        }
+        return classFiles;
+    }
+
     /**
      * Add the class designated by the fully qualified class name provided to the set of
      * resolved classes if and only if it is approved by the Test supplied.
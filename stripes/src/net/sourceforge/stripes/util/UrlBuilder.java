@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sourceforge.stripes.action.ActionBean;
 import net.sourceforge.stripes.action.DefaultHandler;
@@ -48,6 +49,11 @@ import net.sourceforge.stripes.validation.ValidationMetadataProvider;
  * values by invoking the addParameter() method that uses varargs, and supplying a Collection as
  * the single parameter value to the method.</p>
  *
+ * <p>Everything about a URL that does not depend on its parameter values is compiled once per
+ * base URL into a template and cached: the ActionBean it points to, the validation metadata used
+ * to find encrypted parameters, the {@link UrlBinding} and whether parameters can be embedded in
+ * it, and the encoded parameter names. A template is recompiled if the URL bindings change.</p>
+ *
  * @author Tim Fennell
  * @since Stripes 1.1.2
  */
@@ -74,7 +80,68 @@ public class UrlBuilder {
         }
     }
 
+    /**
+     * The parts of a URL that do not depend on parameter values, compiled from the base URL the
+     * first time a URL is built from it.
+     */
+    private static class Template {
+        /** The maximum number of encoded parameter names cached by a template. */
+        static final int MAX_NAMES = 256;
+
+        final String baseUrl;
+        final ActionResolver resolver;
+        final long version;
+        final Map<String, ValidationMetadata> validations;
+        final UrlBinding binding;
+        final String path;
+        final boolean embedsParameters;
+        final Map<String, String> names = new ConcurrentHashMap<String, String>();
+
+        Template(String baseUrl, ActionResolver resolver, long version,
+                Map<String, ValidationMetadata> validations, UrlBinding binding) {
+            this.baseUrl = baseUrl;
+            this.resolver = resolver;
+            this.version = version;
+            this.validations = validations;
+            this.binding = binding;
+
+            // if we have a parameterized binding then we need to trim it down to the path, and
+            // if any extra path info is present then do not add URI parameters
+            if (binding != null && binding.getParameters().size() > 0) {
+                this.path = baseUrl.equals(binding.toString()) ? binding.getPath() : baseUrl;
+                this.embedsParameters = binding.getPath().length() >= this.path.length();
+            }
+            else {
+                this.path = baseUrl;
+                this.embedsParameters = false;
+            }
+        }
+
+        /** True if the template was compiled from the current URL bindings. */
+        boolean isCurrent(ActionResolver resolver) {
+            return this.resolver == resolver && this.version == getVersion(resolver);
+        }
+
+        /** Get a URL encoded parameter name. */
+        String encodeName(String name) {
+            String encoded = names.get(name);
+            if (encoded == null) {
+                encoded = StringUtil.urlEncode(name);
+                if (names.size() < MAX_NAMES)
+                    names.put(name, encoded);
+            }
+            return encoded;
+        }
+    }
+
+    /** The maximum number of templates cached before the cache is cleared. */
+    private static final int MAX_TEMPLATES = 1024;
+
+    /** Compiled templates, keyed by base URL. */
+    private static final Map<String, Template> templates = new ConcurrentHashMap<String, Template>();
+
     private String baseUrl;
+    private Template template;
     private String anchor;
     private Locale locale;
     private String parameterSeparator;
@@ -348,12 +415,74 @@ public class UrlBuilder {
      * @see ValidationMetadataProvider#getValidationMetadata(Class)
      */
     protected Map<String, ValidationMetadata> getValidationMetadata() {
-        Map<String, ValidationMetadata> validations = null;
+        return getTemplate(this.baseUrl).validations;
+    }
+
+    /**
+     * Get the compiled template for a base URL, compiling it if it is not cached or if the URL
+     * bindings have changed since it was compiled.
+     */
+    private Template getTemplate(String baseUrl) {
+        Template template = this.template;
+        if (template != null && template.baseUrl.equals(baseUrl))
+            return template;
+
         Configuration configuration = StripesFilter.getConfiguration();
+        ActionResolver resolver = configuration == null ? null : configuration.getActionResolver();
+        if (baseUrl != null) {
+            template = templates.get(baseUrl);
+            if (template == null || !template.isCurrent(resolver)) {
+                template = compileTemplate(baseUrl, configuration);
+                if (templates.size() >= MAX_TEMPLATES)
+                    templates.clear();
+                templates.put(baseUrl, template);
+            }
+        }
+        else {
+            template = compileTemplate(baseUrl, configuration);
+        }
+
+        if (baseUrl == this.baseUrl)
+            this.template = template;
+        return template;
+    }
+
+    /** Compile the template for a base URL. */
+    private Template compileTemplate(String baseUrl, Configuration configuration) {
+        ActionResolver resolver = configuration == null ? null : configuration.getActionResolver();
+        long version = getVersion(resolver);
+
+        UrlBinding binding = null;
+        if (baseUrl != null && resolver instanceof AnnotatedClassActionResolver) {
+            try {
+                binding = ((AnnotatedClassActionResolver) resolver).getUrlBindingFactory()
+                        .getBindingPrototype(baseUrl);
+            }
+            catch (UrlBindingConflictException e) {
+                // This can be safely ignored
+            }
+        }
+
+        return new Template(baseUrl, resolver, version, lookupValidationMetadata(baseUrl,
+                configuration), binding);
+    }
+
+    /** Get the version of the URL bindings known to an action resolver. */
+    private static long getVersion(ActionResolver resolver) {
+        if (resolver instanceof AnnotatedClassActionResolver)
+            return ((AnnotatedClassActionResolver) resolver).getUrlBindingFactory().getVersion();
+        else
+            return 0;
+    }
+
+    /** Look up the validation metadata for the ActionBean class bound to a base URL. */
+    private Map<String, ValidationMetadata> lookupValidationMetadata(String baseUrl,
+            Configuration configuration) {
+        Map<String, ValidationMetadata> validations = null;
         if (configuration != null) {
             Class<? extends ActionBean> beanType = null;
             try {
-                beanType = configuration.getActionResolver().getActionBeanType(this.baseUrl);
+                beanType = configuration.getActionResolver().getActionBeanType(baseUrl);
             }
             catch (UrlBindingConflictException e) {
                 // This can be safely ignored
@@ -385,6 +514,7 @@ public class UrlBuilder {
         // lookup validation info for the bean class to find encrypted properties
         Map<String, ValidationMetadata> validations = getValidationMetadata();
 
+        Template template = getTemplate(this.baseUrl);
         StringBuilder buffer = new StringBuilder(256);
         buffer.append(getBaseURL(this.baseUrl, parameters));
         boolean seenQuestionMark = buffer.indexOf("?") != -1;
@@ -405,7 +535,7 @@ public class UrlBuilder {
             else {
                 buffer.append(getParameterSeparator());
             }
-            buffer.append(StringUtil.urlEncode(param.name)).append('=');
+            buffer.append(template.encodeName(param.name)).append('=');
             if (param.value != null) {
                 ValidationMetadata validation = validations.get(param.name);
                 String formatted = format(param.value);
@@ -434,32 +564,12 @@ public class UrlBuilder {
      * @see #UrlBuilder(Locale, String, boolean)
      */
     protected String getBaseURL(String baseUrl, Collection<Parameter> parameters) {
-        ActionResolver resolver = StripesFilter.getConfiguration().getActionResolver();
-        if (!(resolver instanceof AnnotatedClassActionResolver))
-            return baseUrl;
-
-        UrlBinding binding = null;
-        try {
-            binding = ((AnnotatedClassActionResolver) resolver).getUrlBindingFactory()
-                    .getBindingPrototype(baseUrl);
-        }
-        catch (UrlBindingConflictException e) {
-            // This can be safely ignored
-        }
-
-        if (binding == null || binding.getParameters().size() == 0) {
-            return baseUrl;
-        }
-
-        // if we have a parameterized binding then we need to trim it down to the path
-        if (baseUrl.equals(binding.toString())) {
-            baseUrl = binding.getPath();
-        }
-
-        // if any extra path info is present then do not add URI parameters
-        if (binding.getPath().length() < baseUrl.length()) {
-            return baseUrl;
+        Template template = getTemplate(baseUrl);
+        UrlBinding binding = template.binding;
+        if (!template.embedsParameters) {
+            return template.path;
         }
+        baseUrl = template.path;
 
         // lookup validation info for the bean class to find encrypted properties
         Map<String, ValidationMetadata> validations = getValidationMetadata();
@@ -0,0 +1,81 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util.bean;
+
+import java.lang.reflect.Type;
+
+/**
+ * <p>
+ * The type information that a {@link PropertyExpressionEvaluation} determined for each node of
+ * its expression, detached from the bean the expression was evaluated against. A template can be
+ * used to construct new evaluations against other instances of the same bean class without
+ * going through the (comparatively expensive) process of determining type information again.
+ * </p>
+ * <p>
+ * Templates are only available for evaluations whose type information was determined entirely
+ * from declared types. If any part of it had to be determined by examining the values held by
+ * the bean, then it might not apply to another instance and no template is created. Templates
+ * are immutable and may be shared between threads.
+ * </p>
+ *
+ * @since Stripes 1.6
+ * @see PropertyExpressionEvaluation#getTemplate()
+ */
+public class EvaluationTemplate {
+    private final Class<?> beanClass;
+    private final NodeType[] types;
+    private final Type[] valueTypes;
+    private final Class<?>[] keyTypes;
+
+    /**
+     * Create a template from a fully evaluated expression.
+     *
+     * @param evaluation an evaluation whose type information is complete
+     */
+    EvaluationTemplate(PropertyExpressionEvaluation evaluation) {
+        int count = 0;
+        for (NodeEvaluation n = evaluation.getRootNode(); n != null; n = n.getNext())
+            ++count;
+
+        this.beanClass = evaluation.getBean().getClass();
+        this.types = new NodeType[count];
+        this.valueTypes = new Type[count];
+        this.keyTypes = new Class<?>[count];
+
+        int i = 0;
+        for (NodeEvaluation n = evaluation.getRootNode(); n != null; n = n.getNext(), ++i) {
+            types[i] = n.getType();
+            valueTypes[i] = n.getValueType();
+            keyTypes[i] = n.getKeyType();
+        }
+    }
+
+    /** Get the class of the bean against which the template was created. */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /** Get the number of nodes in expressions to which this template applies. */
+    public int size() {
+        return types.length;
+    }
+
+    /** Copy the type information for the node at {@code index} into a node evaluation. */
+    void apply(int index, NodeEvaluation evaluation) {
+        evaluation.setType(types[index]);
+        evaluation.setValueType(valueTypes[index]);
+        evaluation.setKeyType(keyTypes[index]);
+    }
+}
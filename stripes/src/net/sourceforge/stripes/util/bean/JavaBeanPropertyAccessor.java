@@ -14,22 +14,74 @@
  */
 package net.sourceforge.stripes.util.bean;
 
-import net.sourceforge.stripes.util.ReflectUtil;
-
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Implementation of {@link PropertyAccessor} for reading JavaBean properties from
+ * <p>Implementation of {@link PropertyAccessor} for reading JavaBean properties from
  * JavaBeans.  Will attempt property access first using the standard PropertyDescriptor,
  * but if no PropertyDescriptor is present then falls back to attempting Field access for
- * public fields.
+ * public fields.</p>
+ *
+ * <p>The getter, setter or field for each property of each bean class is looked up only once
+ * and then accessed through a cached {@link PropertyHandle}. Handles are created by the
+ * {@link PropertyHandleFactory} set with {@link #setPropertyHandleFactory(PropertyHandleFactory)},
+ * which is a {@link ReflectionPropertyHandleFactory} by default.</p>
  *
  * @author Tim Fennell
  * @since Stripes 1.4
  */
 public class JavaBeanPropertyAccessor implements PropertyAccessor<Object> {
+    /** Cached in place of a handle for a property that does not exist. */
+    private static final Object NO_SUCH_PROPERTY = new Object();
+
+    private static volatile PropertyHandleFactory handleFactory = new ReflectionPropertyHandleFactory();
+
+    /** Maps bean classes to property names to handles, or to {@link #NO_SUCH_PROPERTY}. */
+    private static final Map<Class<?>, Map<String, Object>> handles =
+            new ConcurrentHashMap<Class<?>, Map<String, Object>>();
+
+    /** Get the factory that creates the handles through which properties are accessed. */
+    public static PropertyHandleFactory getPropertyHandleFactory() {
+        return handleFactory;
+    }
+
+    /**
+     * Set the factory that creates the handles through which properties are accessed. Any
+     * handles created by the previous factory are discarded.
+     *
+     * @param factory the new factory, or null to restore the default
+     */
+    public static void setPropertyHandleFactory(PropertyHandleFactory factory) {
+        handleFactory = factory == null ? new ReflectionPropertyHandleFactory() : factory;
+        handles.clear();
+    }
+
+    /**
+     * Get the handle for a property of a bean class, creating and caching it if necessary.
+     *
+     * @param beanClass the class of the bean
+     * @param property the name of the property
+     * @return the handle, or null if the class has no such property
+     */
+    protected PropertyHandle getPropertyHandle(Class<?> beanClass, String property) {
+        Map<String, Object> map = handles.get(beanClass);
+        if (map == null) {
+            map = new ConcurrentHashMap<String, Object>();
+            handles.put(beanClass, map);
+        }
+
+        Object handle = map.get(property);
+        if (handle == null) {
+            handle = handleFactory.createPropertyHandle(beanClass, property);
+            if (handle == null)
+                handle = NO_SUCH_PROPERTY;
+            map.put(property, handle);
+        }
+
+        return handle == NO_SUCH_PROPERTY ? null : (PropertyHandle) handle;
+    }
+
     /**
      * Fetches the specified property value from the bean if it exists.
      * @param evaluation the current node evaluation
@@ -41,32 +93,20 @@ public class JavaBeanPropertyAccessor implements PropertyAccessor<Object> {
     public Object getValue(NodeEvaluation evaluation, Object bean)
             throws NoSuchPropertyException, EvaluationException {
         String property = evaluation.getNode().getStringValue();
-        PropertyDescriptor pd = ReflectUtil.getPropertyDescriptor(bean.getClass(), property);
+        PropertyHandle handle = getPropertyHandle(bean.getClass(), property);
 
-        try {
-            if (pd != null) {
-                Method m = pd.getReadMethod();
-                if (m != null) {
-                    m = ReflectUtil.findAccessibleMethod(m);
-                    return m.invoke(bean);
-                }
-                else {
-                    throw new EvaluationException("Could not read write-only property '" +
-                        property + "' on bean of type " + bean.getClass().getName());
-                }
-            }
-            else {
-                Field field = ReflectUtil.getField(bean.getClass(), property);
-                if (field != null) {
-                    return field.get(bean);
-                }
-                else {
-                    throw new NoSuchPropertyException("Bean class " + bean.getClass().getName() +
+        if (handle == null) {
+            throw new NoSuchPropertyException("Bean class " + bean.getClass().getName() +
                     " does not contain a property called '" + property + "'.");
-                }
-            }
         }
-        catch (EvaluationException ee) { throw ee; }
+        else if (!handle.isReadable()) {
+            throw new EvaluationException("Could not read write-only property '" +
+                    property + "' on bean of type " + bean.getClass().getName());
+        }
+
+        try {
+            return handle.get(bean);
+        }
         catch (Exception e) {
             throw new EvaluationException("Could not read value of property '" + property +
             "' on bean of type " + bean.getClass().getName() + " due to an exception.", e);
@@ -83,32 +123,20 @@ public class JavaBeanPropertyAccessor implements PropertyAccessor<Object> {
      */
     public void setValue(NodeEvaluation evaluation, Object bean, Object value) {
         String property = evaluation.getNode().getStringValue();
-        PropertyDescriptor pd = ReflectUtil.getPropertyDescriptor(bean.getClass(), property);
+        PropertyHandle handle = getPropertyHandle(bean.getClass(), property);
+
+        if (handle == null) {
+            throw new NoSuchPropertyException("Bean class " + bean.getClass().getName() +
+                    " does not contain a property called '" + property + "'.");
+        }
+        else if (!handle.isWritable()) {
+            throw new EvaluationException("Could not write read-only property '" +
+                    property + "' on bean of type " + bean.getClass().getName());
+        }
 
         try {
-            if (pd != null) {
-                Method m = pd.getWriteMethod();
-                if (m != null) {
-                    m = ReflectUtil.findAccessibleMethod(m);
-                    m.invoke(bean, value);
-                }
-                else {
-                    throw new EvaluationException("Could not write read-only property '" +
-                            property + "' on bean of type " + bean.getClass().getName());
-                }
-            }
-            else {
-                Field field = ReflectUtil.getField(bean.getClass(), property);
-                if (field != null) {
-                    field.set(bean, value);
-                }
-                else {
-                    throw new NoSuchPropertyException("Bean class " + bean.getClass().getName() +
-                            " does not contain a property called '" + property + "'.");
-                }
-            }
+            handle.set(bean, value);
         }
-        catch (EvaluationException ee) { throw ee; }
         catch (Exception e) {
             throw new EvaluationException("Could not write value of property '" + property +
                     "' on bean of type " + bean.getClass().getName() + " due to an exception.", e);
@@ -14,10 +14,14 @@
  */
 package net.sourceforge.stripes.util.bean;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <p>An expression representing a property, nested property or indexed property of a JavaBean, or
@@ -27,6 +31,13 @@ import java.util.concurrent.ConcurrentHashMap;
  * single or double quoted, or bare int/long/float/double/boolean literals in the same manner they
  * appear in Java source code (e.g. 123.6F for a float).</p>
  *
+ * <p>Parsed expressions are cached by {@link #getExpression(String)}. Expressions that differ only
+ * in the values of their integer indexes and quoted map keys, such as {@code rows[0].name} and
+ * {@code rows[1].name}, share a single cache entry. Their values are bound to a copy of the
+ * cached nodes when the expression is requested. The cache holds roughly
+ * {@link #getCacheCapacity()} entries at most, discarding those that have not been used recently,
+ * so its size does not depend on the parameter names a client chooses to send.</p>
+ *
  * @author Tim Fennell
  * @since Stripes 1.4
  */
@@ -41,8 +52,36 @@ public class PropertyExpression {
     /** The set of characters which can terminate an expression node in one way or another. */
     private static final String TERMINATOR_CHARS = ".[]";
 
-    /** A static cache of parse expressions. */
-    private static Map<String,PropertyExpression> expressions = new ConcurrentHashMap<String,PropertyExpression>();
+    /** The default value for {@link #getCacheCapacity()}. */
+    public static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+    /** Replaces an integer index or quoted map key in the cache key of an expression. */
+    private static final String SLOT = "[\\]";
+
+    /**
+     * A parsed expression held in the cache, along with the positions of the nodes whose values
+     * are taken from the integer indexes and quoted map keys of each expression that shares it.
+     */
+    private static final class Template {
+        private final PropertyExpression expression;
+        private final int[] slots;
+
+        public Template(PropertyExpression expression, int[] slots) {
+            this.expression = expression;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * The cache of parsed expressions. New entries go into the current generation. When it is half
+     * full, it becomes the previous generation and the entries in the old previous generation are
+     * discarded, unless they have been used since and moved back to the current generation.
+     */
+    private static volatile Map<String,Template> templates = new ConcurrentHashMap<String,Template>();
+    private static volatile Map<String,Template> previousTemplates = Collections.emptyMap();
+    private static volatile int cacheCapacity = DEFAULT_CACHE_CAPACITY;
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
 
     /** The original property string, or 'source' of the expression. */
     private String source;
@@ -56,6 +95,21 @@ public class PropertyExpression {
         parse(expression);
     }
 
+    /**
+     * Constructs a new expression from a cached template, copying its nodes except those at the
+     * template's slots, which are replaced by the given nodes.
+     */
+    private PropertyExpression(String expression, Template template, List<Node> values) {
+        this.source = expression;
+        int slot = 0, index = 0;
+        for (Node node = template.expression.root; node != null; node = node.getNext(), ++index) {
+            if (slot < template.slots.length && template.slots[slot] == index)
+                linkNode(values.get(slot++));
+            else
+                linkNode(new Node(node.getStringValue(), node.getTypedValue(), node.isBracketed()));
+        }
+    }
+
     /**
      * Fetches the root or first node in this expression.  In an expression like 'foo.bar' this
      * would return the node that contains 'foo'.
@@ -81,15 +135,203 @@ public class PropertyExpression {
      * @return PropertyExpression the parsed form of the expression passed in
      */
     public static PropertyExpression getExpression(String expression) throws ParseException {
-        PropertyExpression parsed = PropertyExpression.expressions.get(expression);
-        if (parsed == null) {
-            parsed = new PropertyExpression(expression);
-            PropertyExpression.expressions.put(expression, parsed);
+        List<Node> values = new ArrayList<Node>(2);
+        List<Integer> slots = new ArrayList<Integer>(2);
+        String key = getCacheKey(expression, values, slots);
+        if (key == null) {
+            cacheMisses.incrementAndGet();
+            return new PropertyExpression(expression);
         }
 
+        Template template = templates.get(key);
+        if (template == null) {
+            template = previousTemplates.get(key);
+            if (template != null)
+                putTemplate(key, template);
+        }
+
+        if (template != null) {
+            cacheHits.incrementAndGet();
+            return values.isEmpty() ? template.expression
+                    : new PropertyExpression(expression, template, values);
+        }
+
+        cacheMisses.incrementAndGet();
+        PropertyExpression parsed = new PropertyExpression(expression);
+        int[] positions = new int[slots.size()];
+        for (int i = 0; i < positions.length; ++i)
+            positions[i] = slots.get(i);
+
+        // Make sure the slots line up with the parsed nodes before caching the template
+        int slot = 0, index = 0;
+        for (Node node = parsed.root; node != null; node = node.getNext(), ++index) {
+            if (slot < positions.length && positions[slot] == index) {
+                if (!node.isBracketed()
+                        || !node.getStringValue().equals(values.get(slot).getStringValue()))
+                    return parsed;
+                ++slot;
+            }
+        }
+        if (slot == positions.length)
+            putTemplate(key, new Template(parsed, positions));
         return parsed;
     }
 
+    /** Get the approximate maximum number of parsed expressions that are cached. */
+    public static int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    /**
+     * Set the approximate maximum number of parsed expressions that are cached. The default is
+     * {@value #DEFAULT_CACHE_CAPACITY}.
+     *
+     * @param capacity the new capacity, which must be at least 2
+     */
+    public static void setCacheCapacity(int capacity) {
+        if (capacity < 2)
+            throw new IllegalArgumentException("Cache capacity must be at least 2: " + capacity);
+        cacheCapacity = capacity;
+    }
+
+    /** Get the number of parsed expressions that are currently cached. */
+    public static int getCacheSize() {
+        return templates.size() + previousTemplates.size();
+    }
+
+    /** Get the number of times {@link #getExpression(String)} has found an expression in the cache. */
+    public static long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /** Get the number of times {@link #getExpression(String)} has had to parse an expression. */
+    public static long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /** Put a template into the current generation of the cache, starting a new one if it is full. */
+    private static void putTemplate(String key, Template template) {
+        Map<String,Template> current = templates;
+        current.put(key, template);
+        if (current.size() > cacheCapacity / 2) {
+            synchronized (PropertyExpression.class) {
+                if (templates == current) {
+                    previousTemplates = current;
+                    templates = new ConcurrentHashMap<String,Template>();
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Get the key under which an expression is cached. Integer indexes and quoted map keys in
+     * square brackets are replaced by a placeholder so that expressions that differ only in those
+     * values have the same key. For each one that is replaced, a node holding its value is added
+     * to {@code values} and the position of the node within the expression is added to
+     * {@code slots}.</p>
+     *
+     * <p>Expressions that contain escaped characters are not cached at all, and those that contain
+     * quoted strings anywhere but in a map key are cached under their own source. In both cases the
+     * lists are left empty.</p>
+     *
+     * @param expression the expression
+     * @param values receives the nodes for the values that were replaced
+     * @param slots receives the positions of the nodes that were replaced
+     * @return the cache key, or null if the expression cannot be cached
+     */
+    private static String getCacheKey(String expression, List<Node> values, List<Integer> slots) {
+        if (expression.indexOf('\\') >= 0)
+            return null;
+
+        StringBuilder key = null;
+        int length = expression.length(), nodes = 0;
+        boolean inSquareBrackets = false, pending = false;
+        for (int i = 0; i < length; ++i) {
+            char ch = expression.charAt(i);
+            if (ch == '\'' || ch == '"') {
+                values.clear();
+                slots.clear();
+                return expression;
+            }
+            else if (!inSquareBrackets && ch == '[') {
+                if (pending) {
+                    ++nodes;
+                    pending = false;
+                }
+
+                int end = getSlotEnd(expression, i);
+                if (end < 0) {
+                    inSquareBrackets = true;
+                }
+                else {
+                    char first = expression.charAt(i + 1);
+                    if (first == '\'' || first == '"') {
+                        String value = expression.substring(i + 2, end - 1);
+                        values.add(new Node(value, first == '\'' && value.length() == 1 ? value
+                                .charAt(0) : value, true));
+                    }
+                    else {
+                        String value = expression.substring(i + 1, end);
+                        values.add(new Node(value, Integer.parseInt(value), true));
+                    }
+                    slots.add(nodes++);
+
+                    if (key == null)
+                        key = new StringBuilder(length).append(expression, 0, i);
+                    key.append(SLOT);
+                    i = end;
+                    continue;
+                }
+            }
+            else if (ch == '.' || (inSquareBrackets && ch == ']')) {
+                if (pending) {
+                    ++nodes;
+                    pending = false;
+                }
+                if (ch == ']')
+                    inSquareBrackets = false;
+            }
+            else {
+                pending = true;
+            }
+
+            if (key != null)
+                key.append(ch);
+        }
+
+        return key == null ? expression : key.toString();
+    }
+
+    /**
+     * If the square bracket at {@code start} opens an index of up to nine digits or a quoted map
+     * key, then return the position of the closing square bracket. Otherwise return -1.
+     */
+    private static int getSlotEnd(String expression, int start) {
+        int length = expression.length(), i = start + 1;
+        if (i >= length)
+            return -1;
+
+        char ch = expression.charAt(i);
+        if (ch == '\'' || ch == '"') {
+            int close = expression.indexOf(ch, i + 1);
+            if (close < 0 || close + 1 >= length || expression.charAt(close + 1) != ']')
+                return -1;
+            // a single quote inside double quotes starts a new string when parsed
+            if (ch == '"' && expression.lastIndexOf('\'', close) > i)
+                return -1;
+            return close + 1;
+        }
+
+        if (ch == '-')
+            ++i;
+        int digits = 0;
+        while (i < length && (ch = expression.charAt(i)) >= '0' && ch <= '9') {
+            ++digits;
+            ++i;
+        }
+        return digits > 0 && digits <= 9 && i < length && ch == ']' ? i : -1;
+    }
+
     /**
      * Performs the internal parsing of the expression and stores the results in a chain
      * of nodes internally. Passes through the String a character at a time looking for
@@ -240,9 +482,11 @@ public class PropertyExpression {
             typedValue = nodeValue;
         }
 
-        Node node = new Node(nodeValue, typedValue, bracketed);
+        linkNode(new Node(nodeValue, typedValue, bracketed));
+    }
 
-        // Attach the node at the appropriate point in the expression
+    /** Attaches a node to the end of the expression. */
+    private void linkNode(Node node) {
         if (this.root == null) {
             this.root = this.leaf = node;
         }
@@ -46,6 +46,7 @@ public class PropertyExpressionEvaluation {
     private PropertyExpression expression;
     private Object bean;
     private NodeEvaluation root, leaf;
+    private boolean typeInformationFromInstances;
 
     /**
      * Constructs a new PropertyExpressionEvaluation for the expression and bean supplied.
@@ -60,6 +61,55 @@ public class PropertyExpressionEvaluation {
         this.expression = expression;
         this.bean = bean;
 
+        createNodeEvaluations();
+        fillInTypeInformation();
+        validateTypeInformation();
+    }
+
+    /**
+     * Constructs a new PropertyExpressionEvaluation for the expression and bean supplied, taking
+     * the type information for each node from a template instead of determining it again. The
+     * template must have been obtained from an evaluation, against the same class of bean, of an
+     * expression that has the same structure as this one. Only the values of indexes and map keys
+     * may differ.
+     *
+     * @param expression a PropertyExpression
+     * @param bean a non-null bean against which to evaluate the expression
+     * @param template the type information to use for each node in the expression
+     * @throws IllegalArgumentException if the template does not fit the expression or bean
+     * @see #getTemplate()
+     */
+    public PropertyExpressionEvaluation(PropertyExpression expression, Object bean,
+            EvaluationTemplate template) {
+        this.expression = expression;
+        this.bean = bean;
+
+        if (bean.getClass() != template.getBeanClass()) {
+            throw new IllegalArgumentException("Template for " + template.getBeanClass()
+                    + " cannot be applied to bean of type " + bean.getClass());
+        }
+
+        int count = createNodeEvaluations();
+        if (count != template.size()) {
+            throw new IllegalArgumentException("Template with " + template.size()
+                    + " nodes cannot be applied to expression " + expression);
+        }
+
+        int i = 0;
+        for (NodeEvaluation current = this.root; current != null; current = current.getNext()) {
+            template.apply(i++, current);
+        }
+
+        validateTypeInformation();
+    }
+
+    /**
+     * Creates a NodeEvaluation for each node in the expression and links them together.
+     *
+     * @return the number of nodes in the expression
+     */
+    private int createNodeEvaluations() {
+        int count = 0;
         for (Node node = expression.getRootNode(); node != null; node = node.getNext()) {
             NodeEvaluation evaluation = new NodeEvaluation(this, node);
             if (this.root == null) {
@@ -71,10 +121,29 @@ public class PropertyExpressionEvaluation {
                 evaluation.setPrevious(this.leaf);
                 this.leaf = evaluation;
             }
+            ++count;
         }
+        return count;
+    }
 
-        fillInTypeInformation();
-        validateTypeInformation();
+    /**
+     * Get a template that can be used to construct evaluations of structurally identical
+     * expressions against other instances of the same bean class. If the type information for
+     * this evaluation is incomplete or had to be determined by examining the values held by the
+     * bean, then it cannot safely be reused and this method returns null.
+     *
+     * @return a template, or null if this evaluation cannot be used as one
+     */
+    public EvaluationTemplate getTemplate() {
+        if (typeInformationFromInstances)
+            return null;
+
+        for (NodeEvaluation n = this.root; n != null; n = n.getNext()) {
+            if (n.getType() == null || n.getValueType() == null)
+                return null;
+        }
+
+        return new EvaluationTemplate(this);
     }
 
     /**
@@ -187,6 +256,7 @@ public class PropertyExpressionEvaluation {
 
             // If we haven't gotten type information by now, try filling in with instance info
             if (type == null) {
+                typeInformationFromInstances = true;
                 type = getTypeViaInstances(current);
                 if (type == null) {
                     // FIXME: What do we do now?
@@ -0,0 +1,52 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util.bean;
+
+/**
+ * Reads and writes one property of one class of JavaBean. A handle is resolved once per bean
+ * class and property by a {@link PropertyHandleFactory} and then reused by
+ * {@link JavaBeanPropertyAccessor} every time the property is accessed, so that the cost of
+ * finding the getter, setter or field is not paid on every access. Handles must be safe to use
+ * from many threads at once.
+ *
+ * @since Stripes 1.6
+ */
+public interface PropertyHandle {
+    /** Returns true if the property can be read. */
+    boolean isReadable();
+
+    /** Returns true if the property can be written. */
+    boolean isWritable();
+
+    /**
+     * Get the value of the property from a bean.
+     *
+     * @param bean the bean, which must be an instance of the class for which the handle was
+     *            created
+     * @return the value of the property
+     * @throws Exception if the value cannot be read
+     */
+    Object get(Object bean) throws Exception;
+
+    /**
+     * Set the value of the property on a bean.
+     *
+     * @param bean the bean, which must be an instance of the class for which the handle was
+     *            created
+     * @param value the new value of the property
+     * @throws Exception if the value cannot be written
+     */
+    void set(Object bean, Object value) throws Exception;
+}
@@ -0,0 +1,35 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util.bean;
+
+/**
+ * Creates the {@link PropertyHandle}s through which {@link JavaBeanPropertyAccessor} reads and
+ * writes JavaBean properties. The default implementation, {@link ReflectionPropertyHandleFactory},
+ * uses reflection. An alternative, such as one that generates accessor classes, can be installed
+ * with {@link JavaBeanPropertyAccessor#setPropertyHandleFactory(PropertyHandleFactory)}.
+ *
+ * @since Stripes 1.6
+ */
+public interface PropertyHandleFactory {
+    /**
+     * Create a handle for a property of a bean class. This is called at most a few times for
+     * each class and property, since the handles are cached by the caller.
+     *
+     * @param beanClass the class of the bean
+     * @param property the name of the property
+     * @return a handle for the property, or null if the class has no such property
+     */
+    PropertyHandle createPropertyHandle(Class<?> beanClass, String property);
+}
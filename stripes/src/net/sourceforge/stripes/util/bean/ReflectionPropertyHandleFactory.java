@@ -0,0 +1,126 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util.bean;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.sourceforge.stripes.util.ReflectUtil;
+
+/**
+ * The default {@link PropertyHandleFactory}. Properties are accessed through their getter and
+ * setter methods as described by {@link ReflectUtil#getPropertyDescriptor(Class, String)}, or
+ * through a public field of the same name if the class has no such property. The methods and
+ * fields are looked up once, when the handle is created. Access checks are suppressed for those
+ * that are public members of public classes, which makes invoking them cheaper without making
+ * anything accessible that was not already.
+ *
+ * @since Stripes 1.6
+ */
+public class ReflectionPropertyHandleFactory implements PropertyHandleFactory {
+    /** Accesses a property through its getter and setter methods. */
+    private static class MethodPropertyHandle implements PropertyHandle {
+        private final Method readMethod, writeMethod;
+
+        public MethodPropertyHandle(Method readMethod, Method writeMethod) {
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+        }
+
+        public boolean isReadable() {
+            return readMethod != null;
+        }
+
+        public boolean isWritable() {
+            return writeMethod != null;
+        }
+
+        public Object get(Object bean) throws Exception {
+            return readMethod.invoke(bean);
+        }
+
+        public void set(Object bean, Object value) throws Exception {
+            writeMethod.invoke(bean, value);
+        }
+    }
+
+    /** Accesses a property through a public field. */
+    private static class FieldPropertyHandle implements PropertyHandle {
+        private final Field field;
+
+        public FieldPropertyHandle(Field field) {
+            this.field = field;
+        }
+
+        public boolean isReadable() {
+            return true;
+        }
+
+        public boolean isWritable() {
+            return true;
+        }
+
+        public Object get(Object bean) throws Exception {
+            return field.get(bean);
+        }
+
+        public void set(Object bean, Object value) throws Exception {
+            field.set(bean, value);
+        }
+    }
+
+    public PropertyHandle createPropertyHandle(Class<?> beanClass, String property) {
+        PropertyDescriptor pd = ReflectUtil.getPropertyDescriptor(beanClass, property);
+        if (pd != null) {
+            Method readMethod = pd.getReadMethod();
+            if (readMethod != null)
+                readMethod = makeAccessible(ReflectUtil.findAccessibleMethod(readMethod));
+            Method writeMethod = pd.getWriteMethod();
+            if (writeMethod != null)
+                writeMethod = makeAccessible(ReflectUtil.findAccessibleMethod(writeMethod));
+            return new MethodPropertyHandle(readMethod, writeMethod);
+        }
+
+        Field field = ReflectUtil.getField(beanClass, property);
+        if (field != null && !Modifier.isFinal(field.getModifiers()))
+            return new FieldPropertyHandle(makeAccessible(field));
+        else if (field != null)
+            return new FieldPropertyHandle(field);
+        else
+            return null;
+    }
+
+    /**
+     * Suppress access checks for a method or field if it is a public member of a public class, in
+     * which case the checks would always pass anyway. Other members are returned unchanged, so
+     * that access to them fails or succeeds exactly as it would have without this.
+     */
+    protected <T extends AccessibleObject & Member> T makeAccessible(T member) {
+        if (Modifier.isPublic(member.getModifiers())
+                && Modifier.isPublic(member.getDeclaringClass().getModifiers())) {
+            try {
+                member.setAccessible(true);
+            }
+            catch (SecurityException e) {
+                // Fine. The normal access checks will be done.
+            }
+        }
+        return member;
+    }
+}
@@ -18,6 +18,8 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Locale;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * Performs a fairly aggressive conversion of a String to a boolean. The String will be deemed to be
  * equivalent to true if it meets any of the following conditions:
@@ -36,6 +38,7 @@ import java.util.Locale;
  *
  * @author Tim Fennell
  */
+@ThreadSafe
 public class BooleanTypeConverter implements TypeConverter<Boolean> {
     private static final Collection<String> truths = new HashSet<String>();
 
@@ -17,6 +17,8 @@ package net.sourceforge.stripes.validation;
 import java.util.Locale;
 import java.util.Collection;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * Simple type converter that converts the input String to a Character by returning
  * the first character in the String.
@@ -24,6 +26,7 @@ import java.util.Collection;
  * @author Tim Fennell
  * @since Stripes 1.4
  */
+@ThreadSafe
 public class CharacterTypeConverter implements TypeConverter<Character> {
     /** Does nothing. */
     public void setLocale(Locale locale) { }
@@ -16,6 +16,8 @@
 import java.util.Collection;
 import java.util.Locale;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * <p>A faux TypeConverter that validates that the String supplied is a valid credit card number.
  * The Luhn algorithm is used in addition to valid credit card prefixes to determine if the string
@@ -39,6 +41,7 @@ import java.util.Locale;
  * @author Aaron Porter
  * @since Stripes 1.5
  */
+@ThreadSafe
 public class CreditCardTypeConverter implements TypeConverter<String> {
      // Recognized card types
      public enum Type {
@@ -16,11 +16,18 @@ package net.sourceforge.stripes.validation;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.ThreadSafe;
+import net.sourceforge.stripes.util.InstanceCache;
+import net.sourceforge.stripes.util.InstancePool;
 import net.sourceforge.stripes.util.Log;
 import net.sourceforge.stripes.util.TypeHandlerCache;
 
@@ -40,6 +47,23 @@ public class DefaultTypeConverterFactory implements TypeConverterFactory {
     /** Stores a reference to the Configuration passed in at initialization time. */
     private Configuration configuration;
 
+    /**
+     * The built-in converters that are not thread-safe but build costly formats for their locale.
+     * Idle instances of exactly these classes are pooled by converter class and locale.
+     */
+    private static final Set<Class<?>> POOLED_CONVERTERS = new HashSet<Class<?>>(Arrays
+            .<Class<?>> asList(ByteTypeConverter.class, ShortTypeConverter.class,
+                    IntegerTypeConverter.class, LongTypeConverter.class, FloatTypeConverter.class,
+                    DoubleTypeConverter.class, BigIntegerTypeConverter.class,
+                    BigDecimalTypeConverter.class, PercentageTypeConverter.class,
+                    DateTypeConverter.class));
+
+    /** Caches initialized thread-safe TypeConverter instances by converter class and locale. */
+    private InstanceCache<List<Object>, TypeConverter<?>> instances;
+
+    /** Pools idle instances of the built-in converters that are not thread-safe. */
+    private InstancePool<List<Object>, TypeConverter<?>> pool;
+
     /**
      * Places all the known convertible types and type converters into an instance level Map.
      */
@@ -47,6 +71,8 @@ public class DefaultTypeConverterFactory implements TypeConverterFactory {
         this.configuration = configuration;
         this.cache = new TypeHandlerCache<Class<? extends TypeConverter<?>>>();
         this.cache.setSearchHierarchy(false);
+        this.instances = new InstanceCache<List<Object>, TypeConverter<?>>();
+        this.pool = new InstancePool<List<Object>, TypeConverter<?>>(256, 16);
 
         cache.add(Boolean.class,    BooleanTypeConverter.class);
         cache.add(Boolean.TYPE,     BooleanTypeConverter.class);
@@ -130,7 +156,12 @@ public class DefaultTypeConverterFactory implements TypeConverterFactory {
     }
 
     /**
-     * Gets an instance of the TypeConverter class specified.
+     * Gets an instance of the TypeConverter class specified. Instances of classes annotated with
+     * {@link ThreadSafe} are created by {@link #newInstance(Class, Locale)} the first time they are
+     * needed and are then shared for the same class and locale. Idle instances of the built-in
+     * converters that are not thread-safe, such as {@link DateTypeConverter}, are taken from a
+     * pool if there are any; see {@link #release(TypeConverter, Locale)}. A new instance of any
+     * other class is created each time.
      *
      * @param clazz the TypeConverter type that is desired
      * @return an instance of the TypeConverter specified
@@ -138,7 +169,48 @@ public class DefaultTypeConverterFactory implements TypeConverterFactory {
      */
     @SuppressWarnings("unchecked")
     public TypeConverter getInstance(Class<? extends TypeConverter> clazz, Locale locale) throws Exception {
-        TypeConverter converter = getConfiguration().getObjectFactory().newInstance(clazz);
+        Class<? extends TypeConverter<?>> type = (Class<? extends TypeConverter<?>>) clazz;
+        List<Object> key = Arrays.<Object> asList(type, locale);
+        if (!InstanceCache.isThreadSafe(type)) {
+            TypeConverter<?> converter = POOLED_CONVERTERS.contains(type) ? pool.borrow(key) : null;
+            return converter == null ? newInstance(type, locale) : converter;
+        }
+
+        TypeConverter<?> converter = instances.get(key);
+        if (converter == null) {
+            converter = newInstance(type, locale);
+            instances.put(key, converter);
+        }
+        return converter;
+    }
+
+    /**
+     * Hands back a converter obtained from this factory once the caller is done with it, so that
+     * it can be reused by a later conversion. Only instances of the built-in converters that are
+     * not thread-safe are kept; anything else is ignored. The caller must not use the converter
+     * after releasing it.
+     *
+     * @param converter a converter obtained from this factory, or null
+     * @param locale the locale for which the converter was obtained
+     */
+    public void release(TypeConverter<?> converter, Locale locale) {
+        if (converter != null && POOLED_CONVERTERS.contains(converter.getClass()))
+            pool.release(Arrays.<Object> asList(converter.getClass(), locale), converter);
+    }
+
+    /**
+     * Creates and initializes a new instance of the TypeConverter class specified. Instances of
+     * classes annotated with {@link ThreadSafe} that are returned from this method are cached by
+     * {@link #getInstance(Class, Locale)} and shared by all threads.
+     *
+     * @param clazz the TypeConverter type that is desired
+     * @param locale the locale from which the TypeConverter will convert
+     * @return a new instance of the TypeConverter specified
+     * @throws Exception if there is a problem instantiating the TypeConverter
+     */
+    protected TypeConverter<?> newInstance(Class<? extends TypeConverter<?>> clazz, Locale locale)
+            throws Exception {
+        TypeConverter<?> converter = getConfiguration().getObjectFactory().newInstance(clazz);
         converter.setLocale(locale);
         return converter;
     }
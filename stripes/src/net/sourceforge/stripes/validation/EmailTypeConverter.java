@@ -19,6 +19,8 @@ import javax.mail.internet.InternetAddress;
 import java.util.Collection;
 import java.util.Locale;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * <p>A faux TypeConverter that validates that the String supplied is a valid email address.
  * Relies on javax.mail.internet.InternetAddress for the bulk of the work (note that this means
@@ -41,6 +43,7 @@ import java.util.Locale;
  * @author Tim Fennell
  * @since Stripes 1.2
  */
+@ThreadSafe
 public class EmailTypeConverter implements TypeConverter<String> {
     /** Accepts the Locale provided, but does nothing with it since emails are Locale-less. */
     public void setLocale(Locale locale) { /** Doesn't matter for email. */}
@@ -17,6 +17,8 @@ package net.sourceforge.stripes.validation;
 import java.util.Collection;
 import java.util.Locale;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * Converts the String form of an Enumerated type into the Enum value that it represents. If the
  * String does not represent one of the values in the Enum a validation error will be set.
@@ -24,6 +26,7 @@ import java.util.Locale;
  * @author Tim Fennell
  */
 @SuppressWarnings("unchecked")
+@ThreadSafe
 public class EnumeratedTypeConverter implements TypeConverter<Enum> {
 
     /**
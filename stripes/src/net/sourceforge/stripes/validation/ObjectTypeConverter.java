@@ -17,6 +17,8 @@ package net.sourceforge.stripes.validation;
 import java.util.Locale;
 import java.util.Collection;
 
+import net.sourceforge.stripes.config.ThreadSafe;
+
 /**
  * A dummy type converter that targets the Object type by simply returning the input
  * String without any modifications.
@@ -24,6 +26,7 @@ import java.util.Collection;
  * @author Tim Fennell
  * @since Stripes 1.4
  */
+@ThreadSafe
 public class ObjectTypeConverter implements TypeConverter<Object> {
     /** Does Nothing */
     public void setLocale(Locale locale) { }
@@ -14,6 +14,7 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.config.ThreadSafe;
 import net.sourceforge.stripes.controller.StripesFilter;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 
@@ -66,6 +67,7 @@ import java.util.Locale;
  * @author Tim Fennell
  * @since Stripes 1.2.2
  */
+@ThreadSafe
 public class OneToManyTypeConverter implements TypeConverter<Object> {
     private Locale locale;
 
@@ -0,0 +1,84 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.validation.expression;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.controller.ParameterName;
+
+/**
+ * <p>
+ * Holds parsed validation expressions so that each expression is parsed once instead of each
+ * time a property is validated. Expressions are cached by the {@link ActionBean} class and the
+ * name of the property they validate, with any indexes stripped from the name, so the number of
+ * entries is limited by the number of validated properties in the application.
+ * </p>
+ * <p>
+ * The source of the expression is kept with the parsed form and compared on each lookup. If the
+ * validation metadata for a property is changed, the stale expression is simply replaced.
+ * </p>
+ *
+ * @param <E> the type of the parsed expression, which must be safe to evaluate from many threads
+ *            at once
+ * @since Stripes 1.6
+ */
+class ExpressionCache<E> {
+    /** A parsed expression and the source from which it was parsed. */
+    private static final class Entry<E> {
+        private final String source;
+        private final E expression;
+
+        public Entry(String source, E expression) {
+            this.source = source;
+            this.expression = expression;
+        }
+    }
+
+    private final Map<List<Object>, Entry<E>> entries = new ConcurrentHashMap<List<Object>, Entry<E>>();
+
+    /**
+     * Get the parsed form of an expression that validates a property.
+     *
+     * @param beanClass the ActionBean class
+     * @param name the name of the property being validated
+     * @param source the expression
+     * @return the parsed expression, or null if it has not been cached
+     */
+    public E get(Class<?> beanClass, ParameterName name, String source) {
+        Entry<E> entry = entries.get(getKey(beanClass, name));
+        return entry != null && entry.source.equals(source) ? entry.expression : null;
+    }
+
+    /**
+     * Cache the parsed form of an expression that validates a property.
+     *
+     * @param beanClass the ActionBean class
+     * @param name the name of the property being validated
+     * @param source the expression
+     * @param expression the parsed expression
+     */
+    public void put(Class<?> beanClass, ParameterName name, String source, E expression) {
+        entries.put(getKey(beanClass, name), new Entry<E>(source, expression));
+    }
+
+    /** Get the key under which expressions for a property are cached. */
+    private List<Object> getKey(Class<?> beanClass, ParameterName name) {
+        return Arrays.<Object> asList(beanClass, name.getStrippedName());
+    }
+}
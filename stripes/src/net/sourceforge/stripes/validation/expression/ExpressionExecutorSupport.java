@@ -44,6 +44,9 @@ public abstract class ExpressionExecutorSupport implements ExpressionExecutor {
 
     private static final Log log = Log.getInstance(ExpressionExecutorSupport.class);
 
+    /** Parsed expressions, which can be reused with any evaluator and variable resolver. */
+    private final ExpressionCache<Expression> expressions = new ExpressionCache<Expression>();
+
     /**
      * A JSP EL VariableResolver that first attempts to look up the value of the variable as a first
      * level property on the ActionBean, and if does not exist then delegates to the built in resolver.
@@ -95,13 +98,16 @@ public abstract class ExpressionExecutorSupport implements ExpressionExecutor {
 
         if (validationInfo.expression() != null) {
             try {
-                // Make sure we can get an evaluator
-                ExpressionEvaluator evaluator = getEvaluator();
-                if (evaluator == null) return;
-
-                // If this turns out to be slow we could probably cache the parsed expression
                 String expression = validationInfo.expression();
-                expr = evaluator.parseExpression(expression, Boolean.class, null);
+                expr = expressions.get(bean.getClass(), name, expression);
+                if (expr == null) {
+                    // Make sure we can get an evaluator
+                    ExpressionEvaluator evaluator = getEvaluator();
+                    if (evaluator == null) return;
+
+                    expr = evaluator.parseExpression(expression, Boolean.class, null);
+                    expressions.put(bean.getClass(), name, expression, expr);
+                }
                 resolver = new BeanVariableResolver(bean);
             }
             catch (ELException ele) {
@@ -54,6 +54,9 @@ import java.lang.reflect.Method;
 public class Jsp21ExpressionExecutor implements ExpressionExecutor {
     private static final Log log = Log.getInstance(Jsp21ExpressionExecutor.class);
 
+    /** Parsed expressions, which can be reused with any {@link StripesELContext}. */
+    private final ExpressionCache<ValueExpression> expressions = new ExpressionCache<ValueExpression>();
+
     /**
      * Implementation of the EL interface to resolve variables. Resolves variables by
      * checking two special names ("this" and "actionBean") and then falling back to
@@ -133,7 +136,7 @@ public class Jsp21ExpressionExecutor implements ExpressionExecutor {
     /**
      * Implementation of the EL interface for managing expression context. Resolves variables
      * using the StripesELResolver above.  Both the FunctionMapper and VariableResolver are
-     * essentially no-op implementations.
+     * essentially no-op implementations, which are shared by all contexts.
      *
      * @author Tim Fennell
      * @since Stripes 1.5
@@ -142,11 +145,21 @@ public class Jsp21ExpressionExecutor implements ExpressionExecutor {
         @SuppressWarnings("unused")
         private ActionBean bean;
         private StripesELResolver resolver;
-        private VariableMapper vmapper;
         private static final FunctionMapper fmapper = new FunctionMapper() {
             @Override
             public Method resolveFunction(final String s, final String s1) { return null; }
         };
+        private static final VariableMapper vmapper = new VariableMapper() {
+            @Override
+            public ValueExpression resolveVariable(final String s) {
+                return null;
+            }
+
+            @Override
+            public ValueExpression setVariable(final String s, final ValueExpression valueExpression) {
+                return null;
+            }
+        };
 
         /**
          * Constructs a new instance using the ActionBean provided as the source for most
@@ -157,18 +170,6 @@ public class Jsp21ExpressionExecutor implements ExpressionExecutor {
         public StripesELContext(ActionBean bean) {
             this.bean = bean;
             this.resolver = new StripesELResolver(bean);
-
-            this.vmapper = new VariableMapper() {
-                @Override
-                public ValueExpression resolveVariable(final String s) {
-                    return null;
-                }
-
-                @Override
-                public ValueExpression setVariable(final String s, final ValueExpression valueExpression) {
-                    return null;
-                }
-            };
         }
 
         /** Sets the current value of the 'this' special variable. */
@@ -204,14 +205,17 @@ public class Jsp21ExpressionExecutor implements ExpressionExecutor {
 
         try {
             if (expressionString != null) {
-                // Make sure we can get an factory
-                ExpressionFactory factory = getExpressionFactory();
-                if (factory == null) return;
-
                 ctx = new StripesELContext(bean);
 
-                // If this turns out to be slow we could probably cache the parsed expression
-                expression = factory.createValueExpression(ctx, expressionString, Boolean.class);
+                expression = expressions.get(bean.getClass(), name, expressionString);
+                if (expression == null) {
+                    // Make sure we can get an factory
+                    ExpressionFactory factory = getExpressionFactory();
+                    if (factory == null) return;
+
+                    expression = factory.createValueExpression(ctx, expressionString, Boolean.class);
+                    expressions.put(bean.getClass(), name, expressionString, expression);
+                }
             }
         }
         catch (ELException ele) {
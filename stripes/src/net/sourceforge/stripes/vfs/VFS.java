@@ -201,4 +201,30 @@ public abstract class VFS {
         }
         return names;
     }
+
+    /**
+     * Get the URLs of all the resources found at the specified path. Each of them can be passed to
+     * {@link #listLocation(URL, String)} to list the children of just that resource.
+     * 
+     * @param path The path of the resource(s) to find.
+     * @return A list of {@link URL}s, as returned by {@link ClassLoader#getResources(String)}.
+     * @throws IOException If I/O errors occur
+     */
+    public List<URL> getLocations(String path) throws IOException {
+        return getResources(path);
+    }
+
+    /**
+     * Recursively list the full resource path of all the resources that are children of the
+     * resource identified by a URL.
+     * 
+     * @param url The URL that identifies the resource to list, as returned by
+     *            {@link #getLocations(String)}.
+     * @param forPath The path that was passed to {@link #getLocations(String)}.
+     * @return A list containing the names of the child resources.
+     * @throws IOException If I/O errors occur
+     */
+    public List<String> listLocation(URL url, String forPath) throws IOException {
+        return list(url, forPath);
+    }
 }
@@ -0,0 +1,117 @@
+package net.sourceforge.stripes.action;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for serving whole files and byte ranges with {@link StreamingResolution}.
+ * 
+ */
+public class StreamingResolutionTest {
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private File file;
+
+    @BeforeClass(alwaysRun = true)
+    public void createFile() throws IOException {
+        file = File.createTempFile("stripes", ".txt");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(CONTENT.getBytes("US-ASCII"));
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFile() {
+        file.delete();
+    }
+
+    /** Returns a stream that skips at most one byte at a time, as InputStreams are allowed to. */
+    private InputStream newStingyInputStream() throws IOException {
+        return new FilterInputStream(new ByteArrayInputStream(CONTENT.getBytes("US-ASCII"))) {
+            @Override
+            public long skip(long n) throws IOException {
+                return super.skip(Math.min(n, 1));
+            }
+        };
+    }
+
+    private MockHttpServletResponse execute(StreamingResolution resolution, String range)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("/context", "/whatever");
+        if (range != null)
+            request.addHeader("Range", range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resolution.execute(request, response);
+        return response;
+    }
+
+    @Test(groups = "fast")
+    public void testWholeFile() throws Exception {
+        MockHttpServletResponse response = execute(new StreamingResolution("text/plain", file),
+                null);
+        Assert.assertEquals(response.getOutputString(), CONTENT);
+        Assert.assertEquals(response.getHeaderMap().get("Content-Length").get(0), String
+                .valueOf(CONTENT.length()));
+    }
+
+    @Test(groups = "fast")
+    public void testFileSingleRange() throws Exception {
+        MockHttpServletResponse response = execute(new StreamingResolution("text/plain", file),
+                "bytes=10-19");
+        Assert.assertEquals(response.getStatus(), HttpServletResponse.SC_PARTIAL_CONTENT);
+        Assert.assertEquals(response.getOutputString(), "abcdefghij");
+        Assert.assertEquals(response.getHeaderMap().get("Content-Range").get(0), "bytes 10-19/36");
+    }
+
+    @Test(groups = "fast")
+    public void testFileMultipleRanges() throws Exception {
+        MockHttpServletResponse response = execute(new StreamingResolution("text/plain", file),
+                "bytes=-3,0-1,5-7");
+        Assert.assertEquals(response.getStatus(), HttpServletResponse.SC_PARTIAL_CONTENT);
+        String output = response.getOutputString();
+        Assert.assertTrue(output.contains("Content-Range: bytes 0-1/36\r\n\r\n01\r\n"), output);
+        Assert.assertTrue(output.contains("Content-Range: bytes 5-7/36\r\n\r\n567\r\n"), output);
+        Assert.assertTrue(output.contains("Content-Range: bytes 33-35/36\r\n\r\nxyz\r\n"), output);
+        Assert.assertTrue(output.indexOf("0-1/36") < output.indexOf("5-7/36"));
+        Assert.assertTrue(output.indexOf("5-7/36") < output.indexOf("33-35/36"));
+    }
+
+    @Test(groups = "fast")
+    public void testRangeSupportDisabledForFile() throws Exception {
+        MockHttpServletResponse response = execute(new StreamingResolution("text/plain", file)
+                .setRangeSupport(false), "bytes=10-19");
+        Assert.assertEquals(response.getOutputString(), CONTENT);
+    }
+
+    @Test(groups = "fast")
+    public void testInputStreamRangesWithShortSkips() throws Exception {
+        StreamingResolution resolution = new StreamingResolution("text/plain",
+                newStingyInputStream()).setLength(CONTENT.length()).setRangeSupport(true)
+                .setBufferSize(4);
+        MockHttpServletResponse response = execute(resolution, "bytes=10-19");
+        Assert.assertEquals(response.getOutputString(), "abcdefghij");
+
+        resolution = new StreamingResolution("text/plain", newStingyInputStream()).setLength(
+                CONTENT.length()).setRangeSupport(true).setBufferSize(4);
+        String output = execute(resolution, "bytes=2-3,30-31").getOutputString();
+        Assert.assertTrue(output.contains("Content-Range: bytes 2-3/36\r\n\r\n23\r\n"), output);
+        Assert.assertTrue(output.contains("Content-Range: bytes 30-31/36\r\n\r\nuv\r\n"), output);
+    }
+}
@@ -0,0 +1,188 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.config.BootstrapPropertyResolver;
+import net.sourceforge.stripes.config.DefaultConfiguration;
+import net.sourceforge.stripes.mock.MockFilterConfig;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link ActionBeanIndex}.
+ */
+public class ActionBeanIndexTests {
+    private static final String PACKAGES = "net.sourceforge.stripes.controller";
+
+    /** A resolver that counts how many times it scans for ActionBeans. */
+    public static class CountingResolver extends AnnotatedClassActionResolver {
+        int scans;
+
+        @Override
+        protected Set<Class<? extends ActionBean>> findClasses() {
+            ++scans;
+            return super.findClasses();
+        }
+    }
+
+    private CountingResolver newResolver(String packages, String index) throws Exception {
+        MockFilterConfig filterConfig = new MockFilterConfig();
+        filterConfig.setServletContext(new MockServletContext("test"));
+        filterConfig.addInitParameter(AnnotatedClassActionResolver.PACKAGES, packages);
+        if (index != null)
+            filterConfig.addInitParameter(AnnotatedClassActionResolver.INDEX, index);
+
+        DefaultConfiguration configuration = new DefaultConfiguration();
+        configuration.setBootstrapPropertyResolver(new BootstrapPropertyResolver(filterConfig));
+        CountingResolver resolver = new CountingResolver();
+        resolver.init(configuration);
+        return resolver;
+    }
+
+    private byte[] write(ActionBeanIndex index) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        return out.toByteArray();
+    }
+
+    @Test(groups = "fast")
+    public void testIndexMatchesScan() throws Exception {
+        CountingResolver resolver = newResolver(PACKAGES, null);
+        ActionBeanIndex index = ActionBeanIndex.read(new ByteArrayInputStream(write(resolver
+                .createIndex())));
+        Assert.assertTrue(index.size() > 0);
+
+        List<ActionBeanIndex.Entry> entries = index.resolve(CountingResolver.class, PACKAGES);
+        Assert.assertNotNull(entries);
+        Assert.assertEquals(entries.size(), index.size());
+        for (ActionBeanIndex.Entry entry : entries) {
+            Class<? extends ActionBean> beanType = entry.getBeanType();
+            Assert.assertEquals(entry.getUrlBinding(), resolver.getUrlBinding(beanType));
+
+            Map<String, Method> handlers = new HashMap<String, Method>();
+            resolver.processMethods(beanType, handlers);
+            Assert.assertEquals(entry.getEventHandlers(), handlers);
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testStaleIndexIsRejected() throws Exception {
+        ActionBeanIndex index = newResolver(PACKAGES, null).createIndex();
+        index = ActionBeanIndex.read(new ByteArrayInputStream(write(index)));
+        Assert.assertNull(index.resolve(AnnotatedClassActionResolver.class, PACKAGES));
+        Assert.assertNull(index.resolve(CountingResolver.class, "net.sourceforge.stripes"));
+    }
+
+    /** Invert the bits of the long at an offset in a written index. */
+    private byte[] corrupt(byte[] bytes, int offset) {
+        bytes = bytes.clone();
+        for (int i = offset; i < offset + 8; i++)
+            bytes[i] = (byte) ~bytes[i];
+        return bytes;
+    }
+
+    @Test(groups = "fast")
+    public void testChecksumsAreComparedOnlyWhenStampChanges() throws Exception {
+        ActionBeanIndex index = newResolver(PACKAGES, null).createIndex();
+        byte[] bytes = write(index);
+
+        // Version, resolver class name and checksum, packages and listing checksum, then stamp
+        int stampOffset = 4 + 2 + CountingResolver.class.getName().length() + 8 + 2
+                + PACKAGES.length() + 8;
+        // Stamp, number of records, class name and URL binding of the first, then its checksum
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes, stampOffset
+                + 8 + 4, bytes.length));
+        int checksumOffset = stampOffset + 8 + 4 + 2 + data.readUTF().length() + 2
+                + data.readUTF().length();
+
+        // Unchanged stamp means the checksums are not compared at all
+        byte[] badChecksum = corrupt(bytes, checksumOffset);
+        Assert.assertNotNull(ActionBeanIndex.read(new ByteArrayInputStream(badChecksum)).resolve(
+                CountingResolver.class, PACKAGES));
+
+        // Changed stamp with unchanged checksums still means the index is current
+        byte[] badStamp = corrupt(bytes, stampOffset);
+        Assert.assertNotNull(ActionBeanIndex.read(new ByteArrayInputStream(badStamp)).resolve(
+                CountingResolver.class, PACKAGES));
+
+        // Changed stamp and a changed checksum means the index is stale
+        byte[] badBoth = corrupt(badStamp, checksumOffset);
+        Assert.assertNull(ActionBeanIndex.read(new ByteArrayInputStream(badBoth)).resolve(
+                CountingResolver.class, PACKAGES));
+    }
+
+    @Test(groups = "fast")
+    public void testInitUsesIndex() throws Exception {
+        File directory = File.createTempFile("stripes-index", "");
+        directory.delete();
+        directory.mkdir();
+        File file = new File(directory, "action-beans.idx");
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(write(newResolver(PACKAGES, null).createIndex()));
+        }
+        finally {
+            out.close();
+        }
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new URLClassLoader(new URL[] { directory.toURI().toURL() },
+                contextClassLoader));
+        try {
+            CountingResolver scanned = newResolver(PACKAGES, null);
+            Assert.assertEquals(scanned.scans, 1);
+
+            CountingResolver indexed = newResolver(PACKAGES, file.getName());
+            Assert.assertEquals(indexed.scans, 0);
+            Assert.assertEquals(new HashSet<Class<?>>(indexed.getActionBeanClasses()),
+                    new HashSet<Class<?>>(scanned.getActionBeanClasses()));
+            for (Class<? extends ActionBean> beanType : scanned.getActionBeanClasses()) {
+                Assert.assertEquals(indexed.getUrlBinding(beanType), scanned.getUrlBinding(beanType));
+            }
+
+            // A missing or stale index means scanning as usual
+            CountingResolver missing = newResolver(PACKAGES, "no-such-index.idx");
+            Assert.assertEquals(missing.scans, 1);
+
+            CountingResolver stale = newResolver(PACKAGES + ",net.sourceforge.stripes.action",
+                    file.getName());
+            Assert.assertEquals(stale.scans, 1);
+        }
+        finally {
+            thread.setContextClassLoader(contextClassLoader);
+            file.delete();
+            directory.delete();
+        }
+    }
+}
@@ -8,6 +8,8 @@ import net.sourceforge.stripes.mock.MockServletContext;
 import net.sourceforge.stripes.test.TestActionBean;
 import net.sourceforge.stripes.test.TestBean;
 import net.sourceforge.stripes.test.TestEnum;
+import net.sourceforge.stripes.util.bean.PropertyExpression;
+import net.sourceforge.stripes.util.bean.PropertyExpressionEvaluation;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -257,4 +259,30 @@ public class BasicBindingTests extends FilterEnabledTestBase {
         Assert.assertEquals(item.getClass(), TestActionBean.Item.class);
         Assert.assertEquals( ((TestActionBean.Item) item).getId(), new Long(1000000l));
     }
+
+    @Test(groups="fast")
+    public void testBindingPlanCacheIsBounded() throws Exception {
+        DefaultActionBeanPropertyBinder binder = new DefaultActionBeanPropertyBinder() {
+            @Override
+            protected int getBindingPlanCapacity() {
+                return 8;
+            }
+        };
+        PropertyExpression expression = PropertyExpression.getExpression("singleString");
+        DefaultActionBeanPropertyBinder.BindingPlan plan = binder.createBindingPlan(
+                new PropertyExpressionEvaluation(expression, new TestActionBean()), null);
+
+        // Simulate a client sending ever deeper chains through one property
+        StringBuilder name = new StringBuilder("item");
+        for (int i = 0; i < 20; i++) {
+            binder.putBindingPlan(TestActionBean.class, PropertyExpression.getExpression(name
+                    .toString()), plan);
+            name.append(".item");
+        }
+
+        Assert.assertNull(binder.getBindingPlan(TestActionBean.class,
+                PropertyExpression.getExpression("item")));
+        Assert.assertSame(binder.getBindingPlan(TestActionBean.class, PropertyExpression
+                .getExpression(name.substring(0, name.length() - 5))), plan);
+    }
 }
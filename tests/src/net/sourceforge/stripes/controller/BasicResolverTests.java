@@ -13,6 +13,7 @@ import net.sourceforge.stripes.action.ForwardResolution;
 import net.sourceforge.stripes.action.HandlesEvent;
 import net.sourceforge.stripes.action.Resolution;
 import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
 import net.sourceforge.stripes.mock.MockRoundtrip;
 import net.sourceforge.stripes.mock.MockServletContext;
 import org.testng.annotations.AfterClass;
@@ -91,6 +92,40 @@ public class BasicResolverTests extends FilterEnabledTestBase implements ActionB
         Assert.assertEquals(bean.getNumber(), 2);
     }
 
+    @Test(groups="fast")
+    public void testImageStyleResolutionWithManyParameters() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(getMockServletContext(), getClass());
+        for (int i = 0; i < 20; i++) {
+            trip.addParameter("field" + i, "value" + i);
+        }
+        trip.addParameter("two", "");
+        trip.addParameter("two.x", "381");
+        trip.execute();
+
+        BasicResolverTests bean = trip.getActionBean( getClass() );
+        Assert.assertEquals(bean.getNumber(), 2);
+    }
+
+    @Test(groups="fast")
+    public void testMultipleEventResolution() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(getMockServletContext(), getClass());
+        trip.addParameter("one", "");
+        trip.addParameter("two.x", "381");
+        try {
+            trip.execute();
+            Assert.fail("Expected multiple events to be rejected");
+        }
+        catch (Exception e) {
+            Throwable cause = e;
+            while (cause.getCause() != null && !(cause instanceof StripesRuntimeException))
+                cause = cause.getCause();
+            Assert.assertTrue(cause instanceof StripesRuntimeException, String.valueOf(e));
+            Assert.assertTrue(cause.getMessage().startsWith("Multiple event parameters [one, two]")
+                    || cause.getMessage().startsWith("Multiple event parameters [two, one]"),
+                    cause.getMessage());
+        }
+    }
+
     @Test(groups="fast")
     public void testEventNameParameterResolution() throws Exception {
         MockRoundtrip trip = new MockRoundtrip(getMockServletContext(), getClass());
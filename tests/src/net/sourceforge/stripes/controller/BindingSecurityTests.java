@@ -190,8 +190,37 @@ public class BindingSecurityTests extends FilterEnabledTestBase {
         }
     }
 
+    @StrictBinding(allow = "foo, blah.*, rows.**.name, **.id", deny = "blah.secret, **.id.*")
+    public static class Globs extends BindingSecurityTests.NoAnnotation {
+    }
+
     private static final Log log = Log.getInstance(BindingSecurityTests.class);
 
+    @Test(groups = "fast")
+    public void globMatching() {
+        BindingPolicyManager manager = BindingPolicyManager.getInstance(Globs.class);
+        Assert.assertSame(BindingPolicyManager.getInstance(Globs.class), manager);
+
+        String[] allowed = { "foo", "blah.name", "rows.item.name", "rows.a.b.name",
+                "blah.id", "rows.item.id" };
+        String[] denied = { "bar", "foo.bar", "blah", "blah.secret", "blah.name.first", "rows.name",
+                "rows.item", "id", "blah.id.name", "blah.1a", "blah." };
+        for (String name : allowed)
+            Assert.assertTrue(manager.isPropertyAllowed(name), name + " should be allowed");
+        for (String name : denied)
+            Assert.assertFalse(manager.isPropertyAllowed(name), name + " should be denied");
+    }
+
+    @Test(groups = "fast")
+    public void indexStripping() {
+        String[] names = { "foo", "foo[0]", "foo[0].bar['baz'][1]", "rows[a.b].name", "foo[",
+                "foo]", "foo[0", "foo[0][", "[0]foo", "foo[]bar", "a[[0]]b", "" };
+        for (String name : names) {
+            Assert.assertEquals(BindingPolicyManager.stripIndexes(name), new ParameterName(name)
+                    .getStrippedName(), name);
+        }
+    }
+
     @Test(groups = "fast")
     public void bindingPolicyEnforcement() {
         try {
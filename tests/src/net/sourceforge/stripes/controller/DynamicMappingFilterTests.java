@@ -0,0 +1,105 @@
+package net.sourceforge.stripes.controller;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link DynamicMappingFilter} dispatches to ActionBeans and passes other requests
+ * through in each of its routing modes.
+ */
+@UrlBinding("/dmf/{id}")
+public class DynamicMappingFilterTests implements ActionBean {
+    private ActionBeanContext context;
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    public Integer id;
+
+    @DefaultHandler
+    public Resolution view() {
+        return null;
+    }
+
+    /** Stands in for the container's default servlet: serves *.txt and sends 404 otherwise. */
+    public static class StaticServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+        static int served;
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response)
+                throws ServletException, IOException {
+            if (request.getServletPath().endsWith(".txt")) {
+                ++served;
+                response.getWriter().write("static");
+            }
+            else {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+    }
+
+    protected MockServletContext createServletContext(String routingMode) {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put(DynamicMappingFilter.ROUTING_MODE_PARAM, routingMode);
+        return new MockServletContext("dmf")
+                .addFilter(StripesFilter.class, "StripesFilter",
+                        StripesTestFixture.getDefaultFilterParams())
+                .addFilter(DynamicMappingFilter.class, "DynamicMappingFilter", params)
+                .setServlet(StaticServlet.class, "StaticServlet", null);
+    }
+
+    protected void assertRouting(String routingMode) throws Exception {
+        MockServletContext ctx = createServletContext(routingMode);
+        try {
+            StaticServlet.served = 0;
+            for (int i = 0; i < 2; i++) {
+                MockRoundtrip trip = new MockRoundtrip(ctx, "/dmf/" + i);
+                trip.execute();
+                DynamicMappingFilterTests bean = trip.getActionBean(getClass());
+                Assert.assertNotNull(bean);
+                Assert.assertEquals(bean.id, Integer.valueOf(i));
+
+                trip = new MockRoundtrip(ctx, "/readme.txt");
+                trip.execute();
+                Assert.assertNull(trip.getActionBean(getClass()));
+                Assert.assertEquals(trip.getOutputString(), "static");
+            }
+            Assert.assertEquals(StaticServlet.served, 2);
+
+            MockRoundtrip trip = new MockRoundtrip(ctx, "/missing");
+            trip.execute();
+            Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_NOT_FOUND);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testTrapMode() throws Exception {
+        assertRouting("trap");
+    }
+
+    @Test(groups = "fast")
+    public void testUpFrontMode() throws Exception {
+        assertRouting("upfront");
+    }
+}
@@ -1,8 +1,13 @@
 package net.sourceforge.stripes.controller;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
 
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
 import net.sourceforge.stripes.action.Resolution;
 import net.sourceforge.stripes.util.Log;
 
@@ -17,6 +22,33 @@ import org.testng.annotations.Test;
 public class ExecutionContextTests {
     private static final Log log = Log.getInstance(ExecutionContextTests.class);
 
+    public static class Bean implements ActionBean {
+        public ActionBeanContext getContext() { return null; }
+        public void setContext(ActionBeanContext context) { }
+    }
+
+    /** Records its name when invoked and applies only when told to. */
+    public static class RecordingInterceptor implements ConditionalInterceptor {
+        private final String name;
+        private final boolean applicable;
+        private final List<String> calls;
+
+        public RecordingInterceptor(String name, boolean applicable, List<String> calls) {
+            this.name = name;
+            this.applicable = applicable;
+            this.calls = calls;
+        }
+
+        public boolean isApplicable(LifecycleStage stage, Class<? extends ActionBean> beanClass) {
+            return applicable;
+        }
+
+        public Resolution intercept(ExecutionContext context) throws Exception {
+            calls.add(name);
+            return context.proceed();
+        }
+    }
+
     @Test
     public void testCurrentContext() throws Exception {
         log.debug("Testing ExecutionContext.currentContext()");
@@ -42,4 +74,41 @@ public class ExecutionContextTests {
         Assert.assertNull(ExecutionContext.currentContext(),
                 "The current context was not cleared at the end of the lifecycle.");
     }
+
+    /** Run the interceptors around some lifecycle code and return the names of those invoked. */
+    private List<String> runChain(ActionBean bean, boolean randomAccess) throws Exception {
+        final List<String> calls = new ArrayList<String>();
+        List<Interceptor> interceptors = Arrays.<Interceptor> asList(
+                new RecordingInterceptor("first", true, calls),
+                new RecordingInterceptor("skipped", false, calls),
+                new RecordingInterceptor("last", true, calls));
+        if (!randomAccess)
+            interceptors = new LinkedList<Interceptor>(interceptors);
+
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.setActionBean(bean);
+        ctx.setLifecycleStage(LifecycleStage.EventHandling);
+        ctx.setInterceptors(interceptors);
+        ctx.wrap(new Interceptor() {
+            public Resolution intercept(ExecutionContext context) throws Exception {
+                calls.add("target");
+                return null;
+            }
+        });
+        return calls;
+    }
+
+    @Test(groups = "fast")
+    public void testInapplicableInterceptorIsSkipped() throws Exception {
+        List<String> expected = Arrays.asList("first", "last", "target");
+        Assert.assertEquals(runChain(new Bean(), true), expected);
+        Assert.assertEquals(runChain(new Bean(), false), expected);
+    }
+
+    @Test(groups = "fast")
+    public void testAllInterceptorsRunWithoutActionBean() throws Exception {
+        List<String> expected = Arrays.asList("first", "skipped", "last", "target");
+        Assert.assertEquals(runChain(null, true), expected);
+        Assert.assertEquals(runChain(null, false), expected);
+    }
 }
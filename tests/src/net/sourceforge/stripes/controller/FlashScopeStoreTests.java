@@ -0,0 +1,207 @@
+/* Copyright 2026 The Stripes Framework contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpSession;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link SessionFlashScopeStore} and {@link InMemoryFlashScopeStore}.
+ */
+public class FlashScopeStoreTests {
+    private MockHttpServletRequest newRequest(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest("/test", "/test.action");
+        request.setSession(session);
+        return request;
+    }
+
+    private MockHttpSession newSession() {
+        return new MockHttpSession(new MockServletContext("test"));
+    }
+
+    private FlashScope addScope(FlashScopeStore store, MockHttpServletRequest request) {
+        FlashScope scope = new FlashScope(request, FlashScope.nextKey());
+        Assert.assertTrue(store.add(request, scope));
+        return scope;
+    }
+
+    @Test(groups = "fast")
+    public void testSessionStoreKeepsScopesInSession() {
+        SessionFlashScopeStore store = new SessionFlashScopeStore();
+        try {
+            MockHttpSession session = newSession();
+            MockHttpServletRequest request = newRequest(session);
+            Assert.assertNull(store.get(request, 1));
+            Assert.assertTrue(store.getAll(request).isEmpty());
+
+            FlashScope scope = addScope(store, request);
+            Assert.assertNotNull(session.getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION));
+            Assert.assertSame(store.get(newRequest(session), scope.key()), scope);
+            Assert.assertFalse(store.add(request, new FlashScope(request, scope.key())));
+            Assert.assertNull(store.get(newRequest(newSession()), scope.key()));
+
+            Assert.assertSame(store.remove(request, scope.key()), scope);
+            Assert.assertNull(store.get(request, scope.key()));
+        }
+        finally {
+            store.destroy();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testOldestScopesAreDiscarded() {
+        SessionFlashScopeStore store = new SessionFlashScopeStore();
+        try {
+            store.setMaxScopes(3);
+            MockHttpServletRequest request = newRequest(newSession());
+            FlashScope first = addScope(store, request);
+            FlashScope second = addScope(store, request);
+            addScope(store, request);
+            addScope(store, request);
+
+            Assert.assertEquals(store.getAll(request).size(), 3);
+            Assert.assertNull(store.get(request, first.key()));
+            Assert.assertSame(store.get(request, second.key()), second);
+        }
+        finally {
+            store.destroy();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testExpiredScopesAreRemoved() {
+        SessionFlashScopeStore store = new SessionFlashScopeStore();
+        try {
+            MockHttpServletRequest request = newRequest(newSession());
+            FlashScope expired = addScope(store, request);
+            expired.setTimeout(-1);
+            FlashScope current = addScope(store, request);
+
+            store.removeExpired();
+            Assert.assertNull(store.get(request, expired.key()));
+            Assert.assertSame(store.get(request, current.key()), current);
+        }
+        finally {
+            store.destroy();
+        }
+    }
+
+    /** Get the threads that run the expiry tasks of flash scope stores. */
+    private Set<Thread> getExpiryThreads() {
+        Set<Thread> threads = new HashSet<Thread>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("Stripes flash scope expiry".equals(thread.getName()))
+                threads.add(thread);
+        }
+        return threads;
+    }
+
+    @Test(groups = "fast")
+    public void testDestroyStopsExpiryThread() throws Exception {
+        Set<Thread> before = getExpiryThreads();
+        SessionFlashScopeStore store = new SessionFlashScopeStore();
+        Set<Thread> started;
+        try {
+            // Scheduling the first expiry task starts the thread
+            addScope(store, newRequest(newSession()));
+            started = getExpiryThreads();
+            started.removeAll(before);
+        }
+        finally {
+            store.destroy();
+        }
+
+        Assert.assertEquals(started.size(), 1);
+        Thread thread = started.iterator().next();
+        thread.join(5000);
+        Assert.assertFalse(thread.isAlive());
+    }
+
+    @Test(groups = "fast")
+    public void testSessionStoreForgetsUnreachableContainers() throws Exception {
+        SessionFlashScopeStore store = new SessionFlashScopeStore();
+        try {
+            // A passivated or migrated session is dropped without unbinding its attributes
+            addScope(store, newRequest(newSession()));
+            Assert.assertEquals(store.getContainerCount(), 1);
+            for (int i = 0; i < 50 && store.getContainerCount() > 0; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(store.getContainerCount(), 0);
+        }
+        finally {
+            store.destroy();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testInMemoryStoreKeepsScopesOutOfSession() {
+        InMemoryFlashScopeStore store = new InMemoryFlashScopeStore();
+        try {
+            MockHttpSession session = newSession();
+            MockHttpServletRequest request = newRequest(session);
+            FlashScope scope = addScope(store, request);
+            Assert.assertNull(session.getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION));
+            Assert.assertSame(store.get(newRequest(session), scope.key()), scope);
+            Assert.assertNull(store.get(newRequest(newSession()), scope.key()));
+            Assert.assertEquals(store.getContainerCount(), 1);
+
+            // Empty containers are discarded along with expired scopes
+            scope.setTimeout(-1);
+            store.removeExpired();
+            Assert.assertNull(store.get(request, scope.key()));
+            Assert.assertEquals(store.getContainerCount(), 0);
+
+            // And a new one is created when needed
+            scope = addScope(store, request);
+            Assert.assertSame(store.get(request, scope.key()), scope);
+        }
+        finally {
+            store.destroy();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testKeysAreUnique() throws Exception {
+        final Set<Integer> keys = new HashSet<Integer>();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        Integer key = FlashScope.nextKey();
+                        synchronized (keys) {
+                            keys.add(key);
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(keys.size(), threads.length * 10000);
+    }
+}
@@ -0,0 +1,183 @@
+package net.sourceforge.stripes.controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.HandlesEvent;
+import net.sourceforge.stripes.action.HttpCache;
+import net.sourceforge.stripes.action.HttpCacheValidator;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.validation.Validate;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the conditional request handling and Cache-Control directives of
+ * {@link HttpCacheInterceptor}.
+ */
+@HttpCache(maxAge = 60, sharedMaxAge = 600, staleWhileRevalidate = 30)
+public class HttpCacheInterceptorTests implements ActionBean, HttpCacheValidator {
+    private static final String ETAG = "\"v42\"";
+    private static final long LAST_MODIFIED = 1262304000000L; // 2010-01-01 00:00:00 GMT
+
+    private ActionBeanContext context;
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    @Validate(required = true, on = "edit")
+    public String name;
+    public boolean handled;
+
+    @DefaultHandler
+    public Resolution view() {
+        handled = true;
+        return new ForwardResolution("/view.jsp");
+    }
+
+    @HandlesEvent("edit")
+    public Resolution edit() {
+        handled = true;
+        return new ForwardResolution("/edit.jsp");
+    }
+
+    @HandlesEvent("private")
+    @HttpCache(allow = false)
+    public Resolution uncached() {
+        handled = true;
+        return new ForwardResolution("/private.jsp");
+    }
+
+    public String getETag(String event) {
+        return "v42";
+    }
+
+    public long getLastModified(String event) {
+        return LAST_MODIFIED;
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Test and Support Methods
+    ///////////////////////////////////////////////////////////////////////////
+
+    private MockServletContext ctx;
+
+    @BeforeClass
+    public void setupServletContext() {
+        ctx = StripesTestFixture.createServletContext();
+    }
+
+    @AfterClass
+    public void closeServletContext() {
+        ctx.close();
+    }
+
+    /** Makes a GET roundtrip to this ActionBean. */
+    protected MockRoundtrip getRoundtrip() {
+        MockRoundtrip trip = new MockRoundtrip(ctx, HttpCacheInterceptorTests.class);
+        trip.getRequest().setMethod("GET");
+        return trip;
+    }
+
+    /** Gets the values of a response header. */
+    protected List<Object> getHeader(MockRoundtrip trip, String name) {
+        return trip.getResponse().getHeaderMap().get(name);
+    }
+
+    @Test(groups = "fast")
+    public void testUnconditionalRequest() throws Exception {
+        MockRoundtrip trip = getRoundtrip();
+        trip.execute();
+
+        Assert.assertTrue(trip.getActionBean(HttpCacheInterceptorTests.class).handled);
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_OK);
+        Assert.assertEquals(getHeader(trip, "ETag"), Arrays.<Object> asList(ETAG));
+        Assert.assertEquals(getHeader(trip, "Last-Modified"), Arrays.<Object> asList(LAST_MODIFIED));
+        Assert.assertEquals(getHeader(trip, "Cache-Control"), Arrays
+                .<Object> asList("max-age=60, s-maxage=600, stale-while-revalidate=30"));
+    }
+
+    @Test(groups = "fast")
+    public void testIfNoneMatch() throws Exception {
+        MockRoundtrip trip = getRoundtrip();
+        trip.getRequest().addHeader("If-None-Match", "\"v41\", W/" + ETAG);
+        trip.addParameter("name", "ignored");
+        trip.execute();
+
+        HttpCacheInterceptorTests bean = trip.getActionBean(HttpCacheInterceptorTests.class);
+        Assert.assertFalse(bean.handled);
+        Assert.assertNull(bean.name, "Parameters should not be bound to a request that is not modified");
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_NOT_MODIFIED);
+        Assert.assertEquals(getHeader(trip, "ETag"), Arrays.<Object> asList(ETAG));
+        Assert.assertNull(trip.getDestination());
+    }
+
+    @Test(groups = "fast")
+    public void testIfNoneMatchOverridesIfModifiedSince() throws Exception {
+        MockRoundtrip trip = getRoundtrip();
+        trip.getRequest().addHeader("If-None-Match", "\"v41\"");
+        trip.getRequest().addHeader("If-Modified-Since", LAST_MODIFIED);
+        trip.execute();
+
+        Assert.assertTrue(trip.getActionBean(HttpCacheInterceptorTests.class).handled);
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_OK);
+    }
+
+    @Test(groups = "fast")
+    public void testIfModifiedSince() throws Exception {
+        MockRoundtrip trip = getRoundtrip();
+        trip.getRequest().addHeader("If-Modified-Since", LAST_MODIFIED + 999);
+        trip.execute();
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_NOT_MODIFIED);
+
+        trip = getRoundtrip();
+        trip.getRequest().addHeader("If-Modified-Since", LAST_MODIFIED - 1000);
+        trip.execute();
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_OK);
+        Assert.assertEquals(trip.getDestination(), "/view.jsp");
+    }
+
+    @Test(groups = "fast")
+    public void testPostIsNotConditional() throws Exception {
+        MockRoundtrip trip = getRoundtrip();
+        trip.getRequest().setMethod("POST");
+        trip.getRequest().addHeader("If-None-Match", "*");
+        trip.execute();
+
+        Assert.assertTrue(trip.getActionBean(HttpCacheInterceptorTests.class).handled);
+        Assert.assertNull(getHeader(trip, "ETag"));
+    }
+
+    @Test(groups = "fast")
+    public void testCachingDisabled() throws Exception {
+        MockRoundtrip trip = getRoundtrip();
+        trip.getRequest().addHeader("If-None-Match", ETAG);
+        trip.execute("private");
+
+        Assert.assertTrue(trip.getActionBean(HttpCacheInterceptorTests.class).handled);
+        Assert.assertNull(getHeader(trip, "ETag"));
+        Assert.assertEquals(getHeader(trip, "Cache-control"), Arrays
+                .<Object> asList("no-store, no-cache, must-revalidate"));
+    }
+
+    @Test(groups = "fast")
+    public void testNoValidatorsWithValidationErrors() throws Exception {
+        MockRoundtrip trip = getRoundtrip();
+        trip.execute("edit");
+
+        Assert.assertEquals(trip.getValidationErrors().size(), 1);
+        Assert.assertNull(getHeader(trip, "ETag"));
+        Assert.assertNull(getHeader(trip, "Last-Modified"));
+    }
+}
@@ -2,12 +2,16 @@ package net.sourceforge.stripes.controller;
 
 import static java.lang.String.format;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import net.sourceforge.stripes.action.ActionBean;
 import net.sourceforge.stripes.action.ActionBeanContext;
 import net.sourceforge.stripes.config.DontAutoLoad;
 import net.sourceforge.stripes.exception.UrlBindingConflictException;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
 import net.sourceforge.stripes.util.Log;
 import net.sourceforge.stripes.util.bean.ParseException;
 
@@ -30,6 +34,9 @@ public class UrlBindingFactoryTests {
         }
     }
 
+    @DontAutoLoad
+    public static class UnboundActionBean extends BaseActionBean {}
+
     @DontAutoLoad @net.sourceforge.stripes.action.UrlBinding("/syntax/{")
     public static class BadSyntaxActionBean1 extends BaseActionBean {}
     @DontAutoLoad @net.sourceforge.stripes.action.UrlBinding("/syntax/\\")
@@ -322,4 +329,183 @@ public class UrlBindingFactoryTests {
             log.debug("Got expected URL binding conflict");
         }
     }
+
+    @Test(groups = "fast")
+    public void testPrefixTreeTracksAddAndRemove() {
+        UrlBindingFactory factory = new UrlBindingFactory();
+        factory.addBinding(FooActionBean1.class, UrlBindingFactory.parseUrlBinding(FooActionBean1.class));
+        factory.addBinding(FooActionBean8.class, UrlBindingFactory.parseUrlBinding(FooActionBean8.class));
+
+        // Longest matching prefix wins
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/x").getBeanType(), FooActionBean8.class);
+        Assert.assertSame(factory.getBindingPrototype("/foo/gox").getBeanType(), FooActionBean1.class);
+        Assert.assertSame(factory.getBindingPrototype("/foo/x").getBeanType(), FooActionBean1.class);
+        Assert.assertNull(factory.getBindingPrototype("/fo/x"));
+
+        // Removing a binding must be reflected in subsequent lookups
+        factory.removeBinding(FooActionBean8.class);
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/x").getBeanType(), FooActionBean1.class);
+        factory.removeBinding(FooActionBean1.class);
+        Assert.assertNull(factory.getBindingPrototype("/foo/goo/x"));
+
+        // And so must adding one
+        factory.addBinding(FooActionBean5.class, UrlBindingFactory.parseUrlBinding(FooActionBean5.class));
+        Assert.assertSame(factory.getBindingPrototype("/foo/x/bar").getBeanType(), FooActionBean5.class);
+    }
+
+    @Test(groups = "fast")
+    public void testStatisticsAreKeptOnlyWhenEnabled() {
+        UrlBindingFactory factory = new UrlBindingFactory();
+        factory.addBinding(FooActionBean.class, UrlBindingFactory.parseUrlBinding(FooActionBean.class));
+        Assert.assertNotNull(factory.getBindingPrototype("/foo"));
+        Assert.assertNull(factory.getBindingPrototype("/nothing"));
+        Assert.assertEquals(factory.getExactMatchCount(), 0);
+        Assert.assertEquals(factory.getMissCount(), 0);
+
+        factory.setStatisticsEnabled(true);
+        Assert.assertNotNull(factory.getBindingPrototype("/foo"));
+        Assert.assertNull(factory.getBindingPrototype("/nothing"));
+        Assert.assertEquals(factory.getExactMatchCount(), 1);
+        Assert.assertEquals(factory.getMissCount(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testRoutingResultIsReusedPerRequest() {
+        UrlBindingFactory factory = new UrlBindingFactory();
+        factory.addBinding(FooActionBean1.class, UrlBindingFactory.parseUrlBinding(FooActionBean1.class));
+        factory.addBinding(FooActionBean8.class, UrlBindingFactory.parseUrlBinding(FooActionBean8.class));
+        factory.setStatisticsEnabled(true);
+
+        // All the lookups for one request share a single match
+        MockHttpServletRequest request = new MockHttpServletRequest("", "/foo/goo/2");
+        Assert.assertSame(factory.getBindingPrototype(request).getBeanType(), FooActionBean8.class);
+        UrlBinding binding = factory.getBinding(request);
+        Assert.assertEquals(binding.getParameters().get(0).getValue(), "2");
+        Assert.assertSame(factory.getBinding(request), binding);
+        Assert.assertSame(factory.getRoutingResult(request).getBeanType(), FooActionBean8.class);
+        Assert.assertEquals(factory.getRoutingResult(request).getPathEvent(), "2");
+        Assert.assertEquals(factory.getPrefixMatchCount(), 1);
+
+        // An include changes the requested path
+        request.setAttribute(StripesConstants.REQ_ATTR_INCLUDE_PATH, "/foo/3/view");
+        Assert.assertSame(factory.getBindingPrototype(request).getBeanType(), FooActionBean1.class);
+        Assert.assertEquals(factory.getRoutingResult(request).getPathEvent(), "3");
+        Assert.assertEquals(factory.getPrefixMatchCount(), 2);
+
+        // So does a change to the bindings
+        factory.removeBinding(FooActionBean1.class);
+        Assert.assertNull(factory.getBindingPrototype(request));
+        Assert.assertNull(factory.getBinding(request));
+        Assert.assertEquals(factory.getMissCount(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testPrefixMatchesAreRememberedUntilBindingsChange() {
+        UrlBindingFactory factory = new UrlBindingFactory();
+        factory.addBinding(FooActionBean1.class, UrlBindingFactory.parseUrlBinding(FooActionBean1.class));
+        factory.addBinding(FooActionBean8.class, UrlBindingFactory.parseUrlBinding(FooActionBean8.class));
+        factory.setStatisticsEnabled(true);
+
+        // Repeated lookups return the same result and are still counted
+        UrlBinding prototype = factory.getBindingPrototype("/foo/goo/x");
+        Assert.assertSame(prototype.getBeanType(), FooActionBean8.class);
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/x"), prototype);
+        Assert.assertNull(factory.getBindingPrototype("/fo/x"));
+        Assert.assertNull(factory.getBindingPrototype("/fo/x"));
+        Assert.assertEquals(factory.getPrefixMatchCount(), 2);
+        Assert.assertEquals(factory.getMissCount(), 2);
+
+        // Changing the bindings forgets the remembered matches
+        factory.removeBinding(FooActionBean8.class);
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/x").getBeanType(), FooActionBean1.class);
+        factory.removeBinding(FooActionBean1.class);
+        Assert.assertNull(factory.getBindingPrototype("/foo/goo/x"));
+    }
+
+    @Test(groups = "fast")
+    @SuppressWarnings("unchecked")
+    public void testConcurrentLookupsDuringRegistration() throws Exception {
+        final UrlBindingFactory factory = new UrlBindingFactory();
+        final Class<? extends ActionBean>[] stable = new Class[] { FooActionBean.class,
+                FooActionBean1.class, FooActionBean5.class, FooActionBean8.class };
+        final Class<? extends ActionBean>[] churn = new Class[] { GoodSyntaxActionBean5.class,
+                GoodSyntaxActionBean6.class, GoodSyntaxActionBean7.class,
+                GoodSyntaxActionBean8.class, GoodSyntaxActionBean9.class,
+                GoodSyntaxActionBean10.class, GoodSyntaxActionBean11.class,
+                SuffixActionBean1.class, SuffixActionBean2.class };
+
+        List<UrlBinding> bindings = new ArrayList<UrlBinding>();
+        for (Class<? extends ActionBean> clazz : stable)
+            bindings.add(UrlBindingFactory.parseUrlBinding(clazz));
+        factory.addBindings(bindings);
+
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final CountDownLatch done = new CountDownLatch(1);
+        List<Thread> readers = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        while (done.getCount() > 0) {
+                            Assert.assertSame(factory.getBindingPrototype("/foo").getBeanType(),
+                                    FooActionBean.class);
+                            Assert.assertSame(factory.getBindingPrototype("/foo/1").getBeanType(),
+                                    FooActionBean1.class);
+                            Assert.assertSame(factory.getBindingPrototype("/foo/1/bar")
+                                    .getBeanType(), FooActionBean5.class);
+                            Assert.assertSame(factory.getBinding("/foo/goo/2").getBeanType(),
+                                    FooActionBean8.class);
+                            try {
+                                // These come and go, and may legitimately conflict
+                                factory.getBindingPrototype("/syntax/{");
+                                factory.getBinding("/suffix/a/b.action");
+                            }
+                            catch (UrlBindingConflictException e) {
+                            }
+                        }
+                    }
+                    catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            };
+            readers.add(reader);
+            reader.start();
+        }
+
+        try {
+            for (int i = 0; i < 500 && failure.get() == null; i++) {
+                for (Class<? extends ActionBean> clazz : churn)
+                    factory.addBinding(clazz, UrlBindingFactory.parseUrlBinding(clazz));
+                for (Class<? extends ActionBean> clazz : churn)
+                    factory.removeBinding(clazz);
+            }
+        }
+        finally {
+            done.countDown();
+            for (Thread reader : readers)
+                reader.join();
+        }
+
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+        Assert.assertEquals(factory.getActionBeanClasses().size(), stable.length);
+    }
+
+    @Test(groups = "fast")
+    public void testUnboundClassLookupIsCached() {
+        UrlBindingFactory factory = new UrlBindingFactory();
+        long version = factory.getVersion();
+        Assert.assertNull(factory.getBindingPrototype(UnboundActionBean.class));
+        Assert.assertNull(factory.getBindingPrototype(UnboundActionBean.class));
+        Assert.assertEquals(factory.getVersion(), version);
+        Assert.assertTrue(factory.getActionBeanClasses().isEmpty());
+
+        // A binding added later for the same class replaces the cached miss
+        factory.addBinding(UnboundActionBean.class, UrlBindingFactory.parseUrlBinding(
+                UnboundActionBean.class, "/unbound"));
+        Assert.assertSame(factory.getBindingPrototype(UnboundActionBean.class).getBeanType(),
+                UnboundActionBean.class);
+    }
 }
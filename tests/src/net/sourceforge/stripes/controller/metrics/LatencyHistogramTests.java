@@ -0,0 +1,72 @@
+package net.sourceforge.stripes.controller.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTests {
+    @Test(groups = "fast")
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getMeanNanos(), 0.0);
+        Assert.assertEquals(histogram.getPercentileNanos(0.99), 0);
+    }
+
+    @Test(groups = "fast")
+    public void testRecord() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 99; i++)
+            histogram.record(1500); // 1.5 microseconds
+        histogram.record(3000000); // 3 milliseconds
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getTotalNanos(), 99 * 1500 + 3000000);
+        Assert.assertEquals(histogram.getMaxNanos(), 3000000);
+
+        // Percentiles are reported as the upper bound of their bucket
+        Assert.assertEquals(histogram.getPercentileNanos(0.5), 2000);
+        Assert.assertEquals(histogram.getPercentileNanos(0.99), 2000);
+        Assert.assertEquals(histogram.getPercentileNanos(1.0), 3000000);
+
+        histogram.reset();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getMaxNanos(), 0);
+    }
+
+    @Test(groups = "fast")
+    public void testExtremes() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(0);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(histogram.getCount(), 3);
+        Assert.assertEquals(histogram.getPercentileNanos(0.5), 1000);
+        Assert.assertEquals(histogram.getPercentileNanos(1.0), Long.MAX_VALUE);
+    }
+
+    @Test(groups = "fast")
+    public void testConcurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final long nanos = (i + 1) * 1000;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++)
+                        histogram.record(nanos);
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        Assert.assertEquals(histogram.getCount(), 40000);
+        Assert.assertEquals(histogram.getTotalNanos(), 10000L * (1000 + 2000 + 3000 + 4000));
+        Assert.assertEquals(histogram.getMaxNanos(), 4000);
+    }
+}
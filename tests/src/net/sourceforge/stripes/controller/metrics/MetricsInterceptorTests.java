@@ -0,0 +1,100 @@
+package net.sourceforge.stripes.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.controller.DispatcherServlet;
+import net.sourceforge.stripes.controller.LifecycleStage;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.validation.Validate;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link MetricsInterceptor} records and publishes request metrics.
+ */
+public class MetricsInterceptorTests implements ActionBean {
+    private ActionBeanContext context;
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    @Validate(minvalue = 0)
+    public int quantity;
+
+    @DefaultHandler
+    public Resolution view() {
+        return new ForwardResolution("/view.jsp");
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Test and Support Methods
+    ///////////////////////////////////////////////////////////////////////////
+
+    private MockServletContext ctx;
+
+    @BeforeClass
+    public void setupServletContext() {
+        Map<String, String> params = StripesTestFixture.getDefaultFilterParams();
+        params.put("Interceptor.Classes", MetricsInterceptor.class.getName());
+        ctx = new MockServletContext("metrics").addFilter(StripesFilter.class, "StripesFilter",
+                params).setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void closeServletContext() {
+        ctx.close();
+    }
+
+    protected RequestMetrics getMetrics() {
+        return (RequestMetrics) ctx.getAttribute(MetricsInterceptor.SERVLET_CONTEXT_ATTRIBUTE);
+    }
+
+    @Test(groups = "fast")
+    public void testMetricsAreRecorded() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(ctx, MetricsInterceptorTests.class);
+        trip.addParameter("quantity", "1");
+        trip.execute();
+        trip = new MockRoundtrip(ctx, MetricsInterceptorTests.class);
+        trip.addParameter("quantity", "-1");
+        trip.execute();
+
+        RequestMetrics metrics = getMetrics();
+        Assert.assertNotNull(metrics, "Metrics were not published in the servlet context");
+        Assert.assertTrue(metrics.getRequestCount() >= 2);
+        for (LifecycleStage stage : LifecycleStage.values()) {
+            Assert.assertTrue(metrics.getStageHistogram(stage).getCount() >= 1, stage.toString());
+        }
+
+        EventMetrics event = metrics.getEventMetrics(MetricsInterceptorTests.class,
+                MetricsInterceptorTests.class.getMethod("view"));
+        Assert.assertEquals(event.getBindingCount(), 2);
+        Assert.assertEquals(event.getBindingErrorCount(), 1);
+        Assert.assertEquals(event.getStageHistogram(LifecycleStage.EventHandling).getCount(), 1);
+        Assert.assertEquals(event.getStageHistogram(LifecycleStage.RequestInit).getCount(), 0);
+        Assert.assertTrue(metrics.getUrlBindingExactMatches() + metrics.getUrlBindingPrefixMatches() >= 2);
+        Assert.assertTrue(metrics.getReport().contains(event.getName()));
+    }
+
+    @Test(groups = "fast")
+    public void testMetricsArePublishedOverJmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsInterceptor.JMX_DOMAIN + ":type=RequestMetrics,context="
+                + ObjectName.quote("/metrics"));
+        Assert.assertTrue(server.isRegistered(name));
+        Assert.assertEquals(server.getAttribute(name, "RequestCount"), getMetrics().getRequestCount());
+    }
+}
@@ -0,0 +1,264 @@
+package net.sourceforge.stripes.controller.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.servlet.ServletInputStream;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.FileBean;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.controller.DispatcherServlet;
+import net.sourceforge.stripes.controller.FileUploadLimitExceededException;
+import net.sourceforge.stripes.controller.StripesConstants;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.util.CryptoUtil;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link StreamingMultipartWrapper}.
+ */
+public class StreamingMultipartWrapperTests implements ActionBean {
+    private static final String BOUNDARY = "----StripesBoundary";
+
+    private ActionBeanContext context;
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    private String title;
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    private boolean notify = true;
+    public boolean isNotify() { return notify; }
+    public void setNotify(boolean notify) { this.notify = notify; }
+
+    private FileBean report;
+    public FileBean getReport() { return report; }
+    public void setReport(FileBean report) { this.report = report; }
+
+    private String event, content;
+
+    @DefaultHandler
+    public Resolution preview() throws IOException {
+        event = "preview";
+        content = read(report);
+        return new ForwardResolution("/preview.jsp");
+    }
+
+    public Resolution upload() throws IOException {
+        event = "upload";
+        content = read(report);
+        return new ForwardResolution("/uploaded.jsp");
+    }
+
+    /** A POST whose body is a multipart/form-data request. */
+    public static class MultipartRequest extends MockHttpServletRequest {
+        private final byte[] body;
+
+        public MultipartRequest(String body) throws IOException {
+            this("/test", "/upload.action", body);
+        }
+
+        public MultipartRequest(String contextPath, String servletPath, String body)
+                throws IOException {
+            super(contextPath, servletPath);
+            this.body = body.replace("\n", "\r\n").getBytes("ISO-8859-1");
+            setMethod("POST");
+        }
+
+        @Override
+        public String getContentType() {
+            return "multipart/form-data; boundary=" + BOUNDARY;
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            final InputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return in.read();
+                }
+            };
+        }
+    }
+
+    /** Build the body of a request from parts, each given as a header line and content. */
+    protected String body(String... parts) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < parts.length; i += 2) {
+            buf.append("--").append(BOUNDARY).append('\n');
+            buf.append("Content-Disposition: form-data; ").append(parts[i]).append("\n\n");
+            buf.append(parts[i + 1]).append('\n');
+        }
+        return buf.append("--").append(BOUNDARY).append("--\n").toString();
+    }
+
+    protected String read(FileBean file) throws IOException {
+        InputStream in = file.getInputStream();
+        StringBuilder buf = new StringBuilder();
+        for (int b; (b = in.read()) >= 0;)
+            buf.append((char) b);
+        in.close();
+        return buf.toString();
+    }
+
+    @Test(groups = "fast")
+    public void testFieldsAndFile() throws Exception {
+        StreamingMultipartWrapper wrapper = new StreamingMultipartWrapper();
+        wrapper.build(new MultipartRequest(body(
+                "name=\"title\"", "Quarterly report",
+                "name=\"tag\"", "a",
+                "name=\"tag\"", "b",
+                "name=\"empty\"; filename=\"\"", "",
+                "name=\"after\"", "still read",
+                "name=\"report\"; filename=\"C:\\reports\\q1.txt\"\nContent-Type: text/plain",
+                "line 1\nline 2")), null, 1024 * 1024);
+
+        Assert.assertEquals(wrapper.getParameterValues("title"), new String[] { "Quarterly report" });
+        Assert.assertEquals(wrapper.getParameterValues("tag"), new String[] { "a", "b" });
+        Assert.assertEquals(wrapper.getParameterValues("after"), new String[] { "still read" });
+        Assert.assertEquals(Collections.list(wrapper.getFileParameterNames()),
+                Collections.singletonList("report"));
+        Assert.assertNull(wrapper.getFileParameterValue("empty"));
+
+        FileBean file = wrapper.getFileParameterValue("report");
+        Assert.assertEquals(file.getFileName(), "q1.txt");
+        Assert.assertEquals(file.getContentType(), "text/plain");
+        Assert.assertEquals(read(file), "line 1\r\nline 2");
+    }
+
+    @Test(groups = "fast", expectedExceptions = IOException.class)
+    public void testFileCanBeReadOnce() throws Exception {
+        StreamingMultipartWrapper wrapper = new StreamingMultipartWrapper();
+        wrapper.build(new MultipartRequest(body("name=\"f\"; filename=\"f.txt\"", "data")), null,
+                1024 * 1024);
+        FileBean file = wrapper.getFileParameterValue("f");
+        Assert.assertEquals(read(file), "data");
+        file.getInputStream();
+    }
+
+    @Test(groups = "fast", expectedExceptions = FileUploadLimitExceededException.class)
+    public void testSizeLimit() throws Exception {
+        new StreamingMultipartWrapper().build(new MultipartRequest(body("name=\"f\"", "data")),
+                null, 10);
+    }
+
+    @Test(groups = "fast", expectedExceptions = IOException.class)
+    public void testPartsAfterFileAreRejected() throws Exception {
+        StreamingMultipartWrapper wrapper = new StreamingMultipartWrapper();
+        wrapper.build(new MultipartRequest(body(
+                "name=\"f\"; filename=\"f.txt\"", "data",
+                "name=\"after\"", "too late")), null, 1024 * 1024);
+        read(wrapper.getFileParameterValue("f"));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Round trips through the Stripes filter
+    ///////////////////////////////////////////////////////////////////////////
+
+    private MockServletContext ctx;
+
+    @BeforeClass
+    public void setupServletContext() {
+        Map<String, String> params = StripesTestFixture.getDefaultFilterParams();
+        params.put(DefaultMultipartWrapperFactory.WRAPPER_CLASS_NAME,
+                StreamingMultipartWrapper.class.getName());
+        ctx = new MockServletContext("upload").addFilter(StripesFilter.class, "StripesFilter",
+                params).setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void closeServletContext() {
+        ctx.close();
+    }
+
+    /** A round trip that submits a multipart request with the given parts. */
+    private class MultipartRoundtrip extends MockRoundtrip {
+        MultipartRoundtrip(String... parts) throws IOException {
+            super(ctx, StreamingMultipartWrapperTests.class);
+            setRequest(new MultipartRequest(getRequest().getContextPath(), getRequest()
+                    .getServletPath(), body(parts)));
+        }
+    }
+
+    /** The parts of the hidden fields written by the form tag, with notify as a checkbox. */
+    private String[] hiddenFields() {
+        return new String[] {
+                "name=\"" + StripesConstants.URL_KEY_SOURCE_PAGE + "\"",
+                CryptoUtil.encrypt("/upload.jsp"),
+                "name=\"" + StripesConstants.URL_KEY_FIELDS_PRESENT + "\"",
+                CryptoUtil.encrypt("notify") };
+    }
+
+    /** Join arrays of parts. */
+    private String[] parts(String[]... arrays) {
+        int length = 0;
+        for (String[] array : arrays)
+            length += array.length;
+        String[] parts = new String[length];
+        length = 0;
+        for (String[] array : arrays) {
+            System.arraycopy(array, 0, parts, length, array.length);
+            length += array.length;
+        }
+        return parts;
+    }
+
+    @Test(groups = "fast")
+    public void testFileAfterFormTagFields() throws Exception {
+        // The order in which a multipart stripes:form sends the fields, with the file last
+        MockRoundtrip trip = new MultipartRoundtrip(parts(hiddenFields(), new String[] {
+                "name=\"title\"", "Quarterly report",
+                "name=\"upload\"", "Upload",
+                "name=\"report\"; filename=\"q1.txt\"\nContent-Type: text/plain", "data" }));
+        trip.execute();
+
+        StreamingMultipartWrapperTests bean = trip.getActionBean(getClass());
+        Assert.assertEquals(bean.event, "upload");
+        Assert.assertEquals(bean.title, "Quarterly report");
+        Assert.assertFalse(bean.notify, "The fields present were not read");
+        Assert.assertEquals(bean.content, "data");
+        Assert.assertEquals(trip.getDestination(), "/uploaded.jsp");
+    }
+
+    @Test(groups = "fast")
+    public void testFieldsAfterFileAreRejected() throws Exception {
+        // The order in which stripes:form used to send the fields of a typical upload form
+        MockRoundtrip trip = new MultipartRoundtrip(parts(new String[] {
+                "name=\"report\"; filename=\"q1.txt\"\nContent-Type: text/plain", "data",
+                "name=\"upload\"", "Upload" }, hiddenFields()));
+        try {
+            trip.execute();
+            Assert.fail("Parts after the file were silently ignored");
+        }
+        catch (Exception e) {
+            Throwable cause = e;
+            while (!(cause instanceof IOException) && cause.getCause() != null)
+                cause = cause.getCause();
+            Assert.assertTrue(cause instanceof IOException, e.toString());
+            Assert.assertTrue(cause.getMessage().contains("field upload after the uploaded file "
+                    + "report"), cause.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package net.sourceforge.stripes.format;
 
+import java.util.Date;
 import java.util.Locale;
 
 import net.sourceforge.stripes.StripesTestFixture;
@@ -44,6 +45,52 @@ public class DefaultFormatterFactoryTest {
         Assert.assertEquals(CFormatter.class, formatter.getClass());
     }
 
+    @Test(groups = "fast")
+    public void testReleasedFormattersArePooled() throws Exception {
+        DefaultFormatterFactory factory = new DefaultFormatterFactory();
+        factory.init(StripesTestFixture.getDefaultConfiguration());
+
+        // A released formatter is handed out again, but only once and for the same format
+        Formatter<?> date = factory.getFormatter(Date.class, Locale.US, "date", "short");
+        factory.release(date, "date", "short", Locale.US);
+        Assert.assertNotSame(factory.getFormatter(Date.class, Locale.US, "date", "long"), date);
+        Assert.assertNotSame(factory.getFormatter(Date.class, Locale.FRANCE, "date", "short"), date);
+        Assert.assertSame(factory.getFormatter(Date.class, Locale.US, "date", "short"), date);
+        Assert.assertNotSame(factory.getFormatter(Date.class, Locale.US, "date", "short"), date);
+
+        // Formatters that are not built in are never pooled
+        factory.add(A.class, AFormatter.class);
+        Formatter<?> a = factory.getFormatter(A.class, Locale.US, null, null);
+        factory.release(a, null, null, Locale.US);
+        Assert.assertNotSame(factory.getFormatter(A.class, Locale.US, null, null), a);
+    }
+
+    @Test(groups = "fast")
+    public void testThreadSafeFormattersAreReused() throws Exception {
+        final DefaultFormatterFactory factory = new DefaultFormatterFactory();
+        factory.init(StripesTestFixture.getDefaultConfiguration());
+
+        // Thread-safe formatters are shared by all threads
+        Formatter<?> object = factory.getFormatter(Object.class, Locale.US, null, null);
+        Assert.assertSame(factory.getFormatter(Object.class, Locale.US, null, null), object);
+
+        // Other formatters are created anew every time
+        Formatter<?> date = factory.getFormatter(Date.class, Locale.US, "date", "short");
+        Assert.assertNotSame(factory.getFormatter(Date.class, Locale.US, "date", "short"), date);
+
+        final Formatter<?>[] other = new Formatter<?>[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                other[0] = factory.getFormatter(Object.class, Locale.US, null, null);
+            }
+        };
+        thread.start();
+        thread.join();
+        Assert.assertSame(other[0], object);
+        Assert.assertNotSame(factory.getFormatter(Object.class, Locale.FRANCE, null, null), object);
+    }
+
     @Test(groups = "fast")
     public void testFormatterInterface() throws Exception {
         DefaultFormatterFactory factory = new DefaultFormatterFactory();
@@ -351,4 +351,49 @@ public class SpringHelperTests {
         Assert.assertNotNull(target.getD1());
         Assert.assertNotNull(target.getD2());
     }
-}
\ No newline at end of file
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    /** Counts the beans looked up by name and type. */
+    public static class CountingContext extends StaticWebApplicationContext {
+        int lookups;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object getBean(String name, Class requiredType) {
+            ++lookups;
+            return super.getBean(name, requiredType);
+        }
+    }
+
+    private static class ScopedTarget {
+        @SpringBean("test/TestBean") private TestBean singleton;
+        @SpringBean private TestActionBean prototype;
+    }
+
+    @Test(groups = "fast")
+    public void testSingletonsAreCachedInInjectionPlan() {
+        CountingContext counting = new CountingContext();
+        counting.registerSingleton("test/TestBean", TestBean.class);
+        counting.registerPrototype("test/testActionBean", TestActionBean.class);
+
+        // The prototype is found by type, but only fetched when it is injected
+        ScopedTarget first = new ScopedTarget();
+        SpringHelper.injectBeans(first, counting);
+        Assert.assertNotNull(first.singleton);
+        Assert.assertNotNull(first.prototype);
+        int lookups = counting.lookups;
+        Assert.assertEquals(lookups, 2, "Each bean should be fetched once");
+
+        ScopedTarget second = new ScopedTarget();
+        SpringHelper.injectBeans(second, counting);
+        Assert.assertEquals(counting.lookups, lookups + 1, "Only the prototype should be looked up");
+        Assert.assertSame(second.singleton, first.singleton);
+        Assert.assertNotSame(second.prototype, first.prototype);
+
+        // Clearing the plans forces the beans to be looked up again
+        SpringHelper.clearInjectionPlans();
+        SpringHelper.injectBeans(new ScopedTarget(), counting);
+        Assert.assertEquals(counting.lookups, lookups * 2 + 1);
+    }
+}
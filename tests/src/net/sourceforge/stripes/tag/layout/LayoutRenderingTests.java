@@ -0,0 +1,346 @@
+package net.sourceforge.stripes.tag.layout;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.jsp.tagext.BodyTag;
+import javax.servlet.jsp.tagext.IterationTag;
+import javax.servlet.jsp.tagext.Tag;
+import javax.servlet.jsp.tagext.TryCatchFinally;
+
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that layouts rendered in a single pass (see {@link LayoutContext#SINGLE_PASS}) produce
+ * exactly the same output as layouts rendered in multiple passes. The pages are trees of layout
+ * tags and text that are run the way a JSP container would run them.
+ */
+public class LayoutRenderingTests {
+    private static final String PAGE = "/page.jsp";
+
+    /** A node in the tree that stands in for a JSP. Returns false to skip the rest of the page. */
+    static abstract class Node {
+        abstract boolean run(MockPageContext pageContext, Tag parent) throws Exception;
+    }
+
+    /** Template text. */
+    static class Text extends Node {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        boolean run(MockPageContext pageContext, Tag parent) throws Exception {
+            pageContext.getOut().write(text);
+            return true;
+        }
+    }
+
+    /** A tag with a body, which is run as a JSP container would run it. */
+    static abstract class TagNode extends Node {
+        private final Node[] body;
+
+        TagNode(Node... body) {
+            this.body = body;
+        }
+
+        /** Create the tag and set its attributes after its page context and parent are set. */
+        abstract Tag create(MockPageContext pageContext, Tag parent);
+
+        @Override
+        boolean run(MockPageContext pageContext, Tag parent) throws Exception {
+            Tag tag = create(pageContext, parent);
+            try {
+                int start = tag.doStartTag();
+                if (start != Tag.SKIP_BODY) {
+                    boolean buffered = start == BodyTag.EVAL_BODY_BUFFERED;
+                    if (buffered) {
+                        ((BodyTag) tag).setBodyContent(pageContext.pushBody());
+                        ((BodyTag) tag).doInitBody();
+                    }
+                    do {
+                        for (Node node : body) {
+                            if (!node.run(pageContext, tag))
+                                return false;
+                        }
+                    } while (tag instanceof IterationTag
+                            && ((IterationTag) tag).doAfterBody() == IterationTag.EVAL_BODY_AGAIN);
+                    if (buffered)
+                        pageContext.popBody();
+                }
+                return tag.doEndTag() != Tag.SKIP_PAGE;
+            }
+            finally {
+                if (tag instanceof TryCatchFinally)
+                    ((TryCatchFinally) tag).doFinally();
+            }
+        }
+    }
+
+    /** A page made of nodes that can be included by the layout tags. */
+    static class NodePage implements MockPageContext.Page {
+        private final Node[] nodes;
+
+        NodePage(Node... nodes) {
+            this.nodes = nodes;
+        }
+
+        public void service(MockPageContext pageContext) throws Exception {
+            for (Node node : nodes) {
+                if (!node.run(pageContext, null))
+                    break;
+            }
+        }
+    }
+
+    static Node text(String text) {
+        return new Text(text);
+    }
+
+    static Node render(final String name, Node... body) {
+        return new TagNode(body) {
+            @Override
+            Tag create(MockPageContext pageContext, Tag parent) {
+                LayoutRenderTag tag = new LayoutRenderTag();
+                tag.setPageContext(pageContext);
+                tag.setParent(parent);
+                tag.setName(name);
+                return tag;
+            }
+        };
+    }
+
+    static Node component(final String name, Node... body) {
+        return new TagNode(body) {
+            @Override
+            Tag create(MockPageContext pageContext, Tag parent) {
+                LayoutComponentTag tag = new LayoutComponentTag();
+                tag.setParent(parent);
+                tag.setPageContext(pageContext);
+                tag.setName(name);
+                return tag;
+            }
+        };
+    }
+
+    static Node definition(Node... body) {
+        return new TagNode(body) {
+            @Override
+            Tag create(MockPageContext pageContext, Tag parent) {
+                LayoutDefinitionTag tag = new LayoutDefinitionTag();
+                tag.setParent(parent);
+                tag.setPageContext(pageContext);
+                return tag;
+            }
+        };
+    }
+
+    /** Render a page, which may include the other pages, in either mode. */
+    protected String renderPage(boolean singlePass, NodePage page, Map<String, NodePage> includes)
+            throws Exception {
+        MockServletContext servletContext = new MockServletContext("test");
+        try {
+            servletContext.setAttribute(LayoutContext.SINGLE_PASS_KEY, singlePass);
+            MockHttpServletRequest request = new MockHttpServletRequest("/test", PAGE);
+            MockPageContext pageContext = new MockPageContext(servletContext, request,
+                    new MockHttpServletResponse());
+            pageContext.addPage(PAGE, page);
+            for (Map.Entry<String, NodePage> entry : includes.entrySet())
+                pageContext.addPage(entry.getKey(), entry.getValue());
+            page.service(pageContext);
+            return pageContext.getOutput();
+        }
+        finally {
+            servletContext.close();
+        }
+    }
+
+    /** Render a page in both modes, check that the output is the same and return it. */
+    protected String renderBoth(NodePage page, Map<String, NodePage> includes) throws Exception {
+        String multiPass = renderPage(false, page, includes);
+        String singlePass = renderPage(true, page, includes);
+        Assert.assertEquals(singlePass, multiPass);
+        return multiPass;
+    }
+
+    @Test(groups = "fast")
+    public void testFlatLayout() throws Exception {
+        Map<String, NodePage> includes = new LinkedHashMap<String, NodePage>();
+        includes.put("/layout.jsp", new NodePage(definition(
+                text("<html><head><title>"),
+                component("title", text("Default title")),
+                text("</title></head><body>"),
+                component("body"),
+                text("</body></html>"))));
+        NodePage page = new NodePage(
+                text("before\n"),
+                render("/layout.jsp",
+                        text("ignored"),
+                        component("title", text("Page title")),
+                        component("body", text("<p>Page body</p>"))),
+                text("\nafter"));
+
+        String output = renderBoth(page, includes);
+        Assert.assertEquals(output, "before\n<html><head><title>Page title</title></head>"
+                + "<body><p>Page body</p></body></html>\nafter");
+    }
+
+    @Test(groups = "fast")
+    public void testDefaultContent() throws Exception {
+        Map<String, NodePage> includes = new LinkedHashMap<String, NodePage>();
+        includes.put("/layout.jsp", new NodePage(definition(
+                text("["),
+                component("a", text("default a")),
+                text("|"),
+                component("b", text("default b")),
+                text("|"),
+                component("c"),
+                text("]"))));
+
+        // Nothing overridden, and then only some of the components
+        Assert.assertEquals(renderBoth(new NodePage(render("/layout.jsp")), includes),
+                "[default a|default b|]");
+        Assert.assertEquals(renderBoth(new NodePage(render("/layout.jsp",
+                component("b", text("page b")))), includes), "[default a|page b|]");
+
+        // A component the layout does not have is not rendered
+        Assert.assertEquals(renderBoth(new NodePage(render("/layout.jsp",
+                component("c", text("page c")),
+                component("missing", text("page missing")))), includes),
+                "[default a|default b|page c]");
+    }
+
+    @Test(groups = "fast")
+    public void testNestedLayouts() throws Exception {
+        final int components = 4;
+        for (int depth = 1; depth <= 4; depth++) {
+            // The page overrides every component
+            List<Node> nodes = new ArrayList<Node>();
+            for (int i = 0; i < components; i++)
+                nodes.add(component("c" + i, text("<p>Component " + i + " of the page</p>")));
+            NodePage page = new NodePage(render("/level0.jsp", nodes.toArray(new Node[0])));
+
+            // Each layout but the last wraps every component and passes it to the next layout
+            Map<String, NodePage> includes = new LinkedHashMap<String, NodePage>();
+            for (int level = 0; level < depth - 1; level++) {
+                nodes.clear();
+                for (int i = 0; i < components; i++) {
+                    nodes.add(component("c" + i, text("<div class=\"level" + level + "\">"),
+                            component("c" + i), text("</div>")));
+                }
+                includes.put("/level" + level + ".jsp", new NodePage(definition(render("/level"
+                        + (level + 1) + ".jsp", nodes.toArray(new Node[0])))));
+            }
+
+            // The last layout lays out the components
+            nodes.clear();
+            for (int i = 0; i < components; i++) {
+                nodes.add(text("<section>"));
+                nodes.add(component("c" + i, text("Default " + i)));
+                nodes.add(text("</section>"));
+            }
+            includes.put("/level" + (depth - 1) + ".jsp", new NodePage(definition(nodes
+                    .toArray(new Node[0]))));
+
+            String output = renderBoth(page, includes);
+            Assert.assertTrue(output.contains("Component " + (components - 1) + " of the page"),
+                    output);
+            if (depth > 1)
+                Assert.assertTrue(output.contains("class=\"level" + (depth - 2) + "\""), output);
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testLayoutExtendingLayout() throws Exception {
+        Map<String, NodePage> includes = new LinkedHashMap<String, NodePage>();
+        includes.put("/base.jsp", new NodePage(definition(
+                text("<base>"),
+                component("header", text("base header")),
+                component("body"),
+                component("footer", text("base footer")),
+                text("</base>"))));
+        includes.put("/section.jsp", new NodePage(definition(render("/base.jsp",
+                component("header", text("section header")),
+                component("body", text("<section>"), component("body"), text("</section>"))))));
+        NodePage page = new NodePage(render("/section.jsp",
+                component("body", text("page body")),
+                component("footer", text("page footer"))));
+
+        // Components of the page pass through to the layout that the section layout extends
+        Assert.assertEquals(renderBoth(page, includes),
+                "<base>section header<section>page body</section>page footer</base>");
+    }
+
+    @Test(groups = "fast")
+    public void testComponentsNestedInComponents() throws Exception {
+        Map<String, NodePage> includes = new LinkedHashMap<String, NodePage>();
+        includes.put("/layout.jsp", new NodePage(definition(
+                text("<header>"),
+                component("header",
+                        text("default header with "),
+                        component("title", text("default title"))),
+                text("</header><main>"),
+                component("body", text("default body")),
+                text("</main>"))));
+        includes.put("/box.jsp", new NodePage(definition(
+                text("<box>"),
+                component("inner", text("default inner")),
+                text("|"),
+                component("other", text("default other")),
+                text("</box>"))));
+
+        // The body of the page renders another layout inside a component
+        NodePage page = new NodePage(render("/layout.jsp",
+                component("title", text("page title")),
+                component("body",
+                        text("body start "),
+                        render("/box.jsp", component("inner", text("page inner"))),
+                        text(" body end"))));
+
+        Assert.assertEquals(renderBoth(page, includes), "<header>default header with page title"
+                + "</header><main>body start <box>page inner|default other</box> body end</main>");
+    }
+
+    @Test(groups = "fast")
+    public void testModeIsNotCachedWithoutConfiguration() throws Exception {
+        // Only meaningful if no other test has left a Stripes configuration around
+        try {
+            if (StripesFilter.getConfiguration() != null)
+                return;
+        }
+        catch (StripesRuntimeException e) {
+            // Expected: Stripes is not installed
+        }
+
+        // Stripes is not installed, so the layout is rendered in multiple passes
+        MockServletContext servletContext = new MockServletContext("unconfigured");
+        try {
+            MockHttpServletRequest request = new MockHttpServletRequest("/unconfigured", PAGE);
+            MockPageContext pageContext = new MockPageContext(servletContext, request,
+                    new MockHttpServletResponse());
+            NodePage page = new NodePage(render("/layout.jsp", component("a", text("page a"))));
+            pageContext.addPage(PAGE, page);
+            pageContext.addPage("/layout.jsp", new NodePage(definition(text("["),
+                    component("a"), text("]"))));
+            page.service(pageContext);
+            Assert.assertEquals(pageContext.getOutput(), "[page a]");
+
+            // But that is not remembered in case Stripes is initialized later
+            Assert.assertNull(servletContext.getAttribute(LayoutContext.SINGLE_PASS_KEY));
+        }
+        finally {
+            servletContext.close();
+        }
+    }
+}
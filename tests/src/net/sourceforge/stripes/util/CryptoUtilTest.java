@@ -1,5 +1,6 @@
 package net.sourceforge.stripes.util;
 
+import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 
@@ -60,6 +61,7 @@ public class CryptoUtilTest {
     @Test(groups="fast")
     public void replacementKeyTest() throws Exception {
         SecretKey oldKey = CryptoUtil.getSecretKey(); // cache the old key
+        CryptoEngine oldEngine = CryptoUtil.getCryptoEngine();
 
         try {
             KeyGenerator gen = KeyGenerator.getInstance("AES");
@@ -73,7 +75,91 @@ public class CryptoUtilTest {
         }
         finally {
             CryptoUtil.setSecretKey(oldKey);
+            CryptoUtil.setCryptoEngine(oldEngine);
         }
     }
 
+    /** Encrypts a value exactly the way CryptoUtil did before it supported AES-GCM. */
+    protected String encryptLegacy(String input) throws Exception {
+        SecretKey key = CryptoUtil.getSecretKey();
+        Cipher cipher = Cipher.getInstance(key.getAlgorithm());
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+        byte[] inbytes = input.getBytes();
+        byte[] output = new byte[cipher.getOutputSize(4 + inbytes.length)];
+        byte[] nonce = CryptoUtil.nextNonce();
+        byte[] hash = CryptoUtil.generateHashCode(nonce, inbytes);
+        int index = cipher.update(hash, 0, 2, output, 0);
+        index = cipher.update(nonce, 0, 2, output, index);
+        cipher.doFinal(inbytes, 0, inbytes.length, output, index);
+        return Base64.encodeBytes(output, Base64.URL_SAFE | Base64.DONT_BREAK_LINES);
+    }
+
+    @Test(groups = "fast")
+    public void decryptLegacyValueTest() throws Exception {
+        String input = "/WEB-INF/jsp/legacy/sourcePage.jsp";
+        String legacy = encryptLegacy(input);
+        Assert.assertEquals(CryptoUtil.decrypt(legacy), input);
+        Assert.assertEquals(CryptoUtil.decrypt(encryptLegacy("")), "");
+    }
+
+    @Test(groups = "fast")
+    public void defaultOutputIsLegacyFormatTest() throws Exception {
+        // Nodes running an earlier release must be able to decrypt what this one encrypts
+        String input = "/WEB-INF/jsp/rolling/upgrade.jsp";
+        byte[] bytes = Base64.decode(CryptoUtil.encrypt(input), Base64.URL_SAFE
+                | Base64.DONT_BREAK_LINES);
+        byte[] output = new CipherCryptoEngine(CryptoUtil.getSecretKey()).decrypt(bytes);
+        Assert.assertNotNull(output);
+        Assert.assertEquals(new String(output), input);
+    }
+
+    @Test(groups = "fast")
+    public void decryptAesGcmValueTest() throws Exception {
+        if (!AesGcmCryptoEngine.isAvailable())
+            return;
+
+        // Values from nodes that have AES-GCM enabled are accepted even though it is not enabled here
+        AesGcmCryptoEngine engine = (AesGcmCryptoEngine) CryptoUtil.getCryptoEngine();
+        Assert.assertTrue(engine.isEncryptWithFallback());
+        String input = "/WEB-INF/jsp/rolling/upgrade.jsp";
+        byte[] bytes = new AesGcmCryptoEngine(engine.getSecretKey(), null).encrypt(input
+                .getBytes());
+        String encrypted = Base64.encodeBytes(bytes, Base64.URL_SAFE | Base64.DONT_BREAK_LINES);
+        Assert.assertEquals(CryptoUtil.decrypt(encrypted), input);
+    }
+
+    @Test(groups = "fast")
+    public void decryptTamperedInputTest() throws Exception {
+        String input = "A string that must not be altered";
+        byte[] bytes = Base64.decode(CryptoUtil.encrypt(input), Base64.URL_SAFE
+                | Base64.DONT_BREAK_LINES);
+        bytes[bytes.length / 2] ^= 0x01;
+        String tampered = Base64.encodeBytes(bytes, Base64.URL_SAFE | Base64.DONT_BREAK_LINES);
+        Assert.assertNull(CryptoUtil.decrypt(tampered), "Decrypting a tampered input should give back null.");
+    }
+
+    @Test(groups = "fast")
+    public void concurrentEncryptionTest() throws Exception {
+        final String[] failure = new String[1];
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int id = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        String input = "thread " + id + " value " + j;
+                        String output = CryptoUtil.decrypt(CryptoUtil.encrypt(input));
+                        if (!input.equals(output))
+                            failure[0] = input + " came back as " + output;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        Assert.assertNull(failure[0], failure[0]);
+    }
+
 }
@@ -6,10 +6,21 @@ import net.sourceforge.stripes.validation.LocalizableError;
 import net.sourceforge.stripes.validation.ScopedLocalizableError;
 import net.sourceforge.stripes.validation.SimpleError;
 import net.sourceforge.stripes.validation.TypeConverter;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.controller.FlashScopeTests;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
 
 /**
  * Simple test case that tets out the basic functionality of the Resolver Util class.
@@ -86,4 +97,101 @@ public class ResolverUtilTest {
         Assert.assertTrue(impls.size() == 1 && impls.contains(ZeroImplementations.class),
                           "There should not have been any implementations besides the interface itself.");
     }
+
+    /** Wraps a test so that the class file pre-filter is not used. */
+    private static ResolverUtil.Test withoutPreFilter(final ResolverUtil.Test test) {
+        return new ResolverUtil.Test() {
+            public boolean matches(Class<?> type) {
+                return test.matches(type);
+            }
+        };
+    }
+
+    @Test(groups="fast")
+    public void testReadClassFileInfo() throws Exception {
+        ResolverUtil<Object> resolver = new ResolverUtil<Object>();
+        ClassFileInfo info = resolver.getClassFileInfo(BooleanTypeConverter.class.getName());
+        Assert.assertEquals(info.getName(), BooleanTypeConverter.class.getName());
+        Assert.assertEquals(info.getSuperclassName(), Object.class.getName());
+        Assert.assertTrue(info.hasDirectSupertype(TypeConverter.class.getName()));
+        Assert.assertFalse(info.isInterface());
+
+        info = resolver.getClassFileInfo(FlashScopeTests.class.getName());
+        Assert.assertTrue(info.hasAnnotation(UrlBinding.class.getName()));
+        Assert.assertTrue(info.hasDirectSupertype(ActionBean.class.getName()));
+
+        info = resolver.getClassFileInfo(UrlBinding.class.getName());
+        Assert.assertTrue(info.isInterface());
+        Assert.assertTrue(info.isAnnotation());
+
+        Assert.assertNull(resolver.getClassFileInfo("net.sourceforge.stripes.NoSuchClass"));
+    }
+
+    @Test(groups="fast")
+    public void testPreFilterFindsSameClasses() throws Exception {
+        String pkg = "net.sourceforge.stripes";
+        ResolverUtil.Test[] tests = { new ResolverUtil.IsA(TypeConverter.class),
+                new ResolverUtil.IsA(SimpleError.class), new ResolverUtil.IsA(Runnable.class),
+                new ResolverUtil.AnnotatedWith(UrlBinding.class) };
+        for (ResolverUtil.Test test : tests) {
+            Set<Class<?>> filtered = new ResolverUtil<Object>().find(test, pkg).getClasses();
+            Set<Class<?>> loaded = new ResolverUtil<Object>().find(withoutPreFilter(test), pkg)
+                    .getClasses();
+            Assert.assertFalse(filtered.isEmpty(), "Nothing found " + test);
+            Assert.assertEquals(filtered, loaded, "Different classes found " + test);
+        }
+    }
+
+    @Test(groups="fast")
+    public void testClassFileIndex() throws Exception {
+        File directory = File.createTempFile("stripes-index", "");
+        directory.delete();
+        File jar = File.createTempFile("stripes-test", ".jar");
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            // Put a few converters in a JAR
+            JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+            String dir = "";
+            for (String segment : "net/sourceforge/stripes/validation".split("/")) {
+                dir = dir + segment + "/";
+                out.putNextEntry(new ZipEntry(dir));
+            }
+            for (Class<?> type : Arrays.asList(BooleanTypeConverter.class, DateTypeConverter.class)) {
+                String name = type.getName().replace('.', '/') + ".class";
+                out.putNextEntry(new ZipEntry(name));
+                InputStream in = contextClassLoader.getResourceAsStream(name);
+                for (int b; (b = in.read()) >= 0;)
+                    out.write(b);
+                in.close();
+            }
+            out.close();
+
+            ClassLoader loader = new URLClassLoader(new URL[] { jar.toURI().toURL() },
+                    contextClassLoader);
+            Thread.currentThread().setContextClassLoader(loader);
+            ResolverUtil.setIndexDirectory(directory);
+
+            String pkg = "net.sourceforge.stripes.validation";
+            Set<Class<? extends TypeConverter<?>>> first = new ResolverUtil<TypeConverter<?>>()
+                    .findImplementations(TypeConverter.class, pkg).getClasses();
+            Assert.assertNotNull(new ClassFileIndex(directory).get(jar, pkg.replace('.', '/')),
+                    "Index entry was not written");
+
+            Set<Class<? extends TypeConverter<?>>> second = new ResolverUtil<TypeConverter<?>>()
+                    .findImplementations(TypeConverter.class, pkg).getClasses();
+            Assert.assertTrue(first.contains(BooleanTypeConverter.class));
+            Assert.assertEquals(second, first);
+        }
+        finally {
+            ResolverUtil.setIndexDirectory(null);
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+            jar.delete();
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files)
+                    file.delete();
+            }
+            directory.delete();
+        }
+    }
 }
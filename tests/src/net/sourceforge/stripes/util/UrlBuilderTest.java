@@ -156,4 +156,19 @@ public class UrlBuilderTest extends FilterEnabledTestBase {
         Assert.assertTrue(result.contains("one=three"));
         Assert.assertTrue(result.contains("one=four"));
     }
+
+    @Test(groups="fast")
+    public void testTemplateIsReusedWithDifferentValues() throws Exception {
+        String path = "/foo/{id}/{$event}";
+        for (int i = 1; i <= 3; i++) {
+            UrlBuilder builder = new UrlBuilder(Locale.getDefault(), path, false);
+            builder.addParameter("id", i);
+            builder.addParameter("other", "value " + i);
+            Assert.assertEquals(builder.toString(), "/foo/" + i + "/bar?other=value+" + i);
+        }
+
+        UrlBuilder builder = new UrlBuilder(Locale.getDefault(), path, false);
+        builder.setEvent("baz");
+        Assert.assertEquals(builder.toString(), "/foo?baz=");
+    }
 }
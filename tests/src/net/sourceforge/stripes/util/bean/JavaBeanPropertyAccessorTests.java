@@ -0,0 +1,76 @@
+package net.sourceforge.stripes.util.bean;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the caching of {@link PropertyHandle}s by {@link JavaBeanPropertyAccessor}.
+ */
+public class JavaBeanPropertyAccessorTests {
+    public static class Bean {
+        private String name;
+        public final String constant = "constant";
+        public int count;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getReadOnly() { return "read only"; }
+    }
+
+    /** Counts the handles created by the default factory. */
+    public static class CountingFactory extends ReflectionPropertyHandleFactory {
+        int created;
+
+        @Override
+        public PropertyHandle createPropertyHandle(Class<?> beanClass, String property) {
+            ++created;
+            return super.createPropertyHandle(beanClass, property);
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreFactory() {
+        JavaBeanPropertyAccessor.setPropertyHandleFactory(null);
+    }
+
+    @Test(groups = "fast")
+    public void testHandlesAreCached() {
+        CountingFactory factory = new CountingFactory();
+        JavaBeanPropertyAccessor.setPropertyHandleFactory(factory);
+
+        Bean bean = new Bean();
+        for (int i = 0; i < 3; i++) {
+            BeanUtil.setPropertyValue("name", bean, "name" + i);
+            BeanUtil.setPropertyValue("count", bean, i);
+        }
+        Assert.assertEquals(BeanUtil.getPropertyValue("name", bean), "name2");
+        Assert.assertEquals(BeanUtil.getPropertyValue("count", bean), 2);
+        Assert.assertEquals(factory.created, 2);
+    }
+
+    @Test(groups = "fast")
+    public void testMissingPropertyIsCached() {
+        CountingFactory factory = new CountingFactory();
+        JavaBeanPropertyAccessor.setPropertyHandleFactory(factory);
+
+        JavaBeanPropertyAccessor accessor = new JavaBeanPropertyAccessor();
+        Assert.assertNull(accessor.getPropertyHandle(Bean.class, "missing"));
+        Assert.assertNull(accessor.getPropertyHandle(Bean.class, "missing"));
+        Assert.assertEquals(factory.created, 1);
+    }
+
+    @Test(groups = "fast", expectedExceptions = EvaluationException.class)
+    public void testReadOnlyProperty() {
+        Bean bean = new Bean();
+        Assert.assertEquals(BeanUtil.getPropertyValue("readOnly", bean), "read only");
+        BeanUtil.setPropertyValue("readOnly", bean, "changed");
+    }
+
+    @Test(groups = "fast", expectedExceptions = EvaluationException.class)
+    public void testFinalFieldIsNotWritable() {
+        Bean bean = new Bean();
+        Assert.assertEquals(BeanUtil.getPropertyValue("constant", bean), "constant");
+        BeanUtil.setPropertyValue("constant", bean, "changed");
+    }
+}
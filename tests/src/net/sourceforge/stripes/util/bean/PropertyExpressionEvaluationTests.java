@@ -328,5 +328,27 @@ public class PropertyExpressionEvaluationTests extends FilterEnabledTestBase {
         Assert.assertEquals(value, "SubWombat");
     }
 
+    @Test(groups="fast")
+    public void testEvaluateFromTemplate() throws Exception {
+        PropertyExpression expr = PropertyExpression.getExpression("listOfBeans[3].enumProperty");
+        EvaluationTemplate template = new PropertyExpressionEvaluation(expr, new TestActionBean()).getTemplate();
+        Assert.assertNotNull(template);
+
+        // Same structure, different index, different bean instance
+        TestActionBean bean = new TestActionBean();
+        expr = PropertyExpression.getExpression("listOfBeans[1].enumProperty");
+        PropertyExpressionEvaluation eval = new PropertyExpressionEvaluation(expr, bean, template);
+        Assert.assertEquals(eval.getType(), TestEnum.class);
+        eval.setValue(TestEnum.Fifth);
+        Assert.assertEquals(bean.getListOfBeans().get(1).getEnumProperty(), TestEnum.Fifth);
+    }
 
+    @Test(groups="fast")
+    public void testNoTemplateFromInstanceInfo() throws Exception {
+        Map<String,TestBean> map = new HashMap<String,TestBean>();
+        map.put("foo", new TestBean());
+        Map.Entry<String,TestBean> entry = map.entrySet().iterator().next();
+        PropertyExpression expr = PropertyExpression.getExpression("value.stringProperty");
+        Assert.assertNull(new PropertyExpressionEvaluation(expr, entry).getTemplate());
+    }
 }
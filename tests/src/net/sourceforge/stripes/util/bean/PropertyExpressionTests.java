@@ -116,4 +116,64 @@ public class PropertyExpressionTests {
         Assert.assertEquals(root.getNext().getStringValue(), "tRue");
         Assert.assertEquals(root.getNext().getTypedValue(), Boolean.TRUE);
     }
+
+    @Test(groups="fast")
+    public void testIndexesShareCacheEntry() {
+        PropertyExpression first = PropertyExpression.getExpression("cacheTest[1].items['a'].name");
+        long hits = PropertyExpression.getCacheHits();
+        long misses = PropertyExpression.getCacheMisses();
+
+        PropertyExpression expr = PropertyExpression.getExpression("cacheTest[-42].items[\"key\"].name");
+        Assert.assertEquals(PropertyExpression.getCacheHits(), hits + 1);
+        Assert.assertEquals(PropertyExpression.getCacheMisses(), misses);
+        Assert.assertEquals(expr.getSource(), "cacheTest[-42].items[\"key\"].name");
+
+        Node node = expr.getRootNode();
+        Assert.assertEquals(node.getStringValue(), "cacheTest");
+        node = node.getNext();
+        Assert.assertEquals(node.getStringValue(), "-42");
+        Assert.assertEquals(node.getTypedValue(), -42);
+        Assert.assertTrue(node.isBracketed());
+        node = node.getNext();
+        Assert.assertEquals(node.getStringValue(), "items");
+        node = node.getNext();
+        Assert.assertEquals(node.getStringValue(), "key");
+        Assert.assertEquals(node.getTypedValue(), "key");
+        node = node.getNext();
+        Assert.assertEquals(node.getStringValue(), "name");
+        Assert.assertSame(node.getPrevious().getPrevious().getPrevious().getPrevious(),
+                expr.getRootNode());
+        Assert.assertNull(node.getNext());
+
+        // the cached expression must not have been modified
+        Assert.assertEquals(first.getRootNode().getNext().getTypedValue(), 1);
+        Assert.assertEquals(first.getRootNode().getNext().getNext().getNext().getTypedValue(), 'a');
+    }
+
+    @Test(groups="fast")
+    public void testIndexesMatchParser() {
+        String[] expressions = { "matchTest[1]x", "matchTest.[2].y", "[3][4]", "matchTest['']",
+                "matchTest[\"a\"]", "matchTest[1234567890]", "matchTest[0x]", "matchTest[[5]]",
+                "matchTest.'q'[6]", "matchTest['b']]" };
+        for (String expression : expressions) {
+            // the first request parses the expression, the second is bound to the cached template
+            PropertyExpression parsed = PropertyExpression.getExpression(expression);
+            PropertyExpression expr = PropertyExpression.getExpression(expression);
+            Node a = expr.getRootNode(), b = parsed.getRootNode();
+            for (; a != null && b != null; a = a.getNext(), b = b.getNext()) {
+                Assert.assertEquals(a.getStringValue(), b.getStringValue(), expression);
+                Assert.assertEquals(a.getTypedValue(), b.getTypedValue(), expression);
+                Assert.assertEquals(a.isBracketed(), b.isBracketed(), expression);
+            }
+            Assert.assertNull(a, expression);
+            Assert.assertNull(b, expression);
+        }
+    }
+
+    @Test(groups="fast")
+    public void testCacheIsBounded() {
+        for (int i = 0; i < PropertyExpression.getCacheCapacity() * 3; ++i)
+            PropertyExpression.getExpression("cacheTest" + i + ".name");
+        Assert.assertTrue(PropertyExpression.getCacheSize() <= PropertyExpression.getCacheCapacity() + 1);
+    }
 }
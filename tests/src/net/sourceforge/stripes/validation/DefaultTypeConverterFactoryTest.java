@@ -73,4 +73,62 @@ public class DefaultTypeConverterFactoryTest {
         checkTypeConverter(factory, E.class, AnnTC.class);
         checkTypeConverter(factory, F.class, AnnTC.class);
     }
+
+    /** Returns the converter for a type as seen from a different thread than the caller's. */
+    protected TypeConverter<?> getTypeConverterInOtherThread(final TypeConverterFactory factory,
+            final Class<?> targetType, final Locale locale) throws Exception {
+        final TypeConverter<?>[] result = new TypeConverter<?>[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    result[0] = factory.getTypeConverter(targetType, locale);
+                }
+                catch (Exception e) {
+                    log.error(e);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        return result[0];
+    }
+
+    @Test(groups = "fast")
+    public void testThreadSafeTypeConvertersAreReused() throws Exception {
+        DefaultTypeConverterFactory factory = new DefaultTypeConverterFactory();
+        factory.init(StripesTestFixture.getDefaultConfiguration());
+
+        // Thread-safe converters are shared by all threads
+        TypeConverter<?> string = factory.getTypeConverter(String.class, Locale.US);
+        Assert.assertSame(factory.getTypeConverter(String.class, Locale.US), string);
+        Assert.assertSame(getTypeConverterInOtherThread(factory, String.class, Locale.US), string);
+
+        // Other converters are created anew every time
+        TypeConverter<?> integer = factory.getTypeConverter(Integer.class, Locale.US);
+        Assert.assertNotNull(integer);
+        Assert.assertNotSame(factory.getTypeConverter(Integer.class, Locale.US), integer);
+
+        // Converters for different locales are never the same
+        Assert.assertNotSame(factory.getTypeConverter(String.class, Locale.FRANCE), string);
+    }
+
+    @Test(groups = "fast")
+    public void testReleasedTypeConvertersArePooled() throws Exception {
+        DefaultTypeConverterFactory factory = new DefaultTypeConverterFactory();
+        factory.init(StripesTestFixture.getDefaultConfiguration());
+
+        // A released converter is handed out again, but only once and for the same locale
+        TypeConverter<?> integer = factory.getTypeConverter(Integer.class, Locale.US);
+        factory.release(integer, Locale.US);
+        Assert.assertNotSame(factory.getTypeConverter(Integer.class, Locale.FRANCE), integer);
+        Assert.assertSame(getTypeConverterInOtherThread(factory, Integer.class, Locale.US), integer);
+        Assert.assertNotSame(factory.getTypeConverter(Integer.class, Locale.US), integer);
+
+        // Converters that are not built in are never pooled
+        factory.add(A.class, ATC.class);
+        TypeConverter<?> a = factory.getTypeConverter(A.class, Locale.US);
+        factory.release(a, Locale.US);
+        Assert.assertNotSame(factory.getTypeConverter(A.class, Locale.US), a);
+    }
 }
@@ -0,0 +1,84 @@
+package net.sourceforge.stripes.validation.expression;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.jsp.el.ELException;
+import javax.servlet.jsp.el.Expression;
+import javax.servlet.jsp.el.ExpressionEvaluator;
+import javax.servlet.jsp.el.FunctionMapper;
+import javax.servlet.jsp.el.VariableResolver;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.controller.ParameterName;
+import net.sourceforge.stripes.validation.ValidationErrors;
+import net.sourceforge.stripes.validation.ValidationMetadata;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link ExpressionExecutorSupport} parses each validation expression only once.
+ */
+@SuppressWarnings("deprecation")
+public class ExpressionExecutorSupportTests {
+    public static class Bean implements ActionBean {
+        public ActionBeanContext getContext() { return null; }
+        public void setContext(ActionBeanContext context) { }
+    }
+
+    /** Parses any expression into one that checks that the value is a positive number. */
+    public static class CountingExecutor extends ExpressionExecutorSupport {
+        int parsed;
+
+        @Override
+        protected ExpressionEvaluator getEvaluator() {
+            return new ExpressionEvaluator() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Expression parseExpression(String expression, Class expectedType,
+                        FunctionMapper fMapper) {
+                    ++parsed;
+                    return new Expression() {
+                        @Override
+                        public Object evaluate(VariableResolver resolver) throws ELException {
+                            return ((Integer) resolver.resolveVariable(SELF)) > 0;
+                        }
+                    };
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object evaluate(String expression, Class expectedType,
+                        VariableResolver vResolver, FunctionMapper fMapper) throws ELException {
+                    return parseExpression(expression, expectedType, fMapper).evaluate(vResolver);
+                }
+            };
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testExpressionIsParsedOnce() {
+        CountingExecutor executor = new CountingExecutor();
+        ValidationMetadata metadata = new ValidationMetadata("rows.quantity")
+                .expression("${self > 0}");
+        List<Object> values = Arrays.<Object> asList(1, -1);
+
+        for (int i = 0; i < 3; ++i) {
+            ValidationErrors errors = new ValidationErrors();
+            executor.evaluate(new Bean(), new ParameterName("rows[" + i + "].quantity"), values,
+                    metadata, errors);
+            Assert.assertEquals(errors.size(), 1);
+        }
+        Assert.assertEquals(executor.parsed, 1);
+
+        // A different expression for the same property replaces the cached one
+        metadata = new ValidationMetadata("rows.quantity").expression("${self >= 0}");
+        executor.evaluate(new Bean(), new ParameterName("rows[0].quantity"), values, metadata,
+                new ValidationErrors());
+        executor.evaluate(new Bean(), new ParameterName("rows[0].quantity"), values, metadata,
+                new ValidationErrors());
+        Assert.assertEquals(executor.parsed, 2);
+    }
+}